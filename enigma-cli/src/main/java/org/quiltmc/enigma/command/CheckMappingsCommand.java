@@ -4,7 +4,6 @@ import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.PackageVisibilityIndex;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
-import org.quiltmc.enigma.command.ArgsParser.Empty;
 import org.quiltmc.enigma.command.CheckMappingsCommand.Required;
 import org.tinylog.Logger;
 
@@ -15,16 +14,21 @@ import java.util.stream.Collectors;
 import static org.quiltmc.enigma.command.CommonArguments.INPUT_JAR;
 import static org.quiltmc.enigma.command.CommonArguments.INPUT_MAPPINGS;
 
-public final class CheckMappingsCommand extends Command<Required, Empty> {
+public final class CheckMappingsCommand extends Command<Required, Boolean> {
+	private static final Argument<Boolean> FAIL_FAST = Argument.ofBool("fail-fast",
+			"""
+					Whether to stop at the first classes found in the wrong package instead of reporting all of them, for use in CI. Allowed values are "true" and "false"."""
+	);
+
 	public static final CheckMappingsCommand INSTANCE = new CheckMappingsCommand();
 
 	private CheckMappingsCommand() {
-		super(ArgsParser.of(INPUT_JAR, INPUT_MAPPINGS, Required::new), Empty.PARSER);
+		super(ArgsParser.of(INPUT_JAR, INPUT_MAPPINGS, Required::new), ArgsParser.of(FAIL_FAST));
 	}
 
 	@Override
-	void runImpl(Required required, Empty optional) throws Exception {
-		run(required.inputJar, required.inputMappings);
+	void runImpl(Required required, Boolean failFast) throws Exception {
+		run(required.inputJar, required.inputMappings, Boolean.TRUE.equals(failFast));
 	}
 
 	@Override
@@ -38,6 +42,10 @@ public final class CheckMappingsCommand extends Command<Required, Empty> {
 	}
 
 	public static void run(Path fileJarIn, Path fileMappings) throws Exception {
+		run(fileJarIn, fileMappings, false);
+	}
+
+	public static void run(Path fileJarIn, Path fileMappings, boolean failFast) throws Exception {
 		EnigmaProject project = openProject(fileJarIn, fileMappings);
 		JarIndex idx = project.getJarIndex();
 
@@ -57,6 +65,10 @@ public final class CheckMappingsCommand extends Command<Required, Empty> {
 						.sorted()
 						.collect(Collectors.joining("\n"))
 				);
+
+				if (failFast) {
+					break;
+				}
 			}
 		}
 
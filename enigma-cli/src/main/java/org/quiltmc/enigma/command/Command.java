@@ -349,12 +349,14 @@ public abstract sealed class Command<R, O> permits
 
 		private long startTime;
 		private long lastReportTime;
+		private boolean finished;
 
 		@Override
 		public void init(int totalWork, String title) {
 			super.init(totalWork, title);
 			this.startTime = System.currentTimeMillis();
 			this.lastReportTime = this.startTime;
+			this.finished = false;
 			Logger.info(title);
 		}
 
@@ -362,7 +364,8 @@ public abstract sealed class Command<R, O> permits
 		public void step(int workDone, String message) {
 			super.step(workDone, message);
 			long now = System.currentTimeMillis();
-			boolean isLastUpdate = workDone == this.totalWork;
+			// the last step can be published both by advance and by a closing step
+			boolean isLastUpdate = workDone == this.totalWork && !this.finished;
 			boolean shouldReport = isLastUpdate || now - this.lastReportTime > REPORT_TIME;
 
 			if (shouldReport) {
@@ -372,6 +375,7 @@ public abstract sealed class Command<R, O> permits
 			}
 
 			if (isLastUpdate) {
+				this.finished = true;
 				double elapsedSeconds = (now - this.startTime) / 1000.0;
 				Logger.info("Finished in {} seconds", elapsedSeconds);
 			}
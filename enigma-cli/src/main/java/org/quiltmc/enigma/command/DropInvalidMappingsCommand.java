@@ -2,8 +2,10 @@ package org.quiltmc.enigma.command;
 
 import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.translation.mapping.InvalidMappings;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingsWriter;
+import org.quiltmc.enigma.command.DropInvalidMappingsCommand.Optional;
 import org.quiltmc.enigma.command.DropInvalidMappingsCommand.Required;
 import org.tinylog.Logger;
 
@@ -18,24 +20,29 @@ import static org.quiltmc.enigma.command.CommonArguments.INPUT_JAR;
 import static org.quiltmc.enigma.command.CommonArguments.INPUT_MAPPINGS;
 import static org.quiltmc.enigma.command.CommonArguments.MAPPING_OUTPUT;
 
-public final class DropInvalidMappingsCommand extends Command<Required, Path> {
+public final class DropInvalidMappingsCommand extends Command<Required, Optional> {
+	private static final Argument<Boolean> FAIL_FAST = Argument.ofBool("fail-fast",
+			"""
+					Whether to fail at the first invalid mapping found instead of dropping invalid mappings, for use in CI. Allowed values are "true" and "false"."""
+	);
+
 	public static final DropInvalidMappingsCommand INSTANCE = new DropInvalidMappingsCommand();
 
 	private DropInvalidMappingsCommand() {
 		super(
 				ArgsParser.of(INPUT_JAR, INPUT_MAPPINGS, Required::new),
-				ArgsParser.of(MAPPING_OUTPUT)
+				ArgsParser.of(MAPPING_OUTPUT, FAIL_FAST, Optional::new)
 		);
 	}
 
 	@Override
-	void runImpl(Required required, Path mappingOutput) throws Exception {
+	void runImpl(Required required, Optional optional) throws Exception {
 		Path jarIn = required.inputJar;
 		Path mappingsIn = required.inputMappings;
-		Path mappingsOutArg = mappingOutput;
+		Path mappingsOutArg = optional.mappingOutput;
 		Path mappingsOut = mappingsOutArg != null ? mappingsOutArg : mappingsIn;
 
-		run(jarIn, mappingsIn, mappingsOut);
+		run(jarIn, mappingsIn, mappingsOut, Boolean.TRUE.equals(optional.failFast));
 	}
 
 	@Override
@@ -49,6 +56,10 @@ public final class DropInvalidMappingsCommand extends Command<Required, Path> {
 	}
 
 	public static void run(Path jarIn, Path mappingsIn, Path mappingsOut) throws Exception {
+		run(jarIn, mappingsIn, mappingsOut, false);
+	}
+
+	public static void run(Path jarIn, Path mappingsIn, Path mappingsOut, boolean failFast) throws Exception {
 		if (mappingsIn == null) {
 			Logger.warn("No mappings input specified, skipping.");
 			return;
@@ -57,12 +68,26 @@ public final class DropInvalidMappingsCommand extends Command<Required, Path> {
 		MappingsWriter writer = CommandsUtil.getWriter(createEnigma(), mappingsIn);
 		EnigmaProject project = openProject(jarIn, mappingsIn);
 
+		if (failFast) {
+			Logger.info("Checking for invalid mappings...");
+
+			InvalidMappings invalidMappings = project.findInvalidMappings(ProgressListener.createEmpty());
+			if (!invalidMappings.isEmpty()) {
+				invalidMappings.mappings().forEach((entry, name) -> Logger.error("Invalid mapping: {} ({})", entry, name));
+				throw new IllegalStateException("Invalid mappings detected, see errors logged above!");
+			}
+
+			Logger.info("No invalid mappings found.");
+			return;
+		}
+
 		Logger.info("Dropping invalid mappings...");
 
-		var droppedMappings = project.dropMappings(ProgressListener.createEmpty());
+		InvalidMappings droppedMappings = project.dropInvalidMappings(ProgressListener.createEmpty());
 
 		if (!droppedMappings.isEmpty()) {
-			Logger.info("Found and dropped {} invalid mappings.", droppedMappings.size());
+			Logger.info("Found and dropped {} invalid mappings.", droppedMappings.mappings().size());
+			droppedMappings.counts().forEach((reason, count) -> Logger.info("{}: {}", reason, count));
 			Logger.info("Writing mappings...");
 
 			if (mappingsOut == mappingsIn) {
@@ -92,4 +117,6 @@ public final class DropInvalidMappingsCommand extends Command<Required, Path> {
 	}
 
 	record Required(Path inputJar, Path inputMappings) { }
+
+	record Optional(Path mappingOutput, Boolean failFast) { }
 }
@@ -7,6 +7,7 @@ import org.quiltmc.enigma.api.EnigmaProfile;
 import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.service.NameProposalService;
+import org.quiltmc.enigma.api.translation.mapping.EntryChange;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingsWriter;
@@ -20,11 +21,14 @@ import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntr
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.command.InsertProposedMappingsCommand.Optional;
 import org.quiltmc.enigma.command.InsertProposedMappingsCommand.Required;
+import org.quiltmc.enigma.util.EntryUtil;
 import org.quiltmc.enigma.util.Utils;
 import org.quiltmc.enigma.util.validation.ValidationContext;
 import org.tinylog.Logger;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -115,9 +119,19 @@ public final class InsertProposedMappingsCommand extends Command<Required, Optio
 
 	private static void insertMappings(@Nullable Map<Entry<?>, EntryMapping> mappings, EnigmaProject project) {
 		if (mappings != null) {
+			List<EntryChange<?>> changes = new ArrayList<>();
 			for (var entry : mappings.entrySet()) {
 				if (entry.getValue() != null) {
-					project.getRemapper().putMapping(new ValidationContext(null), entry.getKey(), entry.getValue());
+					changes.add(EntryUtil.changeFromMapping(entry.getKey(), entry.getValue()));
+				}
+			}
+
+			if (!changes.isEmpty() && project.getRemapper().applyChanges(new ValidationContext(null), changes).isEmpty()) {
+				// the batch is all or nothing, so fall back to inserting the valid mappings one by one
+				for (var entry : mappings.entrySet()) {
+					if (entry.getValue() != null) {
+						project.getRemapper().putMapping(new ValidationContext(null), entry.getKey(), entry.getValue());
+					}
 				}
 			}
 		}
@@ -2,8 +2,11 @@ package org.quiltmc.enigma.command;
 
 import com.google.common.collect.ImmutableMap;
 import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.metrics.MetricsReporter;
 import org.tinylog.Logger;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Locale;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -11,6 +14,10 @@ import java.util.stream.Stream;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 
 public class Main {
+	private static final String METRICS_OPTION = "--metrics=";
+	private static final String METRICS_INTERVAL_OPTION = "--metrics-interval=";
+	private static final String JFR_METRICS_OPTION = "--jfr-metrics";
+
 	private static final ImmutableMap<String, Command<?, ?>> COMMANDS = Stream
 			.of(
 				DeobfuscateCommand.INSTANCE,
@@ -31,25 +38,57 @@ public class Main {
 
 	public static void main(String... args) {
 		try {
+			// global options come before the command
+			Path metricsPath = null;
+			Duration metricsInterval = MetricsReporter.DEFAULT_INTERVAL;
+			boolean jfrMetrics = false;
+
+			int commandIndex = 0;
+			for (; commandIndex < args.length && args[commandIndex].startsWith("--"); commandIndex++) {
+				String option = args[commandIndex];
+				if (option.startsWith(METRICS_OPTION)) {
+					metricsPath = Path.of(option.substring(METRICS_OPTION.length()));
+				} else if (option.startsWith(METRICS_INTERVAL_OPTION)) {
+					try {
+						metricsInterval = Duration.ofSeconds(Long.parseLong(option.substring(METRICS_INTERVAL_OPTION.length())));
+					} catch (NumberFormatException e) {
+						throw new IllegalArgumentException("Invalid metrics interval: " + option, e);
+					}
+
+					if (metricsInterval.isNegative() || metricsInterval.isZero()) {
+						throw new IllegalArgumentException("Metrics interval must be positive: " + option);
+					}
+				} else if (option.equals(JFR_METRICS_OPTION)) {
+					jfrMetrics = true;
+				} else {
+					throw new IllegalArgumentException("Option not recognized: " + option);
+				}
+			}
+
 			// process the command
-			if (args.length < 1) {
+			if (args.length <= commandIndex) {
 				throw new IllegalArgumentException("Requires a command");
 			}
 
-			String command = args[0].toLowerCase(Locale.ROOT);
+			String command = args[commandIndex].toLowerCase(Locale.ROOT);
 
 			Command<?, ?> cmd = COMMANDS.get(command);
 			if (cmd == null) {
 				throw new IllegalArgumentException("Command not recognized: " + command);
 			}
 
-			String[] cmdArgs = new String[args.length - 1];
-			System.arraycopy(args, 1, cmdArgs, 0, args.length - 1);
+			String[] cmdArgs = new String[args.length - commandIndex - 1];
+			System.arraycopy(args, commandIndex + 1, cmdArgs, 0, cmdArgs.length);
 
+			MetricsReporter metrics = MetricsReporter.install(metricsPath, metricsInterval, jfrMetrics);
 			try {
 				cmd.run(cmdArgs);
 			} catch (Exception ex) {
 				throw new CommandErrorHelpException(cmd, ex);
+			} finally {
+				if (metrics != null) {
+					metrics.close();
+				}
 			}
 		} catch (Command.HelpException ex) {
 			Logger.error(ex);
@@ -76,8 +115,12 @@ public class Main {
 		StringBuilder help = new StringBuilder();
 		help.append("""
 				Usage:
-				\tjava -jar enigma.jar <command> <args>
-				\twhere <command> is one of:""");
+				\tjava -jar enigma.jar [<options>] <command> <args>
+				\twhere <options> are any of:
+				\t\t--metrics=<path>: periodically write metrics to a file, as JSON if it ends in .json
+				\t\t--metrics-interval=<seconds>: the time between two writes of the metrics file, %d by default
+				\t\t--jfr-metrics: emit metrics as Java Flight Recorder events
+				\tand <command> is one of:""".formatted(MetricsReporter.DEFAULT_INTERVAL.toSeconds()));
 
 		for (Command<?, ?> command : COMMANDS.values()) {
 			command.appendHelp(help);
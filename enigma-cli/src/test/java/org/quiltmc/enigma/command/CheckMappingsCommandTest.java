@@ -18,8 +18,16 @@ public class CheckMappingsCommandTest extends CommandTest {
 		);
 	}
 
+	@Test
+	public void testWrongFailFast() {
+		Assertions.assertThrows(IllegalStateException.class, () ->
+				CheckMappingsCommand.run(JAR, WRONG_MAPPINGS, true)
+		);
+	}
+
 	@Test
 	public void testRight() {
 		Assertions.assertDoesNotThrow(() -> CheckMappingsCommand.run(JAR, CORRECT_MAPPINGS));
+		Assertions.assertDoesNotThrow(() -> CheckMappingsCommand.run(JAR, CORRECT_MAPPINGS, true));
 	}
 }
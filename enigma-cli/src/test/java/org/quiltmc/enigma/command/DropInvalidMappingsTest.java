@@ -100,4 +100,15 @@ public class DropInvalidMappingsTest extends CommandTest {
 
 		Assertions.assertEquals(expectedLines, actualLines);
 	}
+
+	@Test
+	public void testFailFast() throws Exception {
+		Path resultFile = Files.createTempFile("failFastResult", ".mapping");
+
+		Assertions.assertThrows(IllegalStateException.class, () ->
+				DropInvalidMappingsCommand.run(LONE_JAR, INVALID_MAPPINGS_INPUT, resultFile, true)
+		);
+		Assertions.assertDoesNotThrow(() -> DropInvalidMappingsCommand.run(LONE_JAR, INVALID_MAPPINGS_EXPECTED, resultFile, true));
+		Assertions.assertEquals("", Files.readString(resultFile));
+	}
 }
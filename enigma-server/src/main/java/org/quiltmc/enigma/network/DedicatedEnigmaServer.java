@@ -10,6 +10,7 @@ import org.quiltmc.enigma.api.EnigmaProfile;
 import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.metrics.MetricsReporter;
 import org.quiltmc.enigma.api.service.ReadWriteService;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
@@ -22,6 +23,7 @@ import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
@@ -94,6 +96,17 @@ public class DedicatedEnigmaServer extends EnigmaServer {
 				.withValuesConvertedBy(PathConverter.INSTANCE)
 				.defaultsTo(Paths.get("log.txt"));
 
+		OptionSpec<Path> metricsOpt = parser.accepts("metrics", "File to periodically write metrics to, as JSON if it ends in .json")
+				.withRequiredArg()
+				.withValuesConvertedBy(PathConverter.INSTANCE);
+
+		OptionSpec<Integer> metricsIntervalOpt = parser.accepts("metrics-interval", "Seconds between two writes of the metrics file")
+				.withRequiredArg()
+				.ofType(Integer.class)
+				.defaultsTo((int) MetricsReporter.DEFAULT_INTERVAL.toSeconds());
+
+		OptionSpec<Void> jfrMetricsOpt = parser.accepts("jfr-metrics", "Emit metrics as Java Flight Recorder events");
+
 		OptionSet parsedArgs = parser.parse(args);
 		Path jar = parsedArgs.valueOf(jarOpt);
 		Path mappingsFile = parsedArgs.valueOf(mappingsOpt);
@@ -107,6 +120,17 @@ public class DedicatedEnigmaServer extends EnigmaServer {
 
 		Path logFile = parsedArgs.valueOf(logFileOpt);
 
+		int metricsInterval = parsedArgs.valueOf(metricsIntervalOpt);
+		if (metricsInterval <= 0) {
+			Logger.error("Metrics interval must be positive, but was {}", metricsInterval);
+			System.exit(1);
+		}
+
+		MetricsReporter metrics = MetricsReporter.install(parsedArgs.valueOf(metricsOpt), Duration.ofSeconds(metricsInterval), parsedArgs.has(jfrMetricsOpt));
+		if (metrics != null) {
+			Runtime.getRuntime().addShutdownHook(new Thread(metrics::close));
+		}
+
 		Logger.info("Starting Enigma server");
 		DedicatedEnigmaServer server;
 		try {
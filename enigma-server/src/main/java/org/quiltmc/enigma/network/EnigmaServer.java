@@ -1,6 +1,8 @@
 package org.quiltmc.enigma.network;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.quiltmc.enigma.api.metrics.Metrics;
+import org.quiltmc.enigma.api.metrics.Timer;
 import org.quiltmc.enigma.api.translation.mapping.EntryChange;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
@@ -108,10 +110,14 @@ public abstract class EnigmaServer {
 						throw new IOException("Received invalid packet id " + packetId);
 					}
 
+					Metrics.counter("server.packets_received").increment();
+					long received = System.nanoTime();
 					this.runOnThread(() -> {
-						try {
+						Metrics.timer("server.packet_queue").record(System.nanoTime() - received);
+						try (Timer.Sample ignored = Metrics.timer("server.packet." + packet.getClass().getSimpleName()).start()) {
 							packet.handle(new ServerPacketHandler(client, this));
 						} catch (Exception e) {
+							Metrics.counter("server.packet_errors").increment();
 							Logger.error(e, "Failed to handle packet!");
 						}
 					});
@@ -66,6 +66,7 @@ import java.awt.Point;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -634,16 +635,26 @@ public class Gui {
 	 * @param propagate whether to also reload ancestors of the class
 	 */
 	public void reloadStats(ClassEntry classEntry, boolean propagate) {
+		this.reloadStats(List.of(classEntry), propagate);
+	}
+
+	/**
+	 * Reloads stats for the provided classes in all selectors, as a single reload.
+	 *
+	 * @param classEntries the classes to reload
+	 * @param propagate whether to also reload ancestors of the classes
+	 */
+	public void reloadStats(Collection<ClassEntry> classEntries, boolean propagate) {
 		this.priorReloadStatsCanceler.set(true);
 		final AtomicBoolean currentReloadCanceler = new AtomicBoolean(false);
 		this.priorReloadStatsCanceler = currentReloadCanceler;
 
-		List<ClassEntry> toUpdate = new ArrayList<>();
-		toUpdate.add(classEntry);
+		Set<ClassEntry> toUpdate = new LinkedHashSet<>(classEntries);
 		if (propagate) {
-			Collection<ClassEntry> parents = this.controller.getProject().getJarIndex().getIndex(InheritanceIndex.class)
-					.getAncestors(classEntry);
-			toUpdate.addAll(parents);
+			InheritanceIndex inheritanceIndex = this.controller.getProject().getJarIndex().getIndex(InheritanceIndex.class);
+			for (ClassEntry classEntry : classEntries) {
+				toUpdate.addAll(inheritanceIndex.getAncestors(classEntry));
+			}
 		}
 
 		final List<Runnable> currentReloads = this.dockerManager.getDockers().stream()
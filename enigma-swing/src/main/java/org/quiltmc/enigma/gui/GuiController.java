@@ -10,6 +10,7 @@ import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.tree.ClassImplementationsTreeNode;
 import org.quiltmc.enigma.api.analysis.tree.ClassInheritanceTreeNode;
 import org.quiltmc.enigma.api.analysis.tree.ClassReferenceTreeNode;
@@ -49,6 +50,7 @@ import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.gui.config.Config;
+import org.quiltmc.enigma.gui.config.ConfigPaths;
 import org.quiltmc.enigma.gui.dialog.CrashDialog;
 import org.quiltmc.enigma.gui.dialog.ProgressDialog;
 import org.quiltmc.enigma.gui.docker.ClassesDocker;
@@ -84,7 +86,10 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -117,6 +122,7 @@ public class GuiController implements ClientPacketHandler {
 		this.gui = gui;
 		this.enigma = Enigma.builder()
 				.setProfile(profile)
+				.setLibraryIndexCache(ConfigPaths.getConfigPathRoot().resolve("enigma").resolve("library_indexes"))
 				.build();
 	}
 
@@ -131,6 +137,7 @@ public class GuiController implements ClientPacketHandler {
 			this.project = this.enigma.openJar(jarPath, new ClasspathClassProvider(), progress);
 			this.indexTreeBuilder = new IndexTreeBuilder(this.project.getJarIndex());
 			this.chp = new ClassHandleProvider(this.project, Config.decompiler().activeDecompiler.value().service);
+			this.chp.setPrefetching(Config.decompiler().prefetchClasses.value());
 			this.statsGenerator = new StatsGenerator(this.project);
 
 			SwingUtilities.invokeLater(() -> {
@@ -521,23 +528,42 @@ public class GuiController implements ClientPacketHandler {
 		return MethodImplementationsTreeNode.findNode(rootNodes.get(0), entry);
 	}
 
+	/**
+	 * Creates the root of a class reference tree. Its children are not loaded,
+	 * see {@link ClassReferenceTreeNode#createChildren(JarIndex)}.
+	 */
 	public ClassReferenceTreeNode getClassReferences(ClassEntry entry) {
 		Translator deobfuscator = this.project.getRemapper().getDeobfuscator();
-		ClassReferenceTreeNode rootNode = new ClassReferenceTreeNode(deobfuscator, entry);
-		rootNode.load(this.project.getJarIndex(), true);
-		return rootNode;
+		return new ClassReferenceTreeNode(deobfuscator, entry);
 	}
 
+	/**
+	 * Creates the root of a field reference tree. Its children are not loaded,
+	 * see {@link FieldReferenceTreeNode#createChildren(JarIndex)}.
+	 */
 	public FieldReferenceTreeNode getFieldReferences(FieldEntry entry) {
 		Translator translator = this.project.getRemapper().getDeobfuscator();
-		FieldReferenceTreeNode rootNode = new FieldReferenceTreeNode(translator, entry);
-		rootNode.load(this.project.getJarIndex(), true);
-		return rootNode;
+		return new FieldReferenceTreeNode(translator, entry);
 	}
 
-	public MethodReferenceTreeNode getMethodReferences(MethodEntry entry, boolean recursive) {
+	/**
+	 * Creates the root of a method reference tree. Its children are not loaded,
+	 * see {@link MethodReferenceTreeNode#createChildren(JarIndex, boolean)}.
+	 */
+	public MethodReferenceTreeNode getMethodReferences(MethodEntry entry) {
 		Translator translator = this.project.getRemapper().getDeobfuscator();
-		MethodReferenceTreeNode rootNode = new MethodReferenceTreeNode(translator, entry);
+		return new MethodReferenceTreeNode(translator, entry);
+	}
+
+	/**
+	 * Creates the root of a method reference tree and loads all of its children at once.
+	 *
+	 * @deprecated loading every reference up front is slow for widely used methods, use {@link #getMethodReferences(MethodEntry)}
+	 * and load the children with {@link MethodReferenceTreeNode#createChildren(JarIndex, boolean)} instead
+	 */
+	@Deprecated
+	public MethodReferenceTreeNode getMethodReferences(MethodEntry entry, boolean recursive) {
+		MethodReferenceTreeNode rootNode = this.getMethodReferences(entry);
 		rootNode.load(this.project.getJarIndex(), true, recursive);
 		return rootNode;
 	}
@@ -577,6 +603,101 @@ public class GuiController implements ClientPacketHandler {
 		this.sendPacket(new EntryChangeC2SPacket(change));
 	}
 
+	/**
+	 * Applies many changes as one transaction, see {@link EntryRemapper#applyChanges(ValidationContext, Collection)}.
+	 * Decompiled sources, class trees and stats are only updated once for the whole batch.
+	 *
+	 * @param vc the validation context to report problems to
+	 * @param changes the changes to apply
+	 * @param autosave whether to save the mappings afterwards if autosaving is enabled
+	 */
+	public void applyChanges(ValidationContext vc, List<? extends EntryChange<?>> changes, boolean autosave) {
+		Map<ClassesDocker, List<ClassSelector.StateEntry>> expansionStates = new HashMap<>();
+		for (Docker docker : this.gui.getDockerManager().getDockers()) {
+			if (docker instanceof ClassesDocker classesDocker) {
+				expansionStates.put(classesDocker, classesDocker.getClassSelector().getExpansionState());
+			}
+		}
+
+		List<EntryRemapper.AppliedChange> applied = this.project.getRemapper().applyChanges(vc, changes);
+		if (applied.isEmpty()) {
+			this.gui.updateStructure(this.gui.getActiveEditor());
+			return;
+		}
+
+		boolean invalidateMapped = false;
+		boolean newlyDeobfuscated = false;
+		boolean movedClasses = false;
+		boolean propagateStats = false;
+		Set<ClassEntry> invalidatedJavadocs = new HashSet<>();
+		Set<ClassEntry> reloadedStats = new HashSet<>();
+		InheritanceIndex inheritanceIndex = this.project.getJarIndex().getIndex(InheritanceIndex.class);
+
+		for (EntryRemapper.AppliedChange change : applied) {
+			Entry<?> target = change.target();
+			EntryMapping prev = change.oldMapping();
+			EntryMapping mapping = change.newMapping();
+			boolean renamed = !Objects.equals(prev.targetName(), mapping.targetName());
+
+			if (renamed) {
+				newlyDeobfuscated |= prev.targetName() == null;
+			}
+
+			if (renamed || !Objects.equals(prev.tokenType(), mapping.tokenType())) {
+				invalidateMapped = true;
+
+				// local variable entries need to be propagated up the tree to update param names in javadoc
+				if (target instanceof LocalVariableEntry) {
+					invalidatedJavadocs.add(target.getTopLevelClass());
+					for (ClassEntry child : inheritanceIndex.getChildren(target.getContainingClass())) {
+						invalidatedJavadocs.add(child.getTopLevelClass());
+					}
+				}
+			}
+
+			if (!Objects.equals(prev.javadoc(), mapping.javadoc())) {
+				invalidatedJavadocs.add(target.getTopLevelClass());
+			}
+
+			if (renamed && target instanceof ClassEntry classEntry && !classEntry.isInnerClass()) {
+				this.gui.moveClassTree(classEntry, false, prev.targetName() == null, mapping.targetName() == null);
+				movedClasses = true;
+			}
+
+			reloadedStats.add(target.getTopLevelClass());
+			propagateStats |= target instanceof FieldEntry || target instanceof MethodEntry || target instanceof LocalVariableEntry;
+		}
+
+		if (invalidateMapped) {
+			this.chp.invalidateMapped();
+		}
+
+		invalidatedJavadocs.forEach(this.chp::invalidateJavadoc);
+
+		if (this.gui.getActiveEditor() != null) {
+			this.gui.getActiveEditor().onRename(newlyDeobfuscated);
+		}
+
+		if (movedClasses) {
+			for (var entry : expansionStates.entrySet()) {
+				ClassSelector classSelector = entry.getKey().getClassSelector();
+				classSelector.reload();
+				classSelector.restoreExpansionState(entry.getValue());
+			}
+		}
+
+		this.gui.reloadStats(reloadedStats, propagateStats);
+		this.gui.updateStructure(this.gui.getActiveEditor());
+
+		if (autosave && Config.editor().autoSaveMappings.value() && this.gui.mappingsFileChooser.getSelectedFile() != null) {
+			this.saveMappings(this.gui.mappingsFileChooser.getSelectedFile().toPath(), true);
+		}
+
+		for (EntryChange<?> change : changes) {
+			this.sendPacket(new EntryChangeC2SPacket(change));
+		}
+	}
+
 	private void applyChange0(ValidationContext vc, EntryChange<?> change, boolean updateSwingState) {
 		Entry<?> target = change.getTarget();
 		EntryMapping prev = this.project.getRemapper().getMapping(target);
@@ -648,6 +769,12 @@ public class GuiController implements ClientPacketHandler {
 		}
 	}
 
+	public void setPrefetchClasses(boolean prefetch) {
+		if (this.chp != null) {
+			this.chp.setPrefetching(prefetch);
+		}
+	}
+
 	public ClassHandleProvider getClassHandleProvider() {
 		return this.chp;
 	}
@@ -20,6 +20,8 @@ public class DecompilerConfig extends ReflectiveConfig {
 	}
 
 	public final TrackedValue<Decompiler> activeDecompiler = this.value(Decompiler.VINEFLOWER);
+	@Comment("Whether to decompile the classes the open class references the most in the background, so navigating to them is faster.")
+	public final TrackedValue<Boolean> prefetchClasses = this.value(false);
 	@Comment("The options passed to the Vineflower decompiler. What these do can be found here: https://vineflower.org/usage/.")
 	public final VineflowerSection vineflower = new VineflowerSection();
 
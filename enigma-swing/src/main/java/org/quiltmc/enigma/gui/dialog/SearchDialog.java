@@ -1,6 +1,9 @@
 package org.quiltmc.enigma.gui.dialog;
 
+import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
@@ -43,8 +46,12 @@ import java.awt.event.MouseListener;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.quiltmc.enigma.gui.util.GuiUtil.putKeyBindAction;
@@ -61,6 +68,15 @@ public class SearchDialog {
 
 	private final Gui gui;
 	private final SearchUtil<SearchEntryImpl> util;
+	private final Map<ParentedEntry<?>, SearchEntryImpl> indexedEntries = new ConcurrentHashMap<>();
+	// the index is valid as long as the project's remapper doesn't change, which happens when mappings are (re)loaded
+	// written on the event dispatch thread, but volatile since the change listener reads it on the thread applying a change
+	private volatile EntryRemapper indexedRemapper;
+	// mappings can change on any thread, but the index is only touched on the event dispatch thread
+	private final EntryRemapper.ChangeListener changeListener = (snapshot, changed) -> {
+		EntryRemapper remapper = this.indexedRemapper;
+		SwingUtilities.invokeLater(() -> this.onMappingsChanged(remapper, changed));
+	};
 	private final List<Type> searchedTypes = new ArrayList<>();
 	private SearchUtil.SearchControl currentSearch;
 
@@ -209,7 +225,6 @@ public class SearchDialog {
 	 * @param clear whether to clear previously saved types. If false with no types, will add all types.
 	 */
 	public void show(boolean clear, Type... types) {
-		this.util.clear();
 		if (clear) {
 			this.searchedTypes.clear();
 			this.clearCheckBoxes();
@@ -222,32 +237,11 @@ public class SearchDialog {
 
 		this.searchedTypes.addAll(Arrays.asList(types));
 
-		final EntryIndex entryIndex = this.gui.getController().getProject().getJarIndex().getIndex(EntryIndex.class);
-
 		for (Type searchedType : this.searchedTypes) {
 			this.getCheckBox(searchedType).setSelected(true);
-
-			switch (searchedType) {
-				case CLASS -> entryIndex.getClasses().parallelStream()
-						.filter(e -> !e.isInnerClass())
-						.map(e -> SearchEntryImpl.from(e, this.gui.getController()))
-						.map(SearchUtil.Entry::from)
-						.sequential()
-						.forEach(this.util::add);
-				case METHOD -> entryIndex.getMethods().parallelStream()
-						.filter(e -> !e.isConstructor() && !entryIndex.getMethodAccess(e).isSynthetic())
-						.map(e -> SearchEntryImpl.from(e, this.gui.getController()))
-						.map(SearchUtil.Entry::from)
-						.sequential()
-						.forEach(this.util::add);
-				case FIELD -> entryIndex.getFields().parallelStream()
-						.map(e -> SearchEntryImpl.from(e, this.gui.getController()))
-						.map(SearchUtil.Entry::from)
-						.sequential()
-						.forEach(this.util::add);
-			}
 		}
 
+		this.ensureIndexed();
 		this.updateList();
 
 		this.searchField.requestFocus();
@@ -256,6 +250,79 @@ public class SearchDialog {
 		this.dialog.setVisible(true);
 	}
 
+	/**
+	 * Builds the search index if it doesn't exist yet or if the mappings were replaced since it was built.
+	 * Changes to the mappings are then applied to the existing index by {@link #onMappingsChanged(EntryRemapper, Set)}.
+	 */
+	private void ensureIndexed() {
+		EnigmaProject project = this.gui.getController().getProject();
+		if (project.getRemapper() == this.indexedRemapper) {
+			return;
+		}
+
+		this.util.clear();
+		this.indexedEntries.clear();
+		if (this.indexedRemapper != null) {
+			this.indexedRemapper.removeChangeListener(this.changeListener);
+		}
+
+		this.indexedRemapper = project.getRemapper();
+		this.indexedRemapper.addChangeListener(this.changeListener);
+
+		final EntryIndex entryIndex = project.getJarIndex().getIndex(EntryIndex.class);
+		List<ParentedEntry<?>> searchable = new ArrayList<>();
+		entryIndex.getClasses().stream().filter(e -> !e.isInnerClass()).forEach(searchable::add);
+		entryIndex.getMethods().stream().filter(e -> !e.isConstructor() && !entryIndex.getMethodAccess(e).isSynthetic()).forEach(searchable::add);
+		searchable.addAll(entryIndex.getFields());
+
+		List<SearchEntryImpl> entries = searchable.parallelStream()
+				.map(e -> SearchEntryImpl.from(e, this.gui.getController()))
+				.toList();
+
+		for (SearchEntryImpl entry : entries) {
+			this.indexedEntries.put(entry.obf, entry);
+		}
+
+		this.util.addAll(entries);
+	}
+
+	/**
+	 * Updates the search index after mappings changed. Renaming a class also updates its members
+	 * and inner classes, whose deobfuscated parents changed.
+	 *
+	 * @param remapper the remapper whose mappings changed
+	 * @param changed the entries whose mapping changed
+	 */
+	private void onMappingsChanged(EntryRemapper remapper, Set<Entry<?>> changed) {
+		GuiController controller = this.gui.getController();
+		if (controller.getProject() == null || remapper != this.indexedRemapper) {
+			// the index is rebuilt the next time it's shown anyway
+			return;
+		}
+
+		for (Entry<?> entry : changed) {
+			if (entry instanceof ParentedEntry<?> parentedEntry) {
+				this.reindex(parentedEntry, controller.getProject().getJarIndex());
+			}
+		}
+	}
+
+	private void reindex(ParentedEntry<?> entry, JarIndex jarIndex) {
+		SearchEntryImpl old = this.indexedEntries.get(entry);
+		if (old != null) {
+			SearchEntryImpl updated = SearchEntryImpl.from(entry, this.gui.getController());
+			this.util.remove(old);
+			this.util.add(updated);
+			this.indexedEntries.put(entry, updated);
+		}
+
+		if (entry instanceof ClassEntry classEntry) {
+			for (ParentedEntry<?> child : jarIndex.getChildrenByClass().get(classEntry)) {
+				this.reindex(child, jarIndex);
+			}
+		}
+	}
+
 	private void openSelected() {
 		SearchEntryImpl selectedValue = this.classList.getSelectedValue();
 		if (selectedValue != null) {
@@ -321,7 +388,8 @@ public class SearchDialog {
 			}
 		};
 
-		this.currentSearch = this.util.asyncSearch(this.searchField.getText().trim(), (idx, e) -> queue.add(new Order(idx, e)), this.onlyExactMatchesCheckbox.isSelected());
+		Set<Type> types = this.searchedTypes.isEmpty() ? EnumSet.noneOf(Type.class) : EnumSet.copyOf(this.searchedTypes);
+		this.currentSearch = this.util.asyncSearch(this.searchField.getText().trim(), (idx, e) -> queue.add(new Order(idx, e)), this.onlyExactMatchesCheckbox.isSelected(), e -> types.contains(Type.get(e.obf)));
 		SwingUtilities.invokeLater(updater);
 	}
 
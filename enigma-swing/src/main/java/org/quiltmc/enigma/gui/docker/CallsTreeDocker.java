@@ -1,6 +1,10 @@
 package org.quiltmc.enigma.gui.docker;
 
 import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.tree.ClassReferenceTreeNode;
+import org.quiltmc.enigma.api.analysis.tree.FieldReferenceTreeNode;
+import org.quiltmc.enigma.api.analysis.tree.MethodReferenceTreeNode;
 import org.quiltmc.enigma.api.analysis.tree.ReferenceTreeNode;
 import org.quiltmc.enigma.api.source.Token;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
@@ -19,20 +23,36 @@ import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTree;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeWillExpandListener;
+import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
-import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import java.awt.BorderLayout;
 import java.awt.event.MouseEvent;
 import java.util.Collection;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
+/**
+ * Shows the references to an entry as a tree. The children of a node are only loaded once it's expanded,
+ * off the event dispatch thread, and are added in pages of {@value ReferenceTreeLoader#PAGE_SIZE}.
+ */
 public class CallsTreeDocker extends Docker {
 	private final JTree tree = new JTree();
 	private final JList<Token> tokens = new JList<>();
 
 	private final JSplitPane contentPane;
 
+	private final ReferenceTreeLoader loader = new ReferenceTreeLoader(Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Calls tree loader");
+		thread.setDaemon(true);
+		return thread;
+	}), SwingUtilities::invokeLater);
+
 	public CallsTreeDocker(Gui gui) {
 		super(gui);
 		this.tree.setModel(null);
@@ -40,6 +60,16 @@ public class CallsTreeDocker extends Docker {
 		this.tree.setSelectionModel(new SingleTreeSelectionModel());
 		this.tree.setShowsRootHandles(true);
 		this.tree.addMouseListener(GuiUtil.onMouseClick(this::onTreeClicked));
+		this.tree.addTreeWillExpandListener(new TreeWillExpandListener() {
+			@Override
+			public void treeWillExpand(TreeExpansionEvent event) {
+				CallsTreeDocker.this.onTreeWillExpand(event.getPath());
+			}
+
+			@Override
+			public void treeWillCollapse(TreeExpansionEvent event) {
+			}
+		});
 
 		this.tokens.setCellRenderer(new TokenListCellRenderer(gui.getController()));
 		this.tokens.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
@@ -61,21 +91,40 @@ public class CallsTreeDocker extends Docker {
 	}
 
 	public void showCalls(Entry<?> entry, boolean recurse) {
-		TreeNode node = null;
+		DefaultMutableTreeNode node = null;
+		Function<JarIndex, List<? extends DefaultMutableTreeNode>> children = null;
 
 		if (entry instanceof ClassEntry classEntry) {
-			node = this.gui.getController().getClassReferences(classEntry);
+			ClassReferenceTreeNode classNode = this.gui.getController().getClassReferences(classEntry);
+			node = classNode;
+			children = classNode::createChildren;
 		} else if (entry instanceof FieldEntry fieldEntry) {
-			node = this.gui.getController().getFieldReferences(fieldEntry);
+			FieldReferenceTreeNode fieldNode = this.gui.getController().getFieldReferences(fieldEntry);
+			node = fieldNode;
+			children = fieldNode::createChildren;
 		} else if (entry instanceof MethodEntry methodEntry) {
-			node = this.gui.getController().getMethodReferences(methodEntry, recurse);
+			MethodReferenceTreeNode methodNode = this.gui.getController().getMethodReferences(methodEntry);
+			node = methodNode;
+			children = index -> methodNode.createChildren(index, recurse);
 		}
 
-		this.tree.setModel(new DefaultTreeModel(node));
+		this.loader.reset();
+		DefaultTreeModel model = new DefaultTreeModel(node);
+		this.tree.setModel(model);
+
+		if (node != null) {
+			this.loader.load(model, node, this.gui.getController().getProject().getJarIndex(), children);
+		}
 
 		this.setVisible(true);
 	}
 
+	private void onTreeWillExpand(TreePath path) {
+		if (path.getLastPathComponent() instanceof DefaultMutableTreeNode node) {
+			this.loader.loadIfPending((DefaultTreeModel) this.tree.getModel(), node, this.gui.getController().getProject().getJarIndex());
+		}
+	}
+
 	public void showTokens(Collection<Token> tokens) {
 		this.tokens.setListData(new Vector<>(tokens));
 		this.tokens.setSelectedIndex(0);
@@ -100,6 +149,12 @@ public class CallsTreeDocker extends Docker {
 
 	@SuppressWarnings("unchecked")
 	private void onTreeClicked(MouseEvent event) {
+		if (event.getButton() == MouseEvent.BUTTON1 && this.tree.getSelectionPath() != null
+				&& this.tree.getSelectionPath().getLastPathComponent() instanceof ReferenceTreeLoader.LoadMoreNode loadMore) {
+			this.loader.loadMore((DefaultTreeModel) this.tree.getModel(), loadMore);
+			return;
+		}
+
 		if (event.getClickCount() >= 2 && event.getButton() == MouseEvent.BUTTON1) {
 			// get the selected node
 			TreePath path = this.tree.getSelectionPath();
@@ -0,0 +1,163 @@
+package org.quiltmc.enigma.gui.docker;
+
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.tree.ReferenceTreeNode;
+import org.quiltmc.enigma.util.I18n;
+import org.tinylog.Logger;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Loads the children of reference tree nodes on a loader thread, and adds them to the tree in pages of {@value #PAGE_SIZE}.
+ * Nodes are only changed on the UI thread.
+ */
+final class ReferenceTreeLoader {
+	static final int PAGE_SIZE = 250;
+
+	private final Executor loadExecutor;
+	private final Executor uiExecutor;
+	// incremented whenever another tree is shown, so that loads for the previous tree are dropped
+	private final AtomicInteger generation = new AtomicInteger();
+
+	/**
+	 * @param loadExecutor runs the lookups of children
+	 * @param uiExecutor runs the changes to the tree, normally on the event dispatch thread
+	 */
+	ReferenceTreeLoader(Executor loadExecutor, Executor uiExecutor) {
+		this.loadExecutor = loadExecutor;
+		this.uiExecutor = uiExecutor;
+	}
+
+	/**
+	 * Drops all loads which haven't finished yet, for when another tree is shown.
+	 */
+	void reset() {
+		this.generation.incrementAndGet();
+	}
+
+	/**
+	 * Adds a placeholder to a node and starts loading its children.
+	 */
+	void load(DefaultTreeModel model, DefaultMutableTreeNode node, JarIndex index, Function<JarIndex, List<? extends DefaultMutableTreeNode>> childrenFactory) {
+		LoadingNode loading = new LoadingNode();
+		node.add(loading);
+		this.load(model, node, loading, index, childrenFactory);
+	}
+
+	/**
+	 * Starts loading the children of a reference node that is being expanded, unless they were loaded already.
+	 */
+	void loadIfPending(DefaultTreeModel model, DefaultMutableTreeNode node, JarIndex index) {
+		if (node instanceof ReferenceTreeNode<?, ?> referenceNode
+				&& node.getChildCount() == 1 && node.getChildAt(0) instanceof LoadingNode loading && !loading.started) {
+			this.load(model, node, loading, index, referenceNode::createChildren);
+		}
+	}
+
+	/**
+	 * Computes the children of a node on the loader thread, then replaces the node's placeholder with the first page,
+	 * or with an error if they couldn't be computed.
+	 */
+	private void load(DefaultTreeModel model, DefaultMutableTreeNode node, LoadingNode loading, JarIndex index, Function<JarIndex, List<? extends DefaultMutableTreeNode>> childrenFactory) {
+		loading.started = true;
+		int generation = this.generation.get();
+
+		this.loadExecutor.execute(() -> {
+			if (generation != this.generation.get()) {
+				return;
+			}
+
+			List<? extends DefaultMutableTreeNode> children;
+			try {
+				children = childrenFactory.apply(index);
+			} catch (RuntimeException e) {
+				Logger.error(e, "Failed to load the references of {}", node);
+				children = null;
+			}
+
+			List<? extends DefaultMutableTreeNode> loaded = children;
+			this.uiExecutor.execute(() -> {
+				if (generation != this.generation.get()) {
+					return;
+				}
+
+				node.removeAllChildren();
+				if (loaded == null) {
+					node.add(new DefaultMutableTreeNode(I18n.translate("docker.calls.load_failed"), false));
+				} else {
+					this.addPage(node, loaded, 0, index);
+				}
+
+				model.nodeStructureChanged(node);
+			});
+		});
+	}
+
+	/**
+	 * Replaces a node to show the next page with that page.
+	 */
+	void loadMore(DefaultTreeModel model, LoadMoreNode loadMore) {
+		DefaultMutableTreeNode parent = (DefaultMutableTreeNode) loadMore.getParent();
+		int start = parent.getChildCount() - 1;
+
+		model.removeNodeFromParent(loadMore);
+		int added = this.addPage(parent, loadMore.children, loadMore.start, loadMore.index);
+		model.nodesWereInserted(parent, IntStream.range(start, start + added).toArray());
+	}
+
+	/**
+	 * Adds a page of children to a node, followed by a node to show the next page if there are more.
+	 * Children which have children of their own get a placeholder, so that they can be expanded.
+	 *
+	 * @return the number of added nodes
+	 */
+	private int addPage(DefaultMutableTreeNode node, List<? extends DefaultMutableTreeNode> children, int start, JarIndex index) {
+		int end = Math.min(start + PAGE_SIZE, children.size());
+		for (int i = start; i < end; i++) {
+			DefaultMutableTreeNode child = children.get(i);
+			node.add(child);
+
+			// checked once added, since whether a node recurses depends on its parents
+			if (child instanceof ReferenceTreeNode<?, ?> referenceNode && referenceNode.hasChildren(index)) {
+				child.add(new LoadingNode());
+			}
+		}
+
+		if (end < children.size()) {
+			node.add(new LoadMoreNode(children, end, index));
+			return end - start + 1;
+		}
+
+		return end - start;
+	}
+
+	/**
+	 * Stands in for the children of a node until they're loaded.
+	 */
+	static final class LoadingNode extends DefaultMutableTreeNode {
+		private boolean started;
+
+		private LoadingNode() {
+			super(I18n.translate("docker.calls.loading"), false);
+		}
+	}
+
+	static final class LoadMoreNode extends DefaultMutableTreeNode {
+		private final List<? extends DefaultMutableTreeNode> children;
+		private final int start;
+		private final JarIndex index;
+
+		private LoadMoreNode(List<? extends DefaultMutableTreeNode> children, int start, JarIndex index) {
+			super(I18n.translateFormatted("docker.calls.load_more", children.size() - start), false);
+			this.children = children;
+			this.start = start;
+			this.index = index;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import com.google.common.collect.HashBiMap;
 import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.class_handle.ClassHandle;
+import org.quiltmc.enigma.api.class_handle.ClassHandleProvider;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.gui.Gui;
@@ -36,6 +37,7 @@ public class EditorTabbedPane {
 		this.navigator = new NavigatorPanel(this.gui);
 
 		this.openFiles.addMouseListener(GuiUtil.onMousePress(this::onTabPressed));
+		this.openFiles.addChangeListener(e -> this.onActiveEditorChanged());
 		KeyBinds.ENTRY_NAVIGATOR_LAST.removeUiConflicts(this.openFiles);
 	}
 
@@ -85,6 +87,8 @@ public class EditorTabbedPane {
 
 		if (entryEditor != null && activeEditor != entryEditor) {
 			this.openFiles.setSelectedComponent(this.editors.get(entry).getUi());
+			// the first tab is selected while it's added, before its editor is registered
+			this.onActiveEditorChanged();
 			this.gui.updateStructure(entryEditor);
 			this.gui.showCursorReference(entryEditor.getCursorReference());
 		}
@@ -92,6 +96,18 @@ public class EditorTabbedPane {
 		return entryEditor;
 	}
 
+	private void onActiveEditorChanged() {
+		ClassHandleProvider classHandleProvider = this.gui.getController().getClassHandleProvider();
+		if (classHandleProvider != null) {
+			EditorPanel activeEditor = this.getActiveEditor();
+			ClassEntry activeClass = activeEditor == null ? null : this.editors.inverse().get(activeEditor);
+			classHandleProvider.setActiveClass(activeClass);
+			if (activeClass != null) {
+				classHandleProvider.prefetchAround(activeClass);
+			}
+		}
+	}
+
 	public void closeEditor(EditorPanel ed) {
 		this.openFiles.remove(ed.getUi());
 		this.editors.inverse().remove(ed);
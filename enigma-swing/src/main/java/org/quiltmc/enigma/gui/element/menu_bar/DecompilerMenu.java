@@ -7,10 +7,12 @@ import org.quiltmc.enigma.gui.dialog.decompiler.DecompilerSettingsDialog;
 import org.quiltmc.enigma.util.I18n;
 
 import javax.swing.ButtonGroup;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenuItem;
 import javax.swing.JRadioButtonMenuItem;
 
 public class DecompilerMenu extends AbstractEnigmaMenu {
+	private final JCheckBoxMenuItem prefetchClassesItem = new JCheckBoxMenuItem();
 	private final JMenuItem decompilerSettingsItem = new JMenuItem();
 
 	public DecompilerMenu(Gui gui) {
@@ -34,14 +36,21 @@ public class DecompilerMenu extends AbstractEnigmaMenu {
 		}
 
 		this.addSeparator();
+		this.add(this.prefetchClassesItem);
 		this.add(this.decompilerSettingsItem);
 
+		this.prefetchClassesItem.setState(Config.decompiler().prefetchClasses.value());
+		this.prefetchClassesItem.addActionListener(e -> {
+			Config.decompiler().prefetchClasses.setValue(this.prefetchClassesItem.getState());
+			this.gui.getController().setPrefetchClasses(this.prefetchClassesItem.getState());
+		});
 		this.decompilerSettingsItem.addActionListener(e -> DecompilerSettingsDialog.show(this.gui));
 	}
 
 	@Override
 	public void retranslate() {
 		this.setText(I18n.translate("menu.decompiler"));
+		this.prefetchClassesItem.setText(I18n.translate("menu.decompiler.prefetch_classes"));
 		this.decompilerSettingsItem.setText(I18n.translate("menu.decompiler.settings"));
 	}
 }
@@ -24,10 +24,16 @@ public class CallsTreeCellRenderer extends DefaultTreeCellRenderer {
 	@Override
 	public Component getTreeCellRendererComponent(JTree tree, Object value, boolean sel, boolean expanded, boolean leaf, int row, boolean hasFocus) {
 		Component c = super.getTreeCellRendererComponent(tree, value, sel, expanded, leaf, row, hasFocus);
-		EntryReference<?, ?> reference = ((ReferenceTreeNode<?, ?>) value).getReference();
-
 		this.setForeground(Config.getCurrentSyntaxPaneColors().text.value());
 
+		// placeholders for children that aren't loaded yet
+		if (!(value instanceof ReferenceTreeNode<?, ?> referenceNode)) {
+			this.setIcon(null);
+			return c;
+		}
+
+		EntryReference<?, ?> reference = referenceNode.getReference();
+
 		// if the node represents the method calling the entry
 		if (reference != null) {
 			if (reference.context instanceof MethodEntry) {
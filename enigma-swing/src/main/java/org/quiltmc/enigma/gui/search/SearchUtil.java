@@ -1,11 +1,12 @@
 package org.quiltmc.enigma.gui.search;
 
 import org.quiltmc.enigma.util.Pair;
+import org.quiltmc.enigma.util.Utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -16,44 +17,146 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.BiFunction;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+/**
+ * A search index over {@link SearchEntry search entries}.
+ *
+ * <p>Entries can be added and removed at any time, so the index can live as long as the entries it was built from.
+ * Next to the entries, the index keeps one {@link BitSet} of entries per upper-case character, marking entries
+ * with a name containing that character, and one per component initial, marking entries with a name component
+ * starting with that character. {@link Entry#getScore(String, int) Scoring} only matches search terms made of
+ * component prefixes, so a candidate must have a component starting with the first character of the term and must
+ * contain every character of the term. Only the candidates are scored, in chunks on a background pool.
+ *
+ * @param <T> the type of the search entries
+ */
 public class SearchUtil<T extends SearchEntry> {
-	private final Map<T, Entry<T>> entries = new HashMap<>();
+	private static final int CHUNK_SIZE = 1024;
+
+	private final List<Entry<T>> slots = new ArrayList<>();
+	private final Map<T, Integer> slotIndices = new HashMap<>();
+	private final BitSet freeSlots = new BitSet();
+	private final Map<Character, BitSet> characterIndex = new HashMap<>();
+	private final Map<Character, BitSet> initialIndex = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
 	private final Map<String, Integer> hitCount = new HashMap<>();
 	private final Executor searchExecutor = Executors.newWorkStealingPool();
 
 	public void add(T entry) {
-		Entry<T> e = Entry.from(entry);
-		this.entries.put(entry, e);
+		this.add(Entry.from(entry));
 	}
 
 	public void add(Entry<T> entry) {
-		this.entries.put(entry.searchEntry, entry);
+		Utils.withLock(this.lock.writeLock(), () -> this.add0(entry));
 	}
 
 	public void addAll(Collection<T> entries) {
-		this.entries.putAll(entries.parallelStream().collect(Collectors.toMap(e -> e, Entry::from)));
+		List<Entry<T>> created = entries.parallelStream().map(Entry::from).toList();
+		Utils.withLock(this.lock.writeLock(), () -> created.forEach(this::add0));
 	}
 
 	public void remove(T entry) {
-		this.entries.remove(entry);
+		Utils.withLock(this.lock.writeLock(), () -> this.remove0(entry));
 	}
 
 	public void clear() {
-		this.entries.clear();
+		Utils.withLock(this.lock.writeLock(), () -> {
+			this.slots.clear();
+			this.slotIndices.clear();
+			this.freeSlots.clear();
+			this.characterIndex.clear();
+			this.initialIndex.clear();
+		});
 	}
 
 	public void clearHits() {
 		this.hitCount.clear();
 	}
 
+	private void add0(Entry<T> entry) {
+		this.remove0(entry.searchEntry);
+
+		int slot = this.freeSlots.nextSetBit(0);
+		if (slot < 0) {
+			slot = this.slots.size();
+			this.slots.add(entry);
+		} else {
+			this.freeSlots.clear(slot);
+			this.slots.set(slot, entry);
+		}
+
+		this.slotIndices.put(entry.searchEntry, slot);
+		this.updateIndex(entry, slot, true);
+	}
+
+	private void remove0(T entry) {
+		Integer slot = this.slotIndices.remove(entry);
+		if (slot != null) {
+			this.updateIndex(this.slots.get(slot), slot, false);
+			this.slots.set(slot, null);
+			this.freeSlots.set(slot);
+		}
+	}
+
+	private void updateIndex(Entry<T> entry, int slot, boolean value) {
+		for (char[][] name : entry.components) {
+			for (char[] component : name) {
+				if (component.length == 0) {
+					continue;
+				}
+
+				this.initialIndex.computeIfAbsent(component[0], c -> new BitSet()).set(slot, value);
+				for (char c : component) {
+					this.characterIndex.computeIfAbsent(c, k -> new BitSet()).set(slot, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects the entries that can have a positive score for the given term.
+	 * Must be called while holding the read lock.
+	 */
+	private List<Entry<T>> getCandidates(String term) {
+		String ucTerm = term.toUpperCase(Locale.ROOT);
+		if (ucTerm.isEmpty()) {
+			return List.of();
+		}
+
+		BitSet initials = this.initialIndex.get(ucTerm.charAt(0));
+		if (initials == null) {
+			return List.of();
+		}
+
+		BitSet candidates = (BitSet) initials.clone();
+		for (int i = 0; i < ucTerm.length() && !candidates.isEmpty(); i++) {
+			BitSet containing = this.characterIndex.get(ucTerm.charAt(i));
+			if (containing == null) {
+				return List.of();
+			}
+
+			candidates.and(containing);
+		}
+
+		List<Entry<T>> entries = new ArrayList<>(candidates.cardinality());
+		for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+			entries.add(this.slots.get(slot));
+		}
+
+		return entries;
+	}
+
 	public Stream<T> search(String term) {
-		return this.entries.values().parallelStream()
-				.map(e -> new Pair<>(e, e.getScore(term, this.hitCount.getOrDefault(e.searchEntry.getIdentifier(), 0))))
+		List<Entry<T>> candidates = Utils.withLock(this.lock.readLock(), () -> this.getCandidates(term));
+		Term precomputed = new Term(term);
+		return candidates.parallelStream()
+				.map(e -> new Pair<>(e, e.getScore(precomputed, this.hitCount.getOrDefault(e.searchEntry.getIdentifier(), 0))))
 				.filter(e -> e.b() > 0)
 				.sorted(Comparator.comparingDouble(o -> -o.b()))
 				.map(e -> e.a().searchEntry)
@@ -61,52 +164,74 @@ public class SearchUtil<T extends SearchEntry> {
 	}
 
 	public SearchControl asyncSearch(String term, SearchResultConsumer<T> consumer, boolean onlyExactMatches) {
+		return this.asyncSearch(term, consumer, onlyExactMatches, entry -> true);
+	}
+
+	/**
+	 * Scores all entries matching a filter against a term on a background pool, reporting matches as they're found.
+	 *
+	 * @param term the search term
+	 * @param consumer receives matches with their position among the matches found so far
+	 * @param onlyExactMatches whether to only report entries with a name equal to the term, ignoring case
+	 * @param filter the entries to consider
+	 * @return a handle to the running search
+	 */
+	public SearchControl asyncSearch(String term, SearchResultConsumer<T> consumer, boolean onlyExactMatches, Predicate<T> filter) {
 		Map<String, Integer> hitCount = new HashMap<>(this.hitCount);
-		Map<T, Entry<T>> entries = new HashMap<>(this.entries);
+		List<Entry<T>> entries = Utils.withLock(this.lock.readLock(), () -> this.getCandidates(term));
+		Term precomputed = new Term(term);
 		float[] scores = new float[entries.size()];
 		Lock scoresLock = new ReentrantLock();
 		AtomicInteger size = new AtomicInteger();
 		AtomicBoolean control = new AtomicBoolean(false);
 		AtomicInteger elapsed = new AtomicInteger();
 
-		for (Entry<T> value : entries.values()) {
+		for (int chunkStart = 0; chunkStart < entries.size(); chunkStart += CHUNK_SIZE) {
+			List<Entry<T>> chunk = entries.subList(chunkStart, Math.min(chunkStart + CHUNK_SIZE, entries.size()));
 			this.searchExecutor.execute(() -> {
 				try {
-					if (control.get()) {
-						return;
-					}
-
-					// if onlyExactMatches is true, don't add any entries that don't have an exact match
-					if (onlyExactMatches && value.searchEntry.getSearchableNames().stream().noneMatch(name -> name.equalsIgnoreCase(term))) {
-						return;
-					}
-
-					float score = value.getScore(term, hitCount.getOrDefault(value.searchEntry.getIdentifier(), 0));
-					if (score <= 0) {
-						return;
-					}
-
-					score = -score; // sort descending
-					try {
-						scoresLock.lock();
+					for (Entry<T> value : chunk) {
 						if (control.get()) {
 							return;
 						}
 
-						int dataSize = size.getAndIncrement();
-						int index = Arrays.binarySearch(scores, 0, dataSize, score);
-						if (index < 0) {
-							index = ~index;
+						if (!filter.test(value.searchEntry)) {
+							continue;
+						}
+
+						// if onlyExactMatches is true, don't add any entries that don't have an exact match
+						if (onlyExactMatches && !value.isExactMatch(precomputed)) {
+							continue;
+						}
+
+						float score = value.getScore(precomputed, hitCount.getOrDefault(value.searchEntry.getIdentifier(), 0));
+						if (score <= 0) {
+							continue;
 						}
 
-						System.arraycopy(scores, index, scores, index + 1, dataSize - index);
-						scores[index] = score;
-						consumer.add(index, value.searchEntry);
-					} finally {
-						scoresLock.unlock();
+						score = -score; // sort descending
+						try {
+							scoresLock.lock();
+							if (control.get()) {
+								return;
+							}
+
+							int dataSize = size.getAndIncrement();
+							int index = Arrays.binarySearch(scores, 0, dataSize, score);
+							if (index < 0) {
+								index = ~index;
+							}
+
+							System.arraycopy(scores, index, scores, index + 1, dataSize - index);
+							scores[index] = score;
+							consumer.add(index, value.searchEntry);
+						} finally {
+							scoresLock.unlock();
+						}
 					}
 				} finally {
-					elapsed.incrementAndGet();
+					// stopped chunks count as done too, so the search always finishes
+					elapsed.addAndGet(chunk.size());
 				}
 			});
 		}
@@ -124,114 +249,168 @@ public class SearchUtil<T extends SearchEntry> {
 
 			@Override
 			public float getProgress() {
-				return (float) elapsed.get() / entries.size();
+				return entries.isEmpty() ? 1 : (float) elapsed.get() / entries.size();
 			}
 		};
 	}
 
 	public void hit(T entry) {
-		if (this.entries.containsKey(entry)) {
+		if (Utils.withLock(this.lock.readLock(), () -> this.slotIndices.containsKey(entry))) {
 			this.hitCount.compute(entry.getIdentifier(), (id, i) -> i == null ? 1 : i + 1);
 		}
 	}
 
 	public static final class Entry<T extends SearchEntry> {
+		private static final ThreadLocal<float[]> SCORE_SCRATCH = ThreadLocal.withInitial(() -> new float[32]);
+
 		public final T searchEntry;
-		private final String[][] components;
+		private final String[] names;
+		private final int[] nameHashes;
+		// the upper-case components of each name, see wordwiseSplit
+		private final char[][][] components;
+		private final float[] scoresPerChar;
 
-		private Entry(T searchEntry, String[][] components) {
+		private Entry(T searchEntry, String[] names, char[][][] components, float[] scoresPerChar) {
 			this.searchEntry = searchEntry;
+			this.names = names;
+			this.nameHashes = new int[names.length];
 			this.components = components;
+			this.scoresPerChar = scoresPerChar;
+
+			for (int i = 0; i < names.length; i++) {
+				this.nameHashes[i] = caseInsensitiveHash(names[i]);
+			}
 		}
 
 		public float getScore(String term, int hits) {
-			String ucTerm = term.toUpperCase(Locale.ROOT);
+			return this.getScore(new Term(term), hits);
+		}
+
+		private float getScore(Term term, int hits) {
 			float maxScore;
 
 			// if exact match, make sure it's at the top of the list
-			if (this.searchEntry.getSearchableNames().stream().anyMatch(name -> name.equalsIgnoreCase(term))) {
+			if (this.isExactMatch(term)) {
 				maxScore = Float.MAX_VALUE / 2;
 			} else {
-				maxScore = (float) Arrays.stream(this.components)
-						.mapToDouble(name -> getScoreFor(ucTerm, name))
-						.max()
-						.orElse(0.0);
+				maxScore = 0;
+				for (int i = 0; i < this.components.length; i++) {
+					maxScore = Math.max(maxScore, getScoreFor(term.upperCase, this.components[i], this.scoresPerChar[i]));
+				}
 			}
 
 			// modify by type
 			return maxScore * (hits + 1) * this.searchEntry.getTypePriority();
 		}
 
+		/**
+		 * {@return whether any name of this entry is equal to the term, ignoring case}
+		 */
+		private boolean isExactMatch(Term term) {
+			for (int i = 0; i < this.names.length; i++) {
+				if (this.nameHashes[i] == term.hash && this.names[i].length() == term.term.length() && this.names[i].equalsIgnoreCase(term.term)) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
 		/**
 		 * Computes the score for the given <code>name</code> against the given search term.
 		 *
 		 * @param term the search term (expected to be upper-case)
-		 * @param name the entry name, split at word boundaries (see {@link Entry#wordwiseSplit(String)})
+		 * @param name the upper-case entry name, split at word boundaries (see {@link Entry#wordwiseSplit(String)})
+		 * @param scorePerChar the score of a single matched character, which is the inverse of the name's length
 		 * @return the computed score for the entry
 		 */
-		private static float getScoreFor(String term, String[] name) {
-			int totalLength = Arrays.stream(name).mapToInt(String::length).sum();
-			float scorePerChar = 1f / totalLength;
-
-			// This map contains a snapshot of all the states the search has
-			// been in. The keys are the remaining characters of the search
-			// term, the values are the maximum scores for that remaining
-			// search term part.
-			Map<String, Float> snapshots = new HashMap<>();
-			snapshots.put(term, 0f);
-
-			// For each component, start at each existing snapshot, searching
-			// for the next longest match, and calculate the new score for each
-			// match length until the maximum. Then the new scores are put back
-			// into the snapshot map.
+		private static float getScoreFor(char[] term, char[][] name, float scorePerChar) {
+			// The state of the search is the number of consumed characters
+			// of the search term. scores[k] is the maximum score reached
+			// after consuming k characters, or negative infinity if no
+			// combination of component prefixes spells the first k
+			// characters.
+			float[] scores = SCORE_SCRATCH.get();
+			if (scores.length <= term.length) {
+				scores = new float[Math.max(term.length + 1, scores.length * 2)];
+				SCORE_SCRATCH.set(scores);
+			}
+
+			scores[0] = 0;
+			Arrays.fill(scores, 1, term.length + 1, Float.NEGATIVE_INFINITY);
+
+			// For each component, start at each reached state, searching for
+			// the longest match, and calculate the new score for each match
+			// length until the maximum. States are visited from the most
+			// consumed one down, so a state updated by this component is
+			// never extended by it again.
 			for (int componentIndex = 0; componentIndex < name.length; componentIndex++) {
-				String component = name[componentIndex];
+				char[] component = name[componentIndex];
 				float posMultiplier = (name.length - componentIndex) * 0.3f;
-				Map<String, Float> newSnapshots = new HashMap<>();
-				for (Map.Entry<String, Float> snapshot : snapshots.entrySet()) {
-					String remaining = snapshot.getKey();
-					float score = snapshot.getValue();
-					component = component.toUpperCase(Locale.ROOT);
-					int l = compareEqualLength(remaining, component);
+				for (int consumed = term.length - 1; consumed >= 0; consumed--) {
+					float score = scores[consumed];
+					if (score == Float.NEGATIVE_INFINITY) {
+						continue;
+					}
+
+					int l = compareEqualLength(term, consumed, component);
 					for (int i = 1; i <= l; i++) {
 						float baseScore = scorePerChar * i;
 						float chainBonus = (i - 1) * 0.5f;
-						merge(newSnapshots, Collections.singletonMap(remaining.substring(i), score + baseScore * posMultiplier + chainBonus), Math::max);
+						scores[consumed + i] = Math.max(scores[consumed + i], score + baseScore * posMultiplier + chainBonus);
 					}
 				}
-
-				merge(snapshots, newSnapshots, Math::max);
 			}
 
 			// Only return the score for when the search term was completely
 			// consumed.
-			return snapshots.getOrDefault("", 0f);
+			float score = scores[term.length];
+			return score == Float.NEGATIVE_INFINITY ? 0 : score;
 		}
 
-		private static <K, V> void merge(Map<K, V> self, Map<K, V> source, BiFunction<V, V, V> combiner) {
-			source.forEach((k, v) -> {
-				if (v != null) {
-					self.merge(k, v, combiner);
+		public static <T extends SearchEntry> Entry<T> from(T e) {
+			String[] names = e.getSearchableNames().toArray(new String[0]);
+			char[][][] components = new char[names.length][][];
+			float[] scoresPerChar = new float[names.length];
+			for (int i = 0; i < names.length; i++) {
+				String[] split = wordwiseSplit(names[i]);
+				int totalLength = 0;
+				components[i] = new char[split.length][];
+				for (int j = 0; j < split.length; j++) {
+					totalLength += split[j].length();
+					components[i][j] = split[j].toUpperCase(Locale.ROOT).toCharArray();
 				}
-			});
-		}
 
-		public static <T extends SearchEntry> Entry<T> from(T e) {
-			String[][] components = e.getSearchableNames().parallelStream()
-					.map(Entry::wordwiseSplit)
-					.toArray(String[][]::new);
-			return new Entry<>(e, components);
+				scoresPerChar[i] = 1f / totalLength;
+			}
+
+			return new Entry<>(e, names, components, scoresPerChar);
 		}
 
-		private static int compareEqualLength(String s1, String s2) {
+		private static int compareEqualLength(char[] term, int offset, char[] component) {
 			int len = 0;
-			while (len < s1.length() && len < s2.length() && s1.charAt(len) == s2.charAt(len)) {
+			while (offset + len < term.length && len < component.length && term[offset + len] == component[len]) {
 				len += 1;
 			}
 
 			return len;
 		}
 
+		/**
+		 * Hashes a string so that strings that are {@link String#equalsIgnoreCase(String) equal ignoring case}
+		 * have the same hash.
+		 */
+		private static int caseInsensitiveHash(String s) {
+			int hash = 0;
+			for (int i = 0; i < s.length(); ) {
+				int codePoint = s.codePointAt(i);
+				hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(codePoint));
+				i += Character.charCount(codePoint);
+			}
+
+			return hash;
+		}
+
 		/**
 		 * Splits the given input into components, trying to detect word parts.
 		 *
@@ -295,6 +474,21 @@ public class SearchUtil<T extends SearchEntry> {
 		}
 	}
 
+	/**
+	 * A search term with everything scoring needs computed once per search instead of once per entry.
+	 */
+	private static final class Term {
+		private final String term;
+		private final char[] upperCase;
+		private final int hash;
+
+		private Term(String term) {
+			this.term = term;
+			this.upperCase = term.toUpperCase(Locale.ROOT).toCharArray();
+			this.hash = Entry.caseInsensitiveHash(term);
+		}
+	}
+
 	@FunctionalInterface
 	public interface SearchResultConsumer<T extends SearchEntry> {
 		void add(int index, T entry);
@@ -3,10 +3,7 @@ package org.quiltmc.enigma.gui.util;
 import org.quiltmc.enigma.api.translation.mapping.EntryChange;
 import org.quiltmc.enigma.gui.ClassSelector;
 import org.quiltmc.enigma.gui.Gui;
-import org.quiltmc.enigma.gui.config.Config;
 import org.quiltmc.enigma.gui.dialog.ProgressDialog;
-import org.quiltmc.enigma.gui.docker.ClassesDocker;
-import org.quiltmc.enigma.gui.docker.Docker;
 import org.quiltmc.enigma.gui.node.ClassSelectorClassNode;
 import org.quiltmc.enigma.gui.node.ClassSelectorPackageNode;
 import org.quiltmc.enigma.util.I18n;
@@ -21,6 +18,7 @@ import javax.swing.JTextArea;
 import javax.swing.tree.TreeNode;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -164,39 +162,24 @@ public class PackageRenamer {
 
 			listener.init(renameStack.size(), I18n.translate("popup_menu.class_selector.package_rename.renaming_classes"));
 
-			Map<ClassesDocker, List<ClassSelector.StateEntry>> expansionStates = new HashMap<>();
-			for (Docker docker : this.gui.getDockerManager().getDockers()) {
-				if (docker instanceof ClassesDocker classesDocker) {
-					expansionStates.put(classesDocker, classesDocker.getClassSelector().getExpansionState());
+			if (!renameStack.isEmpty() && !this.gui.isTestEnvironment()) {
+				int continueOperation = JOptionPane.showConfirmDialog(this.gui.getFrame(), buildConfirmationPanel(renameStack));
+				if (continueOperation != JOptionPane.YES_OPTION) {
+					return;
 				}
 			}
 
-			boolean confirmed = false;
+			List<EntryChange<?>> changes = new ArrayList<>(renameStack.size());
 			int i = 0;
 			for (var entry : renameStack.entrySet()) {
-				if (!confirmed && !this.gui.isTestEnvironment()) {
-					int continueOperation = JOptionPane.showConfirmDialog(this.gui.getFrame(), buildConfirmationPanel(renameStack));
-					if (continueOperation != JOptionPane.YES_OPTION) {
-						return;
-					} else {
-						confirmed = true;
-					}
-				}
-
 				listener.step(i, I18n.translateFormatted("popup_menu.class_selector.package_rename.renaming_class", entry.getKey()));
-				entry.getValue().executeRename();
+				changes.add(entry.getValue().createChange());
 				i++;
 			}
 
-			for (var entry : expansionStates.entrySet()) {
-				ClassSelector classSelector = entry.getKey().getClassSelector();
-				classSelector.reload();
-				classSelector.restoreExpansionState(entry.getValue());
-			}
-
-			if (Config.editor().autoSaveMappings.value() && this.gui.mappingsFileChooser.getSelectedFile() != null) {
-				this.gui.getController().saveMappings(this.gui.mappingsFileChooser.getSelectedFile().toPath(), true);
-			}
+			// all classes are renamed in one batch, which only reloads the class trees and stats once
+			// ignore warnings, we don't want to bother the user with every individual package created
+			this.gui.getController().applyChanges(new ValidationContext(this.gui.getNotificationManager(), false), changes, true);
 		});
 	}
 
@@ -260,11 +243,9 @@ public class PackageRenamer {
 				private String cachedNewName = null;
 
 				@Override
-				public void executeRename() {
+				public EntryChange<?> createChange() {
 					String newName = this.cachedNewName == null ? this.getNewName() : this.cachedNewName;
-
-					// ignore warnings, we don't want to bother the user with every individual package created
-					PackageRenamer.this.gui.getController().applyChange(new ValidationContext(PackageRenamer.this.gui.getNotificationManager(), false), EntryChange.modify(classNode.getObfEntry()).withDeobfName(newName), false, false);
+					return EntryChange.modify(classNode.getObfEntry()).withDeobfName(newName);
 				}
 
 				@Override
@@ -372,7 +353,7 @@ public class PackageRenamer {
 	}
 
 	private interface ClassRename {
-		void executeRename();
+		EntryChange<?> createChange();
 
 		String getNewName();
 	}
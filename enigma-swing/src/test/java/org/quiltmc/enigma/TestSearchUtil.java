@@ -0,0 +1,129 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.gui.search.SearchEntry;
+import org.quiltmc.enigma.gui.search.SearchUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+public class TestSearchUtil {
+	private record Named(String name) implements SearchEntry {
+		@Override
+		public List<String> getSearchableNames() {
+			return List.of(this.name);
+		}
+
+		@Override
+		public String getIdentifier() {
+			return this.name;
+		}
+
+		@Override
+		public int getTypePriority() {
+			return 1;
+		}
+	}
+
+	private static List<String> search(SearchUtil<Named> util, String term) {
+		return util.search(term).map(Named::name).toList();
+	}
+
+	@Test
+	public void testAbbreviations() {
+		SearchUtil<Named> util = new SearchUtil<>();
+		util.addAll(List.of(new Named("MinecraftClientGame"), new Named("HTTPInputStream"), new Named("class_932")));
+
+		Assertions.assertEquals(List.of("MinecraftClientGame"), search(util, "mcg"));
+		Assertions.assertEquals(List.of("HTTPInputStream"), search(util, "InputStr"));
+		Assertions.assertEquals(List.of("class_932"), search(util, "class_932"));
+		Assertions.assertEquals(List.of(), search(util, "gm"));
+		Assertions.assertEquals(List.of(), search(util, ""));
+	}
+
+	@Test
+	public void testIncrementalUpdates() {
+		SearchUtil<Named> util = new SearchUtil<>();
+		Named obfuscated = new Named("a");
+		util.add(obfuscated);
+		util.add(new Named("Other"));
+
+		Named renamed = new Named("RenamedClass");
+		util.remove(obfuscated);
+		util.add(renamed);
+
+		Assertions.assertEquals(List.of(), search(util, "a"));
+		Assertions.assertEquals(List.of("RenamedClass"), search(util, "rc"));
+		Assertions.assertEquals(List.of("Other"), search(util, "oth"));
+	}
+
+	@Test
+	public void testScoresMatchReference() {
+		// names pre-split the way wordwiseSplit splits them, with '|' as separator
+		List<String> splitNames = List.of(
+				"Minecraft|Client|Game", "HTTP|Input|Stream", "class|_|9|3|2",
+				"open|HTTP|Connection", "open|_|http|_|connection", "a", "Aa|Aa|Aa|A"
+		);
+
+		List<String> terms = new ArrayList<>(List.of("", "mcg", "gm", "InputStr", "class_932", "x11fm", "ohc", "o_h_c", "aaaa", "AAAAAAA", "httpinputstream"));
+		Random random = new Random(42);
+		for (String splitName : splitNames) {
+			String name = splitName.replace("|", "");
+			for (int i = 0; i < 50; i++) {
+				int start = random.nextInt(name.length());
+				int end = start + 1 + random.nextInt(name.length() - start);
+				terms.add(name.substring(start, end));
+				terms.add(name.substring(start, end).toLowerCase(Locale.ROOT) + name.charAt(random.nextInt(name.length())));
+			}
+		}
+
+		for (String splitName : splitNames) {
+			String name = splitName.replace("|", "");
+			SearchUtil.Entry<Named> entry = SearchUtil.Entry.from(new Named(name));
+			for (String term : terms) {
+				float expected = name.equalsIgnoreCase(term) ? Float.MAX_VALUE / 2 : referenceScore(term.toUpperCase(Locale.ROOT), splitName.split("\\|"));
+				Assertions.assertEquals(expected * 3, entry.getScore(term, 2), name + " / " + term);
+			}
+		}
+	}
+
+	/**
+	 * The scoring algorithm from before scores were computed over arrays, kept to make sure scores don't change.
+	 */
+	private static float referenceScore(String term, String[] name) {
+		int totalLength = Arrays.stream(name).mapToInt(String::length).sum();
+		float scorePerChar = 1f / totalLength;
+		Map<String, Float> snapshots = new HashMap<>();
+		snapshots.put(term, 0f);
+
+		for (int componentIndex = 0; componentIndex < name.length; componentIndex++) {
+			String component = name[componentIndex].toUpperCase(Locale.ROOT);
+			float posMultiplier = (name.length - componentIndex) * 0.3f;
+			Map<String, Float> newSnapshots = new HashMap<>();
+			for (Map.Entry<String, Float> snapshot : snapshots.entrySet()) {
+				String remaining = snapshot.getKey();
+				float score = snapshot.getValue();
+				int l = 0;
+				while (l < remaining.length() && l < component.length() && remaining.charAt(l) == component.charAt(l)) {
+					l++;
+				}
+
+				for (int i = 1; i <= l; i++) {
+					float baseScore = scorePerChar * i;
+					float chainBonus = (i - 1) * 0.5f;
+					newSnapshots.merge(remaining.substring(i), score + baseScore * posMultiplier + chainBonus, Math::max);
+				}
+			}
+
+			newSnapshots.forEach((k, v) -> snapshots.merge(k, v, Math::max));
+		}
+
+		return snapshots.getOrDefault("", 0f);
+	}
+}
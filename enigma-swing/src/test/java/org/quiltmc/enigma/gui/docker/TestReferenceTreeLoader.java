@@ -0,0 +1,170 @@
+package org.quiltmc.enigma.gui.docker;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.tree.ReferenceTreeNode;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.DefaultTreeModel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+public class TestReferenceTreeLoader {
+	private static final JarIndex INDEX = MainJarIndex.empty();
+
+	private final ManualExecutor loadExecutor = new ManualExecutor();
+	private final ManualExecutor uiExecutor = new ManualExecutor();
+	private final ReferenceTreeLoader loader = new ReferenceTreeLoader(this.loadExecutor, this.uiExecutor);
+
+	@Test
+	public void testPaging() {
+		TestNode root = new TestNode(2 * ReferenceTreeLoader.PAGE_SIZE + 1, true);
+		DefaultTreeModel model = new DefaultTreeModel(root);
+		this.loader.load(model, root, INDEX, root::createChildren);
+		Assertions.assertInstanceOf(ReferenceTreeLoader.LoadingNode.class, root.getChildAt(0));
+
+		this.loadExecutor.runAll();
+		this.uiExecutor.runAll();
+		Assertions.assertEquals(ReferenceTreeLoader.PAGE_SIZE + 1, root.getChildCount());
+		ReferenceTreeLoader.LoadMoreNode loadMore = (ReferenceTreeLoader.LoadMoreNode) root.getLastChild();
+
+		this.loader.loadMore(model, loadMore);
+		Assertions.assertEquals(2 * ReferenceTreeLoader.PAGE_SIZE + 1, root.getChildCount());
+		loadMore = (ReferenceTreeLoader.LoadMoreNode) root.getLastChild();
+
+		this.loader.loadMore(model, loadMore);
+		Assertions.assertEquals(2 * ReferenceTreeLoader.PAGE_SIZE + 1, root.getChildCount());
+		Assertions.assertEquals(root.children, childNodes(root));
+	}
+
+	@Test
+	public void testFullPage() {
+		TestNode root = new TestNode(ReferenceTreeLoader.PAGE_SIZE, true);
+		this.loader.load(new DefaultTreeModel(root), root, INDEX, root::createChildren);
+		this.loadExecutor.runAll();
+		this.uiExecutor.runAll();
+
+		Assertions.assertEquals(root.children, childNodes(root));
+	}
+
+	@Test
+	public void testOnlyExpandableChildrenHavePlaceholders() {
+		TestNode root = new TestNode(2, false);
+		DefaultTreeModel model = new DefaultTreeModel(root);
+		root.children.set(1, new TestNode(3, true));
+		this.loader.load(model, root, INDEX, root::createChildren);
+		this.loadExecutor.runAll();
+		this.uiExecutor.runAll();
+
+		Assertions.assertTrue(root.getChildAt(0).isLeaf());
+		TestNode expandable = (TestNode) root.getChildAt(1);
+		Assertions.assertInstanceOf(ReferenceTreeLoader.LoadingNode.class, expandable.getChildAt(0));
+
+		this.loader.loadIfPending(model, expandable, INDEX);
+		this.loadExecutor.runAll();
+		this.uiExecutor.runAll();
+		Assertions.assertEquals(expandable.children, childNodes(expandable));
+
+		// loaded children aren't loaded again
+		this.loader.loadIfPending(model, expandable, INDEX);
+		Assertions.assertEquals(0, this.loadExecutor.tasks.size());
+	}
+
+	@Test
+	public void testStaleLoadsDropped() {
+		TestNode root = new TestNode(3, true);
+		this.loader.load(new DefaultTreeModel(root), root, INDEX, root::createChildren);
+		this.loader.reset();
+		this.loadExecutor.runAll();
+		Assertions.assertEquals(0, this.uiExecutor.tasks.size());
+
+		TestNode other = new TestNode(3, true);
+		this.loader.load(new DefaultTreeModel(other), other, INDEX, other::createChildren);
+		this.loadExecutor.runAll();
+		// shown another tree while the children were being looked up
+		this.loader.reset();
+		this.uiExecutor.runAll();
+
+		Assertions.assertInstanceOf(ReferenceTreeLoader.LoadingNode.class, root.getChildAt(0));
+		Assertions.assertInstanceOf(ReferenceTreeLoader.LoadingNode.class, other.getChildAt(0));
+	}
+
+	@Test
+	public void testFailedLoad() {
+		TestNode root = new TestNode(0, true);
+		this.loader.load(new DefaultTreeModel(root), root, INDEX, index -> {
+			throw new IllegalStateException("expected");
+		});
+		this.loadExecutor.runAll();
+		this.uiExecutor.runAll();
+
+		Assertions.assertEquals(1, root.getChildCount());
+		Assertions.assertFalse(root.getChildAt(0) instanceof ReferenceTreeLoader.LoadingNode);
+		Assertions.assertTrue(root.getChildAt(0).isLeaf());
+	}
+
+	private static List<DefaultMutableTreeNode> childNodes(DefaultMutableTreeNode node) {
+		List<DefaultMutableTreeNode> children = new ArrayList<>();
+		for (int i = 0; i < node.getChildCount(); i++) {
+			children.add((DefaultMutableTreeNode) node.getChildAt(i));
+		}
+
+		return children;
+	}
+
+	private static final class ManualExecutor implements Executor {
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+		@Override
+		public void execute(Runnable command) {
+			this.tasks.add(command);
+		}
+
+		void runAll() {
+			Runnable task;
+			while ((task = this.tasks.poll()) != null) {
+				task.run();
+			}
+		}
+	}
+
+	private static final class TestNode extends DefaultMutableTreeNode implements ReferenceTreeNode<ClassEntry, MethodDefEntry> {
+		private final List<TestNode> children = new ArrayList<>();
+		private final boolean hasChildren;
+
+		private TestNode(int childCount, boolean hasChildren) {
+			this.hasChildren = hasChildren;
+			for (int i = 0; i < childCount; i++) {
+				this.children.add(new TestNode(0, false));
+			}
+		}
+
+		@Override
+		public ClassEntry getEntry() {
+			return null;
+		}
+
+		@Override
+		public EntryReference<ClassEntry, MethodDefEntry> getReference() {
+			return null;
+		}
+
+		@Override
+		public List<TestNode> createChildren(JarIndex index) {
+			return this.children;
+		}
+
+		@Override
+		public boolean hasChildren(JarIndex index) {
+			return this.hasChildren;
+		}
+	}
+}
@@ -1,11 +1,13 @@
 package org.quiltmc.enigma.api;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.io.MoreFiles;
 import org.jspecify.annotations.Nullable;
 import org.objectweb.asm.Opcodes;
 import org.quiltmc.enigma.api.analysis.index.jar.CombinedJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.LibrariesJarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
 import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
@@ -16,6 +18,8 @@ import org.quiltmc.enigma.api.class_provider.CombiningClassProvider;
 import org.quiltmc.enigma.api.class_provider.JarClassProvider;
 import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
 import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.metrics.Metrics;
+import org.quiltmc.enigma.api.metrics.Timer;
 import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
 import org.quiltmc.enigma.impl.analysis.ClassLoaderClassProvider;
 import org.quiltmc.enigma.api.service.EnigmaService;
@@ -28,9 +32,11 @@ import org.quiltmc.enigma.api.service.ReadWriteService;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.serde.FileType;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.impl.analysis.index.AbstractJarIndex;
+import org.quiltmc.enigma.impl.analysis.index.IndexLog;
+import org.quiltmc.enigma.impl.analysis.index.LibraryIndexCache;
 import org.quiltmc.enigma.util.Either;
 import org.quiltmc.enigma.util.I18n;
 import org.quiltmc.enigma.util.Utils;
@@ -45,8 +51,10 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.sql.DriverManager;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -54,6 +62,12 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class Enigma {
@@ -88,10 +102,12 @@ public class Enigma {
 
 	private final EnigmaProfile profile;
 	private final EnigmaServices services;
+	private final LibraryIndexCache libraryIndexCache;
 
-	private Enigma(EnigmaProfile profile, EnigmaServices services) {
+	private Enigma(EnigmaProfile profile, EnigmaServices services, LibraryIndexCache libraryIndexCache) {
 		this.profile = profile;
 		this.services = services;
+		this.libraryIndexCache = libraryIndexCache;
 	}
 
 	public static Enigma create() {
@@ -105,8 +121,6 @@ public class Enigma {
 	public EnigmaProject openJar(Path path, ClassProvider libraryClassProvider, ProgressListener progress) throws IOException {
 		JarClassProvider jarClassProvider = new JarClassProvider(path);
 		MainJarIndex jarIndex = MainJarIndex.empty();
-		LibrariesJarIndex libIndex = LibrariesJarIndex.empty();
-		CombinedJarIndex comboIndex = CombinedJarIndex.empty(jarIndex, libIndex);
 
 		ClassLoaderClassProvider jreProvider = new ClassLoaderClassProvider(DriverManager.class.getClassLoader());
 		ClasspathClassProvider javaClassProvider = new ClasspathClassProvider();
@@ -114,48 +128,154 @@ public class Enigma {
 		ClassProvider mainProjectProvider = new ObfuscationFixClassProvider(new CachingClassProvider(jarClassProvider), jarIndex);
 		ProjectClassProvider projectClassProvider = new ProjectClassProvider(mainProjectProvider, librariesProvider);
 
-		// main index
-		this.index(jarIndex, projectClassProvider, progress, "jar", false);
+		try (Timer.Sample ignored = Metrics.timer("open_jar").start()) {
+			// main index
+			IndexLog jarLog;
+			try (Timer.Sample ignoredPhase = Metrics.timer("open_jar.index_jar").start()) {
+				jarLog = jarIndex.indexJarRecording(projectClassProvider, progress);
+				this.runCustomIndexers(jarIndex, projectClassProvider, progress, "jar", false);
+			}
+
+			// lib index, shared with other projects using the same libraries unless custom indexers need their own
+			LibraryIndexCache.CachedIndex libs;
+			LibrariesJarIndex libIndex;
+			try (Timer.Sample ignoredPhase = Metrics.timer("open_jar.index_libraries").start()) {
+				libs = this.services.get(JarIndexerService.TYPE).stream().anyMatch(JarIndexerService::shouldIndexLibraries)
+						? LibraryIndexCache.index(projectClassProvider, progress)
+						: this.libraryIndexCache.get(projectClassProvider, librariesProvider, progress);
+				libIndex = libs.index();
+				this.runCustomIndexers(libIndex, projectClassProvider, progress, "libs", true);
+			}
+
+			// combined main and lib index, replayed from the other indexes rather than reading every class again
+			CombinedJarIndex comboIndex;
+			try (Timer.Sample ignoredPhase = Metrics.timer("open_jar.index_combined").start()) {
+				comboIndex = CombinedJarIndex.empty(jarIndex, libIndex);
+				comboIndex.indexJar(progress, jarLog, libs.log());
+				this.runCustomIndexers(comboIndex, projectClassProvider, progress, "combined", true);
+			}
+
+			// name proposal
+			EntryTree<EntryMapping> proposedNames;
+			try (Timer.Sample ignoredPhase = Metrics.timer("open_jar.name_proposal").start()) {
+				proposedNames = this.proposeNames(jarIndex, progress);
+			}
+
+			MappingsIndex mappingsIndex = MappingsIndex.empty();
+			try (Timer.Sample ignoredPhase = Metrics.timer("open_jar.index_mappings").start()) {
+				mappingsIndex.indexMappings(proposedNames, progress);
+			}
+
+			return new EnigmaProject(this, path, mainProjectProvider, jarIndex, libIndex, comboIndex, mappingsIndex, proposedNames, Utils.zipSha1(path));
+		}
+	}
+
+	/**
+	 * Runs every name proposal service over the jar. Thread-safe services are run concurrently while the others
+	 * run on this thread, and their proposals are then merged in {@linkplain #getNameProposalServices() priority order}.
+	 * Services exceeding the profile's {@linkplain EnigmaProfile#getNameProposalTimeout() timeout} are dropped.
+	 */
+	private EntryTree<EntryMapping> proposeNames(JarIndex jarIndex, ProgressListener progress) {
+		List<NameProposalService> services = this.getNameProposalServices();
+		progress.init(services.size(), I18n.translate("progress.jar.name_proposal"));
+
+		long timeout = this.profile.getNameProposalTimeout().map(Duration::toNanos).orElse(Long.MAX_VALUE);
+		ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "Enigma name proposer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// services which aren't thread-safe run one at a time, on a thread that is replaced when one of them times out
+		ExecutorService serialExecutor = newSerialProposer();
+
+		List<Proposals> results = new ArrayList<>();
+
+		try {
+			long start = System.nanoTime();
+			Map<NameProposalService, Future<Proposals>> running = new HashMap<>();
+			for (var service : services) {
+				if (service.isThreadSafe()) {
+					running.put(service, executor.submit(() -> Proposals.of(service, jarIndex, this)));
+				}
+			}
 
-		// lib index
-		this.index(libIndex, projectClassProvider, progress, "libs", true);
+			int j = 1;
+			for (var service : services) {
+				progress.step(j++, I18n.translateFormatted("progress.jar.name_proposal.proposer", service.getId()));
 
-		// combined main and lib index
-		this.index(comboIndex, projectClassProvider, progress, "combined", true);
+				Future<Proposals> future = running.get(service);
+				long serviceStart = start;
+				if (future == null) {
+					serviceStart = System.nanoTime();
+					future = serialExecutor.submit(() -> Proposals.of(service, jarIndex, this));
+				}
+
+				Proposals proposals;
+				try {
+					long remaining = timeout == Long.MAX_VALUE ? timeout : Math.max(0, serviceStart + timeout - System.nanoTime());
+					proposals = future.get(remaining, TimeUnit.NANOSECONDS);
+				} catch (TimeoutException e) {
+					future.cancel(true);
+					if (!service.isThreadSafe()) {
+						serialExecutor.shutdownNow();
+						serialExecutor = newSerialProposer();
+					}
 
-		// name proposal
-		var nameProposalServices = this.getNameProposalServices();
-		progress.init(nameProposalServices.size(), I18n.translate("progress.jar.name_proposal"));
+					Metrics.counter("name_proposal.timeouts").increment();
+					Logger.warn("Name proposal service {} did not finish within {} ms, dropping its proposals", service.getId(), TimeUnit.NANOSECONDS.toMillis(timeout));
+					continue;
+				} catch (ExecutionException e) {
+					Throwables.throwIfUnchecked(e.getCause());
+					throw new RuntimeException(e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException(e);
+				}
 
-		EntryTree<EntryMapping> proposedNames = new HashEntryTree<>();
+				Logger.info("Name proposal service {} proposed {} names in {} ms", service.getId(), proposals.names() == null ? 0 : proposals.names().size(), TimeUnit.NANOSECONDS.toMillis(proposals.nanos()));
+				Metrics.timer("name_proposal." + service.getId()).record(proposals.nanos());
+				results.add(proposals);
+			}
 
-		int j = 1;
-		for (var service : nameProposalServices) {
-			progress.step(j++, I18n.translateFormatted("progress.jar.name_proposal.proposer", service.getId()));
-			Map<Entry<?>, EntryMapping> proposed = service.getProposedNames(this, jarIndex);
+			progress.step(j, I18n.translate("progress.jar.name_proposal.finished"));
+		} finally {
+			executor.shutdownNow();
+			serialExecutor.shutdownNow();
+		}
 
-			if (proposed != null) {
-				for (var entry : proposed.entrySet()) {
-					service.validateProposedMapping(entry.getKey(), entry.getValue(), false);
+		EntryTree<EntryMapping> proposedNames = new PersistentEntryTree<>();
+		for (Proposals proposals : results) {
+			if (proposals.names() != null) {
+				for (var entry : proposals.names().entrySet()) {
+					proposals.service().validateProposedMapping(entry.getKey(), entry.getValue(), false);
 					proposedNames.insert(entry.getKey(), entry.getValue());
 				}
 			}
 		}
 
-		progress.step(j, I18n.translate("progress.jar.name_proposal.finished"));
+		return proposedNames;
+	}
 
-		MappingsIndex mappingsIndex = MappingsIndex.empty();
-		mappingsIndex.indexMappings(proposedNames, progress);
+	private static ExecutorService newSerialProposer() {
+		return Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Enigma serial name proposer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
 
-		return new EnigmaProject(this, path, mainProjectProvider, jarIndex, libIndex, comboIndex, mappingsIndex, proposedNames, Utils.zipSha1(path));
+	private record Proposals(NameProposalService service, @Nullable Map<Entry<?>, EntryMapping> names, long nanos) {
+		static Proposals of(NameProposalService service, JarIndex index, Enigma enigma) {
+			long start = System.nanoTime();
+			Map<Entry<?>, EntryMapping> names = service.getProposedNames(enigma, index);
+			return new Proposals(service, names, System.nanoTime() - start);
+		}
 	}
 
-	private void index(
+	private void runCustomIndexers(
 			AbstractJarIndex index, ProjectClassProvider classProvider, ProgressListener progress, String progressKey,
 			boolean includesLibraries
 	) {
-		index.indexJar(classProvider, progress);
-
 		List<JarIndexerService> indexers = this.services.get(JarIndexerService.TYPE);
 		progress.init(indexers.size(), I18n.translate("progress." + progressKey + ".custom_indexing"));
 
@@ -330,6 +450,8 @@ public class Enigma {
 	public static class Builder {
 		private EnigmaProfile profile = EnigmaProfile.EMPTY;
 		private Iterable<EnigmaPlugin> plugins = ServiceLoader.load(EnigmaPlugin.class);
+		@Nullable
+		private Path libraryIndexCache;
 
 		private Builder() {
 		}
@@ -346,6 +468,17 @@ public class Enigma {
 			return this;
 		}
 
+		/**
+		 * Sets a directory in which library indexes are cached between runs.
+		 * Library indexes are always shared in memory between projects opened in the same JVM.
+		 *
+		 * @param libraryIndexCache the cache directory, or {@code null} to not cache library indexes on disk
+		 */
+		public Builder setLibraryIndexCache(@Nullable Path libraryIndexCache) {
+			this.libraryIndexCache = libraryIndexCache;
+			return this;
+		}
+
 		public Enigma build() {
 			PluginContext pluginContext = new PluginContext(this.profile);
 			for (EnigmaPlugin plugin : this.plugins) {
@@ -370,7 +503,7 @@ public class Enigma {
 			}
 
 			EnigmaServices services = pluginContext.buildServices();
-			return new Enigma(this.profile, services);
+			return new Enigma(this.profile, services, new LibraryIndexCache(this.libraryIndexCache));
 		}
 	}
 
@@ -25,6 +25,7 @@ import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +47,9 @@ public final class EnigmaProfile {
 	@SerializedName("mapping_save_parameters")
 	private final MappingSaveParameters mappingSaveParameters = null;
 
+	@SerializedName("name_proposal_timeout")
+	private final Long nameProposalTimeout = null;
+
 	@Nullable
 	private Path sourcePath;
 
@@ -104,6 +108,20 @@ public final class EnigmaProfile {
 		return this.mappingSaveParameters == null ? EnigmaProfile.DEFAULT_MAPPING_SAVE_PARAMETERS : this.mappingSaveParameters;
 	}
 
+	/**
+	 * Gets how long a name proposal service may spend proposing names for a jar before its proposals are dropped.
+	 * This is read from {@code name_proposal_timeout}, in milliseconds.
+	 *
+	 * <p>A service which times out is interrupted, and opening the jar continues without it. A service which ignores
+	 * the interrupt keeps running on its daemon thread, and may keep reading the jar index after the project is opened.
+	 *
+	 * @return the timeout, or an empty optional if services may take as long as they need
+	 */
+	public Optional<Duration> getNameProposalTimeout() {
+		//noinspection ConstantConditions - this field is parsed by GSON
+		return Optional.ofNullable(this.nameProposalTimeout).map(Duration::ofMillis);
+	}
+
 	private EnigmaProfile withSourcePath(Path sourcePath) {
 		this.sourcePath = sourcePath;
 		return this;
@@ -16,6 +16,7 @@ import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeUtil;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.impl.bytecode.translator.RemapTable;
 import org.quiltmc.enigma.impl.bytecode.translator.TranslationClassVisitor;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.ObfuscationFixClassProvider;
@@ -25,6 +26,7 @@ import org.quiltmc.enigma.api.source.SourceSettings;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.mapping.InvalidMappings;
 import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
@@ -155,17 +157,48 @@ public class EnigmaProject {
 	}
 
 	public Collection<Entry<?>> dropMappings(ProgressListener progress) {
+		return this.dropInvalidMappings(progress).mappings().keySet();
+	}
+
+	/**
+	 * Drops the mappings that don't match the jar, followed by the mappings that are empty.
+	 *
+	 * @param progress a listener for the progress of the checks
+	 * @return the dropped mappings, and how many were dropped for each reason
+	 */
+	public InvalidMappings dropInvalidMappings(ProgressListener progress) {
 		DeltaTrackingTree<EntryMapping> mappings = this.remapper.getMappings();
 
-		Collection<Entry<?>> dropped = this.dropMappings(mappings, progress);
-		for (Entry<?> entry : dropped) {
+		MappingsChecker.Dropper dropper = this.dropMappings(mappings, progress);
+		for (Entry<?> entry : dropper.getDroppedMappings().keySet()) {
 			mappings.trackChange(entry);
 		}
 
-		return dropped;
+		return new InvalidMappings(dropper.getDroppedMappings(), dropper.getDropCounts());
+	}
+
+	/**
+	 * Checks for mappings which {@link #dropMappings(ProgressListener)} would drop, without changing the mappings.
+	 * Checking stops at the first top-level class with invalid mappings.
+	 *
+	 * @param progress a listener for the progress of the checks
+	 * @return the invalid mappings that were found, and how many were found for each reason
+	 */
+	public InvalidMappings findInvalidMappings(ProgressListener progress) {
+		MappingsChecker.Dropper dropper = new MappingsChecker.Dropper();
+		MappingsChecker checker = new MappingsChecker(this, this.jarIndex, this.remapper.getMappings(), true);
+
+		checker.collectBrokenMappings(progress, dropper);
+
+		// nothing was dropped, so the empty mappings can be checked against the same tree
+		if (dropper.getPendingDroppedMappings().isEmpty()) {
+			checker.collectEmptyMappings(progress, dropper);
+		}
+
+		return new InvalidMappings(dropper.getPendingDroppedMappings(), dropper.getDropCounts());
 	}
 
-	private Collection<Entry<?>> dropMappings(EntryTree<EntryMapping> mappings, ProgressListener progress) {
+	private MappingsChecker.Dropper dropMappings(EntryTree<EntryMapping> mappings, ProgressListener progress) {
 		MappingsChecker.Dropper dropper = new MappingsChecker.Dropper();
 
 		// drop mappings that don't match the jar
@@ -188,7 +221,7 @@ public class EnigmaProject {
 
 		dropper.applyPendingDrops(mappings);
 
-		return dropper.getDroppedMappings().keySet();
+		return dropper;
 	}
 
 	public boolean isNavigable(Entry<?> obfEntry) {
@@ -351,24 +384,27 @@ public class EnigmaProject {
 	public JarExport exportRemappedJar(ProgressListener progress) {
 		Collection<ClassEntry> classEntries = this.jarIndex.getIndex(EntryIndex.class).getClasses();
 		ClassProvider fixingClassProvider = new ObfuscationFixClassProvider(this.classProvider, this.jarIndex);
-		Translator deobfuscator = this.remapper.getDeobfuscator();
+		// translate against a snapshot, so that renames made while exporting don't end up in only part of the jar
+		Translator deobfuscator = this.remapper.snapshot().getDeobfuscator();
+		// translate every declared class and member once, so instructions only need to look them up
+		RemapTable remapTable = RemapTable.build(deobfuscator, this.jarIndex.getIndex(EntryIndex.class));
 
-		AtomicInteger count = new AtomicInteger();
 		progress.init(classEntries.size(), I18n.translate("progress.classes.deobfuscating"));
 
 		Map<String, ClassNode> compiled = classEntries.parallelStream()
 				.map(entry -> {
-					ClassEntry translatedEntry = deobfuscator.translate(entry);
-					progress.step(count.getAndIncrement(), translatedEntry.toString());
-
-					ClassNode node = fixingClassProvider.get(entry.getFullName());
-					if (node != null) {
-						ClassNode translatedNode = new ClassNode();
-						node.accept(new TranslationClassVisitor(deobfuscator, Enigma.ASM_VERSION, translatedNode));
-						return translatedNode;
-					}
+					try {
+						ClassNode node = fixingClassProvider.get(entry.getFullName());
+						if (node != null) {
+							ClassNode translatedNode = new ClassNode();
+							node.accept(new TranslationClassVisitor(remapTable, Enigma.ASM_VERSION, translatedNode));
+							return translatedNode;
+						}
 
-					return null;
+						return null;
+					} finally {
+						progress.advance(1, () -> remapTable.mapClass(entry.getFullName()));
+					}
 				})
 				.filter(Objects::nonNull)
 				.collect(Collectors.toMap(n -> n.name, Functions.identity()));
@@ -389,11 +425,7 @@ public class EnigmaProject {
 			progress.init(this.compiled.size(), I18n.translate("progress.jar.writing"));
 
 			try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(path))) {
-				AtomicInteger count = new AtomicInteger();
-
 				for (ClassNode node : this.compiled.values()) {
-					progress.step(count.getAndIncrement(), node.name);
-
 					String entryName = node.name.replace('.', '/') + ".class";
 
 					ClassWriter writer = new ClassWriter(0);
@@ -402,6 +434,8 @@ public class EnigmaProject {
 					out.putNextEntry(new JarEntry(entryName));
 					out.write(writer.toByteArray());
 					out.closeEntry();
+
+					progress.advance(1, () -> node.name);
 				}
 			}
 		}
@@ -421,12 +455,8 @@ public class EnigmaProject {
 			//create a common instance outside the loop as mappings shouldn't be changing while this is happening
 			Decompiler decompiler = decompilerService.create(ClassProvider.fromMap(this.compiled), new SourceSettings(false, false));
 
-			AtomicInteger count = new AtomicInteger();
-
 			return classes.parallelStream()
 					.map(translatedNode -> {
-						progress.step(count.getAndIncrement(), translatedNode.name);
-
 						String source = null;
 						try {
 							source = this.decompileClass(translatedNode, decompiler);
@@ -441,6 +471,8 @@ public class EnigmaProject {
 									break;
 								}
 							}
+						} finally {
+							progress.advance(1, () -> translatedNode.name);
 						}
 
 						if (source == null) {
@@ -467,12 +499,11 @@ public class EnigmaProject {
 		public void write(Path path, ProgressListener progress) throws IOException {
 			progress.init(this.decompiled.size(), I18n.translate("progress.sources.writing"));
 
-			int count = 0;
 			for (ClassSource source : this.decompiled) {
-				progress.step(count++, source.name);
-
 				Path sourcePath = source.resolvePath(path);
 				source.writeTo(sourcePath);
+
+				progress.advance(1, () -> source.name);
 			}
 		}
 	}
@@ -2,6 +2,10 @@ package org.quiltmc.enigma.api;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * A class to help user interface implementations add progress indicators.
@@ -25,6 +29,11 @@ public abstract class ProgressListener {
 		};
 	}
 
+	/**
+	 * The minimum time between two steps published by {@link #advance(int, Supplier)}.
+	 */
+	private static final long PUBLISH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(50);
+
 	protected int totalWork;
 	protected int workDone;
 	protected String title;
@@ -32,6 +41,9 @@ public abstract class ProgressListener {
 
 	private final List<ProgressListener> syncedListeners;
 
+	private final LongAdder advanced = new LongAdder();
+	private final AtomicLong nextPublishTime = new AtomicLong();
+
 	protected ProgressListener() {
 		this.syncedListeners = new ArrayList<>();
 	}
@@ -45,6 +57,9 @@ public abstract class ProgressListener {
 	public void init(int totalWork, String title) {
 		this.totalWork = totalWork;
 		this.title = title;
+		this.workDone = 0;
+		this.advanced.reset();
+		this.nextPublishTime.set(System.nanoTime());
 		for (ProgressListener listener : this.syncedListeners) {
 			listener.init(totalWork, title);
 		}
@@ -64,6 +79,33 @@ public abstract class ProgressListener {
 		}
 	}
 
+	/**
+	 * Adds to the work done since {@link #init(int, String) init}, for loops that would otherwise call
+	 * {@link #step(int, String) step} for every item. This only increments a counter, and may be called from many threads
+	 * at once. The progress is published as a step at most every 50 milliseconds, and once all work is done.
+	 * The message is only created for published steps.
+	 * @param work the amount of work done since the last call
+	 * @param message supplies the message to show the user, if the step is published
+	 */
+	public final void advance(int work, Supplier<String> message) {
+		this.advanced.add(work);
+
+		long now = System.nanoTime();
+		long nextPublishTime = this.nextPublishTime.get();
+		boolean due = now - nextPublishTime >= 0 && this.nextPublishTime.compareAndSet(nextPublishTime, now + PUBLISH_INTERVAL);
+		if (due || this.advanced.sum() >= this.totalWork) {
+			this.publish(message);
+		}
+	}
+
+	private synchronized void publish(Supplier<String> message) {
+		int done = (int) Math.min(this.advanced.sum(), this.totalWork);
+		// do not go backwards when another thread published a later step first
+		if (done > this.workDone) {
+			this.step(done, message.get());
+		}
+	}
+
 	/**
 	 * Syncs this listener with the provided one. All steps performed by the provided listener will be propagated to this one.
 	 * @param listener the listener to sync with
@@ -1,14 +1,20 @@
 package org.quiltmc.enigma.api.analysis.index.jar;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import org.quiltmc.enigma.util.CombinedCollection;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * <b>Note:</b> does <em>not</em> currently index main jar references to library types and members.
@@ -40,41 +46,55 @@ final class CombinedReferenceIndex implements ReferenceIndex {
 
 	@Override
 	public Collection<EntryReference<FieldEntry, MethodDefEntry>> getReferencesToField(FieldEntry entry) {
-		return new CombinedCollection<>(
-			this.mainIndex.getReferencesToField(entry),
-			this.libIndex.getReferencesToField(entry)
-		);
+		return merge(this.mainIndex.getReferencesToField(entry), this.libIndex.getReferencesToField(entry));
 	}
 
 	@Override
 	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getReferencesToClass(ClassEntry entry) {
-		return new CombinedCollection<>(
-			this.mainIndex.getReferencesToClass(entry),
-			this.libIndex.getReferencesToClass(entry)
-		);
+		return merge(this.mainIndex.getReferencesToClass(entry), this.libIndex.getReferencesToClass(entry));
 	}
 
 	@Override
 	public Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferencesToMethod(MethodEntry entry) {
-		return new CombinedCollection<>(
-			this.mainIndex.getReferencesToMethod(entry),
-			this.libIndex.getReferencesToMethod(entry)
-		);
+		return merge(this.mainIndex.getReferencesToMethod(entry), this.libIndex.getReferencesToMethod(entry));
 	}
 
 	@Override
 	public Collection<EntryReference<ClassEntry, FieldDefEntry>> getFieldTypeReferencesToClass(ClassEntry entry) {
-		return new CombinedCollection<>(
-			this.mainIndex.getFieldTypeReferencesToClass(entry),
-			this.libIndex.getFieldTypeReferencesToClass(entry)
-		);
+		return merge(this.mainIndex.getFieldTypeReferencesToClass(entry), this.libIndex.getFieldTypeReferencesToClass(entry));
 	}
 
 	@Override
 	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry) {
-		return new CombinedCollection<>(
-			this.mainIndex.getMethodTypeReferencesToClass(entry),
-			this.libIndex.getMethodTypeReferencesToClass(entry)
-		);
+		return merge(this.mainIndex.getMethodTypeReferencesToClass(entry), this.libIndex.getMethodTypeReferencesToClass(entry));
+	}
+
+	/**
+	 * Merges the references of both indexes, which are each sorted by {@link ReferenceIndex#contextOrder()},
+	 * so that the result is sorted too. Only copies the references if both indexes have some.
+	 */
+	private static <E extends Entry<?>, C extends Entry<?>> Collection<EntryReference<E, C>> merge(Collection<EntryReference<E, C>> main, Collection<EntryReference<E, C>> lib) {
+		if (lib.isEmpty()) {
+			return main;
+		} else if (main.isEmpty()) {
+			return lib;
+		}
+
+		Comparator<EntryReference<E, C>> order = ReferenceIndex.contextOrder();
+		List<EntryReference<E, C>> merged = new ArrayList<>(main.size() + lib.size());
+		PeekingIterator<EntryReference<E, C>> mainReferences = Iterators.peekingIterator(main.iterator());
+		PeekingIterator<EntryReference<E, C>> libReferences = Iterators.peekingIterator(lib.iterator());
+		while (mainReferences.hasNext() && libReferences.hasNext()) {
+			// main jar references go first when both are equal
+			if (order.compare(mainReferences.peek(), libReferences.peek()) <= 0) {
+				merged.add(mainReferences.next());
+			} else {
+				merged.add(libReferences.next());
+			}
+		}
+
+		mainReferences.forEachRemaining(merged::add);
+		libReferences.forEachRemaining(merged::add);
+		return merged;
 	}
 }
@@ -0,0 +1,468 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import org.jspecify.annotations.Nullable;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
+import org.quiltmc.enigma.api.translation.representation.Lambda;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A {@link ReferenceIndex} that stores references as columns of integer entry ids instead of {@link EntryReference} objects.
+ *
+ * <p>Referenced entries and referencing contexts are each assigned dense ids. Every kind of reference is kept in a
+ * {@link ReferenceTable}, which after compaction is sorted by target, with offset arrays indexing it from both the target
+ * and the context side. {@link EntryReference}s are only created when a query result is read.
+ *
+ * <p>Query results are ordered like {@link IndependentReferenceIndex}'s, by {@link ReferenceIndex#contextOrder()}.
+ *
+ * <p>Every reference is added while holding this index's lock, since the id pools and tables aren't thread-safe.
+ * Classes are still read and analyzed in parallel, but their references are added to this index one at a time.
+ */
+final class CompactReferenceIndex implements ReferenceIndex {
+	private static final ReferenceTargetType.Kind[] TARGET_KINDS = ReferenceTargetType.Kind.values();
+
+	private final EntryPool targets = new EntryPool();
+	private final EntryPool contexts = new EntryPool();
+
+	private final ReferenceTable referencesToMethods = new ReferenceTable();
+	private final ReferenceTable referencesToClasses = new ReferenceTable();
+	private final ReferenceTable referencesToFields = new ReferenceTable();
+	private final ReferenceTable fieldTypeReferences = new ReferenceTable();
+	private final ReferenceTable methodTypeReferences = new ReferenceTable();
+
+	private volatile boolean compacted = true;
+
+	@Override
+	public void indexMethod(MethodDefEntry methodEntry) {
+		this.indexMethodDescriptor(methodEntry, methodEntry.getDesc());
+	}
+
+	private void indexMethodDescriptor(MethodDefEntry entry, MethodDescriptor descriptor) {
+		for (TypeDescriptor typeDescriptor : descriptor.getArgumentDescs()) {
+			this.indexMethodTypeDescriptor(entry, typeDescriptor);
+		}
+
+		this.indexMethodTypeDescriptor(entry, descriptor.getReturnDesc());
+	}
+
+	private void indexMethodTypeDescriptor(MethodDefEntry method, TypeDescriptor typeDescriptor) {
+		if (typeDescriptor.isType()) {
+			this.add(this.methodTypeReferences, typeDescriptor.getTypeEntry(), method, ReferenceTargetType.none());
+		} else if (typeDescriptor.isArray()) {
+			this.indexMethodTypeDescriptor(method, typeDescriptor.getArrayType());
+		}
+	}
+
+	@Override
+	public void indexField(FieldDefEntry fieldEntry) {
+		this.indexFieldTypeDescriptor(fieldEntry, fieldEntry.getDesc());
+	}
+
+	private void indexFieldTypeDescriptor(FieldDefEntry field, TypeDescriptor typeDescriptor) {
+		if (typeDescriptor.isType()) {
+			this.add(this.fieldTypeReferences, typeDescriptor.getTypeEntry(), field, ReferenceTargetType.none());
+		} else if (typeDescriptor.isArray()) {
+			this.indexFieldTypeDescriptor(field, typeDescriptor.getArrayType());
+		}
+	}
+
+	@Override
+	public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
+		this.add(this.referencesToClasses, referencedEntry, callerEntry, targetType);
+	}
+
+	@Override
+	public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
+		this.add(this.referencesToMethods, referencedEntry, callerEntry, targetType);
+
+		if (referencedEntry.isConstructor()) {
+			this.add(this.referencesToClasses, referencedEntry.getParent(), callerEntry, targetType);
+		}
+	}
+
+	@Override
+	public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
+		this.add(this.referencesToFields, referencedEntry, callerEntry, targetType);
+	}
+
+	@Override
+	public void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
+		if (lambda.implMethod() instanceof MethodEntry method) {
+			this.indexMethodReference(callerEntry, method, targetType);
+		} else {
+			this.indexFieldReference(callerEntry, (FieldEntry) lambda.implMethod(), targetType);
+		}
+
+		this.indexMethodDescriptor(callerEntry, lambda.invokedType());
+		this.indexMethodDescriptor(callerEntry, lambda.samMethodType());
+		this.indexMethodDescriptor(callerEntry, lambda.instantiatedMethodType());
+	}
+
+	private synchronized void add(ReferenceTable table, Entry<?> target, Entry<?> context, ReferenceTargetType targetType) {
+		int typeClass = targetType instanceof ReferenceTargetType.ClassType classType ? this.targets.idOf(classType.getEntry()) : -1;
+		table.add(this.targets.idOf(target), this.contexts.idOf(context), (byte) targetType.getKind().ordinal(), typeClass);
+		this.compacted = false;
+	}
+
+	@Override
+	public synchronized void processIndex(JarIndex index) {
+		// resolve every distinct entry once rather than every reference
+		EntryResolver resolver = index.getEntryResolver();
+		int[] targetIds = this.targets.resolve(resolver);
+		int[] contextIds = this.contexts.resolve(resolver);
+
+		this.compact(targetIds, contextIds);
+	}
+
+	private void ensureCompacted() {
+		if (!this.compacted) {
+			synchronized (this) {
+				if (!this.compacted) {
+					this.compact(null, null);
+				}
+			}
+		}
+	}
+
+	private void compact(int @Nullable [] targetIds, int @Nullable [] contextIds) {
+		int[] contextRanks = this.contexts.rankByContextOrder();
+		for (ReferenceTable table : this.tables()) {
+			table.compact(this.targets.size(), this.contexts.size(), targetIds, contextIds, contextRanks);
+		}
+
+		this.compacted = true;
+	}
+
+	private List<ReferenceTable> tables() {
+		return List.of(this.referencesToMethods, this.referencesToClasses, this.referencesToFields, this.fieldTypeReferences, this.methodTypeReferences);
+	}
+
+	@Override
+	public Collection<MethodEntry> getMethodsReferencedBy(MethodEntry entry) {
+		return this.getReferencedBy(this.referencesToMethods, entry);
+	}
+
+	@Override
+	public Collection<FieldEntry> getFieldsReferencedBy(MethodEntry entry) {
+		return this.getReferencedBy(this.referencesToFields, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<FieldEntry, MethodDefEntry>> getReferencesToField(FieldEntry entry) {
+		return this.getReferencesTo(this.referencesToFields, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getReferencesToClass(ClassEntry entry) {
+		return this.getReferencesTo(this.referencesToClasses, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferencesToMethod(MethodEntry entry) {
+		return this.getReferencesTo(this.referencesToMethods, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, FieldDefEntry>> getFieldTypeReferencesToClass(ClassEntry entry) {
+		return this.getReferencesTo(this.fieldTypeReferences, entry);
+	}
+
+	@Override
+	public Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry) {
+		return this.getReferencesTo(this.methodTypeReferences, entry);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <E extends Entry<?>> List<E> getReferencedBy(ReferenceTable table, Entry<?> context) {
+		this.ensureCompacted();
+		int id = this.contexts.find(context);
+		if (id < 0 || id >= table.contextOffsets.length - 1) {
+			return List.of();
+		}
+
+		// capture the arrays, so that the view keeps working if more references are added
+		List<Entry<?>> targetEntries = this.targets.entries;
+		int[] tableTargets = table.targets;
+		int[] byContext = table.byContext;
+		int start = table.contextOffsets[id];
+		int size = table.contextOffsets[id + 1] - start;
+		return new View<>(size, index -> (E) targetEntries.get(tableTargets[byContext[start + index]]));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <E extends Entry<?>, C extends Entry<?>> List<EntryReference<E, C>> getReferencesTo(ReferenceTable table, Entry<?> target) {
+		this.ensureCompacted();
+		int id = this.targets.find(target);
+		if (id < 0 || id >= table.targetOffsets.length - 1) {
+			return List.of();
+		}
+
+		List<Entry<?>> targetEntries = this.targets.entries;
+		List<Entry<?>> contextEntries = this.contexts.entries;
+		int[] tableContexts = table.contexts;
+		byte[] types = table.types;
+		int[] typeClasses = table.typeClasses;
+		int start = table.targetOffsets[id];
+		int size = table.targetOffsets[id + 1] - start;
+		E entry = (E) targetEntries.get(id);
+		return new View<>(size, index -> {
+			int reference = start + index;
+			ReferenceTargetType targetType = switch (TARGET_KINDS[types[reference]]) {
+				case NONE -> ReferenceTargetType.none();
+				case UNINITIALIZED -> ReferenceTargetType.uninitialized();
+				case CLASS_TYPE -> ReferenceTargetType.classType((ClassEntry) targetEntries.get(Objects.requireNonNull(typeClasses)[reference]));
+			};
+
+			return new EntryReference<>(entry, entry.getName(), (C) contextEntries.get(tableContexts[reference]), targetType);
+		});
+	}
+
+	/**
+	 * Assigns dense ids to entries. Ids are only stable until the index is processed.
+	 */
+	private static final class EntryPool {
+		private Map<Entry<?>, Integer> ids = new HashMap<>();
+		private List<Entry<?>> entries = new ArrayList<>();
+
+		int idOf(Entry<?> entry) {
+			Integer id = this.ids.get(entry);
+			if (id == null) {
+				id = this.entries.size();
+				this.ids.put(entry, id);
+				this.entries.add(entry);
+			}
+
+			return id;
+		}
+
+		int find(Entry<?> entry) {
+			Integer id = this.ids.get(entry);
+			return id == null ? -1 : id;
+		}
+
+		int size() {
+			return this.entries.size();
+		}
+
+		/**
+		 * Replaces every entry with its closest resolved entry, merging entries which resolve to the same one.
+		 * @return the new id of each old id
+		 */
+		int[] resolve(EntryResolver resolver) {
+			List<Entry<?>> oldEntries = this.entries;
+			this.ids = new HashMap<>(this.ids.size());
+			this.entries = new ArrayList<>(oldEntries.size());
+
+			int[] newIds = new int[oldEntries.size()];
+			for (int i = 0; i < newIds.length; i++) {
+				newIds[i] = this.idOf(resolver.resolveFirstEntry(oldEntries.get(i), ResolutionStrategy.RESOLVE_CLOSEST));
+			}
+
+			return newIds;
+		}
+
+		/**
+		 * {@return the position of each entry when sorted like the contexts of {@link ReferenceIndex#contextOrder()}}
+		 */
+		int[] rankByContextOrder() {
+			int size = this.entries.size();
+			String[] classNames = new String[size];
+			Integer[] sorted = new Integer[size];
+			for (int i = 0; i < size; i++) {
+				classNames[i] = this.entries.get(i).getContainingClass().getFullName();
+				sorted[i] = i;
+			}
+
+			Arrays.sort(sorted, Comparator.<Integer, String>comparing(id -> classNames[id])
+					.thenComparing(id -> this.entries.get(id).getName()));
+
+			int[] ranks = new int[size];
+			for (int i = 0; i < size; i++) {
+				ranks[sorted[i]] = i;
+			}
+
+			return ranks;
+		}
+	}
+
+	/**
+	 * References of one kind, stored as parallel columns of target id, context id, target type kind and,
+	 * for {@link ReferenceTargetType.ClassType} targets, the id of the target type class.
+	 *
+	 * <p>Compaction sorts the columns by target and context order and removes duplicate references, then builds
+	 * compressed sparse row offsets from both sides: the references to target {@code t} are the rows from
+	 * {@code targetOffsets[t]} to {@code targetOffsets[t + 1]}, and the references from context {@code c} are the rows
+	 * listed in {@code byContext} from {@code contextOffsets[c]} to {@code contextOffsets[c + 1]}.
+	 */
+	private static final class ReferenceTable {
+		private static final int[] EMPTY_OFFSETS = new int[1];
+
+		private int size;
+		private int[] targets = new int[0];
+		private int[] contexts = new int[0];
+		private byte[] types = new byte[0];
+		private int @Nullable [] typeClasses;
+
+		private int[] targetOffsets = EMPTY_OFFSETS;
+		private int[] contextOffsets = EMPTY_OFFSETS;
+		private int[] byContext = new int[0];
+
+		void add(int target, int context, byte type, int typeClass) {
+			if (this.size == this.targets.length) {
+				int capacity = Math.max(16, this.size + (this.size >> 1));
+				this.targets = Arrays.copyOf(this.targets, capacity);
+				this.contexts = Arrays.copyOf(this.contexts, capacity);
+				this.types = Arrays.copyOf(this.types, capacity);
+				if (this.typeClasses != null) {
+					this.typeClasses = Arrays.copyOf(this.typeClasses, capacity);
+					Arrays.fill(this.typeClasses, this.size, capacity, -1);
+				}
+			}
+
+			if (typeClass >= 0 && this.typeClasses == null) {
+				this.typeClasses = new int[this.targets.length];
+				Arrays.fill(this.typeClasses, -1);
+			}
+
+			this.targets[this.size] = target;
+			this.contexts[this.size] = context;
+			this.types[this.size] = type;
+			if (this.typeClasses != null) {
+				this.typeClasses[this.size] = typeClass;
+			}
+
+			this.size++;
+		}
+
+		void compact(int targetCount, int contextCount, int @Nullable [] targetIds, int @Nullable [] contextIds, int[] contextRanks) {
+			if (targetIds != null && contextIds != null) {
+				for (int i = 0; i < this.size; i++) {
+					this.targets[i] = targetIds[this.targets[i]];
+					this.contexts[i] = contextIds[this.contexts[i]];
+					if (this.typeClasses != null && this.typeClasses[i] >= 0) {
+						this.typeClasses[i] = targetIds[this.typeClasses[i]];
+					}
+				}
+			}
+
+			// stable counting sort by target
+			int[] offsets = new int[targetCount + 1];
+			for (int i = 0; i < this.size; i++) {
+				offsets[this.targets[i] + 1]++;
+			}
+
+			for (int i = 0; i < targetCount; i++) {
+				offsets[i + 1] += offsets[i];
+			}
+
+			// within each target, sort by context rank, keeping the first of any duplicate reference
+			long[] keys = new long[this.size];
+			int[] next = Arrays.copyOf(offsets, targetCount);
+			for (int i = 0; i < this.size; i++) {
+				keys[next[this.targets[i]]++] = (long) contextRanks[this.contexts[i]] << 32 | i;
+			}
+
+			int[] targets = new int[this.size];
+			int[] contexts = new int[this.size];
+			byte[] types = new byte[this.size];
+			int[] typeClasses = this.typeClasses == null ? null : new int[this.size];
+			int[] targetOffsets = new int[targetCount + 1];
+			int size = 0;
+			for (int target = 0; target < targetCount; target++) {
+				Arrays.sort(keys, offsets[target], offsets[target + 1]);
+				long lastRank = -1;
+				for (int i = offsets[target]; i < offsets[target + 1]; i++) {
+					long rank = keys[i] >>> 32;
+					if (rank == lastRank) {
+						continue;
+					}
+
+					int reference = (int) keys[i];
+					targets[size] = target;
+					contexts[size] = this.contexts[reference];
+					types[size] = this.types[reference];
+					if (typeClasses != null) {
+						typeClasses[size] = this.typeClasses[reference];
+					}
+
+					size++;
+					lastRank = rank;
+				}
+
+				targetOffsets[target + 1] = size;
+			}
+
+			// stable counting sort by context, so each context's targets stay in target order
+			int[] contextOffsets = new int[contextCount + 1];
+			for (int i = 0; i < size; i++) {
+				contextOffsets[contexts[i] + 1]++;
+			}
+
+			for (int i = 0; i < contextCount; i++) {
+				contextOffsets[i + 1] += contextOffsets[i];
+			}
+
+			int[] byContext = new int[size];
+			next = Arrays.copyOf(contextOffsets, contextCount);
+			for (int i = 0; i < size; i++) {
+				byContext[next[contexts[i]]++] = i;
+			}
+
+			this.size = size;
+			this.targets = Arrays.copyOf(targets, size);
+			this.contexts = Arrays.copyOf(contexts, size);
+			this.types = Arrays.copyOf(types, size);
+			this.typeClasses = typeClasses == null ? null : Arrays.copyOf(typeClasses, size);
+			this.targetOffsets = targetOffsets;
+			this.contextOffsets = contextOffsets;
+			this.byContext = byContext;
+		}
+	}
+
+	private interface RowReader<T> {
+		T read(int index);
+	}
+
+	/**
+	 * A read-only list which creates its elements when they are read.
+	 */
+	private static final class View<T> extends AbstractList<T> implements RandomAccess {
+		private final int size;
+		private final RowReader<T> reader;
+
+		View(int size, RowReader<T> reader) {
+			this.size = size;
+			this.reader = reader;
+		}
+
+		@Override
+		public T get(int index) {
+			return this.reader.read(Objects.checkIndex(index, this.size));
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+}
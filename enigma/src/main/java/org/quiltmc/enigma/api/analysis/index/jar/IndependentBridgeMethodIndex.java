@@ -144,7 +144,7 @@ final class IndependentBridgeMethodIndex implements BridgeMethodIndex {
 	private MethodEntry getHigherMethod(MethodEntry bridgeMethod1, MethodEntry bridgeMethod2) {
 		ClassEntry parent1 = bridgeMethod1.getParent();
 		ClassEntry parent2 = bridgeMethod2.getParent();
-		return this.inheritanceIndex.getDescendants(parent1).contains(parent2) ? bridgeMethod1 : bridgeMethod2;
+		return this.inheritanceIndex.isAncestor(parent2, parent1) ? bridgeMethod1 : bridgeMethod2;
 	}
 
 	@Override
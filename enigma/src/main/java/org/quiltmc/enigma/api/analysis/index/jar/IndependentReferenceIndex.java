@@ -1,6 +1,7 @@
 package org.quiltmc.enigma.api.analysis.index.jar;
 
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Multimap;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
@@ -127,7 +128,11 @@ final class IndependentReferenceIndex implements ReferenceIndex {
 			resolved.put(this.remap(index, entry.getKey()), this.remap(index, entry.getValue()));
 		}
 
-		return resolved;
+		// freeze into sorted lists, which reference trees can page through without copying
+		return ImmutableListMultimap.<E, EntryReference<E, C>>builder()
+				.orderValuesBy(ReferenceIndex.contextOrder())
+				.putAll(resolved)
+				.build();
 	}
 
 	private <E extends Entry<?>> E remap(JarIndex index, E entry) {
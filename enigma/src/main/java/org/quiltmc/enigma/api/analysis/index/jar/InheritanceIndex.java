@@ -2,14 +2,19 @@ package org.quiltmc.enigma.api.analysis.index.jar;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
+import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.util.Utils;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -21,6 +26,9 @@ public class InheritanceIndex implements JarIndexer {
 	private final Multimap<ClassEntry, ClassEntry> classParents = HashMultimap.create();
 	private final Multimap<ClassEntry, ClassEntry> classChildren = HashMultimap.create();
 
+	// computed by processIndex, and dropped if more classes are indexed afterwards
+	private volatile @Nullable Closures closures;
+
 	public InheritanceIndex(EntryIndex entryIndex) {
 		this.entryIndex = entryIndex;
 	}
@@ -40,6 +48,12 @@ public class InheritanceIndex implements JarIndexer {
 	private void indexParent(ClassEntry childEntry, ClassEntry parentEntry) {
 		this.classParents.put(childEntry, parentEntry);
 		this.classChildren.put(parentEntry, childEntry);
+		this.closures = null;
+	}
+
+	@Override
+	public void processIndex(JarIndex index) {
+		this.closures = Closures.compute(this.classParents);
 	}
 
 	public Collection<ClassEntry> getParents(ClassEntry classEntry) {
@@ -51,6 +65,19 @@ public class InheritanceIndex implements JarIndexer {
 	}
 
 	public Collection<ClassEntry> getDescendants(ClassEntry classEntry) {
+		Closures closures = this.closures;
+		if (closures != null) {
+			int id = closures.find(classEntry);
+			Collection<ClassEntry> descendants = new HashSet<>();
+			if (id >= 0) {
+				for (int i = closures.descendantOffsets[id]; i < closures.descendantOffsets[id + 1]; i++) {
+					descendants.add(closures.classes[closures.descendants[i]]);
+				}
+			}
+
+			return descendants;
+		}
+
 		Collection<ClassEntry> descendants = new HashSet<>();
 
 		LinkedList<ClassEntry> descendantQueue = new LinkedList<>();
@@ -86,9 +113,41 @@ public class InheritanceIndex implements JarIndexer {
 	 * @see #streamAncestors(ClassEntry)
 	 */
 	public Set<ClassEntry> getAncestors(ClassEntry classEntry) {
+		Closures closures = this.closures;
+		if (closures != null) {
+			int id = closures.find(classEntry);
+			Set<ClassEntry> ancestors = new LinkedHashSet<>();
+			if (id >= 0) {
+				for (int i = closures.ancestorOffsets[id]; i < closures.ancestorOffsets[id + 1]; i++) {
+					ancestors.add(closures.classes[closures.ancestors[i]]);
+				}
+			}
+
+			return ancestors;
+		}
+
 		return this.streamAncestors(classEntry).collect(toCollection(LinkedHashSet::new));
 	}
 
+	/**
+	 * Checks whether a class is a direct or indirect parent of another class. Prefer this over checking whether
+	 * {@link #getAncestors(ClassEntry)} contains the class, as it doesn't create a set once the index is processed.
+	 *
+	 * @param classEntry the class whose ancestors to check
+	 * @param potentialAncestor the potential ancestor
+	 * @return whether {@code potentialAncestor} is one of {@code classEntry}'s ancestors
+	 */
+	public boolean isAncestor(ClassEntry classEntry, ClassEntry potentialAncestor) {
+		Closures closures = this.closures;
+		if (closures == null) {
+			return this.getAncestors(classEntry).contains(potentialAncestor);
+		}
+
+		int id = closures.find(classEntry);
+		int ancestorId = closures.find(potentialAncestor);
+		return id >= 0 && ancestorId >= 0 && closures.isAncestor(id, ancestorId);
+	}
+
 	/**
 	 * @return a {@link Stream} of the passed {@code classEntry}'s ancestors in breadth-first order
 	 *
@@ -119,6 +178,23 @@ public class InheritanceIndex implements JarIndexer {
 		if (potentialAncestor.getName().equals("java/lang/Object")) return Relation.RELATED;
 		if (!this.entryIndex.hasClass(classEntry)) return Relation.UNKNOWN;
 
+		Closures closures = this.closures;
+		if (closures != null) {
+			int id = closures.find(classEntry);
+			if (id >= 0) {
+				for (int i = closures.ancestorOffsets[id]; i < closures.ancestorOffsets[id + 1]; i++) {
+					ClassEntry ancestor = closures.classes[closures.ancestors[i]];
+					if (potentialAncestor.equals(ancestor)) {
+						return Relation.RELATED;
+					} else if (!this.entryIndex.hasClass(ancestor)) {
+						return Relation.UNKNOWN;
+					}
+				}
+			}
+
+			return Relation.UNRELATED;
+		}
+
 		for (ClassEntry ancestor : this.getAncestors(classEntry)) {
 			if (potentialAncestor.equals(ancestor)) {
 				return Relation.RELATED;
@@ -144,6 +220,152 @@ public class InheritanceIndex implements JarIndexer {
 		return "progress.jar.indexing.process.inheritance";
 	}
 
+	/**
+	 * The transitive closures of the class hierarchy, with classes numbered so that parents come before their children.
+	 *
+	 * <p>The ancestors of class {@code c} are {@code ancestors[ancestorOffsets[c]]} up to {@code ancestors[ancestorOffsets[c + 1]]},
+	 * in the breadth-first order of {@link #getAncestors(ClassEntry)}, and are also kept sorted in {@code sortedAncestors}
+	 * for membership checks. Descendants are stored the same way.
+	 */
+	private static final class Closures {
+		private final Map<ClassEntry, Integer> ids;
+		private final ClassEntry[] classes;
+		private final int[] ancestorOffsets;
+		private final int[] ancestors;
+		private final int[] sortedAncestors;
+		private final int[] descendantOffsets;
+		private final int[] descendants;
+
+		private Closures(Map<ClassEntry, Integer> ids, ClassEntry[] classes, int[] ancestorOffsets, int[] ancestors, int[] sortedAncestors, int[] descendantOffsets, int[] descendants) {
+			this.ids = ids;
+			this.classes = classes;
+			this.ancestorOffsets = ancestorOffsets;
+			this.ancestors = ancestors;
+			this.sortedAncestors = sortedAncestors;
+			this.descendantOffsets = descendantOffsets;
+			this.descendants = descendants;
+		}
+
+		static Closures compute(Multimap<ClassEntry, ClassEntry> classParents) {
+			ClassEntry[] classes = topologicalOrder(classParents);
+			int count = classes.length;
+			Map<ClassEntry, Integer> ids = new HashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				ids.put(classes[i], i);
+			}
+
+			int[][] parents = new int[count][];
+			for (int i = 0; i < count; i++) {
+				parents[i] = classParents.get(classes[i]).stream().mapToInt(ids::get).toArray();
+			}
+
+			// breadth-first search from every class, reusing one visited array
+			int[] ancestorOffsets = new int[count + 1];
+			int[] ancestors = new int[count];
+			int size = 0;
+			int[] visited = new int[count];
+			int[] queue = new int[count];
+			for (int i = 0; i < count; i++) {
+				int stamp = i + 1;
+				int head = 0;
+				int tail = 0;
+				for (int parent : parents[i]) {
+					if (visited[parent] != stamp) {
+						visited[parent] = stamp;
+						queue[tail++] = parent;
+					}
+				}
+
+				while (head < tail) {
+					int ancestor = queue[head++];
+					if (size == ancestors.length) {
+						ancestors = Arrays.copyOf(ancestors, ancestors.length * 2);
+					}
+
+					ancestors[size++] = ancestor;
+					for (int parent : parents[ancestor]) {
+						if (visited[parent] != stamp) {
+							visited[parent] = stamp;
+							queue[tail++] = parent;
+						}
+					}
+				}
+
+				ancestorOffsets[i + 1] = size;
+			}
+
+			ancestors = Arrays.copyOf(ancestors, size);
+			int[] sortedAncestors = ancestors.clone();
+			for (int i = 0; i < count; i++) {
+				Arrays.sort(sortedAncestors, ancestorOffsets[i], ancestorOffsets[i + 1]);
+			}
+
+			// descendants are the inverse of ancestors
+			int[] descendantOffsets = new int[count + 1];
+			for (int ancestor : ancestors) {
+				descendantOffsets[ancestor + 1]++;
+			}
+
+			for (int i = 0; i < count; i++) {
+				descendantOffsets[i + 1] += descendantOffsets[i];
+			}
+
+			int[] descendants = new int[size];
+			int[] next = Arrays.copyOf(descendantOffsets, count);
+			for (int i = 0; i < count; i++) {
+				for (int j = ancestorOffsets[i]; j < ancestorOffsets[i + 1]; j++) {
+					descendants[next[ancestors[j]]++] = i;
+				}
+			}
+
+			return new Closures(ids, classes, ancestorOffsets, ancestors, sortedAncestors, descendantOffsets, descendants);
+		}
+
+		/**
+		 * Orders classes so that parents come before their children, using Kahn's algorithm.
+		 * Classes in inheritance cycles, which only occur in broken jars, are appended at the end.
+		 */
+		private static ClassEntry[] topologicalOrder(Multimap<ClassEntry, ClassEntry> classParents) {
+			Map<ClassEntry, Integer> unorderedParents = new HashMap<>();
+			Multimap<ClassEntry, ClassEntry> classChildren = HashMultimap.create();
+			for (Map.Entry<ClassEntry, ClassEntry> entry : classParents.entries()) {
+				unorderedParents.merge(entry.getKey(), 1, Integer::sum);
+				unorderedParents.putIfAbsent(entry.getValue(), 0);
+				classChildren.put(entry.getValue(), entry.getKey());
+			}
+
+			ArrayDeque<ClassEntry> ready = new ArrayDeque<>();
+			unorderedParents.forEach((classEntry, count) -> {
+				if (count == 0) {
+					ready.add(classEntry);
+				}
+			});
+
+			Set<ClassEntry> ordered = new LinkedHashSet<>();
+			while (!ready.isEmpty()) {
+				ClassEntry classEntry = ready.poll();
+				ordered.add(classEntry);
+				for (ClassEntry child : classChildren.get(classEntry)) {
+					if (unorderedParents.merge(child, -1, Integer::sum) == 0) {
+						ready.add(child);
+					}
+				}
+			}
+
+			ordered.addAll(unorderedParents.keySet());
+			return ordered.toArray(new ClassEntry[0]);
+		}
+
+		int find(ClassEntry classEntry) {
+			Integer id = this.ids.get(classEntry);
+			return id == null ? -1 : id;
+		}
+
+		boolean isAncestor(int id, int ancestorId) {
+			return Arrays.binarySearch(this.sortedAncestors, this.ancestorOffsets[id], this.ancestorOffsets[id + 1], ancestorId) >= 0;
+		}
+	}
+
 	public enum Relation {
 		RELATED,
 		UNRELATED,
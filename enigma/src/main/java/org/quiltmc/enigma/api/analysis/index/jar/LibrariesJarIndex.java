@@ -22,7 +22,7 @@ public class LibrariesJarIndex extends IndependentJarIndex {
 	 */
 	public static LibrariesJarIndex empty() {
 		EntryIndex entryIndex = new IndependentEntryIndex();
-		ReferenceIndex referenceIndex = new IndependentReferenceIndex();
+		ReferenceIndex referenceIndex = new CompactReferenceIndex();
 		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
 		return new LibrariesJarIndex(
 				entryIndex, inheritanceIndex, referenceIndex,
@@ -23,7 +23,7 @@ public class MainJarIndex extends IndependentJarIndex {
 	public static MainJarIndex empty() {
 		EntryIndex entryIndex = new IndependentEntryIndex();
 		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
-		ReferenceIndex referenceIndex = new IndependentReferenceIndex();
+		ReferenceIndex referenceIndex = new CompactReferenceIndex();
 		BridgeMethodIndex bridgeMethodIndex = new IndependentBridgeMethodIndex(entryIndex, inheritanceIndex, referenceIndex);
 		PackageVisibilityIndex packageVisibilityIndex = new PackageVisibilityIndex();
 		EnclosingMethodIndex enclosingMethodIndex = new EnclosingMethodIndex();
@@ -30,7 +30,7 @@ public class PackageVisibilityIndex implements JarIndexer {
 			ClassEntry contextClass = ref.context.getContainingClass();
 			ClassEntry referencedClass = ref.entry.getContainingClass();
 
-			if (!inheritanceIndex.getAncestors(contextClass).contains(referencedClass)) {
+			if (!inheritanceIndex.isAncestor(contextClass, referencedClass)) {
 				return true; // access to protected member not in superclass
 			}
 
@@ -41,7 +41,7 @@ public class PackageVisibilityIndex implements JarIndexer {
 			// access to instance member only valid if target's class assignable to context class
 			return !(ref.targetType.getKind() == ReferenceTargetType.Kind.UNINITIALIZED
 					|| ((ReferenceTargetType.ClassType) ref.targetType).getEntry().equals(contextClass)
-					|| inheritanceIndex.getAncestors(((ReferenceTargetType.ClassType) ref.targetType).getEntry()).contains(contextClass));
+					|| inheritanceIndex.isAncestor(((ReferenceTargetType.ClassType) ref.targetType).getEntry(), contextClass));
 		}
 
 		return true;
@@ -2,14 +2,16 @@ package org.quiltmc.enigma.api.analysis.index.jar;
 
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import java.util.Collection;
+import java.util.Comparator;
 
-public sealed interface ReferenceIndex extends JarIndexer permits CombinedReferenceIndex, IndependentReferenceIndex {
+public sealed interface ReferenceIndex extends JarIndexer permits CombinedReferenceIndex, CompactReferenceIndex, IndependentReferenceIndex {
 	Collection<MethodEntry> getMethodsReferencedBy(MethodEntry entry);
 
 	Collection<FieldEntry> getFieldsReferencedBy(MethodEntry entry);
@@ -24,6 +26,14 @@ public sealed interface ReferenceIndex extends JarIndexer permits CombinedRefere
 
 	Collection<EntryReference<ClassEntry, MethodDefEntry>> getMethodTypeReferencesToClass(ClassEntry entry);
 
+	/**
+	 * {@return the order of the references to an entry returned by this index, which is by the class and then the name of their context}
+	 */
+	static <E extends Entry<?>, C extends Entry<?>> Comparator<EntryReference<E, C>> contextOrder() {
+		return Comparator.<EntryReference<E, C>, String>comparing(reference -> reference.context.getContainingClass().getFullName())
+				.thenComparing(reference -> reference.context.getName());
+	}
+
 	@Override
 	default Class<? extends JarIndexer> getType() {
 		return ReferenceIndex.class;
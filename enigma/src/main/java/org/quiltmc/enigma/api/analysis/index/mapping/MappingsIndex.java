@@ -91,7 +91,7 @@ public class MappingsIndex implements MappingsIndexer {
 				}
 			}
 
-			this.progress.step(this.work++, I18n.translate("progress.mappings.indexing.mappings"));
+			this.progress.advance(1, () -> I18n.translate("progress.mappings.indexing.mappings"));
 		}
 
 		this.processIndex(this);
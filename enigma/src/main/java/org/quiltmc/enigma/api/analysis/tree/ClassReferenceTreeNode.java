@@ -1,17 +1,17 @@
 package org.quiltmc.enigma.api.analysis.tree;
 
-import com.google.common.collect.Sets;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 public class ClassReferenceTreeNode extends DefaultMutableTreeNode implements ReferenceTreeNode<ClassEntry, MethodDefEntry> {
 	private final Translator deobfuscatingTranslator;
@@ -50,33 +50,48 @@ public class ClassReferenceTreeNode extends DefaultMutableTreeNode implements Re
 	}
 
 	public void load(JarIndex index, boolean recurse) {
-		ReferenceIndex referenceIndex = index.getIndex(ReferenceIndex.class);
-
 		// get all the child nodes
-		for (EntryReference<ClassEntry, MethodDefEntry> reference : referenceIndex.getReferencesToClass(this.entry)) {
-			this.add(new ClassReferenceTreeNode(this.deobfuscatingTranslator, reference));
+		List<ClassReferenceTreeNode> children = this.createChildren(index);
+		children.forEach(this::add);
+
+		if (recurse) {
+			for (ClassReferenceTreeNode child : children) {
+				child.load(index, true);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * No nodes are created if this node's class already appears further up the tree, which would recurse endlessly.
+	 */
+	@Override
+	public List<ClassReferenceTreeNode> createChildren(JarIndex index) {
+		if (this.isRecursive()) {
+			return List.of();
 		}
 
-		if (recurse && this.children != null) {
-			for (Object child : this.children) {
-				if (child instanceof ClassReferenceTreeNode node) {
-					// don't recurse into ancestor
-					Set<Entry<?>> ancestors = Sets.newHashSet();
-					TreeNode n = node;
-					while (n.getParent() != null) {
-						n = n.getParent();
-						if (n instanceof ClassReferenceTreeNode treeNode) {
-							ancestors.add(treeNode.getEntry());
-						}
-					}
-
-					if (ancestors.contains(node.getEntry())) {
-						continue;
-					}
-
-					node.load(index, true);
-				}
+		Collection<EntryReference<ClassEntry, MethodDefEntry>> references = index.getIndex(ReferenceIndex.class).getReferencesToClass(this.entry);
+		List<ClassReferenceTreeNode> children = new ArrayList<>(references.size());
+		for (EntryReference<ClassEntry, MethodDefEntry> reference : references) {
+			children.add(new ClassReferenceTreeNode(this.deobfuscatingTranslator, reference));
+		}
+
+		return children;
+	}
+
+	@Override
+	public boolean hasChildren(JarIndex index) {
+		return !this.isRecursive() && !index.getIndex(ReferenceIndex.class).getReferencesToClass(this.entry).isEmpty();
+	}
+
+	private boolean isRecursive() {
+		for (TreeNode n = this.getParent(); n != null; n = n.getParent()) {
+			if (n instanceof ClassReferenceTreeNode treeNode && treeNode.getEntry().equals(this.entry)) {
+				return true;
 			}
 		}
+
+		return false;
 	}
 }
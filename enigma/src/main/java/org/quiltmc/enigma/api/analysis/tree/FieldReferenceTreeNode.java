@@ -9,6 +9,8 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.ArrayList;
+import java.util.List;
 
 public class FieldReferenceTreeNode extends DefaultMutableTreeNode implements ReferenceTreeNode<FieldEntry, MethodDefEntry> {
 	private final Translator translator;
@@ -47,27 +49,46 @@ public class FieldReferenceTreeNode extends DefaultMutableTreeNode implements Re
 	}
 
 	public void load(JarIndex index, boolean recurse) {
+		// get all the child nodes
+		List<DefaultMutableTreeNode> children = this.createChildren(index);
+		children.forEach(this::add);
+
+		if (recurse) {
+			for (DefaultMutableTreeNode node : children) {
+				if (node instanceof MethodReferenceTreeNode methodNode) {
+					methodNode.load(index, true, false);
+				} else if (node instanceof FieldReferenceTreeNode fieldNode) {
+					fieldNode.load(index, true);
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<DefaultMutableTreeNode> createChildren(JarIndex index) {
 		ReferenceIndex referenceIndex = index.getIndex(ReferenceIndex.class);
+		List<DefaultMutableTreeNode> children = new ArrayList<>();
 
-		// get all the child nodes
 		if (this.reference == null) {
 			for (EntryReference<FieldEntry, MethodDefEntry> reference : referenceIndex.getReferencesToField(this.entry)) {
-				this.add(new FieldReferenceTreeNode(this.translator, reference));
+				children.add(new FieldReferenceTreeNode(this.translator, reference));
 			}
 		} else {
 			for (EntryReference<MethodEntry, MethodDefEntry> reference : referenceIndex.getReferencesToMethod(this.reference.context)) {
-				this.add(new MethodReferenceTreeNode(this.translator, reference));
+				children.add(new MethodReferenceTreeNode(this.translator, reference));
 			}
 		}
 
-		if (recurse && this.children != null) {
-			for (Object node : this.children) {
-				if (node instanceof MethodReferenceTreeNode methodNode) {
-					methodNode.load(index, true, false);
-				} else if (node instanceof FieldReferenceTreeNode fieldNode) {
-					fieldNode.load(index, true);
-				}
-			}
+		return children;
+	}
+
+	@Override
+	public boolean hasChildren(JarIndex index) {
+		ReferenceIndex referenceIndex = index.getIndex(ReferenceIndex.class);
+		if (this.reference == null) {
+			return !referenceIndex.getReferencesToField(this.entry).isEmpty();
+		} else {
+			return !referenceIndex.getReferencesToMethod(this.reference.context).isEmpty();
 		}
 	}
 }
@@ -1,12 +1,10 @@
 package org.quiltmc.enigma.api.analysis.tree;
 
-import com.google.common.collect.Sets;
 import org.quiltmc.enigma.api.analysis.EntryReference;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
-import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
@@ -14,7 +12,7 @@ import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Set;
+import java.util.List;
 
 public class MethodReferenceTreeNode extends DefaultMutableTreeNode implements ReferenceTreeNode<MethodEntry, MethodDefEntry> {
 	private final Translator translator;
@@ -54,46 +52,71 @@ public class MethodReferenceTreeNode extends DefaultMutableTreeNode implements R
 
 	public void load(JarIndex index, boolean recurse, boolean recurseMethod) {
 		// get all the child nodes
-		Collection<EntryReference<MethodEntry, MethodDefEntry>> references = this.getReferences(index, recurseMethod);
+		List<MethodReferenceTreeNode> children = this.createChildren(index, recurseMethod);
+		children.forEach(this::add);
+
+		if (recurse) {
+			for (MethodReferenceTreeNode child : children) {
+				child.load(index, true, false);
+			}
+		}
+	}
 
+	@Override
+	public List<MethodReferenceTreeNode> createChildren(JarIndex index) {
+		return this.createChildren(index, false);
+	}
+
+	/**
+	 * Creates the child nodes of this node without adding them.
+	 * No nodes are created if this node's method already appears further up the tree, which would recurse endlessly.
+	 *
+	 * @param index the index to look up references in
+	 * @param recurseMethod whether to also include references to methods equivalent to this node's method
+	 * @return the child nodes
+	 */
+	public List<MethodReferenceTreeNode> createChildren(JarIndex index, boolean recurseMethod) {
+		if (this.isRecursive()) {
+			return List.of();
+		}
+
+		Collection<EntryReference<MethodEntry, MethodDefEntry>> references = this.getReferences(index, recurseMethod);
+		List<MethodReferenceTreeNode> children = new ArrayList<>(references.size());
 		for (EntryReference<MethodEntry, MethodDefEntry> reference : references) {
-			this.add(new MethodReferenceTreeNode(this.translator, reference));
+			children.add(new MethodReferenceTreeNode(this.translator, reference));
 		}
 
-		if (recurse && this.children != null) {
-			for (Object child : this.children) {
-				if (child instanceof MethodReferenceTreeNode node) {
-					// don't recurse into ancestor
-					Set<Entry<?>> ancestors = Sets.newHashSet();
-					TreeNode n = node;
-					while (n.getParent() != null) {
-						n = n.getParent();
-						if (n instanceof MethodReferenceTreeNode treeNode) {
-							ancestors.add(treeNode.getEntry());
-						}
-					}
-
-					if (ancestors.contains(node.getEntry())) {
-						continue;
-					}
-
-					node.load(index, true, false);
-				}
+		return children;
+	}
+
+	@Override
+	public boolean hasChildren(JarIndex index) {
+		return !this.isRecursive() && !index.getIndex(ReferenceIndex.class).getReferencesToMethod(this.entry).isEmpty();
+	}
+
+	private boolean isRecursive() {
+		for (TreeNode n = this.getParent(); n != null; n = n.getParent()) {
+			if (n instanceof MethodReferenceTreeNode treeNode && treeNode.getEntry().equals(this.entry)) {
+				return true;
 			}
 		}
+
+		return false;
 	}
 
 	private Collection<EntryReference<MethodEntry, MethodDefEntry>> getReferences(JarIndex index, boolean recurseMethod) {
 		ReferenceIndex referenceIndex = index.getIndex(ReferenceIndex.class);
 
 		if (recurseMethod) {
-			Collection<EntryReference<MethodEntry, MethodDefEntry>> references = new ArrayList<>();
+			List<EntryReference<MethodEntry, MethodDefEntry>> references = new ArrayList<>();
 
 			EntryResolver entryResolver = index.getEntryResolver();
 			for (MethodEntry methodEntry : entryResolver.resolveEquivalentMethods(this.entry)) {
 				references.addAll(referenceIndex.getReferencesToMethod(methodEntry));
 			}
 
+			// each method's references are sorted already, but the union isn't
+			references.sort(ReferenceIndex.contextOrder());
 			return references;
 		} else {
 			return referenceIndex.getReferencesToMethod(this.entry);
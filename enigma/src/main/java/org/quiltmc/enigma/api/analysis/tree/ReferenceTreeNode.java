@@ -1,8 +1,12 @@
 package org.quiltmc.enigma.api.analysis.tree;
 
 import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 
+import javax.swing.tree.DefaultMutableTreeNode;
+import java.util.List;
+
 public interface ReferenceTreeNode<E extends Entry<?>, C extends Entry<?>> {
 	/**
 	 * Returns the entry represented by this tree node.
@@ -10,4 +14,26 @@ public interface ReferenceTreeNode<E extends Entry<?>, C extends Entry<?>> {
 	E getEntry();
 
 	EntryReference<E, C> getReference();
+
+	/**
+	 * Creates the child nodes of this node without adding them, so that the tree can be loaded lazily and in pages.
+	 * Nodes without references to look up have no children, which is the default.
+	 *
+	 * @param index the index to look up references in
+	 * @return the child nodes, sorted by the context of their references
+	 */
+	default List<? extends DefaultMutableTreeNode> createChildren(JarIndex index) {
+		return List.of();
+	}
+
+	/**
+	 * Checks whether {@link #createChildren(JarIndex)} would create any nodes, without creating them,
+	 * so that nodes without children can be shown as leaves before they're loaded.
+	 *
+	 * @param index the index to look up references in
+	 * @return whether this node has child nodes
+	 */
+	default boolean hasChildren(JarIndex index) {
+		return !this.createChildren(index).isEmpty();
+	}
 }
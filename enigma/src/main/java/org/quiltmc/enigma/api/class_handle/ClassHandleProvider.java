@@ -17,6 +17,7 @@ import org.quiltmc.enigma.util.Result;
 import org.quiltmc.enigma.util.Utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,8 +26,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -35,7 +35,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 public final class ClassHandleProvider {
 	private final EnigmaProject project;
 
-	private final ExecutorService pool = Executors.newWorkStealingPool();
+	private final DecompilePool pool = new DecompilePool(this::getPriority);
 	private DecompilerService ds;
 	private Decompiler decompiler;
 
@@ -43,6 +43,12 @@ public final class ClassHandleProvider {
 
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
+	private final ClassPrefetcher.UserWork userWork = new ClassPrefetcher.UserWork();
+	@Nullable
+	private volatile ClassPrefetcher prefetcher;
+	@Nullable
+	private volatile ClassEntry activeClass;
+
 	public ClassHandleProvider(EnigmaProject project, DecompilerService ds) {
 		this.project = project;
 		this.ds = ds;
@@ -67,6 +73,97 @@ public final class ClassHandleProvider {
 		});
 	}
 
+	/**
+	 * Enables or disables background decompilation of the classes a user is likely to open next.
+	 * Disabling prefetching cancels all pending prefetches and drops all prefetched sources.
+	 *
+	 * @param enabled whether to prefetch classes
+	 * @see #prefetchAround(ClassEntry)
+	 */
+	public void setPrefetching(boolean enabled) {
+		ClassPrefetcher current = this.prefetcher;
+		if (enabled && current == null) {
+			this.prefetcher = new ClassPrefetcher(this.project, () -> this.decompiler, this.userWork, ClassPrefetcher.DEFAULT_CACHE_SIZE);
+		} else if (!enabled && current != null) {
+			this.prefetcher = null;
+			current.shutdown();
+		}
+	}
+
+	/**
+	 * Checks whether background prefetching is enabled.
+	 *
+	 * @return whether classes are prefetched
+	 */
+	public boolean isPrefetching() {
+		return this.prefetcher != null;
+	}
+
+	/**
+	 * Notifies this provider that a class is being shown. If prefetching is enabled, the classes it references
+	 * the most and its inheritance neighbours are decompiled in the background, so opening them later is fast.
+	 * Prefetches never delay decompiles requested through class handles, and are planned in the background,
+	 * so this can be called from the UI thread.
+	 *
+	 * @param entry the class being shown
+	 */
+	public void prefetchAround(ClassEntry entry) {
+		ClassPrefetcher prefetcher = this.prefetcher;
+		if (prefetcher != null) {
+			prefetcher.prefetchAround(entry.getOutermostClass());
+		}
+	}
+
+	/**
+	 * Sets the class the user is currently looking at. Pending work for that class runs before the work
+	 * of every other class.
+	 *
+	 * @param entry the active class, or {@code null} if no class is active
+	 */
+	public void setActiveClass(@Nullable ClassEntry entry) {
+		ClassEntry active = entry == null ? null : entry.getOutermostClass();
+		ClassEntry previous = this.activeClass;
+		if (Objects.equals(previous, active)) return;
+
+		this.activeClass = active;
+		Utils.withLock(this.lock.readLock(), () -> {
+			for (ClassEntry changed : Arrays.asList(previous, active)) {
+				Entry e = changed == null ? null : this.handles.get(changed);
+				if (e != null) {
+					this.pool.reprioritize(e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Gets the number of decompile, javadoc, index and remap tasks waiting for a thread.
+	 *
+	 * @return the number of queued tasks
+	 */
+	public int getQueuedTaskCount() {
+		return this.pool.getQueueDepth();
+	}
+
+	/**
+	 * Gets statistics about the tasks run for each stage since this provider was created.
+	 *
+	 * @return the statistics of each stage
+	 */
+	public Map<Stage, StageStatistics> getStageStatistics() {
+		return this.pool.getStatistics();
+	}
+
+	private int getPriority(Object owner) {
+		return owner instanceof Entry e && e.entry.equals(this.activeClass) ? 0 : 1;
+	}
+
+	@Nullable
+	private CompletableFuture<Source> claimPrefetched(ClassEntry entry) {
+		ClassPrefetcher prefetcher = this.prefetcher;
+		return prefetcher == null ? null : prefetcher.claim(entry);
+	}
+
 	/**
 	 * Set the decompiler service to use when decompiling classes. Invalidates
 	 * all currently open classes.
@@ -81,6 +178,12 @@ public final class ClassHandleProvider {
 
 		this.ds = ds;
 		this.decompiler = this.createDecompiler();
+
+		ClassPrefetcher prefetcher = this.prefetcher;
+		if (prefetcher != null) {
+			prefetcher.clear();
+		}
+
 		Utils.withLock(this.lock.readLock(), () -> this.handles.values().forEach(Entry::invalidate));
 	}
 
@@ -163,6 +266,7 @@ public final class ClassHandleProvider {
 	 * be used.
 	 */
 	public void destroy() {
+		this.setPrefetching(false);
 		this.pool.shutdown();
 		try {
 			this.pool.awaitTermination(30, TimeUnit.SECONDS);
@@ -176,6 +280,35 @@ public final class ClassHandleProvider {
 		});
 	}
 
+	/**
+	 * The stages a class goes through before its mapped source is available.
+	 */
+	public enum Stage {
+		DECOMPILE,
+		JAVADOC,
+		INDEX,
+		REMAP
+	}
+
+	/**
+	 * Statistics about the tasks run for one {@link Stage}.
+	 *
+	 * @param completed the number of tasks that ran
+	 * @param cancelled the number of tasks dropped from the queue because a newer version of the stage was scheduled
+	 * @param totalWaitNanos the total time tasks spent queued
+	 * @param totalRunNanos the total time tasks spent running
+	 * @param maxRunNanos the longest time a single task spent running
+	 */
+	public record StageStatistics(long completed, long cancelled, long totalWaitNanos, long totalRunNanos, long maxRunNanos) {
+		public long averageWaitNanos() {
+			return this.completed == 0 ? 0 : this.totalWaitNanos / this.completed;
+		}
+
+		public long averageRunNanos() {
+			return this.completed == 0 ? 0 : this.totalRunNanos / this.completed;
+		}
+	}
+
 	private static final class Entry {
 		private final ClassHandleProvider p;
 		private final ClassEntry entry;
@@ -241,16 +374,40 @@ public final class ClassHandleProvider {
 
 		private CompletableFuture<Result<Source, ClassHandleError>> decompile() {
 			int v = this.decompileVersion.incrementAndGet();
-			return CompletableFuture.supplyAsync(() -> {
-				if (this.decompileVersion.get() != v) return null;
 
-				Result<Source, ClassHandleError> uncommentedSource = Result.ok(this.p.decompiler.getUndocumentedSource(this.entry.getFullName()));
-				Entry.this.uncommentedSource = uncommentedSource;
-				Entry.this.waitingUncommentedSources.forEach(f -> f.complete(uncommentedSource));
-				Entry.this.waitingUncommentedSources.clear();
-				Utils.withLock(this.lock.readLock(), () -> new ArrayList<>(this.handles)).forEach(h -> h.onUncommentedSourceChanged(uncommentedSource));
-				return uncommentedSource;
-			}, this.p.pool);
+			CompletableFuture<Source> prefetched = this.p.claimPrefetched(this.entry);
+			if (prefetched != null) {
+				return prefetched.thenApplyAsync(source -> {
+					if (this.decompileVersion.get() != v) return null;
+					return this.onDecompiled(source);
+				}, this.p.pool.executor(this, Stage.DECOMPILE, v));
+			}
+
+			// begun before queueing, so that prefetches already yield while the decompile waits in the pool's queue
+			this.p.userWork.begin();
+			try {
+				return CompletableFuture.supplyAsync(() -> {
+					try {
+						if (this.decompileVersion.get() != v) return null;
+						return this.onDecompiled(this.p.decompiler.getUndocumentedSource(this.entry.getFullName()));
+					} finally {
+						this.p.userWork.end();
+					}
+				}, this.p.pool.executor(this, Stage.DECOMPILE, v, this.p.userWork::end));
+			} catch (RejectedExecutionException e) {
+				// the task will never run, so prefetches mustn't keep waiting for it
+				this.p.userWork.end();
+				throw e;
+			}
+		}
+
+		private Result<Source, ClassHandleError> onDecompiled(Source source) {
+			Result<Source, ClassHandleError> uncommentedSource = Result.ok(source);
+			Entry.this.uncommentedSource = uncommentedSource;
+			Entry.this.waitingUncommentedSources.forEach(f -> f.complete(uncommentedSource));
+			Entry.this.waitingUncommentedSources.clear();
+			Utils.withLock(this.lock.readLock(), () -> new ArrayList<>(this.handles)).forEach(h -> h.onUncommentedSourceChanged(uncommentedSource));
+			return uncommentedSource;
 		}
 
 		private CompletableFuture<Result<Source, ClassHandleError>> continueInsertJavadoc(CompletableFuture<Result<Source, ClassHandleError>> f) {
@@ -260,7 +417,7 @@ public final class ClassHandleProvider {
 				Result<Source, ClassHandleError> jdSource = res.map(s -> s.withJavadocs(this.p.project.getRemapper()));
 				Utils.withLock(this.lock.readLock(), () -> new ArrayList<>(this.handles)).forEach(h -> h.onDocsChanged(jdSource));
 				return jdSource;
-			}, this.p.pool);
+			}, this.p.pool.executor(this, Stage.JAVADOC, v));
 		}
 
 		private CompletableFuture<Result<DecompiledClassSource, ClassHandleError>> continueIndexSource(CompletableFuture<Result<Source, ClassHandleError>> f) {
@@ -273,15 +430,15 @@ public final class ClassHandleProvider {
 					DecompiledClassSource source = new DecompiledClassSource(this.entry, index);
 					return Result.ok(source);
 				});
-			}, this.p.pool).exceptionally(e -> Result.err(ClassHandleError.decompile(e)));
+			}, this.p.pool.executor(this, Stage.INDEX, v)).exceptionally(e -> Result.err(ClassHandleError.decompile(e)));
 		}
 
 		private void continueMapSource(CompletableFuture<Result<DecompiledClassSource, ClassHandleError>> f) {
 			int v = this.mappedVersion.incrementAndGet();
 			f.thenApplyAsync(res -> {
 				if (res == null || this.mappedVersion.get() != v) return null;
-				return res.andThen(source -> Result.ok(source.remapSource(this.p.project, this.p.project.getRemapper().getDeobfuscator())));
-			}, this.p.pool).whenComplete((res, e) -> {
+				return res.andThen(source -> Result.ok(source.remapSource(this.p.project, this.p.project.getRemapper().snapshot().getDeobfuscator())));
+			}, this.p.pool.executor(this, Stage.REMAP, v)).whenComplete((res, e) -> {
 				if (e != null) res = Result.err(ClassHandleError.remap(e));
 				if (res == null) return;
 				Entry.this.source = res;
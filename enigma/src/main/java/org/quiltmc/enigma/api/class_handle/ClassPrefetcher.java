@@ -0,0 +1,277 @@
+package org.quiltmc.enigma.api.class_handle;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import org.jspecify.annotations.Nullable;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.source.Decompiler;
+import org.quiltmc.enigma.api.source.Source;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
+import org.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Decompiles the classes a user is likely to open next in the background.
+ *
+ * <p>When a class is shown, the classes it references the most and its direct inheritance neighbours are looked up
+ * and queued on a single idle-priority thread. Prefetched sources are kept in a bounded cache which
+ * {@link ClassHandleProvider#openClass(ClassEntry)} checks before decompiling.
+ *
+ * <p>Prefetching always yields to user-initiated decompiles: queued prefetches only start once no decompile
+ * requested through a class handle is pending, and opening a class whose prefetch hasn't started yet cancels it.
+ */
+final class ClassPrefetcher {
+	static final int DEFAULT_CACHE_SIZE = 32;
+	static final int REFERENCED_CLASS_COUNT = 8;
+
+	private final EnigmaProject project;
+	private final Supplier<Decompiler> decompiler;
+	private final UserWork userWork;
+	private final ExecutorService pool;
+	private final ExecutorService planner;
+	// the last class shown which the planner hasn't looked up yet, so that quickly switching classes only plans once
+	private final AtomicReference<ClassEntry> planned = new AtomicReference<>();
+
+	private final Cache<ClassEntry, Task> tasks;
+
+	ClassPrefetcher(EnigmaProject project, Supplier<Decompiler> decompiler, UserWork userWork, int cacheSize) {
+		this(project, decompiler, userWork, cacheSize, Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Enigma class prefetcher");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}), Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Enigma prefetch planner");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	/**
+	 * @param pool runs the prefetches, one at a time
+	 * @param planner looks up the classes to prefetch
+	 */
+	ClassPrefetcher(EnigmaProject project, Supplier<Decompiler> decompiler, UserWork userWork, int cacheSize, ExecutorService pool, ExecutorService planner) {
+		this.project = project;
+		this.decompiler = decompiler;
+		this.userWork = userWork;
+		this.pool = pool;
+		this.planner = planner;
+		this.tasks = CacheBuilder.newBuilder()
+				.maximumSize(cacheSize)
+				.<ClassEntry, Task>removalListener(notification -> {
+					if (notification.getCause() != RemovalCause.REPLACED) {
+						notification.getValue().cancel();
+					}
+				})
+				.build();
+	}
+
+	/**
+	 * Schedules decompilation of the likely neighbours of the given class, replacing any prefetches
+	 * that haven't started yet. The neighbours are looked up on another thread, so this returns immediately.
+	 *
+	 * @param entry the top-level class that was shown
+	 */
+	void prefetchAround(ClassEntry entry) {
+		if (this.planned.getAndSet(entry) == null) {
+			this.planner.execute(this::plan);
+		}
+	}
+
+	private void plan() {
+		ClassEntry entry = this.planned.getAndSet(null);
+		Set<ClassEntry> targets = this.collectTargets(entry);
+
+		for (Task task : this.tasks.asMap().values()) {
+			if (!targets.contains(task.entry) && task.cancel()) {
+				this.tasks.invalidate(task.entry);
+			}
+		}
+
+		for (ClassEntry target : targets) {
+			if (this.tasks.getIfPresent(target) == null) {
+				Task task = new Task(target);
+				this.tasks.put(target, task);
+				this.pool.execute(task);
+			}
+		}
+	}
+
+	/**
+	 * Takes the prefetched source of a class out of the cache.
+	 *
+	 * @param entry the class being opened
+	 * @return a future of the prefetched source if its decompilation already started, {@code null} otherwise
+	 */
+	@Nullable
+	CompletableFuture<Source> claim(ClassEntry entry) {
+		Task task = this.tasks.getIfPresent(entry);
+		if (task == null) {
+			return null;
+		}
+
+		this.tasks.asMap().remove(entry, task);
+		// a queued prefetch runs with idle priority, so the caller should decompile it itself
+		return task.cancel() ? null : task.future;
+	}
+
+	/**
+	 * Cancels every queued prefetch and drops every prefetched source, for example when the decompiler changed.
+	 */
+	void clear() {
+		this.tasks.invalidateAll();
+	}
+
+	void shutdown() {
+		this.planner.shutdownNow();
+		this.clear();
+		this.pool.shutdownNow();
+	}
+
+	private Set<ClassEntry> collectTargets(ClassEntry entry) {
+		JarIndex jarIndex = this.project.getJarIndex();
+		EntryIndex entryIndex = jarIndex.getIndex(EntryIndex.class);
+		ReferenceIndex referenceIndex = jarIndex.getIndex(ReferenceIndex.class);
+		InheritanceIndex inheritanceIndex = jarIndex.getIndex(InheritanceIndex.class);
+
+		Map<ClassEntry, Integer> referenceCounts = new HashMap<>();
+		Set<ClassEntry> neighbours = new LinkedHashSet<>();
+
+		List<ClassEntry> classes = new ArrayList<>();
+		classes.add(entry);
+		for (int i = 0; i < classes.size(); i++) {
+			ClassEntry classEntry = classes.get(i);
+			neighbours.addAll(inheritanceIndex.getParents(classEntry));
+			neighbours.addAll(inheritanceIndex.getChildren(classEntry));
+
+			for (ParentedEntry<?> child : jarIndex.getChildrenByClass().get(classEntry)) {
+				if (child instanceof ClassEntry innerClass) {
+					classes.add(innerClass);
+				} else if (child instanceof MethodEntry method) {
+					for (MethodEntry referenced : referenceIndex.getMethodsReferencedBy(method)) {
+						referenceCounts.merge(referenced.getParent(), 1, Integer::sum);
+					}
+
+					for (FieldEntry referenced : referenceIndex.getFieldsReferencedBy(method)) {
+						referenceCounts.merge(referenced.getParent(), 1, Integer::sum);
+					}
+				}
+			}
+		}
+
+		Set<ClassEntry> targets = new LinkedHashSet<>();
+		referenceCounts.entrySet().stream()
+				.sorted(Map.Entry.<ClassEntry, Integer>comparingByValue(Comparator.reverseOrder()))
+				.map(Map.Entry::getKey)
+				.map(ClassEntry::getOutermostClass)
+				.filter(target -> !target.equals(entry) && entryIndex.hasClass(target))
+				.distinct()
+				.limit(REFERENCED_CLASS_COUNT)
+				.forEach(targets::add);
+
+		neighbours.stream()
+				.map(ClassEntry::getOutermostClass)
+				.filter(target -> !target.equals(entry) && entryIndex.hasClass(target))
+				.forEach(targets::add);
+
+		return targets;
+	}
+
+	/**
+	 * Tracks decompiles requested through class handles, which prefetches must wait for.
+	 */
+	static final class UserWork {
+		private final AtomicInteger pending = new AtomicInteger();
+
+		void begin() {
+			this.pending.incrementAndGet();
+		}
+
+		void end() {
+			if (this.pending.decrementAndGet() == 0) {
+				synchronized (this) {
+					this.notifyAll();
+				}
+			}
+		}
+
+		private void awaitIdle(Task task) throws InterruptedException {
+			synchronized (this) {
+				while (this.pending.get() > 0 && !task.isCancelled()) {
+					// time out regularly to notice cancellation
+					this.wait(100);
+				}
+			}
+		}
+	}
+
+	private final class Task implements Runnable {
+		private static final int QUEUED = 0;
+		private static final int RUNNING = 1;
+		private static final int CANCELLED = 2;
+
+		private final ClassEntry entry;
+		private final AtomicInteger state = new AtomicInteger(QUEUED);
+		private final CompletableFuture<Source> future = new CompletableFuture<>();
+
+		private Task(ClassEntry entry) {
+			this.entry = entry;
+		}
+
+		/**
+		 * Cancels this task if it hasn't started yet.
+		 *
+		 * @return whether this task won't run
+		 */
+		boolean cancel() {
+			return this.state.compareAndSet(QUEUED, CANCELLED) || this.state.get() == CANCELLED;
+		}
+
+		boolean isCancelled() {
+			return this.state.get() == CANCELLED;
+		}
+
+		@Override
+		public void run() {
+			try {
+				ClassPrefetcher.this.userWork.awaitIdle(this);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.cancel();
+			}
+
+			if (!this.state.compareAndSet(QUEUED, RUNNING)) {
+				return;
+			}
+
+			try {
+				this.future.complete(ClassPrefetcher.this.decompiler.get().getUndocumentedSource(this.entry.getFullName()));
+			} catch (Throwable t) {
+				Logger.debug(t, "Failed to prefetch {}", this.entry);
+				this.future.completeExceptionally(t);
+			}
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package org.quiltmc.enigma.api.class_handle;
+
+import org.quiltmc.enigma.api.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * The executor behind {@link ClassHandleProvider}'s decompile, javadoc, index and remap stages.
+ *
+ * <p>Queued tasks are ordered by the priority of the class they belong to, then by submission order,
+ * so the class in the active editor always runs before background classes. Scheduling a new version of a stage
+ * removes the queued tasks of older versions of the same stage, instead of letting them run only to
+ * discard their result.
+ */
+final class DecompilePool {
+	private final ToIntFunction<Object> priorities;
+	private final PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+	private final ThreadPoolExecutor executor;
+	private final AtomicLong sequence = new AtomicLong();
+	private final Map<ClassHandleProvider.Stage, StageCounters> counters = new EnumMap<>(ClassHandleProvider.Stage.class);
+
+	/**
+	 * @param priorities computes the current priority of a task owner, lower values run first
+	 */
+	DecompilePool(ToIntFunction<Object> priorities) {
+		this(priorities, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param priorities computes the current priority of a task owner, lower values run first
+	 * @param threads the number of worker threads
+	 */
+	DecompilePool(ToIntFunction<Object> priorities, int threads) {
+		this.priorities = priorities;
+
+		AtomicInteger threadIndex = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "Enigma decompiler " + threadIndex.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+
+		this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, this.queue, threadFactory);
+		this.executor.allowCoreThreadTimeOut(true);
+
+		for (ClassHandleProvider.Stage stage : ClassHandleProvider.Stage.values()) {
+			this.counters.put(stage, new StageCounters(stage));
+		}
+	}
+
+	/**
+	 * Creates an executor for one version of a stage of an owner, and cancels all queued tasks of older versions
+	 * of that stage.
+	 *
+	 * @param owner the object the stage belongs to
+	 * @param stage the stage
+	 * @param version the version of the stage, newer versions must be greater
+	 * @param onCancel called instead of the task if it gets cancelled before running
+	 * @return an executor for the stage
+	 */
+	Executor executor(Object owner, ClassHandleProvider.Stage stage, int version, Runnable onCancel) {
+		this.cancelSuperseded(owner, stage, version);
+		return runnable -> this.executor.execute(new Task(owner, stage, version, runnable, onCancel));
+	}
+
+	Executor executor(Object owner, ClassHandleProvider.Stage stage, int version) {
+		return this.executor(owner, stage, version, () -> { });
+	}
+
+	/**
+	 * Re-sorts the queued tasks of an owner after its priority changed.
+	 *
+	 * @param owner the owner whose priority changed
+	 */
+	void reprioritize(Object owner) {
+		for (Task task : this.queuedTasks()) {
+			if (task.owner == owner && this.queue.remove(task)) {
+				this.executor.execute(task.requeue());
+			}
+		}
+	}
+
+	private void cancelSuperseded(Object owner, ClassHandleProvider.Stage stage, int version) {
+		for (Task task : this.queuedTasks()) {
+			if (task.owner == owner && task.stage == stage && task.version < version && this.queue.remove(task)) {
+				this.counters.get(stage).cancel();
+				task.onCancel.run();
+			}
+		}
+	}
+
+	private List<Task> queuedTasks() {
+		List<Task> tasks = new ArrayList<>();
+		for (Runnable runnable : this.queue) {
+			tasks.add((Task) runnable);
+		}
+
+		return tasks;
+	}
+
+	int getQueueDepth() {
+		return this.queue.size();
+	}
+
+	Map<ClassHandleProvider.Stage, ClassHandleProvider.StageStatistics> getStatistics() {
+		Map<ClassHandleProvider.Stage, ClassHandleProvider.StageStatistics> statistics = new EnumMap<>(ClassHandleProvider.Stage.class);
+		this.counters.forEach((stage, counters) -> statistics.put(stage, counters.snapshot()));
+		return statistics;
+	}
+
+	void shutdown() {
+		this.executor.shutdown();
+	}
+
+	boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.executor.awaitTermination(timeout, unit);
+	}
+
+	/**
+	 * Counts the tasks of a stage, and also records them to the {@link Metrics} as {@code class_handle.<stage>.*}.
+	 */
+	private static final class StageCounters {
+		private final LongAdder completed = new LongAdder();
+		private final LongAdder cancelled = new LongAdder();
+		private final LongAdder waitNanos = new LongAdder();
+		private final LongAdder runNanos = new LongAdder();
+		private final AtomicLong maxRunNanos = new AtomicLong();
+
+		private final String waitMetric;
+		private final String runMetric;
+		private final String cancelledMetric;
+
+		private StageCounters(ClassHandleProvider.Stage stage) {
+			String prefix = "class_handle." + stage.name().toLowerCase(Locale.ROOT);
+			this.waitMetric = prefix + ".wait";
+			this.runMetric = prefix + ".run";
+			this.cancelledMetric = prefix + ".cancelled";
+		}
+
+		private void record(long waitNanos, long runNanos) {
+			this.completed.increment();
+			this.waitNanos.add(waitNanos);
+			this.runNanos.add(runNanos);
+			this.maxRunNanos.accumulateAndGet(runNanos, Math::max);
+
+			Metrics.timer(this.waitMetric).record(waitNanos);
+			Metrics.timer(this.runMetric).record(runNanos);
+		}
+
+		private void cancel() {
+			this.cancelled.increment();
+			Metrics.counter(this.cancelledMetric).increment();
+		}
+
+		private ClassHandleProvider.StageStatistics snapshot() {
+			return new ClassHandleProvider.StageStatistics(this.completed.sum(), this.cancelled.sum(), this.waitNanos.sum(), this.runNanos.sum(), this.maxRunNanos.get());
+		}
+	}
+
+	private final class Task implements Runnable, Comparable<Task> {
+		private final Object owner;
+		private final ClassHandleProvider.Stage stage;
+		private final int version;
+		private final Runnable runnable;
+		private final Runnable onCancel;
+		private final long submitted;
+		private final long sequence;
+		private final int priority;
+
+		private Task(Object owner, ClassHandleProvider.Stage stage, int version, Runnable runnable, Runnable onCancel) {
+			this(owner, stage, version, runnable, onCancel, System.nanoTime(), DecompilePool.this.sequence.getAndIncrement());
+		}
+
+		private Task(Object owner, ClassHandleProvider.Stage stage, int version, Runnable runnable, Runnable onCancel, long submitted, long sequence) {
+			this.owner = owner;
+			this.stage = stage;
+			this.version = version;
+			this.runnable = runnable;
+			this.onCancel = onCancel;
+			this.submitted = submitted;
+			this.sequence = sequence;
+			this.priority = DecompilePool.this.priorities.applyAsInt(owner);
+		}
+
+		private Task requeue() {
+			return new Task(this.owner, this.stage, this.version, this.runnable, this.onCancel, this.submitted, this.sequence);
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			try {
+				this.runnable.run();
+			} finally {
+				DecompilePool.this.counters.get(this.stage).record(start - this.submitted, System.nanoTime() - start);
+			}
+		}
+
+		@Override
+		public int compareTo(Task other) {
+			int priority = Integer.compare(this.priority, other.priority);
+			return priority != 0 ? priority : Long.compare(this.sequence, other.sequence);
+		}
+	}
+}
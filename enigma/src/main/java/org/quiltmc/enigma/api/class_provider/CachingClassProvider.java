@@ -40,6 +40,12 @@ public class CachingClassProvider implements ClassProvider {
 		return this.classProvider.getClassNames();
 	}
 
+	@Override
+	@Nullable
+	public String getFingerprint() {
+		return this.classProvider.getFingerprint();
+	}
+
 	@Override
 	public Collection<String> getClasses(String className) {
 		return this.classProvider.getClasses(className);
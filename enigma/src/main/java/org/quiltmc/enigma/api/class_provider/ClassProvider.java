@@ -20,6 +20,16 @@ public interface ClassProvider {
 
 	Collection<String> getClassNames();
 
+	/**
+	 * Gets a fingerprint of the classes named by {@link #getClassNames()}, which changes whenever any of them change.
+	 * Indexes of the classes may be cached under the fingerprint and reused by later projects.
+	 *
+	 * @return the fingerprint, or {@code null} if the classes can't be fingerprinted and their indexes must not be cached
+	 */
+	default @Nullable String getFingerprint() {
+		return null;
+	}
+
 	/**
 	 * Gets all the classes in the same root class as the given one.
 	 */
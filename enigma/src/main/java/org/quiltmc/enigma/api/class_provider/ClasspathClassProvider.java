@@ -33,4 +33,10 @@ public class ClasspathClassProvider implements ClassProvider {
 	public Collection<String> getClassNames() {
 		return Collections.emptyList();
 	}
+
+	@Override
+	public String getFingerprint() {
+		// no classes are named, so there is nothing to fingerprint
+		return "classpath";
+	}
 }
@@ -38,6 +38,22 @@ public class CombiningClassProvider implements ClassProvider {
 		return Arrays.stream(this.classProviders).flatMap(c -> c.getClassNames().stream()).toList();
 	}
 
+	@Override
+	@Nullable
+	public String getFingerprint() {
+		List<String> fingerprints = new ArrayList<>();
+		for (ClassProvider cp : this.classProviders) {
+			String fingerprint = cp.getFingerprint();
+			if (fingerprint == null) {
+				return null;
+			}
+
+			fingerprints.add(fingerprint);
+		}
+
+		return String.join(";", fingerprints);
+	}
+
 	@Override
 	public List<String> getClasses(String className) {
 		List<String> classes = new ArrayList<>();
@@ -4,22 +4,28 @@ import com.google.common.collect.ImmutableSet;
 import org.jspecify.annotations.Nullable;
 import org.objectweb.asm.tree.ClassNode;
 import org.quiltmc.enigma.util.AsmUtil;
+import org.quiltmc.enigma.util.Utils;
 
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HexFormat;
 import java.util.Set;
 
 /**
  * Provides classes by loading them from a JAR file.
  */
 public class JarClassProvider implements AutoCloseable, ClassProvider {
+	private final Path jarPath;
 	private final FileSystem fileSystem;
 	private final Set<String> classNames;
 
+	private volatile @Nullable String fingerprint;
+
 	public JarClassProvider(Path jarPath) throws IOException {
+		this.jarPath = jarPath;
 		this.fileSystem = FileSystems.newFileSystem(jarPath, (ClassLoader) null);
 		this.classNames = collectClassNames(this.fileSystem);
 	}
@@ -44,6 +50,23 @@ public class JarClassProvider implements AutoCloseable, ClassProvider {
 		return this.classNames;
 	}
 
+	/**
+	 * {@return the SHA-1 of the jar's classes, computed on first use}
+	 */
+	@Nullable
+	@Override
+	public String getFingerprint() {
+		if (this.fingerprint == null) {
+			try {
+				this.fingerprint = HexFormat.of().formatHex(Utils.zipSha1(this.jarPath));
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		return this.fingerprint;
+	}
+
 	@Nullable
 	@Override
 	public ClassNode get(String name) {
@@ -0,0 +1,14 @@
+package org.quiltmc.enigma.api.metrics;
+
+/**
+ * A metric counting how many times something happened.
+ */
+public interface Counter {
+	Counter NOOP = amount -> { };
+
+	void increment(long amount);
+
+	default void increment() {
+		this.increment(1);
+	}
+}
@@ -0,0 +1,10 @@
+package org.quiltmc.enigma.api.metrics;
+
+/**
+ * A metric tracking the distribution of a value, such as the size of a batch.
+ */
+public interface Histogram {
+	Histogram NOOP = value -> { };
+
+	void record(long value);
+}
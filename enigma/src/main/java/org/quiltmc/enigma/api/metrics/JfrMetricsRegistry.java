@@ -0,0 +1,106 @@
+package org.quiltmc.enigma.api.metrics;
+
+import org.quiltmc.enigma.impl.metrics.MetricEvents;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Emits Java Flight Recorder events for everything recorded to its metrics, in the {@code Enigma} category,
+ * then passes the values on to another registry. Events cost next to nothing while no recording enables them.
+ *
+ * <p>Durations measured by {@linkplain Timer#start() timer samples} are emitted as events spanning the measured time,
+ * so that they line up with the rest of the recording.
+ */
+public class JfrMetricsRegistry implements MetricsRegistry {
+	private final MetricsRegistry delegate;
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+	/**
+	 * @param delegate the registry to pass recorded values on to, or {@link MetricsRegistry#NOOP} to only emit events
+	 */
+	public JfrMetricsRegistry(MetricsRegistry delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Counter counter(String name) {
+		return this.counters.computeIfAbsent(name, this::createCounter);
+	}
+
+	private Counter createCounter(String name) {
+		Counter counter = this.delegate.counter(name);
+		return amount -> {
+			counter.increment(amount);
+
+			MetricEvents.CounterEvent event = new MetricEvents.CounterEvent();
+			if (event.isEnabled()) {
+				event.metric = name;
+				event.amount = amount;
+				event.commit();
+			}
+		};
+	}
+
+	@Override
+	public Timer timer(String name) {
+		return this.timers.computeIfAbsent(name, this::createTimer);
+	}
+
+	private Timer createTimer(String name) {
+		Timer timer = this.delegate.timer(name);
+		return new Timer() {
+			@Override
+			public void record(long nanos) {
+				timer.record(nanos);
+
+				MetricEvents.TimerEvent event = new MetricEvents.TimerEvent();
+				if (event.isEnabled()) {
+					event.metric = name;
+					event.elapsed = nanos;
+					event.commit();
+				}
+			}
+
+			@Override
+			public Sample start() {
+				MetricEvents.TimerEvent event = new MetricEvents.TimerEvent();
+				event.begin();
+				long start = System.nanoTime();
+
+				return () -> {
+					long elapsed = System.nanoTime() - start;
+					timer.record(elapsed);
+
+					event.end();
+					if (event.shouldCommit()) {
+						event.metric = name;
+						event.elapsed = elapsed;
+						event.commit();
+					}
+				};
+			}
+		};
+	}
+
+	@Override
+	public Histogram histogram(String name) {
+		return this.histograms.computeIfAbsent(name, this::createHistogram);
+	}
+
+	private Histogram createHistogram(String name) {
+		Histogram histogram = this.delegate.histogram(name);
+		return value -> {
+			histogram.record(value);
+
+			MetricEvents.HistogramEvent event = new MetricEvents.HistogramEvent();
+			if (event.isEnabled()) {
+				event.metric = name;
+				event.value = value;
+				event.commit();
+			}
+		};
+	}
+}
@@ -0,0 +1,40 @@
+package org.quiltmc.enigma.api.metrics;
+
+/**
+ * The registry Enigma records its metrics to. No metrics are kept until a registry is {@linkplain #setRegistry(MetricsRegistry) set},
+ * so instrumented code only pays for a volatile read and a call to a no-op metric.
+ *
+ * <p>Metrics are looked up every time they are recorded rather than stored, so that setting a registry
+ * affects code which is already running.
+ */
+public final class Metrics {
+	private static volatile MetricsRegistry registry = MetricsRegistry.NOOP;
+
+	private Metrics() {
+	}
+
+	public static MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Sets the registry metrics are recorded to from now on.
+	 *
+	 * @param registry the new registry, or {@link MetricsRegistry#NOOP} to stop recording metrics
+	 */
+	public static void setRegistry(MetricsRegistry registry) {
+		Metrics.registry = registry;
+	}
+
+	public static Counter counter(String name) {
+		return registry.counter(name);
+	}
+
+	public static Timer timer(String name) {
+		return registry.timer(name);
+	}
+
+	public static Histogram histogram(String name) {
+		return registry.histogram(name);
+	}
+}
@@ -0,0 +1,35 @@
+package org.quiltmc.enigma.api.metrics;
+
+/**
+ * Creates the metrics Enigma records. Metrics are identified by dot-separated names, and asking for the same name
+ * twice should return the same metric.
+ *
+ * @see Metrics
+ */
+public interface MetricsRegistry {
+	/**
+	 * A registry whose metrics discard everything, used while no other registry is {@linkplain Metrics#setRegistry(MetricsRegistry) set}.
+	 */
+	MetricsRegistry NOOP = new MetricsRegistry() {
+		@Override
+		public Counter counter(String name) {
+			return Counter.NOOP;
+		}
+
+		@Override
+		public Timer timer(String name) {
+			return Timer.NOOP;
+		}
+
+		@Override
+		public Histogram histogram(String name) {
+			return Histogram.NOOP;
+		}
+	};
+
+	Counter counter(String name);
+
+	Timer timer(String name);
+
+	Histogram histogram(String name);
+}
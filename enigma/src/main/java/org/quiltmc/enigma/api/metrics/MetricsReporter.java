@@ -0,0 +1,181 @@
+package org.quiltmc.enigma.api.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jspecify.annotations.Nullable;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the metrics of a {@link SimpleMetricsRegistry} to a file, replacing its previous contents.
+ * Files ending in {@code .json} are written as JSON, and other files as aligned text.
+ * The metrics are written one last time when the reporter is closed.
+ */
+public final class MetricsReporter implements AutoCloseable {
+	/**
+	 * The interval command line applications write metrics at unless told otherwise.
+	 */
+	public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+	private final SimpleMetricsRegistry registry;
+	private final Path path;
+	private final Format format;
+	private final ScheduledExecutorService executor;
+
+	private MetricsReporter(SimpleMetricsRegistry registry, Path path, Duration interval) {
+		this.registry = registry;
+		this.path = path;
+		this.format = path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") ? Format.JSON : Format.TEXT;
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Enigma metrics reporter");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long millis = Math.max(1, interval.toMillis());
+		this.executor.scheduleAtFixedRate(this::write, millis, millis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Starts writing the metrics of a registry to a file.
+	 *
+	 * @param registry the registry to report
+	 * @param path the file to write to
+	 * @param interval the time between two writes
+	 * @return the running reporter
+	 */
+	public static MetricsReporter start(SimpleMetricsRegistry registry, Path path, Duration interval) {
+		return new MetricsReporter(registry, path, interval);
+	}
+
+	/**
+	 * Sets up the {@linkplain Metrics#setRegistry(MetricsRegistry) registry} for a command line application.
+	 *
+	 * @param path the file to periodically write metrics to, or {@code null} to not keep metrics
+	 * @param interval the time between two writes
+	 * @param jfr whether to emit metrics as flight recorder events
+	 * @return the running reporter, or {@code null} if no path was given
+	 */
+	@Nullable
+	public static MetricsReporter install(@Nullable Path path, Duration interval, boolean jfr) {
+		SimpleMetricsRegistry registry = path == null ? null : new SimpleMetricsRegistry();
+		MetricsRegistry installed = registry == null ? MetricsRegistry.NOOP : registry;
+		if (jfr) {
+			installed = new JfrMetricsRegistry(installed);
+		}
+
+		Metrics.setRegistry(installed);
+		return registry == null ? null : start(registry, path, interval);
+	}
+
+	/**
+	 * Writes the current metrics, logging a warning on failure.
+	 */
+	public synchronized void write() {
+		Path temp = null;
+		try {
+			Path parent = this.path.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			temp = Files.createTempFile(parent, this.path.getFileName().toString(), ".tmp");
+			try (Writer writer = Files.newBufferedWriter(temp)) {
+				writer.write(this.format.write(this.registry.snapshot()));
+			}
+
+			Files.move(temp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Logger.warn(e, "Failed to write metrics to {}", this.path);
+		} finally {
+			// only left behind if writing or moving it failed
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException e) {
+					Logger.warn(e, "Failed to delete {}", temp);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		this.executor.shutdownNow();
+		this.write();
+	}
+
+	public enum Format {
+		TEXT {
+			@Override
+			public String write(List<SimpleMetricsRegistry.MetricSnapshot> metrics) {
+				int width = metrics.stream().mapToInt(metric -> metric.name().length()).max().orElse(0);
+
+				StringBuilder text = new StringBuilder("# ").append(Instant.now()).append('\n');
+				for (SimpleMetricsRegistry.MetricSnapshot metric : metrics) {
+					text.append(String.format(Locale.ROOT, "%-9s %-" + width + "s count=%d", metric.type().getName(), metric.name(), metric.count()));
+					if (metric.type() == SimpleMetricsRegistry.Type.TIMER) {
+						text.append(String.format(Locale.ROOT, " total=%.3fms mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+								millis(metric.total()), millis(metric.mean()), millis(metric.p50()), millis(metric.p99()), millis(metric.max())));
+					} else if (metric.type() == SimpleMetricsRegistry.Type.HISTOGRAM) {
+						text.append(String.format(Locale.ROOT, " total=%d mean=%d min=%d p50=%d p99=%d max=%d",
+								metric.total(), metric.mean(), metric.min(), metric.p50(), metric.p99(), metric.max()));
+					}
+
+					text.append('\n');
+				}
+
+				return text.toString();
+			}
+		},
+		JSON {
+			@Override
+			public String write(List<SimpleMetricsRegistry.MetricSnapshot> metrics) {
+				JsonArray array = new JsonArray();
+				for (SimpleMetricsRegistry.MetricSnapshot metric : metrics) {
+					JsonObject object = new JsonObject();
+					object.addProperty("name", metric.name());
+					object.addProperty("type", metric.type().getName());
+					object.addProperty("count", metric.count());
+					if (metric.type() != SimpleMetricsRegistry.Type.COUNTER) {
+						object.addProperty("total", metric.total());
+						object.addProperty("mean", metric.mean());
+						object.addProperty("min", metric.min());
+						object.addProperty("p50", metric.p50());
+						object.addProperty("p99", metric.p99());
+						object.addProperty("max", metric.max());
+					}
+
+					array.add(object);
+				}
+
+				JsonObject root = new JsonObject();
+				root.addProperty("timestamp", Instant.now().toString());
+				root.add("metrics", array);
+				return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+			}
+		};
+
+		/**
+		 * Formats metrics. Timer values are written in milliseconds as text, and in nanoseconds as JSON.
+		 *
+		 * @param metrics the metrics to format
+		 * @return the formatted metrics
+		 */
+		public abstract String write(List<SimpleMetricsRegistry.MetricSnapshot> metrics);
+
+		private static double millis(long nanos) {
+			return nanos / 1_000_000.0;
+		}
+	}
+}
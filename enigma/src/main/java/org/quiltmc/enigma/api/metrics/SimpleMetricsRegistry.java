@@ -0,0 +1,168 @@
+package org.quiltmc.enigma.api.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registry keeping its metrics in memory, so that they can be {@linkplain #snapshot() read} by a {@link MetricsReporter}
+ * or a test. Recording never blocks.
+ *
+ * <p>Timers and histograms don't keep every value. They sort values into power-of-two buckets, so their
+ * percentiles are upper bounds which are at most twice the real value.
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+	private final Map<String, Metric> metrics = new ConcurrentHashMap<>();
+
+	@Override
+	public Counter counter(String name) {
+		return this.get(name, Type.COUNTER, SimpleCounter.class);
+	}
+
+	@Override
+	public Timer timer(String name) {
+		return this.get(name, Type.TIMER, Distribution.class);
+	}
+
+	@Override
+	public Histogram histogram(String name) {
+		return this.get(name, Type.HISTOGRAM, Distribution.class);
+	}
+
+	private <T extends Metric> T get(String name, Type type, Class<T> clazz) {
+		Metric metric = this.metrics.computeIfAbsent(name, n -> type == Type.COUNTER ? new SimpleCounter() : new Distribution(type));
+		if (metric.type() != type) {
+			throw new IllegalArgumentException("Metric " + name + " is a " + metric.type().getName() + ", not a " + type.getName());
+		}
+
+		return clazz.cast(metric);
+	}
+
+	/**
+	 * {@return the current values of all metrics, sorted by name}
+	 */
+	public List<MetricSnapshot> snapshot() {
+		List<MetricSnapshot> snapshots = new ArrayList<>(this.metrics.size());
+		this.metrics.forEach((name, metric) -> snapshots.add(metric.snapshot(name)));
+		snapshots.sort(Comparator.comparing(MetricSnapshot::name));
+		return snapshots;
+	}
+
+	public enum Type {
+		COUNTER,
+		TIMER,
+		HISTOGRAM;
+
+		public String getName() {
+			return this.name().toLowerCase(Locale.ROOT);
+		}
+	}
+
+	/**
+	 * The values of a metric at one point in time. Timer values are in nanoseconds.
+	 * Counters only have a {@code count}, and all their other values are zero.
+	 *
+	 * @param name the name of the metric
+	 * @param type the type of the metric
+	 * @param count the value of a counter, or the number of values recorded by a timer or histogram
+	 * @param total the sum of all recorded values
+	 * @param min the smallest recorded value
+	 * @param max the largest recorded value
+	 * @param p50 an upper bound of the median
+	 * @param p99 an upper bound of the 99th percentile
+	 */
+	public record MetricSnapshot(String name, Type type, long count, long total, long min, long max, long p50, long p99) {
+		public long mean() {
+			return this.count == 0 || this.type == Type.COUNTER ? 0 : this.total / this.count;
+		}
+	}
+
+	private interface Metric {
+		Type type();
+
+		MetricSnapshot snapshot(String name);
+	}
+
+	private static final class SimpleCounter implements Metric, Counter {
+		private final LongAdder count = new LongAdder();
+
+		@Override
+		public void increment(long amount) {
+			this.count.add(amount);
+		}
+
+		@Override
+		public Type type() {
+			return Type.COUNTER;
+		}
+
+		@Override
+		public MetricSnapshot snapshot(String name) {
+			return new MetricSnapshot(name, Type.COUNTER, this.count.sum(), 0, 0, 0, 0, 0);
+		}
+	}
+
+	private static final class Distribution implements Metric, Timer, Histogram {
+		private final Type type;
+		private final LongAdder count = new LongAdder();
+		private final LongAdder total = new LongAdder();
+		private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+		private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+		// bucket i counts the values below 2^i which aren't below 2^(i - 1)
+		private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+		private Distribution(Type type) {
+			this.type = type;
+		}
+
+		@Override
+		public void record(long value) {
+			value = Math.max(0, value);
+			this.count.increment();
+			this.total.add(value);
+			this.min.accumulate(value);
+			this.max.accumulate(value);
+			this.buckets.incrementAndGet(Math.min(Long.SIZE - Long.numberOfLeadingZeros(value), Long.SIZE - 1));
+		}
+
+		@Override
+		public Type type() {
+			return this.type;
+		}
+
+		@Override
+		public MetricSnapshot snapshot(String name) {
+			long count = this.count.sum();
+			if (count == 0) {
+				return new MetricSnapshot(name, this.type, 0, 0, 0, 0, 0, 0);
+			}
+
+			long max = this.max.get();
+			return new MetricSnapshot(name, this.type, count, this.total.sum(), this.min.get(), max, this.percentile(0.5, max), this.percentile(0.99, max));
+		}
+
+		private long percentile(double percentile, long max) {
+			long counted = 0;
+			long total = 0;
+			for (int i = 0; i < this.buckets.length(); i++) {
+				total += this.buckets.get(i);
+			}
+
+			long rank = (long) Math.ceil(total * percentile);
+			for (int i = 0; i < this.buckets.length(); i++) {
+				counted += this.buckets.get(i);
+				if (counted >= rank) {
+					return i == 0 ? 0 : Math.min(max, (1L << i) - 1);
+				}
+			}
+
+			return max;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package org.quiltmc.enigma.api.metrics;
+
+/**
+ * A metric tracking the distribution of how long something took.
+ */
+public interface Timer {
+	Timer NOOP = new Timer() {
+		@Override
+		public void record(long nanos) {
+		}
+
+		@Override
+		public Sample start() {
+			return Sample.NOOP;
+		}
+	};
+
+	/**
+	 * Records a duration which was measured elsewhere.
+	 *
+	 * @param nanos the duration, in nanoseconds
+	 */
+	void record(long nanos);
+
+	/**
+	 * Starts measuring a duration, which is recorded once the returned sample is {@linkplain Sample#stop() stopped}.
+	 * Samples can be used in try-with-resources statements.
+	 *
+	 * @return the running sample
+	 */
+	default Sample start() {
+		long start = System.nanoTime();
+		return () -> this.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * A duration being measured by a timer.
+	 */
+	interface Sample extends AutoCloseable {
+		Sample NOOP = () -> { };
+
+		/**
+		 * Records the time elapsed since this sample was started. Must only be called once.
+		 */
+		void stop();
+
+		@Override
+		default void close() {
+			this.stop();
+		}
+	}
+}
@@ -9,6 +9,7 @@ import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A name proposal service suggests default names for entries based on context from their types and surrounding mappings.
@@ -33,6 +34,7 @@ public interface NameProposalService extends EnigmaService {
 	 * Runs when an entry is renamed, for updating proposed names that use other mappings as context.
 	 * Is also run when new mappings are opened -- in that case, {@code obfEntry}, {@code oldMapping}, and {@code newMapping} will be null.
 	 * Will not be run for insertion of proposed mappings, only manual renames.
+	 * Not run for services which {@linkplain #tracksDependencies() track dependencies}.
 	 * All mappings proposed should have a token type of {@link TokenType#DYNAMIC_PROPOSED} and a non-null source plugin ID.
 	 *
 	 * @param remapper a remapper to use as context for name proposal
@@ -44,6 +46,50 @@ public interface NameProposalService extends EnigmaService {
 	@Nullable
 	Map<Entry<?>, EntryMapping> getDynamicProposedNames(EntryRemapper remapper, @Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping);
 
+	/**
+	 * Marks this service as reporting which entries its dynamic proposals are derived from, through
+	 * {@link #getDependentProposedNames(EntryRemapper, Set)}. The remapper then only asks the service to update
+	 * proposals whose dependencies were renamed, instead of calling
+	 * {@link #getDynamicProposedNames(EntryRemapper, Entry, EntryMapping, EntryMapping)} on every rename.
+	 *
+	 * @return whether this service proposes dynamic names through {@link #getDependentProposedNames(EntryRemapper, Set)}
+	 */
+	default boolean tracksDependencies() {
+		return false;
+	}
+
+	/**
+	 * Proposes names for entries based on the mappings of other entries, along with the obfuscated entries
+	 * each proposal depends on. Only called if {@link #tracksDependencies()} returns {@code true}.
+	 *
+	 * <p>If {@code entries} is {@code null}, proposals should be made for the whole project, as when new mappings are opened.
+	 * Otherwise, only the given entries need new proposals: these are the entries whose dependencies were renamed.
+	 * Any of them left out of the result lose the name this service proposed for them, and are no longer tracked.
+	 *
+	 * <p>A proposal with a {@code null} mapping removes the name this service proposed for the entry, while still tracking
+	 * its dependencies so that the service is asked again once one of them is renamed.
+	 * All mappings proposed should have a token type of {@link TokenType#DYNAMIC_PROPOSED} and a non-null source plugin ID.
+	 *
+	 * @param remapper a remapper to use as context for name proposal
+	 * @param entries the obfuscated entries to propose names for, or {@code null} to propose names for all entries
+	 * @return a map of obfuscated entries to their proposals
+	 */
+	@Nullable
+	default Map<Entry<?>, DependentProposal> getDependentProposedNames(EntryRemapper remapper, @Nullable Set<Entry<?>> entries) {
+		return null;
+	}
+
+	/**
+	 * Marks this service's {@link #getProposedNames(Enigma, JarIndex)} as safe to run on another thread, at the same
+	 * time as other services. The jar index is not modified while proposals are made.
+	 * Services which aren't thread-safe are run one after another on a separate thread.
+	 *
+	 * @return whether jar proposals from this service can be made concurrently with other services
+	 */
+	default boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * Marks names proposed by this service as 'fallback' names.
 	 * Fallback names will be visually differentiated in frontend applications, and should be expected to be of lower quality than a typical proposed name.
@@ -81,4 +127,12 @@ public interface NameProposalService extends EnigmaService {
 			throw new RuntimeException("Token type of mapping " + mapping + " for entry " + entry + " was " + mapping.tokenType() + ", but should be " + TokenType.JAR_PROPOSED + "!");
 		}
 	}
+
+	/**
+	 * A dynamically proposed mapping, and the obfuscated entries whose mappings it was derived from.
+	 *
+	 * @param mapping the proposed mapping, or {@code null} to propose no name
+	 * @param dependencies the entries which, when renamed, cause the proposal to be made again
+	 */
+	record DependentProposal(@Nullable EntryMapping mapping, Set<Entry<?>> dependencies) { }
 }
@@ -2,6 +2,8 @@ package org.quiltmc.enigma.api.service;
 
 import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.metrics.Metrics;
+import org.quiltmc.enigma.api.metrics.Timer;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.MappingDelta;
 import org.quiltmc.enigma.api.translation.mapping.serde.FileType;
@@ -41,6 +43,10 @@ public interface ReadWriteService extends EnigmaService, MappingsWriter, Mapping
 	 */
 	boolean supportsWriting();
 
+	/**
+	 * Creates a read/write service from a reader and a writer. Reads and writes are timed as
+	 * {@code mappings.read.<id>} and {@code mappings.write.<id>} {@linkplain Metrics metrics}.
+	 */
 	static ReadWriteService create(@Nullable MappingsReader reader, @Nullable MappingsWriter writer, FileType fileType, String id) {
 		return new ReadWriteService() {
 			@Override
@@ -49,7 +55,9 @@ public interface ReadWriteService extends EnigmaService, MappingsWriter, Mapping
 					throw new UnsupportedOperationException("This service does not support writing!");
 				}
 
-				writer.write(mappings, delta, path, progress, saveParameters);
+				try (Timer.Sample ignored = Metrics.timer("mappings.write." + id).start()) {
+					writer.write(mappings, delta, path, progress, saveParameters);
+				}
 			}
 
 			@Override
@@ -58,7 +66,9 @@ public interface ReadWriteService extends EnigmaService, MappingsWriter, Mapping
 					throw new UnsupportedOperationException("This service does not support reading!");
 				}
 
-				return reader.read(path, progress);
+				try (Timer.Sample ignored = Metrics.timer("mappings.read." + id).start()) {
+					return reader.read(path, progress);
+				}
 			}
 
 			@Override
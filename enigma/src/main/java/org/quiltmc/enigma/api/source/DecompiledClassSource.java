@@ -13,7 +13,6 @@ import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableDefE
 import org.quiltmc.enigma.impl.translation.LocalNameGenerator;
 
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -99,7 +98,7 @@ public class DecompiledClassSource {
 	}
 
 	public Map<TokenType, ? extends Collection<Token>> getHighlightedTokens() {
-		return this.highlightedTokens.getByType();
+		return this.highlightedTokens.getTokensByType();
 	}
 
 	public int getObfuscatedOffset(int deobfOffset) {
@@ -111,21 +110,13 @@ public class DecompiledClassSource {
 	}
 
 	private static int getOffset(SourceIndex fromIndex, SourceIndex toIndex, int fromOffset) {
-		int relativeOffset = 0;
-
-		Iterator<Token> fromTokenItr = fromIndex.referenceTokens().iterator();
-		Iterator<Token> toTokenItr = toIndex.referenceTokens().iterator();
-		while (fromTokenItr.hasNext() && toTokenItr.hasNext()) {
-			Token fromToken = fromTokenItr.next();
-			Token toToken = toTokenItr.next();
-			if (fromToken.end > fromOffset) {
-				break;
-			}
-
-			relativeOffset = toToken.end - fromToken.end;
+		// the last token ending at or before the offset determines the shift between both sources
+		int index = Math.min(fromIndex.findFirstTokenEndingAfter(fromOffset), toIndex.getReferenceTokenCount()) - 1;
+		if (index < 0) {
+			return fromOffset;
 		}
 
-		return fromOffset + relativeOffset;
+		return fromOffset + toIndex.getReferenceTokenEnd(index) - fromIndex.getReferenceTokenEnd(index);
 	}
 
 	@Override
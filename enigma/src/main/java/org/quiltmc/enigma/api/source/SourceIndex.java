@@ -7,24 +7,48 @@ import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
+/**
+ * Maps tokens of a decompiled source to the entries they reference.
+ *
+ * <p>Reference tokens are stored column-wise: parallel {@code int} arrays hold the start and end of every token,
+ * sorted by start, alongside the token and reference columns. Position lookups are binary searches over the start column.
+ * Tokens may be added in any order; the columns are sorted lazily on the first query.
+ */
 public class SourceIndex {
+	private static final int INITIAL_CAPACITY = 64;
+
 	private String source;
-	private List<Integer> lineOffsets;
-	private final TreeMap<Token, EntryReference<Entry<?>, Entry<?>>> tokenToReference;
+	private int[] lineOffsets;
+
+	private int tokenCount;
+	private int[] tokenStarts;
+	private int[] tokenEnds;
+	private Token[] tokens;
+	private EntryReference<Entry<?>, Entry<?>>[] tokenReferences;
+	private volatile boolean sorted;
+
 	private final Multimap<EntryReference<Entry<?>, Entry<?>>, Token> referenceToTokens;
 	private final Map<Entry<?>, Token> declarationToToken;
 
 	public final boolean remapToNameable;
 
 	protected SourceIndex(boolean remapToNameable) {
-		this.tokenToReference = new TreeMap<>();
+		this(remapToNameable, INITIAL_CAPACITY);
+	}
+
+	@SuppressWarnings("unchecked")
+	private SourceIndex(boolean remapToNameable, int capacity) {
+		this.tokenStarts = new int[capacity];
+		this.tokenEnds = new int[capacity];
+		this.tokens = new Token[capacity];
+		this.tokenReferences = new EntryReference[capacity];
+		this.sorted = true;
 		this.referenceToTokens = HashMultimap.create();
 		this.declarationToToken = new LinkedHashMap<>();
 		this.remapToNameable = remapToNameable;
@@ -41,14 +65,23 @@ public class SourceIndex {
 
 	public void setSource(String source) {
 		this.source = source;
-		this.lineOffsets = new ArrayList<>();
-		this.lineOffsets.add(0);
 
-		for (int i = 0; i < this.source.length(); i++) {
-			if (this.source.charAt(i) == '\n') {
-				this.lineOffsets.add(i + 1);
+		int count = 1;
+		for (int i = 0; i < source.length(); i++) {
+			if (source.charAt(i) == '\n') {
+				count++;
+			}
+		}
+
+		int[] offsets = new int[count];
+		int line = 1;
+		for (int i = 0; i < source.length(); i++) {
+			if (source.charAt(i) == '\n') {
+				offsets[line++] = i + 1;
 			}
 		}
+
+		this.lineOffsets = offsets;
 	}
 
 	public String getSource() {
@@ -56,25 +89,27 @@ public class SourceIndex {
 	}
 
 	public int getLineNumber(int position) {
-		int line = 0;
-
-		for (int offset : this.lineOffsets) {
-			if (offset > position) {
-				break;
+		// number of line starts at or before the position
+		int low = 0;
+		int high = this.lineOffsets.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.lineOffsets[mid] > position) {
+				high = mid;
+			} else {
+				low = mid + 1;
 			}
-
-			line++;
 		}
 
-		return line;
+		return low;
 	}
 
 	public int getColumnNumber(int position) {
-		return position - this.lineOffsets.get(this.getLineNumber(position) - 1) + 1;
+		return position - this.lineOffsets[this.getLineNumber(position) - 1] + 1;
 	}
 
 	public int getPosition(int line, int column) {
-		return this.lineOffsets.get(line - 1) + column - 1;
+		return this.lineOffsets[line - 1] + column - 1;
 	}
 
 	public Iterable<Entry<?>> declarations() {
@@ -92,7 +127,7 @@ public class SourceIndex {
 	public void addDeclaration(Token token, Entry<?> deobfEntry) {
 		if (token != null) {
 			EntryReference<Entry<?>, Entry<?>> reference = new EntryReference<>(deobfEntry, token.text);
-			this.tokenToReference.put(token, reference);
+			this.putToken(token, reference);
 			this.referenceToTokens.put(reference, token);
 			this.referenceToTokens.put(EntryReference.declaration(deobfEntry, token.text), token);
 			this.declarationToToken.put(deobfEntry, token);
@@ -108,18 +143,23 @@ public class SourceIndex {
 			return null;
 		}
 
-		return this.tokenToReference.get(token);
+		int index = this.indexOfStart(token.start);
+		return index < 0 ? null : this.tokenReferences[index];
 	}
 
 	public Iterable<Token> referenceTokens() {
-		return this.tokenToReference.keySet();
+		this.ensureSorted();
+		return Collections.unmodifiableList(Arrays.asList(this.tokens).subList(0, this.tokenCount));
 	}
 
 	public Token getReferenceToken(int pos) {
-		Token token = this.tokenToReference.floorKey(new Token(pos, pos, null));
+		int index = this.floorIndex(pos);
 
-		if (token != null && token.contains(pos)) {
-			return token;
+		if (index >= 0) {
+			Token token = this.tokens[index];
+			if (token.contains(pos)) {
+				return token;
+			}
 		}
 
 		return null;
@@ -132,19 +172,21 @@ public class SourceIndex {
 	public void addReference(Token token, Entry<?> deobfEntry, Entry<?> deobfContext) {
 		if (token != null) {
 			EntryReference<Entry<?>, Entry<?>> deobfReference = new EntryReference<>(deobfEntry, token.text, deobfContext);
-			this.tokenToReference.put(token, deobfReference);
+			this.putToken(token, deobfReference);
 			this.referenceToTokens.put(deobfReference, token);
 		}
 	}
 
 	public void resolveReferences(EntryResolver resolver) {
+		this.ensureSorted();
+
 		// resolve all the classes in the source references
-		for (Token token : new ArrayList<>(this.referenceToTokens.values())) {
-			EntryReference<Entry<?>, Entry<?>> reference = this.tokenToReference.get(token);
+		for (int i = 0; i < this.tokenCount; i++) {
+			EntryReference<Entry<?>, Entry<?>> reference = this.tokenReferences[i];
 			EntryReference<Entry<?>, Entry<?>> resolvedReference = resolver.resolveFirstReference(reference, ResolutionStrategy.RESOLVE_CLOSEST);
 
 			// replace the reference
-			this.tokenToReference.replace(token, resolvedReference);
+			this.tokenReferences[i] = resolvedReference;
 
 			Collection<Token> tokens = this.referenceToTokens.removeAll(reference);
 			this.referenceToTokens.putAll(resolvedReference, tokens);
@@ -152,7 +194,10 @@ public class SourceIndex {
 	}
 
 	public SourceIndex remapTo(SourceRemapper.Result result) {
-		SourceIndex remapped = new SourceIndex(result.getSource());
+		this.ensureSorted();
+
+		SourceIndex remapped = new SourceIndex(true, Math.max(this.tokenCount, 1));
+		remapped.setSource(result.getSource());
 
 		for (Map.Entry<Entry<?>, Token> entry : this.declarationToToken.entrySet()) {
 			remapped.declarationToToken.put(entry.getKey(), result.getRemappedToken(entry.getValue()));
@@ -170,10 +215,157 @@ public class SourceIndex {
 			remapped.referenceToTokens.putAll(reference, newTokens);
 		}
 
-		for (Map.Entry<Token, EntryReference<Entry<?>, Entry<?>>> entry : this.tokenToReference.entrySet()) {
-			remapped.tokenToReference.put(result.getRemappedToken(entry.getKey()), entry.getValue());
+		// remapping only shifts tokens, so the remapped columns keep the same order
+		for (int i = 0; i < this.tokenCount; i++) {
+			Token token = result.getRemappedToken(this.tokens[i]);
+			remapped.tokenStarts[i] = token.start;
+			remapped.tokenEnds[i] = token.end;
+			remapped.tokens[i] = token;
 		}
 
+		System.arraycopy(this.tokenReferences, 0, remapped.tokenReferences, 0, this.tokenCount);
+		remapped.tokenCount = this.tokenCount;
+
 		return remapped;
 	}
+
+	/**
+	 * {@return the number of reference tokens in this index}
+	 */
+	int getReferenceTokenCount() {
+		this.ensureSorted();
+		return this.tokenCount;
+	}
+
+	/**
+	 * {@return the end of the reference token at the given index, in start order}
+	 */
+	int getReferenceTokenEnd(int index) {
+		return this.tokenEnds[index];
+	}
+
+	/**
+	 * Finds the index of the first reference token ending after the given position.
+	 * Tokens never overlap, so the end column is sorted just like the start column.
+	 *
+	 * @param position the position in the source
+	 * @return the index of the first token with {@code end > position}, or the token count if there is none
+	 */
+	int findFirstTokenEndingAfter(int position) {
+		this.ensureSorted();
+
+		int low = 0;
+		int high = this.tokenCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.tokenEnds[mid] > position) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+
+		return low;
+	}
+
+	private int indexOfStart(int start) {
+		int index = this.floorIndex(start);
+		return index >= 0 && this.tokenStarts[index] == start ? index : -1;
+	}
+
+	/**
+	 * {@return the index of the last token starting at or before the given position, or {@code -1} if there is none}
+	 */
+	private int floorIndex(int position) {
+		this.ensureSorted();
+
+		int low = 0;
+		int high = this.tokenCount;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.tokenStarts[mid] > position) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+
+		return low - 1;
+	}
+
+	private void putToken(Token token, EntryReference<Entry<?>, Entry<?>> reference) {
+		if (this.sorted && this.tokenCount > 0) {
+			int lastStart = this.tokenStarts[this.tokenCount - 1];
+			if (token.start == lastStart) {
+				// tokens are keyed by their start, keep the first token but replace its reference
+				this.tokenReferences[this.tokenCount - 1] = reference;
+				return;
+			} else if (token.start < lastStart) {
+				this.sorted = false;
+			}
+		}
+
+		if (this.tokenCount == this.tokens.length) {
+			int capacity = this.tokens.length * 2;
+			this.tokenStarts = Arrays.copyOf(this.tokenStarts, capacity);
+			this.tokenEnds = Arrays.copyOf(this.tokenEnds, capacity);
+			this.tokens = Arrays.copyOf(this.tokens, capacity);
+			this.tokenReferences = Arrays.copyOf(this.tokenReferences, capacity);
+		}
+
+		this.tokenStarts[this.tokenCount] = token.start;
+		this.tokenEnds[this.tokenCount] = token.end;
+		this.tokens[this.tokenCount] = token;
+		this.tokenReferences[this.tokenCount] = reference;
+		this.tokenCount++;
+	}
+
+	private void ensureSorted() {
+		if (!this.sorted) {
+			this.sort();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private synchronized void sort() {
+		if (this.sorted) {
+			return;
+		}
+
+		// pack (start, insertion index) so a primitive sort is stable
+		long[] order = new long[this.tokenCount];
+		for (int i = 0; i < this.tokenCount; i++) {
+			order[i] = ((long) this.tokenStarts[i] << 32) | i;
+		}
+
+		Arrays.sort(order);
+
+		int[] starts = new int[this.tokens.length];
+		int[] ends = new int[this.tokens.length];
+		Token[] tokens = new Token[this.tokens.length];
+		EntryReference<Entry<?>, Entry<?>>[] references = new EntryReference[this.tokens.length];
+
+		int count = 0;
+		for (long packed : order) {
+			int i = (int) packed;
+			if (count > 0 && starts[count - 1] == this.tokenStarts[i]) {
+				// duplicate start: the first token wins, the last reference wins
+				references[count - 1] = this.tokenReferences[i];
+				continue;
+			}
+
+			starts[count] = this.tokenStarts[i];
+			ends[count] = this.tokenEnds[i];
+			tokens[count] = this.tokens[i];
+			references[count] = this.tokenReferences[i];
+			count++;
+		}
+
+		this.tokenStarts = starts;
+		this.tokenEnds = ends;
+		this.tokens = tokens;
+		this.tokenReferences = references;
+		this.tokenCount = count;
+		this.sorted = true;
+	}
 }
@@ -4,93 +4,229 @@ import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.service.NameProposalService;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.NoSuchElementException;
 import java.util.TreeSet;
 
+/**
+ * Stores the highlighted tokens of a remapped source.
+ *
+ * <p>Tokens are added in source order and kept in parallel columns, with one {@link BitSet} per {@link TokenType}
+ * and one for fallback tokens. Positions are mapped between two compatible stores with a binary search
+ * over the start column and prefix sums of the token lengths.
+ */
 public final class TokenStore {
-	private static final TokenStore EMPTY = new TokenStore(Collections.emptyNavigableSet(), Collections.emptyMap(), Collections.emptyNavigableSet(), null);
+	private static final int INITIAL_CAPACITY = 64;
+	private static final TokenStore EMPTY = new TokenStore(null, 0);
 
-	private final NavigableSet<Token> tokens;
-	private final Map<TokenType, NavigableSet<Token>> byType;
-	private final NavigableSet<Token> fallbackTokens;
 	private final String obfSource;
 
-	private TokenStore(NavigableSet<Token> tokens, Map<TokenType, NavigableSet<Token>> byType, NavigableSet<Token> fallbackTokens, String obfSource) {
-		this.tokens = tokens;
-		this.byType = byType;
-		this.fallbackTokens = fallbackTokens;
+	private int size;
+	private int[] starts;
+	private Token[] tokens;
+	private final BitSet[] byTypeBits;
+	private final BitSet fallbackBits;
+
+	private int[] lengthSums;
+	private Map<TokenType, NavigableSet<Token>> byType;
+
+	private TokenStore(String obfSource, int capacity) {
 		this.obfSource = obfSource;
+		this.starts = new int[capacity];
+		this.tokens = new Token[capacity];
+		this.byTypeBits = new BitSet[TokenType.values().length];
+		for (int i = 0; i < this.byTypeBits.length; i++) {
+			this.byTypeBits[i] = new BitSet();
+		}
+
+		this.fallbackBits = new BitSet();
 	}
 
 	public static TokenStore create(SourceIndex obfuscatedIndex) {
-		EnumMap<TokenType, NavigableSet<Token>> map = new EnumMap<>(TokenType.class);
-		for (TokenType value : TokenType.values()) {
-			map.put(value, new TreeSet<>(Comparator.comparing(t -> t.start)));
-		}
-
-		return new TokenStore(new TreeSet<>(Comparator.comparing(t -> t.start)), Collections.unmodifiableMap(map), new TreeSet<>(Comparator.comparing(t -> t.start)), obfuscatedIndex.getSource());
+		return new TokenStore(obfuscatedIndex.getSource(), INITIAL_CAPACITY);
 	}
 
 	public static TokenStore empty() {
 		return TokenStore.EMPTY;
 	}
 
+	/**
+	 * Adds a token to this store. Tokens must be added in order of their start position.
+	 */
 	public void add(EnigmaProject project, EntryMapping mapping, Token token) {
-		this.tokens.add(token);
-		this.byType.get(mapping.tokenType()).add(token);
+		if (this == EMPTY) {
+			throw new UnsupportedOperationException("Cannot add tokens to the empty token store");
+		}
+
+		if (this.size > 0) {
+			int lastStart = this.starts[this.size - 1];
+			if (token.start == lastStart) {
+				return;
+			} else if (token.start < lastStart) {
+				throw new IllegalArgumentException("Token " + token + " added out of order, last start is " + lastStart);
+			}
+		}
+
+		if (this.size == this.tokens.length) {
+			int capacity = Math.max(this.tokens.length * 2, INITIAL_CAPACITY);
+			this.starts = Arrays.copyOf(this.starts, capacity);
+			this.tokens = Arrays.copyOf(this.tokens, capacity);
+		}
+
+		int index = this.size++;
+		this.starts[index] = token.start;
+		this.tokens[index] = token;
+		this.byTypeBits[mapping.tokenType().ordinal()].set(index);
+		this.lengthSums = null;
+		this.byType = null;
 
 		if (mapping.sourcePluginId() != null) {
 			var sourceServiceOptional = project.getEnigma().getService(NameProposalService.TYPE, mapping.sourcePluginId());
 			sourceServiceOptional.ifPresent(service -> {
 				if (service.isFallback()) {
-					this.fallbackTokens.add(token);
+					this.fallbackBits.set(index);
 				}
 			});
 		}
 	}
 
 	public boolean isFallback(Token token) {
-		return this.fallbackTokens.contains(token);
+		int index = this.indexOfStart(token.start);
+		return index >= 0 && this.fallbackBits.get(index);
 	}
 
 	public boolean isCompatible(TokenStore other) {
 		return this.obfSource != null && other.obfSource != null
 				&& this.obfSource.equals(other.obfSource)
-				&& this.tokens.size() == other.tokens.size()
-				&& this.fallbackTokens.size() == other.fallbackTokens.size();
+				&& this.size == other.size
+				&& this.fallbackBits.cardinality() == other.fallbackBits.cardinality();
 	}
 
 	public int mapPosition(TokenStore to, int position) {
 		if (!this.isCompatible(to)) return 0;
 
-		int newPos = position;
-		Iterator<Token> thisIter = this.tokens.iterator();
-		Iterator<Token> toIter = to.tokens.iterator();
-		while (thisIter.hasNext()) {
-			Token token = thisIter.next();
-			Token newToken = toIter.next();
-
-			if (position < token.start) break;
+		int count = this.countStartingAtOrBefore(position);
+		if (count == 0) {
+			return position;
+		}
 
-			// if we're inside the token and the text changed,
-			// snap the cursor to the beginning
-			if (!token.text.equals(newToken.text) && position < token.end) {
-				newPos = newToken.start;
-				break;
-			}
+		Token token = this.tokens[count - 1];
+		Token newToken = to.tokens[count - 1];
 
-			newPos += newToken.length() - token.length();
+		// if we're inside the token and the text changed,
+		// snap the cursor to the beginning
+		if (!token.text.equals(newToken.text) && position < token.end) {
+			return newToken.start;
 		}
 
-		return newPos;
+		return position + to.getLengthSums()[count] - this.getLengthSums()[count];
 	}
 
 	public Map<TokenType, NavigableSet<Token>> getByType() {
+		if (this.byType == null) {
+			EnumMap<TokenType, NavigableSet<Token>> map = new EnumMap<>(TokenType.class);
+			for (TokenType type : TokenType.values()) {
+				NavigableSet<Token> set = new TreeSet<>(Comparator.comparingInt(t -> t.start));
+				set.addAll(this.getTokens(type));
+				map.put(type, Collections.unmodifiableNavigableSet(set));
+			}
+
+			this.byType = Collections.unmodifiableMap(map);
+		}
+
 		return this.byType;
 	}
+
+	/**
+	 * {@return lightweight views of the tokens of each type, backed by this store's bitsets}
+	 */
+	Map<TokenType, Collection<Token>> getTokensByType() {
+		EnumMap<TokenType, Collection<Token>> map = new EnumMap<>(TokenType.class);
+		for (TokenType type : TokenType.values()) {
+			map.put(type, this.getTokens(type));
+		}
+
+		return Collections.unmodifiableMap(map);
+	}
+
+	private Collection<Token> getTokens(TokenType type) {
+		BitSet bits = this.byTypeBits[type.ordinal()];
+
+		return new AbstractCollection<>() {
+			@Override
+			public Iterator<Token> iterator() {
+				return new Iterator<>() {
+					private int next = bits.nextSetBit(0);
+
+					@Override
+					public boolean hasNext() {
+						return this.next >= 0;
+					}
+
+					@Override
+					public Token next() {
+						if (this.next < 0) {
+							throw new NoSuchElementException();
+						}
+
+						Token token = TokenStore.this.tokens[this.next];
+						this.next = bits.nextSetBit(this.next + 1);
+						return token;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return bits.cardinality();
+			}
+		};
+	}
+
+	/**
+	 * Lazily computes prefix sums of the token lengths. They can't be maintained while adding tokens,
+	 * since the source remapper renames each token only after it has been added.
+	 */
+	private int[] getLengthSums() {
+		int[] sums = this.lengthSums;
+		if (sums == null) {
+			sums = new int[this.size + 1];
+			for (int i = 0; i < this.size; i++) {
+				sums[i + 1] = sums[i] + this.tokens[i].length();
+			}
+
+			this.lengthSums = sums;
+		}
+
+		return sums;
+	}
+
+	private int indexOfStart(int start) {
+		int index = this.countStartingAtOrBefore(start) - 1;
+		return index >= 0 && this.starts[index] == start ? index : -1;
+	}
+
+	private int countStartingAtOrBefore(int position) {
+		int low = 0;
+		int high = this.size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.starts[mid] > position) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+
+		return low;
+	}
 }
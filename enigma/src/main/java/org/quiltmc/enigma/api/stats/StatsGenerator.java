@@ -130,13 +130,12 @@ public class StatsGenerator {
 				List<ClassEntry> classes = this.entryIndex.getClasses()
 						.stream().filter(entry -> !entry.isInnerClass()).toList();
 
-				int done = 0;
-				progress.init(classes.size() - 1, I18n.translate("progress.stats"));
+				progress.init(classes.size(), I18n.translate("progress.stats"));
 
 				for (ClassEntry entry : classes) {
-					progress.step(done++, I18n.translateFormatted("progress.stats.for", entry.getName()));
 					StatsResult result = this.generate(entry, parameters, false);
 					stats.put(entry, result);
+					progress.advance(1, () -> I18n.translateFormatted("progress.stats.for", entry.getName()));
 				}
 
 				this.result = new ProjectStatsResult(this.project, stats);
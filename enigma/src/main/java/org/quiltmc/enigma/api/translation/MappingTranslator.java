@@ -4,14 +4,45 @@ import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.translation.mapping.EntryMap;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
 public class MappingTranslator implements Translator {
 	private final EntryMap<EntryMapping> mappings;
 	private final EntryResolver resolver;
+	@Nullable
+	private final DescriptorCache descriptorCache;
 
+	/**
+	 * Creates a translator for the given mappings.
+	 * If the mappings are a {@link DeltaTrackingTree}, translated descriptors are cached until the tree's
+	 * {@linkplain DeltaTrackingTree#getVersion() version} changes, since most descriptors reference the same few classes.
+	 */
 	public MappingTranslator(EntryMap<EntryMapping> mappings, EntryResolver resolver) {
+		this(mappings, resolver, mappings instanceof DeltaTrackingTree<?> tree ? tree::getVersion : null);
+	}
+
+	private MappingTranslator(EntryMap<EntryMapping> mappings, EntryResolver resolver, @Nullable LongSupplier version) {
 		this.mappings = mappings;
 		this.resolver = resolver;
+		this.descriptorCache = version == null ? null : new DescriptorCache(version);
+	}
+
+	/**
+	 * Creates a translator for mappings which are never changed, such as a snapshot.
+	 * Translated descriptors are cached for as long as the translator is used.
+	 */
+	public static MappingTranslator ofImmutable(EntryMap<EntryMapping> mappings, EntryResolver resolver) {
+		return new MappingTranslator(mappings, resolver, () -> 0);
 	}
 
 	@Nullable
@@ -22,6 +53,103 @@ public class MappingTranslator implements Translator {
 			return null;
 		}
 
+		if (this.descriptorCache != null) {
+			if (translatable instanceof MethodDescriptor descriptor) {
+				return (TranslateResult<T>) TranslateResult.ungrouped(this.descriptorCache.translate(descriptor));
+			} else if (translatable.getClass() == TypeDescriptor.class) {
+				return (TranslateResult<T>) TranslateResult.ungrouped(this.descriptorCache.translate((TypeDescriptor) translatable));
+			}
+		}
+
 		return (TranslateResult<T>) translatable.extendedTranslate(this, this.resolver, this.mappings);
 	}
+
+	private final class DescriptorCache {
+		private final LongSupplier version;
+		private volatile Generation generation;
+
+		DescriptorCache(LongSupplier version) {
+			this.version = version;
+			this.generation = new Generation(version.getAsLong());
+		}
+
+		TypeDescriptor translate(TypeDescriptor descriptor) {
+			return this.getGeneration().translate(descriptor);
+		}
+
+		MethodDescriptor translate(MethodDescriptor descriptor) {
+			Generation generation = this.getGeneration();
+			MethodDescriptor translated = generation.methods.get(descriptor);
+			if (translated == null) {
+				List<ArgumentDescriptor> arguments = new ArrayList<>(descriptor.getArgumentDescs().size());
+				for (ArgumentDescriptor argument : descriptor.getArgumentDescs()) {
+					arguments.add(new ArgumentDescriptor(generation.translate(argument).toString(), argument.getAccess()));
+				}
+
+				translated = new MethodDescriptor(arguments, generation.translate(descriptor.getReturnDesc()));
+				generation.methods.putIfAbsent(descriptor, translated);
+				return translated;
+			}
+
+			return withAccess(translated, descriptor);
+		}
+
+		private Generation getGeneration() {
+			Generation generation = this.generation;
+			long version = this.version.getAsLong();
+			if (generation.version != version) {
+				generation = new Generation(version);
+				this.generation = generation;
+			}
+
+			return generation;
+		}
+
+		/**
+		 * Copies the parameter access flags of the descriptor onto its cached translation, if they differ.
+		 */
+		private static MethodDescriptor withAccess(MethodDescriptor translated, MethodDescriptor descriptor) {
+			List<ArgumentDescriptor> arguments = descriptor.getArgumentDescs();
+			List<ArgumentDescriptor> translatedArguments = translated.getArgumentDescs();
+			for (int i = 0; i < arguments.size(); i++) {
+				if (arguments.get(i).getAccess() != translatedArguments.get(i).getAccess()) {
+					List<ArgumentDescriptor> copied = new ArrayList<>(arguments.size());
+					for (int j = 0; j < arguments.size(); j++) {
+						copied.add(new ArgumentDescriptor(translatedArguments.get(j).toString(), arguments.get(j).getAccess()));
+					}
+
+					return new MethodDescriptor(copied, translated.getReturnDesc());
+				}
+			}
+
+			return translated;
+		}
+
+		private final class Generation {
+			private final long version;
+			private final Map<String, TypeDescriptor> types = new ConcurrentHashMap<>();
+			private final Map<MethodDescriptor, MethodDescriptor> methods = new ConcurrentHashMap<>();
+
+			Generation(long version) {
+				this.version = version;
+			}
+
+			TypeDescriptor translate(TypeDescriptor descriptor) {
+				if (!descriptor.containsType()) {
+					return descriptor;
+				}
+
+				String desc = descriptor.toString();
+				TypeDescriptor translated = this.types.get(desc);
+				if (translated == null) {
+					// only cache plain descriptors, argument descriptors carry their own access flags
+					TypeDescriptor plain = descriptor.getClass() == TypeDescriptor.class ? descriptor : new TypeDescriptor(desc);
+					translated = plain.remap(name -> MappingTranslator.this.translate(new ClassEntry(name)).getFullName());
+					this.types.putIfAbsent(desc, translated);
+				}
+
+				return translated;
+			}
+		}
+	}
 }
@@ -1,11 +1,15 @@
 package org.quiltmc.enigma.api.translation.mapping;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.Enigma;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.analysis.index.mapping.MappingsIndex;
+import org.quiltmc.enigma.api.metrics.Metrics;
+import org.quiltmc.enigma.api.metrics.Timer;
 import org.quiltmc.enigma.api.service.NameProposalService;
 import org.quiltmc.enigma.api.source.TokenType;
 import org.quiltmc.enigma.api.translation.MappingTranslator;
@@ -14,23 +18,31 @@ import org.quiltmc.enigma.api.translation.TranslateResult;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
-import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.MergedEntryMappingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.util.EntryUtil;
 import org.quiltmc.enigma.util.validation.ValidationContext;
 import org.tinylog.Logger;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Stream;
 
 public class EntryRemapper {
+	// the largest batch of changes for which dynamic name proposal is run per change, see proposeDynamicNames(List, Set)
+	private static final int PER_CHANGE_PROPOSAL_LIMIT = 64;
+
 	private final EntryTree<EntryMapping> deobfMappings;
 	private final EntryTree<EntryMapping> jarProposedMappings;
 	private final EntryTree<EntryMapping> proposedMappings;
@@ -42,14 +54,22 @@ public class EntryRemapper {
 	private final JarIndex jarIndex;
 	private final MappingsIndex mappingsIndex;
 
+	private final SiblingNameIndex siblingNames;
 	private final MappingValidator validator;
 	private final List<NameProposalService> proposalServices;
+	private final Map<NameProposalService, ProposalDependencies> proposalDependencies = new HashMap<>();
+
+	private volatile MappingSnapshot snapshot;
+	// entries changed since the last published snapshot
+	private final Set<Entry<?>> unpublishedChanges = new HashSet<>();
+	private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
 	private EntryRemapper(Enigma enigma, JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> jarProposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices) {
-		this.deobfMappings = deobfMappings;
+		// persistent trees make the delta snapshots taken by the tracking tree cheap
+		this.deobfMappings = new PersistentEntryTree<>(deobfMappings);
 		this.jarProposedMappings = jarProposedMappings;
-		this.proposedMappings = new HashEntryTree<>(jarProposedMappings);
-		this.mappings = new DeltaTrackingTree<>(new MergedEntryMappingTree(deobfMappings, this.proposedMappings));
+		this.proposedMappings = new PersistentEntryTree<>(jarProposedMappings);
+		this.mappings = new DeltaTrackingTree<>(new MergedEntryMappingTree(this.deobfMappings, this.proposedMappings));
 
 		this.obfResolver = jarIndex.getEntryResolver();
 		this.enigma = enigma;
@@ -58,8 +78,11 @@ public class EntryRemapper {
 		this.jarIndex = jarIndex;
 		this.mappingsIndex = mappingsIndex;
 
-		this.validator = new MappingValidator(this.obfResolver, this.deobfuscator, jarIndex, mappingsIndex);
+		this.siblingNames = new SiblingNameIndex(jarIndex, this.deobfuscator);
+		this.validator = new MappingValidator(this.obfResolver, this.deobfuscator, jarIndex, mappingsIndex, this.siblingNames);
 		this.proposalServices = proposalServices;
+
+		this.publish();
 	}
 
 	public static EntryRemapper mapped(Enigma enigma, JarIndex jarIndex, MappingsIndex mappingsIndex, EntryTree<EntryMapping> proposedMappings, EntryTree<EntryMapping> deobfMappings, List<NameProposalService> proposalServices) {
@@ -67,7 +90,7 @@ public class EntryRemapper {
 	}
 
 	public static EntryRemapper empty(Enigma enigma, JarIndex index, List<NameProposalService> proposalServices) {
-		return new EntryRemapper(enigma, index, MappingsIndex.empty(), new HashEntryTree<>(), new HashEntryTree<>(), proposalServices);
+		return new EntryRemapper(enigma, index, MappingsIndex.empty(), new PersistentEntryTree<>(), new PersistentEntryTree<>(), proposalServices);
 	}
 
 	public void validatePutMapping(ValidationContext vc, Entry<?> obfuscatedEntry, @NonNull EntryMapping deobfMapping) {
@@ -75,10 +98,12 @@ public class EntryRemapper {
 	}
 
 	public void putMapping(ValidationContext vc, Entry<?> obfuscatedEntry, @NonNull EntryMapping deobfMapping) {
-		this.doPutMapping(vc, obfuscatedEntry, deobfMapping, false);
+		try (Timer.Sample ignored = Metrics.timer("mappings.put").start()) {
+			this.doPutMapping(vc, obfuscatedEntry, deobfMapping, false);
+		}
 	}
 
-	private void doPutMapping(ValidationContext vc, Entry<?> obfuscatedEntry, @NonNull EntryMapping deobfMapping, boolean validateOnly) {
+	private synchronized void doPutMapping(ValidationContext vc, Entry<?> obfuscatedEntry, @NonNull EntryMapping deobfMapping, boolean validateOnly) {
 		EntryMapping oldMapping = this.getMapping(obfuscatedEntry);
 		boolean renaming = !Objects.equals(oldMapping.targetName(), deobfMapping.targetName());
 
@@ -98,10 +123,89 @@ public class EntryRemapper {
 			} else {
 				this.mappings.insert(resolvedEntry, deobfMapping);
 			}
+
+			this.onEntryChanged(resolvedEntry);
 		}
 
-		this.insertDynamicallyProposedMappings(obfuscatedEntry, oldMapping, deobfMapping);
+		Set<Entry<?>> changed = new HashSet<>(resolvedEntries);
+		changed.add(obfuscatedEntry);
+		this.insertDynamicallyProposedMappings(obfuscatedEntry, oldMapping, deobfMapping, changed);
 		this.mappingsIndex.reindexEntry(deobfMapping, obfuscatedEntry);
+		this.publish();
+	}
+
+	/**
+	 * Validates and applies many changes as one transaction, which is much faster than applying them one by one.
+	 *
+	 * <p>All renames are validated together against the mappings as they will be once the whole batch is applied,
+	 * so names can be moved between entries of the same batch. If validation fails, none of the changes are applied.
+	 * Services which track dependencies propose names once for the whole batch, and other services are asked about each change
+	 * unless the batch is large, in which case they re-propose all of their names once.
+	 *
+	 * @param vc the validation context to report problems to
+	 * @param changes the changes to apply, where later changes to an entry build on earlier ones
+	 * @return the applied changes, one per changed entry, or an empty list if validation failed
+	 */
+	public synchronized List<AppliedChange> applyChanges(ValidationContext vc, Collection<? extends EntryChange<?>> changes) {
+		Metrics.histogram("mappings.apply_changes.size").record(changes.size());
+		try (Timer.Sample ignored = Metrics.timer("mappings.apply_changes").start()) {
+			return this.doApplyChanges(vc, changes);
+		}
+	}
+
+	private List<AppliedChange> doApplyChanges(ValidationContext vc, Collection<? extends EntryChange<?>> changes) {
+		Map<Entry<?>, EntryMapping> oldMappings = new LinkedHashMap<>();
+		Map<Entry<?>, EntryMapping> newMappings = new LinkedHashMap<>();
+		for (EntryChange<?> change : changes) {
+			Entry<?> target = change.getTarget();
+			EntryMapping current = newMappings.containsKey(target) ? newMappings.get(target) : this.getMapping(target);
+			oldMappings.putIfAbsent(target, current);
+			newMappings.put(target, EntryUtil.applyChange(current, change));
+		}
+
+		PendingMappings pending = new PendingMappings(this.mappings);
+		Map<Entry<?>, String> renames = new LinkedHashMap<>();
+		newMappings.forEach((target, mapping) -> {
+			boolean renaming = !Objects.equals(oldMappings.get(target).targetName(), mapping.targetName());
+			Collection<Entry<?>> resolvedEntries = renaming ? this.resolveAllRoots(target) : this.obfResolver.resolveEntry(target, ResolutionStrategy.RESOLVE_CLOSEST);
+
+			for (Entry<?> resolvedEntry : resolvedEntries) {
+				pending.insert(resolvedEntry, mapping.equals(EntryMapping.OBFUSCATED) ? null : mapping);
+				if (renaming && mapping.targetName() != null) {
+					renames.put(resolvedEntry, mapping.targetName());
+				}
+			}
+		});
+
+		// validate against the mappings with the batch applied, so that renames within the batch see each other
+		MappingValidator batchValidator = new MappingValidator(this.obfResolver, new MappingTranslator(pending, this.obfResolver), this.jarIndex, this.mappingsIndex, this.siblingNames);
+		batchValidator.validateRenames(vc, renames);
+
+		if (!vc.canProceed()) {
+			return List.of();
+		}
+
+		pending.changes.forEach((entry, mapping) -> {
+			this.mappings.insert(entry, mapping);
+			this.onEntryChanged(entry);
+		});
+
+		List<AppliedChange> applied = new ArrayList<>(newMappings.size());
+		newMappings.forEach((target, mapping) -> {
+			this.mappingsIndex.reindexEntry(mapping, target);
+			applied.add(new AppliedChange(target, oldMappings.get(target), mapping));
+		});
+
+		Set<Entry<?>> changed = new HashSet<>(pending.changes.keySet());
+		changed.addAll(newMappings.keySet());
+		if (!applied.isEmpty()) {
+			try (Timer.Sample ignored = Metrics.timer("mappings.dynamic_proposal").start()) {
+				this.proposeDynamicNames(applied, changed);
+			}
+		}
+
+		this.publish();
+		return applied;
 	}
 
 	private Collection<Entry<?>> resolveAllRoots(Entry<?> obfuscatedEntry) {
@@ -142,33 +246,196 @@ public class EntryRemapper {
 	/**
 	 * Runs {@link NameProposalService#getDynamicProposedNames(EntryRemapper, Entry, EntryMapping, EntryMapping)} over the names stored in this remapper,
 	 * inserting all mappings generated.
+	 * Services which {@linkplain NameProposalService#tracksDependencies() track dependencies} are only asked to update
+	 * the proposals depending on {@code obfEntry}, or all of their proposals if it is {@code null}.
+	 */
+	public synchronized void insertDynamicallyProposedMappings(@Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping) {
+		Set<Entry<?>> changed = null;
+		if (obfEntry != null) {
+			changed = new HashSet<>(this.resolveAllRoots(obfEntry));
+			changed.add(obfEntry);
+		}
+
+		this.insertDynamicallyProposedMappings(obfEntry, oldMapping, newMapping, changed);
+		this.publish();
+	}
+
+	/**
+	 * @param changed the entries whose mappings changed, or {@code null} if all mappings may have changed
+	 */
+	private void insertDynamicallyProposedMappings(@Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping, @Nullable Set<Entry<?>> changed) {
+		try (Timer.Sample ignored = Metrics.timer("mappings.dynamic_proposal").start()) {
+			this.proposeDynamicNames(obfEntry, oldMapping, newMapping, changed);
+		}
+	}
+
+	private void proposeDynamicNames(@Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping, @Nullable Set<Entry<?>> changed) {
+		for (var service : this.proposalServices) {
+			if (service.tracksDependencies()) {
+				this.insertDependentProposedMappings(service, changed);
+			} else {
+				this.insertDynamicProposedMappings(service, obfEntry, oldMapping, newMapping);
+			}
+		}
+	}
+
+	/**
+	 * Runs dynamic name proposal for a batch of applied changes.
+	 * Services which track dependencies are asked once for the whole batch. Other services are asked about each change
+	 * in a batch of up to {@value #PER_CHANGE_PROPOSAL_LIMIT} changes, and to re-propose all of their names for a larger batch.
+	 * A full pass costs as much as proposing names for the whole project, so it is much slower than a few per-change calls,
+	 * but cheaper than one call for each change of a batch as large as a whole mapping file.
+	 *
+	 * @param applied the applied changes
+	 * @param changed the entries whose mappings changed
 	 */
-	public void insertDynamicallyProposedMappings(@Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping) {
+	private void proposeDynamicNames(List<AppliedChange> applied, Set<Entry<?>> changed) {
 		for (var service : this.proposalServices) {
-			var proposedNames = service.getDynamicProposedNames(this, obfEntry, oldMapping, newMapping);
-			if (proposedNames != null) {
-				// due to unchecked proposal, proposers are allowed to insert other token types
-				// when deobfuscated, they must be put in the main tree
-				proposedNames.forEach((entry, mapping) -> {
-					if (entry == null) {
-						Logger.warn("Name proposer '" + service.getId() + "' proposed a  mapping (" + mapping + ") attached to a null entry!");
-						return;
-					}
-
-					service.validateProposedMapping(entry, mapping, true);
-
-					if (mapping == null) {
-						this.proposedMappings.remove(entry);
-					} else if (mapping.tokenType() == TokenType.DEOBFUSCATED) {
-						this.mappings.insert(entry, mapping);
-					} else {
-						this.proposedMappings.insert(entry, mapping);
-					}
-				});
+			if (service.tracksDependencies()) {
+				this.insertDependentProposedMappings(service, changed);
+			} else if (applied.size() <= PER_CHANGE_PROPOSAL_LIMIT) {
+				for (AppliedChange change : applied) {
+					this.insertDynamicProposedMappings(service, change.target(), change.oldMapping(), change.newMapping());
+				}
+			} else {
+				this.insertDynamicProposedMappings(service, null, null, null);
+			}
+		}
+	}
+
+	private void insertDynamicProposedMappings(NameProposalService service, @Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping) {
+		var proposedNames = service.getDynamicProposedNames(this, obfEntry, oldMapping, newMapping);
+		if (proposedNames != null) {
+			proposedNames.forEach((entry, mapping) -> this.insertProposedMapping(service, entry, mapping));
+		}
+	}
+
+	private void insertDependentProposedMappings(NameProposalService service, @Nullable Set<Entry<?>> changed) {
+		ProposalDependencies dependencies = this.proposalDependencies.get(service);
+
+		// propose everything the first time, so that there are dependencies to follow
+		Set<Entry<?>> entries = null;
+		if (changed != null && dependencies != null) {
+			entries = dependencies.getDependents(changed);
+			if (entries.isEmpty()) {
+				return;
+			}
+		}
+
+		if (dependencies == null || entries == null) {
+			dependencies = new ProposalDependencies();
+			this.proposalDependencies.put(service, dependencies);
+		}
+
+		var proposals = service.getDependentProposedNames(this, entries);
+		if (entries != null) {
+			for (Entry<?> entry : entries) {
+				if (proposals == null || !proposals.containsKey(entry)) {
+					dependencies.remove(entry);
+					this.removeProposedMapping(service, entry);
+				}
+			}
+		}
+
+		if (proposals != null) {
+			for (var proposal : proposals.entrySet()) {
+				Entry<?> entry = proposal.getKey();
+				if (entry == null) {
+					Logger.warn("Name proposer '" + service.getId() + "' proposed a  mapping (" + proposal.getValue().mapping() + ") attached to a null entry!");
+					continue;
+				}
+
+				dependencies.put(entry, proposal.getValue().dependencies());
+				if (proposal.getValue().mapping() == null) {
+					this.removeProposedMapping(service, entry);
+				} else {
+					this.insertProposedMapping(service, entry, proposal.getValue().mapping());
+				}
 			}
 		}
 	}
 
+	private void insertProposedMapping(NameProposalService service, Entry<?> entry, @Nullable EntryMapping mapping) {
+		if (entry == null) {
+			Logger.warn("Name proposer '" + service.getId() + "' proposed a  mapping (" + mapping + ") attached to a null entry!");
+			return;
+		}
+
+		service.validateProposedMapping(entry, mapping, true);
+
+		// due to unchecked proposal, proposers are allowed to insert other token types
+		// when deobfuscated, they must be put in the main tree
+		if (mapping == null) {
+			this.proposedMappings.remove(entry);
+			this.mappings.markModified();
+		} else if (mapping.tokenType() == TokenType.DEOBFUSCATED) {
+			this.mappings.insert(entry, mapping);
+		} else {
+			this.proposedMappings.insert(entry, mapping);
+			this.mappings.markModified();
+		}
+
+		this.onEntryChanged(entry);
+	}
+
+	/**
+	 * Removes the name proposed for an entry, if it was proposed by the given service.
+	 */
+	private void removeProposedMapping(NameProposalService service, Entry<?> entry) {
+		EntryMapping current = this.proposedMappings.get(entry);
+		if (current != null && service.getId().equals(current.sourcePluginId())) {
+			this.proposedMappings.remove(entry);
+			this.mappings.markModified();
+			this.onEntryChanged(entry);
+		}
+	}
+
+	private void onEntryChanged(Entry<?> entry) {
+		this.siblingNames.update(entry);
+		this.unpublishedChanges.add(entry);
+	}
+
+	/**
+	 * Publishes the current mappings as the latest {@linkplain #snapshot() snapshot}, and tells the listeners which
+	 * entries changed since the previous one.
+	 * Called once a change is completely applied, so that snapshots never show part of a change.
+	 */
+	private void publish() {
+		this.snapshot = new MappingSnapshot(this.mappings.getVersion(), this.mappings.snapshot(), this.obfResolver);
+
+		if (!this.unpublishedChanges.isEmpty()) {
+			Set<Entry<?>> changed = Set.copyOf(this.unpublishedChanges);
+			this.unpublishedChanges.clear();
+			for (ChangeListener listener : this.changeListeners) {
+				listener.onMappingsChanged(this.snapshot, changed);
+			}
+		}
+	}
+
+	/**
+	 * Adds a listener which is told about every change to the mappings, whether it was made by the user, by a batch,
+	 * by dynamic name proposal or by a remote client.
+	 *
+	 * @param listener the listener to add
+	 */
+	public void addChangeListener(ChangeListener listener) {
+		this.changeListeners.add(listener);
+	}
+
+	public void removeChangeListener(ChangeListener listener) {
+		this.changeListeners.remove(listener);
+	}
+
+	/**
+	 * Gets the mappings as they were after the last completed change. Taking a snapshot is cheap and never blocks,
+	 * even while another thread is changing the mappings.
+	 *
+	 * @return the latest snapshot of the mappings
+	 */
+	public MappingSnapshot snapshot() {
+		return this.snapshot;
+	}
+
 	@NonNull
 	public EntryMapping getMapping(Entry<?> entry) {
 		EntryMapping entryMapping = this.mappings.get(entry);
@@ -253,4 +520,101 @@ public class EntryRemapper {
 	public JarIndex getJarIndex() {
 		return this.jarIndex;
 	}
+
+	public interface ChangeListener {
+		/**
+		 * Called after a change to the mappings was completely applied, on the thread which applied it and while the
+		 * remapper is locked. Listeners must return quickly and must not change the mappings.
+		 *
+		 * @param snapshot the mappings after the change
+		 * @param changed the entries whose own mapping changed; children of renamed classes are not included
+		 */
+		void onMappingsChanged(MappingSnapshot snapshot, Set<Entry<?>> changed);
+	}
+
+	/**
+	 * A change applied by {@link #applyChanges(ValidationContext, Collection)}.
+	 *
+	 * @param target the changed entry
+	 * @param oldMapping the mapping of the entry before the batch
+	 * @param newMapping the mapping of the entry after the batch
+	 */
+	public record AppliedChange(Entry<?> target, EntryMapping oldMapping, EntryMapping newMapping) {
+	}
+
+	/**
+	 * The entries each dynamic proposal of a service depends on, and the reverse.
+	 */
+	private static final class ProposalDependencies {
+		private final SetMultimap<Entry<?>, Entry<?>> dependencies = HashMultimap.create();
+		private final SetMultimap<Entry<?>, Entry<?>> dependents = HashMultimap.create();
+
+		private void put(Entry<?> proposed, Set<Entry<?>> dependencies) {
+			this.remove(proposed);
+			this.dependencies.putAll(proposed, dependencies);
+			for (Entry<?> dependency : dependencies) {
+				this.dependents.put(dependency, proposed);
+			}
+		}
+
+		private void remove(Entry<?> proposed) {
+			for (Entry<?> dependency : this.dependencies.removeAll(proposed)) {
+				this.dependents.remove(dependency, proposed);
+			}
+		}
+
+		private Set<Entry<?>> getDependents(Collection<Entry<?>> changed) {
+			Set<Entry<?>> dependents = new HashSet<>();
+			for (Entry<?> entry : changed) {
+				dependents.addAll(this.dependents.get(entry));
+			}
+
+			return dependents;
+		}
+	}
+
+	/**
+	 * Mappings with pending changes layered over them, leaving the underlying mappings untouched.
+	 */
+	private static final class PendingMappings implements EntryMap<EntryMapping> {
+		private final EntryMap<EntryMapping> base;
+		// null values are removed mappings
+		private final Map<Entry<?>, EntryMapping> changes = new LinkedHashMap<>();
+
+		private PendingMappings(EntryMap<EntryMapping> base) {
+			this.base = base;
+		}
+
+		@Override
+		public void insert(Entry<?> entry, EntryMapping value) {
+			this.changes.put(entry, value);
+		}
+
+		@Nullable
+		@Override
+		public EntryMapping remove(Entry<?> entry) {
+			EntryMapping previous = this.get(entry);
+			this.changes.put(entry, null);
+			return previous;
+		}
+
+		@Nullable
+		@Override
+		public EntryMapping get(Entry<?> entry) {
+			return this.changes.containsKey(entry) ? this.changes.get(entry) : this.base.get(entry);
+		}
+
+		@Override
+		public Stream<Entry<?>> getAllEntries() {
+			return Stream.concat(
+					this.base.getAllEntries().filter(entry -> !this.changes.containsKey(entry)),
+					this.changes.entrySet().stream().filter(entry -> entry.getValue() != null).map(Map.Entry::getKey)
+			);
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return this.getAllEntries().findAny().isEmpty();
+		}
+	}
 }
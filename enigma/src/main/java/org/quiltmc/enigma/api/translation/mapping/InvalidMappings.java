@@ -0,0 +1,58 @@
+package org.quiltmc.enigma.api.translation.mapping;
+
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The mappings found by {@link EnigmaProject#dropInvalidMappings(ProgressListener)} or
+ * {@link EnigmaProject#findInvalidMappings(ProgressListener)}.
+ *
+ * @param mappings the invalid entries, sorted by their top-level class, and the names they were mapped to
+ * @param counts the number of invalid entries for each reason
+ */
+public record InvalidMappings(Map<Entry<?>, String> mappings, Map<Reason, Integer> counts) {
+	public InvalidMappings {
+		mappings = Collections.unmodifiableMap(new LinkedHashMap<>(mappings));
+		counts = counts.isEmpty() ? Map.of() : Collections.unmodifiableMap(new EnumMap<>(counts));
+	}
+
+	public boolean isEmpty() {
+		return this.mappings.isEmpty();
+	}
+
+	/**
+	 * Why a mapping is invalid.
+	 */
+	public enum Reason {
+		/**
+		 * The entry is not in the jar.
+		 */
+		MISSING,
+		/**
+		 * The entry could not be resolved to a definition in the jar.
+		 */
+		UNRESOLVABLE,
+		/**
+		 * The entry is inherited from another entry, which should hold the mapping instead.
+		 */
+		NOT_ROOT,
+		/**
+		 * The mapping has neither a name nor javadoc.
+		 */
+		EMPTY,
+		/**
+		 * The entry can't be renamed, for example because it is a constructor.
+		 */
+		NOT_RENAMABLE,
+		/**
+		 * The mapping was dropped without a reason.
+		 */
+		UNSPECIFIED
+	}
+}
@@ -0,0 +1,76 @@
+package org.quiltmc.enigma.api.translation.mapping;
+
+import org.jspecify.annotations.NonNull;
+import org.quiltmc.enigma.api.translation.MappingTranslator;
+import org.quiltmc.enigma.api.translation.Translatable;
+import org.quiltmc.enigma.api.translation.TranslateResult;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.Collection;
+
+/**
+ * The mappings of an {@link EntryRemapper} as they were after one of its changes was completed.
+ *
+ * <p>Snapshots never change, and are taken without locking, so they can be read from any thread while the remapper
+ * keeps being changed. Work which translates many entries, like remapping a source or exporting a jar, should translate
+ * against a single snapshot so that it doesn't see a change halfway through being applied.
+ *
+ * @see EntryRemapper#snapshot()
+ */
+public final class MappingSnapshot {
+	private final long version;
+	private final EntryTree<EntryMapping> mappings;
+	private final EntryResolver obfResolver;
+	private final Translator deobfuscator;
+
+	MappingSnapshot(long version, EntryTree<EntryMapping> mappings, EntryResolver obfResolver) {
+		this.version = version;
+		this.mappings = mappings;
+		this.obfResolver = obfResolver;
+		this.deobfuscator = MappingTranslator.ofImmutable(mappings, obfResolver);
+	}
+
+	/**
+	 * {@return the version of the remapper's mappings this snapshot was taken at}
+	 * Later snapshots of the same remapper never have a smaller version, and have a greater one if the mappings changed.
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	@NonNull
+	public EntryMapping getMapping(Entry<?> entry) {
+		EntryMapping entryMapping = this.mappings.get(entry);
+		return entryMapping == null ? EntryMapping.OBFUSCATED : entryMapping;
+	}
+
+	public <T extends Translatable> TranslateResult<T> extendedDeobfuscate(T translatable) {
+		return this.deobfuscator.extendedTranslate(translatable);
+	}
+
+	public <T extends Translatable> T deobfuscate(T translatable) {
+		return this.deobfuscator.translate(translatable);
+	}
+
+	public Translator getDeobfuscator() {
+		return this.deobfuscator;
+	}
+
+	public Collection<Entry<?>> getObfChildren(Entry<?> obfuscatedEntry) {
+		return this.mappings.getChildren(obfuscatedEntry);
+	}
+
+	/**
+	 * Gets all mappings, including both manually inserted and proposed names.
+	 * @return the merged mapping tree, which must not be modified
+	 */
+	public EntryTree<EntryMapping> getMappings() {
+		return this.mappings;
+	}
+
+	public EntryResolver getObfResolver() {
+		return this.obfResolver;
+	}
+}
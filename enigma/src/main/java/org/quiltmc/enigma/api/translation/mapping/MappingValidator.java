@@ -1,5 +1,6 @@
 package org.quiltmc.enigma.api.translation.mapping;
 
+import com.google.common.collect.Multimap;
 import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
@@ -13,33 +14,74 @@ import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
 import org.quiltmc.enigma.util.validation.Message;
 import org.quiltmc.enigma.util.validation.ValidationContext;
 
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class MappingValidator {
 	private final EntryResolver resolver;
 	private final Translator deobfuscator;
 	private final JarIndex jarIndex;
 	private final MappingsIndex mappingsIndex;
+	private final SiblingNameIndex siblingNames;
 
+	/**
+	 * Creates a validator with its own sibling name index, which is built from the whole jar on the first validation.
+	 * If the mappings behind the translator change afterwards, {@link #mappingChanged(Entry)} must be called
+	 * for every changed entry so that later validations see the new names.
+	 */
 	public MappingValidator(EntryResolver resolver, Translator deobfuscator, JarIndex jarIndex, MappingsIndex mappingsIndex) {
+		this(resolver, deobfuscator, jarIndex, mappingsIndex, new SiblingNameIndex(jarIndex, deobfuscator));
+	}
+
+	/**
+	 * Creates a validator sharing a sibling name index which the caller {@linkplain SiblingNameIndex#update(Entry) updates}
+	 * whenever a mapping changes.
+	 */
+	MappingValidator(EntryResolver resolver, Translator deobfuscator, JarIndex jarIndex, MappingsIndex mappingsIndex, SiblingNameIndex siblingNames) {
 		this.resolver = resolver;
 		this.deobfuscator = deobfuscator;
 		this.jarIndex = jarIndex;
 		this.mappingsIndex = mappingsIndex;
+		this.siblingNames = siblingNames;
+	}
+
+	/**
+	 * Updates the names this validator checks renames against after the mapping of an entry changed.
+	 * This is not needed for the {@linkplain EntryRemapper#getValidator() validator of a remapper}, which is updated by the remapper.
+	 *
+	 * @param entry the entry whose mapping changed
+	 */
+	public void mappingChanged(Entry<?> entry) {
+		this.siblingNames.update(entry);
 	}
 
 	public void validateRename(ValidationContext vc, Entry<?> entry, String name) {
+		this.validateRename(vc, entry, name, null);
+	}
+
+	/**
+	 * Validates many renames at once.
+	 *
+	 * <p>The translator of this validator must already reflect all the renames, so that they are checked against each other.
+	 *
+	 * @param vc the validation context to report problems to
+	 * @param renames the new names of the renamed entries
+	 */
+	public void validateRenames(ValidationContext vc, Map<Entry<?>, String> renames) {
+		Multimap<SiblingNameIndex.NameKey, Entry<?>> pendingNames = this.siblingNames.indexPendingRenames(renames);
+		renames.forEach((entry, name) -> this.validateRename(vc, entry, name, pendingNames));
+	}
+
+	private void validateRename(ValidationContext vc, Entry<?> entry, String name, @Nullable Multimap<SiblingNameIndex.NameKey, Entry<?>> pendingNames) {
 		PackageIndex packageIndex = this.mappingsIndex.getIndex(PackageIndex.class);
 		if (entry instanceof ClassEntry) {
 			String packageName = ClassEntry.getParentPackage(name);
@@ -54,7 +96,7 @@ public class MappingValidator {
 		for (Entry<?> equivalentEntry : equivalentEntries) {
 			equivalentEntry.validateName(vc, name);
 			if (!uniquenessIssue) {
-				uniquenessIssue = this.validateUnique(vc, equivalentEntry, name);
+				uniquenessIssue = this.validateUnique(vc, equivalentEntry, name, pendingNames);
 			}
 		}
 	}
@@ -63,7 +105,7 @@ public class MappingValidator {
 	 * Ensures that this name is unique: it is not used by any other entry with a signature similar enough to conflict.
 	 * @return whether an error was raised
 	 */
-	private boolean validateUnique(ValidationContext context, Entry<?> entry, String name) {
+	private boolean validateUnique(ValidationContext context, Entry<?> entry, String name, @Nullable Multimap<SiblingNameIndex.NameKey, Entry<?>> pendingNames) {
 		ClassEntry containingClass = entry.getContainingClass();
 		Entry<?> translatedEntry = this.deobfuscator.translate(entry);
 
@@ -72,38 +114,11 @@ public class MappingValidator {
 			return this.validateParameterUniqueness(context, name, parameter);
 		}
 
-		List<ParentedEntry<?>> siblings = new ArrayList<>(this.jarIndex.getChildrenByClass().get(containingClass));
-
-		// add sibling classes
-		if (entry instanceof ClassEntry classEntry) {
-			siblings.addAll(this.jarIndex.getIndex(EntryIndex.class).getClasses().stream().filter(e -> {
-				if (e.isInnerClass()) {
-					return false;
-				}
-
-				// filter by package
-				String packageName = e.getPackageName();
-				String originalPackageName = classEntry.getPackageName();
-
-				return (originalPackageName == null && packageName == null)
-						|| (packageName != null && packageName.equals(originalPackageName));
-			}).toList());
-		}
-
-		// add all ancestors
-		for (ClassEntry ancestor : this.jarIndex.getIndex(InheritanceIndex.class).getAncestors(containingClass)) {
-			siblings.addAll(this.jarIndex.getChildrenByClass().get(ancestor));
-		}
+		SiblingScope scope = new SiblingScope(containingClass, entry instanceof ClassEntry, entry instanceof ClassEntry classEntry ? classEntry.getPackageName() : null);
+		Map<Entry<?>, Entry<?>> deobfSiblings = this.collectDeobfSiblings(scope, name, pendingNames);
 
 		// remove equivalent entries -- this can sometimes happen and break mark as deobf/obf
-		// noinspection all
-		siblings.removeAll(this.resolver.resolveEquivalentEntries(entry));
-
-		// collect deobfuscated versions
-		Map<Entry<?>, Entry<?>> deobfSiblings = siblings.stream()
-				.distinct() // May throw IllegalStateException otherwise
-				.map(e -> new AbstractMap.SimpleEntry<>(e, this.deobfuscator.translate(e)))
-				.collect(Collectors.toMap(AbstractMap.SimpleEntry::getKey, e -> e.getValue() != null ? e.getValue() : e.getKey()));
+		deobfSiblings.keySet().removeAll(this.resolver.resolveEquivalentEntries(entry));
 
 		if (translatedEntry != null) {
 			if (!this.isUnique(translatedEntry, entry, deobfSiblings, name)) {
@@ -121,6 +136,42 @@ public class MappingValidator {
 		return false;
 	}
 
+	/**
+	 * Collects the entries in the given scope that a new name could conflict with, mapped to their deobfuscated versions.
+	 * Only entries whose obfuscated or deobfuscated name is the new name can conflict with it, so the others are skipped.
+	 */
+	private Map<Entry<?>, Entry<?>> collectDeobfSiblings(SiblingScope scope, String name, @Nullable Multimap<SiblingNameIndex.NameKey, Entry<?>> pendingNames) {
+		List<SiblingNameIndex.NameKey> keys = new ArrayList<>();
+		keys.add(SiblingNameIndex.NameKey.member(scope.containingClass(), name));
+
+		// add sibling classes
+		if (scope.classes()) {
+			keys.add(SiblingNameIndex.NameKey.topLevelClass(scope.packageName(), name));
+		}
+
+		// add all ancestors
+		for (ClassEntry ancestor : this.jarIndex.getIndex(InheritanceIndex.class).getAncestors(scope.containingClass())) {
+			keys.add(SiblingNameIndex.NameKey.member(ancestor, name));
+		}
+
+		Set<Entry<?>> siblings = new LinkedHashSet<>();
+		for (SiblingNameIndex.NameKey key : keys) {
+			siblings.addAll(this.siblingNames.get(key));
+			if (pendingNames != null) {
+				siblings.addAll(pendingNames.get(key));
+			}
+		}
+
+		// collect deobfuscated versions
+		Map<Entry<?>, Entry<?>> deobfSiblings = new HashMap<>();
+		for (Entry<?> sibling : siblings) {
+			Entry<?> deobfSibling = this.deobfuscator.translate(sibling);
+			deobfSiblings.put(sibling, deobfSibling != null ? deobfSibling : sibling);
+		}
+
+		return deobfSiblings;
+	}
+
 	/**
 	 * Ensures that the parameter's new name is not used by any other parameter of its parent method.
 	 * @implNote currently, we cannot check against obfuscated parameter names, since parameters are not indexed
@@ -245,14 +296,14 @@ public class MappingValidator {
 
 			if (entry.canShadow(sibling) || entry.canShadow(obfSibling)) {
 				// ancestry check only contains obf names, so we need to translate to deobf just in case
-				Set<ClassEntry> ancestors = this.jarIndex.getIndex(InheritanceIndex.class).getAncestors(obfEntry.getContainingClass());
-				ancestors.addAll(
-						ancestors.stream()
+				InheritanceIndex inheritanceIndex = this.jarIndex.getIndex(InheritanceIndex.class);
+				ClassEntry siblingClass = sibling.getContainingClass();
+				boolean isAncestor = inheritanceIndex.isAncestor(obfEntry.getContainingClass(), siblingClass)
+						|| inheritanceIndex.getAncestors(obfEntry.getContainingClass()).stream()
 						.map(this.deobfuscator::translate)
-						.toList()
-				);
+						.anyMatch(siblingClass::equals);
 
-				if (ancestors.contains(sibling.getContainingClass())) {
+				if (isAncestor) {
 					AccessFlags siblingFlags = this.jarIndex.getIndex(EntryIndex.class).getEntryAccess(sibling);
 					AccessFlags flags = this.jarIndex.getIndex(EntryIndex.class).getEntryAccess(obfEntry);
 
@@ -267,4 +318,11 @@ public class MappingValidator {
 
 		return null;
 	}
+
+	/**
+	 * The entries a renamed entry is checked against: the members of its containing class and its ancestors,
+	 * and for classes, the top-level classes of its obfuscated package.
+	 */
+	private record SiblingScope(ClassEntry containingClass, boolean classes, @Nullable String packageName) {
+	}
 }
@@ -0,0 +1,152 @@
+package org.quiltmc.enigma.api.translation.mapping;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import org.jspecify.annotations.Nullable;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the entries that {@link MappingValidator} checks renames against by their obfuscated and deobfuscated names,
+ * so that only entries which could actually conflict with a new name have to be looked at.
+ *
+ * <p>Members are indexed under their class, and top-level classes under their obfuscated package.
+ * Deobfuscated names are kept up to date by {@link #update(Entry)}, which {@link EntryRemapper} calls for every entry
+ * whose mapping it changes. Names that are no longer used only cause extra candidates, which the validator checks anyway.
+ */
+final class SiblingNameIndex {
+	private final JarIndex jarIndex;
+	private final Translator deobfuscator;
+
+	// built on first use
+	private @Nullable Multimap<NameKey, Entry<?>> entriesByName;
+	private final Map<Entry<?>, String> deobfNames = new HashMap<>();
+
+	SiblingNameIndex(JarIndex jarIndex, Translator deobfuscator) {
+		this.jarIndex = jarIndex;
+		this.deobfuscator = deobfuscator;
+	}
+
+	/**
+	 * {@return the entries under the key's class or package whose obfuscated or current deobfuscated name is the key's name}
+	 */
+	synchronized Collection<Entry<?>> get(NameKey key) {
+		return Set.copyOf(this.getIndex().get(key));
+	}
+
+	/**
+	 * Indexes renames that are not applied yet, so that they can be validated against each other.
+	 * @param renames the new names of the renamed entries
+	 * @return the renamed entries, and their equivalent entries, by their new name
+	 */
+	synchronized Multimap<NameKey, Entry<?>> indexPendingRenames(Map<Entry<?>, String> renames) {
+		this.getIndex();
+
+		Multimap<NameKey, Entry<?>> pending = HashMultimap.create();
+		renames.forEach((entry, name) -> {
+			for (Entry<?> equivalent : this.getIndexedEquivalents(entry)) {
+				pending.put(NameKey.of(equivalent, name), equivalent);
+			}
+		});
+
+		return pending;
+	}
+
+	/**
+	 * Re-indexes the deobfuscated names of an entry whose mapping changed, and of the entries sharing its mapping.
+	 */
+	synchronized void update(Entry<?> entry) {
+		if (this.entriesByName == null) {
+			return;
+		}
+
+		for (Entry<?> equivalent : this.getIndexedEquivalents(entry)) {
+			String oldName = this.deobfNames.get(equivalent);
+			String newName = this.translateName(equivalent);
+			if (!newName.equals(oldName)) {
+				if (!oldName.equals(equivalent.getName())) {
+					this.entriesByName.remove(NameKey.of(equivalent, oldName), equivalent);
+				}
+
+				this.entriesByName.put(NameKey.of(equivalent, newName), equivalent);
+				this.deobfNames.put(equivalent, newName);
+			}
+		}
+	}
+
+	private Set<Entry<?>> getIndexedEquivalents(Entry<?> entry) {
+		Set<Entry<?>> equivalents = new HashSet<>(this.jarIndex.getEntryResolver().resolveEquivalentEntries(entry));
+		equivalents.add(entry);
+		equivalents.removeIf(equivalent -> !this.deobfNames.containsKey(equivalent));
+		return equivalents;
+	}
+
+	private Multimap<NameKey, Entry<?>> getIndex() {
+		if (this.entriesByName == null) {
+			Multimap<NameKey, Entry<?>> entriesByName = HashMultimap.create();
+			for (ParentedEntry<?> child : this.jarIndex.getChildrenByClass().values()) {
+				this.index(entriesByName, child);
+			}
+
+			for (ClassEntry classEntry : this.jarIndex.getIndex(EntryIndex.class).getClasses()) {
+				if (!classEntry.isInnerClass()) {
+					this.index(entriesByName, classEntry);
+				}
+			}
+
+			this.entriesByName = entriesByName;
+		}
+
+		return this.entriesByName;
+	}
+
+	private void index(Multimap<NameKey, Entry<?>> entriesByName, Entry<?> entry) {
+		if (this.deobfNames.containsKey(entry)) {
+			return;
+		}
+
+		String deobfName = this.translateName(entry);
+		this.deobfNames.put(entry, deobfName);
+
+		entriesByName.put(NameKey.of(entry, entry.getName()), entry);
+		if (!deobfName.equals(entry.getName())) {
+			entriesByName.put(NameKey.of(entry, deobfName), entry);
+		}
+	}
+
+	private String translateName(Entry<?> entry) {
+		Entry<?> translated = this.deobfuscator.translate(entry);
+		return translated != null ? translated.getName() : entry.getName();
+	}
+
+	/**
+	 * A name within a class, for members, or within an obfuscated package, for top-level classes.
+	 */
+	record NameKey(@Nullable ClassEntry containingClass, @Nullable String packageName, String name) {
+		static NameKey member(ClassEntry containingClass, String name) {
+			return new NameKey(containingClass, null, name);
+		}
+
+		static NameKey topLevelClass(@Nullable String packageName, String name) {
+			return new NameKey(null, packageName, name);
+		}
+
+		static NameKey of(Entry<?> entry, String name) {
+			if (entry instanceof ClassEntry classEntry && !classEntry.isInnerClass()) {
+				return topLevelClass(classEntry.getPackageName(), name);
+			}
+
+			return member((ClassEntry) entry.getParent(), name);
+		}
+	}
+}
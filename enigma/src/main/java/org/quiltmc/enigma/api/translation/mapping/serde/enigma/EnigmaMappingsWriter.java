@@ -22,22 +22,38 @@ import org.quiltmc.enigma.impl.translation.mapping.serde.MappingHelper;
 import org.quiltmc.enigma.util.I18n;
 import org.tinylog.Logger;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.DirectoryStream;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 public enum EnigmaMappingsWriter implements MappingsWriter {
 	FILE {
@@ -52,14 +68,13 @@ public enum EnigmaMappingsWriter implements MappingsWriter {
 
 			progress.init(classes.size(), I18n.translate("progress.mappings.enigma_file.writing"));
 
-			int steps = 0;
 			try (PrintWriter writer = new LfPrintWriter(Files.newBufferedWriter(path))) {
 				for (ClassEntry classEntry : classes) {
-					progress.step(steps++, classEntry.getFullName());
 					this.writeRoot(writer, writtenMappings, classEntry);
+					progress.advance(1, classEntry::getFullName);
 				}
 
-				progress.step(steps, I18n.translate("progress.mappings.enigma_file.done"));
+				progress.step(classes.size(), I18n.translate("progress.mappings.enigma_file.done"));
 			} catch (IOException e) {
 				Logger.error(e, "Error while writing mappings to file {}", path);
 			}
@@ -75,39 +90,39 @@ public enum EnigmaMappingsWriter implements MappingsWriter {
 					.map(ClassEntry.class::cast)
 					.toList();
 
-			this.applyDeletions(path, changedClasses, writtenMappings, delta.getBaseMappings(), saveParameters.fileNameFormat());
+			Translator translator = new MappingTranslator(writtenMappings, VoidEntryResolver.INSTANCE);
+			Map<ClassEntry, Path> classPaths = new LinkedHashMap<>();
+			for (ClassEntry classEntry : changedClasses) {
+				if (!this.isClassEmpty(writtenMappings, classEntry)) {
+					classPaths.put(classEntry, this.resolve(path, this.getFileEntry(translator, classEntry, saveParameters.fileNameFormat())));
+				}
+			}
 
-			changedClasses = changedClasses.stream().filter(entry -> !this.isClassEmpty(writtenMappings, entry)).toList();
+			this.applyDeletions(path, changedClasses, new HashSet<>(classPaths.values()), writtenMappings, delta.getBaseMappings(), saveParameters.fileNameFormat());
 
-			progress.init(changedClasses.size(), I18n.translate("progress.mappings.enigma_directory.writing"));
+			progress.init(classPaths.size(), I18n.translate("progress.mappings.enigma_directory.writing"));
 
-			AtomicInteger steps = new AtomicInteger();
+			AtomicInteger unchanged = new AtomicInteger();
 
-			Translator translator = new MappingTranslator(writtenMappings, VoidEntryResolver.INSTANCE);
-			changedClasses.parallelStream().forEach(classEntry -> {
-				progress.step(steps.getAndIncrement(), classEntry.getFullName());
+			this.runBounded(classPaths.entrySet(), entry -> {
+				ClassEntry classEntry = entry.getKey();
 
 				try {
-					ClassEntry fileEntry = classEntry;
-					if (saveParameters.fileNameFormat() == MappingFileNameFormat.BY_DEOBF) {
-						fileEntry = translator.translate(fileEntry);
-					}
-
-					Path classPath = this.resolve(path, fileEntry);
-					Files.createDirectories(classPath.getParent());
-					Files.deleteIfExists(classPath);
-
-					try (PrintWriter writer = new LfPrintWriter(Files.newBufferedWriter(classPath))) {
-						this.writeRoot(writer, writtenMappings, classEntry);
+					if (!this.writeIfChanged(entry.getValue(), this.render(writtenMappings, classEntry))) {
+						unchanged.incrementAndGet();
 					}
 				} catch (Exception e) {
 					Logger.error(e, "Failed to write class '{}'", classEntry.getFullName());
+				} finally {
+					progress.advance(1, classEntry::getFullName);
 				}
 			});
-			progress.step(steps.get(), I18n.translate("progress.mappings.enigma_directory.done"));
+
+			Logger.debug("Wrote {} mapping files to {}, {} were unchanged", classPaths.size() - unchanged.get(), path, unchanged.get());
+			progress.step(classPaths.size(), I18n.translate("progress.mappings.enigma_directory.done"));
 		}
 
-		private void applyDeletions(Path root, Collection<ClassEntry> changedClasses, EntryTree<EntryMapping> mappings, EntryTree<EntryMapping> oldMappings, MappingFileNameFormat fileNameFormat) {
+		private void applyDeletions(Path root, Collection<ClassEntry> changedClasses, Set<Path> writtenPaths, EntryTree<EntryMapping> mappings, EntryTree<EntryMapping> oldMappings, MappingFileNameFormat fileNameFormat) {
 			Translator oldMappingTranslator = new MappingTranslator(oldMappings, VoidEntryResolver.INSTANCE);
 
 			Stream<ClassEntry> deletedClassStream = changedClasses.stream()
@@ -117,7 +132,10 @@ public enum EnigmaMappingsWriter implements MappingsWriter {
 				deletedClassStream = deletedClassStream.map(oldMappingTranslator::translate);
 			}
 
-			Collection<ClassEntry> deletedClasses = deletedClassStream.toList();
+			// files that are about to be rewritten in place are left alone, so unchanged content can be skipped
+			Collection<ClassEntry> deletedClasses = deletedClassStream
+					.filter(e -> !writtenPaths.contains(this.resolve(root, e)))
+					.toList();
 
 			for (ClassEntry classEntry : deletedClasses) {
 				try {
@@ -158,6 +176,35 @@ public enum EnigmaMappingsWriter implements MappingsWriter {
 			}
 		}
 
+		/**
+		 * Writes a file unless it already has the given content. The file is replaced atomically where
+		 * the file system supports it, so an interrupted save never leaves a truncated mapping file behind.
+		 *
+		 * @return whether the file was written
+		 */
+		private boolean writeIfChanged(Path path, byte[] content) throws IOException {
+			if (Files.isRegularFile(path) && Files.size(path) == content.length && Arrays.equals(Files.readAllBytes(path), content)) {
+				return false;
+			}
+
+			Files.createDirectories(path.getParent());
+			Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+			try {
+				Files.write(tempPath, content);
+
+				try {
+					Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				deleteTemp(tempPath);
+			}
+
+			return true;
+		}
+
 		private Path resolve(Path root, ClassEntry classEntry) {
 			return root.resolve(classEntry.getFullName() + ".mapping");
 		}
@@ -165,16 +212,137 @@ public enum EnigmaMappingsWriter implements MappingsWriter {
 	ZIP {
 		@Override
 		public void write(EntryTree<EntryMapping> mappings, MappingDelta<EntryMapping> delta, Path zip, ProgressListener progress, MappingSaveParameters saveParameters) {
-			try (FileSystem fs = FileSystems.newFileSystem(new URI("jar:file", null, zip.toUri().getPath(), ""), Collections.singletonMap("create", "true"))) {
-				DIRECTORY.write(mappings, delta, fs.getPath("/"), progress, saveParameters);
+			EntryTree<EntryMapping> writtenMappings = MappingsWriter.filterMappings(mappings, saveParameters);
+
+			// a zip can't be updated in place, so every class is written regardless of the delta
+			List<ClassEntry> classes = writtenMappings.getRootNodes()
+					.map(EntryTreeNode::getEntry)
+					.filter(ClassEntry.class::isInstance)
+					.map(ClassEntry.class::cast)
+					.filter(entry -> !this.isClassEmpty(writtenMappings, entry))
+					.toList();
+
+			progress.init(classes.size(), I18n.translate("progress.mappings.enigma_directory.writing"));
+
+			// sorted by file name, so that the order of the zip's entries doesn't depend on the order of the mappings
+			Translator translator = new MappingTranslator(writtenMappings, VoidEntryResolver.INSTANCE);
+			Map<String, ClassEntry> files = new TreeMap<>();
+			for (ClassEntry classEntry : classes) {
+				files.put(this.getFileEntry(translator, classEntry, saveParameters.fileNameFormat()).getFullName() + ".mapping", classEntry);
+			}
+
+			Path tempZip = zip.resolveSibling(zip.getFileName() + ".tmp");
+			int threads = getWriteThreads(files.size());
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				try (ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tempZip)))) {
+					// files are rendered on the pool ahead of the one being written, but only a few at a time,
+					// so that the rendered files waiting for their turn don't hold the whole mappings in memory
+					List<ClassEntry> pending = new ArrayList<>(files.values());
+					Queue<Future<byte[]>> rendering = new ArrayDeque<>();
+					int submitted = 0;
+
+					for (Map.Entry<String, ClassEntry> file : files.entrySet()) {
+						while (submitted < pending.size() && rendering.size() < threads * ZIP_RENDER_AHEAD) {
+							ClassEntry classEntry = pending.get(submitted++);
+							rendering.add(executor.submit(() -> this.render(writtenMappings, classEntry)));
+						}
+
+						out.putNextEntry(new ZipEntry(file.getKey()));
+						out.write(rendering.remove().get());
+						out.closeEntry();
+						progress.advance(1, file.getValue()::getFullName);
+					}
+				}
+
+				Files.move(tempZip, zip, StandardCopyOption.REPLACE_EXISTING);
 			} catch (IOException e) {
 				Logger.error(e, "Failed to write mappings to zip file '{}'", zip);
-			} catch (URISyntaxException e) {
-				throw new RuntimeException("Unexpected error creating URI for " + zip, e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while writing mappings", e);
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			} finally {
+				executor.shutdownNow();
+				deleteTemp(tempZip);
 			}
+
+			progress.step(classes.size(), I18n.translate("progress.mappings.enigma_directory.done"));
 		}
 	};
 
+	/**
+	 * The maximum number of threads writing class files at once. Mapping files are small,
+	 * so more threads would only contend for the disk.
+	 */
+	private static final int MAX_WRITE_THREADS = 8;
+	/**
+	 * The number of files per thread that are rendered ahead of the file being written to a zip.
+	 */
+	private static final int ZIP_RENDER_AHEAD = 4;
+
+	/**
+	 * Runs an action for each element on a bounded thread pool, waiting for all of them to finish.
+	 */
+	protected <T> void runBounded(Collection<T> elements, Consumer<T> action) {
+		int threads = getWriteThreads(elements.size());
+		if (threads == 1) {
+			elements.forEach(action);
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>(elements.size());
+			for (T element : elements) {
+				futures.add(executor.submit(() -> action.accept(element)));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while writing mappings", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static int getWriteThreads(int files) {
+		return Math.max(1, Math.min(Math.min(Runtime.getRuntime().availableProcessors(), MAX_WRITE_THREADS), files));
+	}
+
+	/**
+	 * Deletes a temporary file, which is only left behind if writing or moving it failed.
+	 */
+	private static void deleteTemp(Path temp) {
+		try {
+			Files.deleteIfExists(temp);
+		} catch (IOException e) {
+			Logger.warn(e, "Failed to delete temporary file '{}'", temp);
+		}
+	}
+
+	protected ClassEntry getFileEntry(Translator translator, ClassEntry classEntry, MappingFileNameFormat fileNameFormat) {
+		return fileNameFormat == MappingFileNameFormat.BY_DEOBF ? translator.translate(classEntry) : classEntry;
+	}
+
+	/**
+	 * Renders the mapping file of a root class in memory.
+	 */
+	protected byte[] render(EntryTree<EntryMapping> mappings, ClassEntry classEntry) {
+		StringWriter out = new StringWriter();
+		try (PrintWriter writer = new LfPrintWriter(out)) {
+			this.writeRoot(writer, mappings, classEntry);
+		}
+
+		return out.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
 	protected void writeRoot(PrintWriter writer, EntryTree<EntryMapping> mappings, ClassEntry classEntry) {
 		Collection<Entry<?>> children = this.groupChildren(mappings.getChildren(classEntry));
 
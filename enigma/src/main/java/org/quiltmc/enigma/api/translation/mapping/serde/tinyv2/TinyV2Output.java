@@ -0,0 +1,147 @@
+package org.quiltmc.enigma.api.translation.mapping.serde.tinyv2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes Tiny v2 text as UTF-8 straight into a large direct buffer, which is drained into a channel
+ * whenever it fills up. Line breaks are always {@code \n}.
+ */
+final class TinyV2Output implements Closeable {
+	private static final int BUFFER_SIZE = 1 << 20;
+	// the longest UTF-8 encoding of a char that isn't part of a surrogate pair
+	private static final int MAX_CHAR_BYTES = 3;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	TinyV2Output(WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	TinyV2Output print(String text) throws IOException {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				this.ensureRemaining(1);
+				this.buffer.put((byte) c);
+			} else {
+				i = this.encode(text, i);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Prints text with backslashes, line breaks, nul characters and tabs escaped.
+	 */
+	TinyV2Output printEscaped(String text) throws IOException {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			char escaped = switch (c) {
+				case '\\' -> '\\';
+				case '\n' -> 'n';
+				case '\r' -> 'r';
+				case '\0' -> '0';
+				case '\t' -> 't';
+				default -> 0;
+			};
+
+			if (escaped != 0) {
+				this.ensureRemaining(2);
+				this.buffer.put((byte) '\\').put((byte) escaped);
+			} else if (c < 0x80) {
+				this.ensureRemaining(1);
+				this.buffer.put((byte) c);
+			} else {
+				i = this.encode(text, i);
+			}
+		}
+
+		return this;
+	}
+
+	TinyV2Output print(int value) throws IOException {
+		return this.print(Integer.toString(value));
+	}
+
+	TinyV2Output tab() throws IOException {
+		this.ensureRemaining(1);
+		this.buffer.put((byte) '\t');
+		return this;
+	}
+
+	TinyV2Output indent(int level) throws IOException {
+		this.ensureRemaining(level);
+		for (int i = 0; i < level; i++) {
+			this.buffer.put((byte) '\t');
+		}
+
+		return this;
+	}
+
+	void newLine() throws IOException {
+		this.ensureRemaining(1);
+		this.buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Encodes the non-ASCII char at the given index.
+	 *
+	 * @return the index of the last char that was consumed
+	 */
+	private int encode(String text, int index) throws IOException {
+		char c = text.charAt(index);
+		if (Character.isHighSurrogate(c) && index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1))) {
+			int codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+			this.ensureRemaining(4);
+			this.buffer.put((byte) (0xF0 | (codePoint >> 18)))
+					.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+					.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+					.put((byte) (0x80 | (codePoint & 0x3F)));
+			return index + 1;
+		}
+
+		this.ensureRemaining(MAX_CHAR_BYTES);
+		if (c < 0x800) {
+			this.buffer.put((byte) (0xC0 | (c >> 6)))
+					.put((byte) (0x80 | (c & 0x3F)));
+		} else if (Character.isSurrogate(c)) {
+			// unpaired surrogate, encoded as '?' just like the JDK's encoder does
+			this.buffer.put((byte) '?');
+		} else {
+			this.buffer.put((byte) (0xE0 | (c >> 12)))
+					.put((byte) (0x80 | ((c >> 6) & 0x3F)))
+					.put((byte) (0x80 | (c & 0x3F)));
+		}
+
+		return index;
+	}
+
+	private void ensureRemaining(int bytes) throws IOException {
+		if (this.buffer.remaining() < bytes) {
+			this.flush();
+		}
+	}
+
+	void flush() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining()) {
+			this.channel.write(this.buffer);
+		}
+
+		this.buffer.clear();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			this.flush();
+		} finally {
+			this.channel.close();
+		}
+	}
+}
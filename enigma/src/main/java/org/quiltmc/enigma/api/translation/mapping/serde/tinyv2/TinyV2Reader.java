@@ -19,11 +19,9 @@ import org.quiltmc.enigma.impl.translation.mapping.serde.RawEntryMapping;
 import org.quiltmc.enigma.util.I18n;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.BitSet;
-import java.util.List;
 
 public final class TinyV2Reader implements MappingsReader {
 	public static final MappingsReader INSTANCE = new TinyV2Reader();
@@ -40,36 +38,43 @@ public final class TinyV2Reader implements MappingsReader {
 	private static final int STATE_SIZE = IN_PARAMETER + 1;
 	private static final int[] INDENT_CLEAR_START = {IN_HEADER, IN_METHOD, IN_PARAMETER, STATE_SIZE};
 
+	private static final int PROGRESS_UNIT = 1024;
+	private static final int PROGRESS_LINE_INTERVAL = 1024;
+
 	@Override
 	public EntryTree<EntryMapping> read(Path path, ProgressListener progress) throws IOException, MappingParseException {
-		return this.read(path, Files.readAllLines(path, StandardCharsets.UTF_8), progress);
+		try (TinyV2Tokenizer line = new TinyV2Tokenizer(Files.newByteChannel(path))) {
+			// progress is measured in kilobytes, since the line count isn't known until the whole file has been read
+			progress.init((int) Math.min(Integer.MAX_VALUE, Files.size(path) / PROGRESS_UNIT), I18n.translate("progress.mappings.tiny_v2.loading"));
+			return this.read(path, line, progress);
+		}
 	}
 
-	private EntryTree<EntryMapping> read(Path path, List<String> lines, ProgressListener progress) throws MappingParseException {
+	private EntryTree<EntryMapping> read(Path path, TinyV2Tokenizer line, ProgressListener progress) throws IOException, MappingParseException {
 		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
 
-		progress.init(lines.size(), I18n.translate("progress.mappings.tiny_v2.loading"));
-
 		BitSet state = new BitSet(STATE_SIZE);
 		@SuppressWarnings("unchecked")
 		MappingPair<? extends Entry<?>, RawEntryMapping>[] holds = new MappingPair[STATE_SIZE];
 		boolean escapeNames = false;
 
-		for (int lineNumber = 0; lineNumber < lines.size(); lineNumber++) {
+		for (int lineNumber = 0; ; lineNumber++) {
 			try {
-				progress.step(lineNumber, "");
-				String line = lines.get(lineNumber);
+				if (!line.nextLine()) {
+					break;
+				}
 
-				int indent = 0;
-				while (line.charAt(indent) == '\t') {
-					indent++;
+				if (lineNumber % PROGRESS_LINE_INTERVAL == 0) {
+					progress.step((int) Math.min(Integer.MAX_VALUE, line.getPosition() / PROGRESS_UNIT), "");
 				}
 
-				String[] parts = line.substring(indent).split("\t", -1);
-				if (parts.length == 0 || indent >= INDENT_CLEAR_START.length) {
+				int indent = line.getIndent();
+				if (indent >= INDENT_CLEAR_START.length) {
 					throw new IllegalArgumentException("Invalid format");
 				}
 
+				String key = line.getColumn(0);
+
 				// clean and register stuff in stack
 				for (int i = INDENT_CLEAR_START[indent]; i < STATE_SIZE; i++) {
 					state.clear(i);
@@ -81,17 +86,17 @@ public final class TinyV2Reader implements MappingsReader {
 
 				switch (indent) {
 					case 0:
-						switch (parts[0]) {
+						switch (key) {
 							case "tiny" -> { // header
 								if (lineNumber != 0) {
 									throw new IllegalArgumentException("Header can only be on the first line");
 								}
 
-								if (parts.length < 5) {
+								if (line.getColumnCount() < 5) {
 									throw new IllegalArgumentException("Not enough header columns, needs at least 5");
 								}
 
-								if (!"2".equals(parts[1]) || !MINOR_VERSION.equals(parts[2])) {
+								if (!"2".equals(line.getColumn(1)) || !MINOR_VERSION.equals(line.getColumn(2))) {
 									throw new IllegalArgumentException("Unsupported TinyV2 version, requires major " + "2" + " and minor " + MINOR_VERSION);
 								}
 
@@ -99,15 +104,15 @@ public final class TinyV2Reader implements MappingsReader {
 							}
 							case "c" -> { // class
 								state.set(IN_CLASS);
-								holds[IN_CLASS] = this.parseClass(parts, escapeNames);
+								holds[IN_CLASS] = this.parseClass(line, escapeNames);
 							}
-							default -> this.unsupportKey(parts);
+							default -> this.unsupportKey(key);
 						}
 
 						break;
 					case 1:
 						if (state.get(IN_HEADER)) {
-							if (parts[0].equals("esacpe-names")) {
+							if (key.equals("esacpe-names")) {
 								escapeNames = true;
 							}
 
@@ -115,70 +120,72 @@ public final class TinyV2Reader implements MappingsReader {
 						}
 
 						if (state.get(IN_CLASS)) {
-							switch (parts[0]) {
+							switch (key) {
 								case "m" -> { // method
 									state.set(IN_METHOD);
-									holds[IN_METHOD] = this.parseMethod(holds[IN_CLASS], parts, escapeNames);
+									holds[IN_METHOD] = this.parseMethod(holds[IN_CLASS], line, escapeNames);
 								}
 								case "f" -> { // field
 									state.set(IN_FIELD);
-									holds[IN_FIELD] = this.parseField(holds[IN_CLASS], parts, escapeNames);
+									holds[IN_FIELD] = this.parseField(holds[IN_CLASS], line, escapeNames);
 								}
 								case "c" -> // class javadoc
-										this.addJavadoc(holds[IN_CLASS], parts);
-								default -> this.unsupportKey(parts);
+										this.addJavadoc(holds[IN_CLASS], line);
+								default -> this.unsupportKey(key);
 							}
 
 							break;
 						}
 
-						this.unsupportKey(parts);
+						this.unsupportKey(key);
 					case 2:
 						if (state.get(IN_METHOD)) {
-							switch (parts[0]) {
+							switch (key) {
 								case "p": // parameter
 									state.set(IN_PARAMETER);
-									holds[IN_PARAMETER] = this.parseArgument(holds[IN_METHOD], parts, escapeNames);
+									holds[IN_PARAMETER] = this.parseArgument(holds[IN_METHOD], line, escapeNames);
 									break;
 								case "v": // local variable
 									// TODO add local var mapping
 									break;
 								case "c": // method javadoc
-									this.addJavadoc(holds[IN_METHOD], parts);
+									this.addJavadoc(holds[IN_METHOD], line);
 									break;
 								default:
-									this.unsupportKey(parts);
+									this.unsupportKey(key);
 							}
 
 							break;
 						}
 
 						if (state.get(IN_FIELD)) {
-							if (parts[0].equals("c")) { // field javadoc
-								this.addJavadoc(holds[IN_FIELD], parts);
+							if (key.equals("c")) { // field javadoc
+								this.addJavadoc(holds[IN_FIELD], line);
 							} else {
-								this.unsupportKey(parts);
+								this.unsupportKey(key);
 							}
 
 							break;
 						}
 
-						this.unsupportKey(parts);
+						this.unsupportKey(key);
 					case 3:
 						if (state.get(IN_PARAMETER)) {
-							if (parts[0].equals("c")) {
-								this.addJavadoc(holds[IN_PARAMETER], parts);
+							if (key.equals("c")) {
+								this.addJavadoc(holds[IN_PARAMETER], line);
 							} else {
-								this.unsupportKey(parts);
+								this.unsupportKey(key);
 							}
 
 							break;
 						}
 
-						this.unsupportKey(parts);
+						this.unsupportKey(key);
 					default:
-						this.unsupportKey(parts);
+						this.unsupportKey(key);
 				}
+			} catch (IOException e) {
+				throw e;
 			} catch (Exception e) {
 				throw new MappingParseException(path, lineNumber + 1, e);
 			}
@@ -202,52 +209,52 @@ public final class TinyV2Reader implements MappingsReader {
 		}
 	}
 
-	private void unsupportKey(String[] parts) {
-		throw new IllegalArgumentException("Unsupported key " + parts[0]);
+	private void unsupportKey(String key) {
+		throw new IllegalArgumentException("Unsupported key " + key);
 	}
 
-	private void addJavadoc(MappingPair<? extends Entry<?>, RawEntryMapping> pair, String[] parts) {
-		if (parts.length != 2) {
+	private void addJavadoc(MappingPair<? extends Entry<?>, RawEntryMapping> pair, TinyV2Tokenizer line) {
+		if (line.getColumnCount() != 2) {
 			throw new IllegalArgumentException("Invalid javadoc declaration");
 		}
 
-		this.addJavadoc(pair, parts[1]);
+		this.addJavadoc(pair, line.getColumn(1));
 	}
 
-	private MappingPair<ClassEntry, RawEntryMapping> parseClass(String[] tokens, boolean escapeNames) {
-		ClassEntry obfuscatedEntry = new ClassEntry(unescapeOpt(tokens[1], escapeNames));
-		if (tokens.length <= 2) {
+	private MappingPair<ClassEntry, RawEntryMapping> parseClass(TinyV2Tokenizer line, boolean escapeNames) {
+		ClassEntry obfuscatedEntry = new ClassEntry(unescapeOpt(line.getColumn(1), escapeNames));
+		if (line.getColumnCount() <= 2) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String token2 = unescapeOpt(tokens[2], escapeNames);
+		String token2 = unescapeOpt(line.getColumn(2), escapeNames);
 		String mapping = token2.substring(token2.lastIndexOf('$') + 1);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
-	private MappingPair<FieldEntry, RawEntryMapping> parseField(MappingPair<? extends Entry<?>, RawEntryMapping> parent, String[] tokens, boolean escapeNames) {
+	private MappingPair<FieldEntry, RawEntryMapping> parseField(MappingPair<? extends Entry<?>, RawEntryMapping> parent, TinyV2Tokenizer line, boolean escapeNames) {
 		ClassEntry ownerClass = (ClassEntry) parent.getEntry();
-		TypeDescriptor descriptor = new TypeDescriptor(unescapeOpt(tokens[1], escapeNames));
+		TypeDescriptor descriptor = new TypeDescriptor(unescapeOpt(line.getColumn(1), escapeNames));
 
-		FieldEntry obfuscatedEntry = new FieldEntry(ownerClass, unescapeOpt(tokens[2], escapeNames), descriptor);
-		if (tokens.length <= 3) {
+		FieldEntry obfuscatedEntry = new FieldEntry(ownerClass, unescapeOpt(line.getColumn(2), escapeNames), descriptor);
+		if (line.getColumnCount() <= 3) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String mapping = unescapeOpt(tokens[3], escapeNames);
+		String mapping = unescapeOpt(line.getColumn(3), escapeNames);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
-	private MappingPair<MethodEntry, RawEntryMapping> parseMethod(MappingPair<? extends Entry<?>, RawEntryMapping> parent, String[] tokens, boolean escapeNames) {
+	private MappingPair<MethodEntry, RawEntryMapping> parseMethod(MappingPair<? extends Entry<?>, RawEntryMapping> parent, TinyV2Tokenizer line, boolean escapeNames) {
 		ClassEntry ownerClass = (ClassEntry) parent.getEntry();
-		MethodDescriptor descriptor = new MethodDescriptor(unescapeOpt(tokens[1], escapeNames));
+		MethodDescriptor descriptor = new MethodDescriptor(unescapeOpt(line.getColumn(1), escapeNames));
 
-		MethodEntry obfuscatedEntry = new MethodEntry(ownerClass, unescapeOpt(tokens[2], escapeNames), descriptor);
-		if (tokens.length <= 3) {
+		MethodEntry obfuscatedEntry = new MethodEntry(ownerClass, unescapeOpt(line.getColumn(2), escapeNames), descriptor);
+		if (line.getColumnCount() <= 3) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String mapping = unescapeOpt(tokens[3], escapeNames);
+		String mapping = unescapeOpt(line.getColumn(3), escapeNames);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
@@ -260,18 +267,18 @@ public final class TinyV2Reader implements MappingsReader {
 		mapping.addJavadocLine(MappingHelper.unescape(javadoc));
 	}
 
-	private MappingPair<LocalVariableEntry, RawEntryMapping> parseArgument(MappingPair<? extends Entry<?>, RawEntryMapping> parent, String[] tokens, boolean escapeNames) {
+	private MappingPair<LocalVariableEntry, RawEntryMapping> parseArgument(MappingPair<? extends Entry<?>, RawEntryMapping> parent, TinyV2Tokenizer line, boolean escapeNames) {
 		MethodEntry ownerMethod = (MethodEntry) parent.getEntry();
-		int variableIndex = Integer.parseInt(tokens[1]);
+		int variableIndex = Integer.parseInt(line.getColumn(1));
 
-		// tokens[2] is the useless obf name
+		// column 2 is the useless obf name
 
 		LocalVariableEntry obfuscatedEntry = new LocalVariableEntry(ownerMethod, variableIndex);
-		if (tokens.length <= 3) {
+		if (line.getColumnCount() <= 3) {
 			return new MappingPair<>(obfuscatedEntry);
 		}
 
-		String mapping = unescapeOpt(tokens[3], escapeNames);
+		String mapping = unescapeOpt(line.getColumn(3), escapeNames);
 		return new MappingPair<>(obfuscatedEntry, new RawEntryMapping(mapping));
 	}
 
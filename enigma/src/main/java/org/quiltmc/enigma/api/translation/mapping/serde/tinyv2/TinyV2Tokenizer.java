@@ -0,0 +1,166 @@
+package org.quiltmc.enigma.api.translation.mapping.serde.tinyv2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits a Tiny v2 file into lines and tab separated columns while reading it from a channel.
+ *
+ * <p>Tabs and line breaks are ASCII, so they are searched for in the raw UTF-8 bytes,
+ * and only the columns that are actually requested get decoded. Only the current line is kept in memory.
+ */
+final class TinyV2Tokenizer implements Closeable {
+	private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+	private boolean endOfInput;
+	private long consumed;
+
+	private int indent;
+	private int columnCount;
+	private int[] columnStarts = new int[8];
+	private int[] columnEnds = new int[8];
+
+	TinyV2Tokenizer(ReadableByteChannel channel) {
+		this.channel = channel;
+		this.buffer.flip();
+	}
+
+	/**
+	 * Advances to the next line.
+	 *
+	 * @return whether there was another line
+	 */
+	boolean nextLine() throws IOException {
+		int scanned = this.buffer.position();
+		while (true) {
+			byte[] bytes = this.buffer.array();
+			int limit = this.buffer.limit();
+			for (int i = scanned; i < limit; i++) {
+				if (bytes[i] == '\n') {
+					this.tokenize(this.buffer.position(), i);
+					this.advance(i + 1);
+					return true;
+				}
+			}
+
+			if (this.endOfInput) {
+				if (this.buffer.hasRemaining()) {
+					this.tokenize(this.buffer.position(), limit);
+					this.advance(limit);
+					return true;
+				}
+
+				return false;
+			}
+
+			scanned = this.buffer.remaining();
+			this.fill();
+		}
+	}
+
+	/**
+	 * {@return the number of leading tabs of the current line}
+	 */
+	int getIndent() {
+		return this.indent;
+	}
+
+	/**
+	 * {@return the number of columns of the current line, not counting its indentation}
+	 */
+	int getColumnCount() {
+		return this.columnCount;
+	}
+
+	String getColumn(int column) {
+		if (column >= this.columnCount) {
+			throw new ArrayIndexOutOfBoundsException("Column " + column + " out of bounds for " + this.columnCount + " columns");
+		}
+
+		int start = this.columnStarts[column];
+		return new String(this.buffer.array(), start, this.columnEnds[column] - start, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * {@return the number of bytes consumed so far}
+	 */
+	long getPosition() {
+		return this.consumed;
+	}
+
+	private void tokenize(int start, int end) {
+		byte[] bytes = this.buffer.array();
+		if (end > start && bytes[end - 1] == '\r') {
+			end--;
+		}
+
+		int indent = 0;
+		while (start + indent < end && bytes[start + indent] == '\t') {
+			indent++;
+		}
+
+		if (start + indent == end) {
+			throw new IllegalArgumentException("Invalid format");
+		}
+
+		this.indent = indent;
+		this.columnCount = 0;
+
+		int columnStart = start + indent;
+		for (int i = columnStart; i <= end; i++) {
+			if (i == end || bytes[i] == '\t') {
+				if (this.columnCount == this.columnStarts.length) {
+					this.columnStarts = Arrays.copyOf(this.columnStarts, this.columnCount * 2);
+					this.columnEnds = Arrays.copyOf(this.columnEnds, this.columnCount * 2);
+				}
+
+				this.columnStarts[this.columnCount] = columnStart;
+				this.columnEnds[this.columnCount] = i;
+				this.columnCount++;
+				columnStart = i + 1;
+			}
+		}
+	}
+
+	private void advance(int position) {
+		this.consumed += position - this.buffer.position();
+		this.buffer.position(position);
+	}
+
+	/**
+	 * Moves the unread bytes to the start of the buffer and reads more, growing the buffer if a single line
+	 * doesn't fit into it.
+	 */
+	private void fill() throws IOException {
+		if (this.buffer.position() == 0 && this.buffer.limit() == this.buffer.capacity()) {
+			ByteBuffer grown = ByteBuffer.allocate(this.buffer.capacity() * 2);
+			grown.put(this.buffer);
+			this.buffer = grown;
+		} else {
+			this.buffer.compact();
+		}
+
+		while (this.buffer.hasRemaining()) {
+			int read = this.channel.read(this.buffer);
+			if (read < 0) {
+				this.endOfInput = true;
+				break;
+			} else if (read == 0) {
+				break;
+			}
+		}
+
+		this.buffer.flip();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+}
@@ -1,6 +1,5 @@
 package org.quiltmc.enigma.api.translation.mapping.serde.tinyv2;
 
-import com.google.common.base.Strings;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.translation.mapping.EntryMap;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
@@ -14,14 +13,12 @@ import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
-import org.quiltmc.enigma.impl.translation.mapping.serde.LfPrintWriter;
-import org.quiltmc.enigma.impl.translation.mapping.serde.MappingHelper;
 import org.tinylog.Logger;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Comparator;
 import java.util.Deque;
 import java.util.LinkedList;
@@ -90,8 +87,8 @@ public final class TinyV2Writer implements MappingsWriter {
 				.sorted(mappingComparator())
 				.toList();
 
-		try (PrintWriter writer = new LfPrintWriter(Files.newBufferedWriter(path))) {
-			writer.println("tiny\t2\t" + MINOR_VERSION + "\t" + obfNamespace + "\t" + deobfNamespace);
+		try (TinyV2Output writer = new TinyV2Output(Files.newByteChannel(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+			writer.print("tiny\t2\t" + MINOR_VERSION + "\t" + obfNamespace + "\t" + deobfNamespace).newLine();
 
 			// no escape names
 
@@ -103,7 +100,7 @@ public final class TinyV2Writer implements MappingsWriter {
 		}
 	}
 
-	private void writeClass(PrintWriter writer, EntryTreeNode<EntryMapping> node, EntryMap<EntryMapping> tree) {
+	private void writeClass(TinyV2Output writer, EntryTreeNode<EntryMapping> node, EntryMap<EntryMapping> tree) throws IOException {
 		writer.print("c\t");
 		ClassEntry classEntry = (ClassEntry) node.getEntry();
 		String fullName = classEntry.getFullName();
@@ -122,11 +119,11 @@ public final class TinyV2Writer implements MappingsWriter {
 
 		String mappedName = String.join("$", parts);
 
-		writer.print("\t");
+		writer.tab();
 
 		writer.print(mappedName); // todo escaping when we have v2 fixed later
 
-		writer.println();
+		writer.newLine();
 
 		this.writeComment(writer, node.getValue(), 1);
 
@@ -140,13 +137,13 @@ public final class TinyV2Writer implements MappingsWriter {
 		}
 	}
 
-	private void writeMethod(PrintWriter writer, EntryTreeNode<EntryMapping> node) {
-		writer.print(this.indent(1));
+	private void writeMethod(TinyV2Output writer, EntryTreeNode<EntryMapping> node) throws IOException {
+		writer.indent(1);
 		writer.print("m\t");
 		writer.print(((MethodEntry) node.getEntry()).getDesc().toString());
-		writer.print("\t");
+		writer.tab();
 		writer.print(node.getEntry().getName());
-		writer.print("\t");
+		writer.tab();
 		EntryMapping mapping = node.getValue();
 
 		if (mapping == null) {
@@ -154,9 +151,9 @@ public final class TinyV2Writer implements MappingsWriter {
 		}
 
 		if (mapping.targetName() != null) {
-			writer.println(mapping.targetName());
+			writer.print(mapping.targetName()).newLine();
 		} else {
-			writer.println(node.getEntry().getName()); // todo fix v2 name inference
+			writer.print(node.getEntry().getName()).newLine(); // todo fix v2 name inference
 		}
 
 		this.writeComment(writer, mapping, 2);
@@ -171,17 +168,17 @@ public final class TinyV2Writer implements MappingsWriter {
 		}
 	}
 
-	private void writeField(PrintWriter writer, EntryTreeNode<EntryMapping> node) {
+	private void writeField(TinyV2Output writer, EntryTreeNode<EntryMapping> node) throws IOException {
 		if (node.getValue() == null || node.getValue().equals(EntryMapping.OBFUSCATED)) {
 			return; // Shortcut
 		}
 
-		writer.print(this.indent(1));
+		writer.indent(1);
 		writer.print("f\t");
 		writer.print(((FieldEntry) node.getEntry()).getDesc().toString());
-		writer.print("\t");
+		writer.tab();
 		writer.print(node.getEntry().getName());
-		writer.print("\t");
+		writer.tab();
 		EntryMapping mapping = node.getValue();
 
 		if (mapping == null) {
@@ -189,45 +186,41 @@ public final class TinyV2Writer implements MappingsWriter {
 		}
 
 		if (mapping.targetName() != null) {
-			writer.println(mapping.targetName());
+			writer.print(mapping.targetName()).newLine();
 		} else {
-			writer.println(node.getEntry().getName()); // todo fix v2 name inference
+			writer.print(node.getEntry().getName()).newLine(); // todo fix v2 name inference
 		}
 
 		this.writeComment(writer, mapping, 2);
 	}
 
-	private void writeParameter(PrintWriter writer, EntryTreeNode<EntryMapping> node) {
+	private void writeParameter(TinyV2Output writer, EntryTreeNode<EntryMapping> node) throws IOException {
 		if (node.getValue() == null || node.getValue().equals(EntryMapping.OBFUSCATED)) {
 			return; // Shortcut
 		}
 
-		writer.print(this.indent(2));
+		writer.indent(2);
 		writer.print("p\t");
 		writer.print(((LocalVariableEntry) node.getEntry()).getIndex());
-		writer.print("\t");
+		writer.tab();
 		writer.print(node.getEntry().getName());
-		writer.print("\t");
+		writer.tab();
 		EntryMapping mapping = node.getValue();
 		if (mapping.targetName() != null) {
-			writer.println(mapping.targetName());
+			writer.print(mapping.targetName()).newLine();
 		} else {
-			writer.println();
+			writer.newLine();
 		}
 
 		this.writeComment(writer, mapping, 3);
 	}
 
-	private void writeComment(PrintWriter writer, EntryMapping mapping, int indent) {
+	private void writeComment(TinyV2Output writer, EntryMapping mapping, int indent) throws IOException {
 		if (mapping != null && mapping.javadoc() != null) {
-			writer.print(this.indent(indent));
+			writer.indent(indent);
 			writer.print("c\t");
-			writer.print(MappingHelper.escape(mapping.javadoc()));
-			writer.println();
+			writer.printEscaped(mapping.javadoc());
+			writer.newLine();
 		}
 	}
-
-	private String indent(int level) {
-		return Strings.repeat("\t", level);
-	}
 }
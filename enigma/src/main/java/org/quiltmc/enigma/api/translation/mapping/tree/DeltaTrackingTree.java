@@ -17,31 +17,52 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 
 	private EntryTree<T> deltaReference;
 	private EntryTree<Object> changes = new HashEntryTree<>();
+	private volatile long version;
 
 	public DeltaTrackingTree(EntryTree<T> delegate) {
 		this.delegate = delegate;
-		this.deltaReference = new HashEntryTree<>(delegate);
+		this.deltaReference = delegate.snapshot();
 	}
 
 	public DeltaTrackingTree() {
-		this(new HashEntryTree<>());
+		this(new PersistentEntryTree<>());
 	}
 
 	@Override
 	public void insert(Entry<?> entry, T value) {
 		this.trackChange(entry);
 		this.delegate.insert(entry, value);
+		this.version++;
 	}
 
 	@Nullable
 	@Override
 	public T remove(Entry<?> entry) {
 		this.trackChange(entry);
-		return this.delegate.remove(entry);
+		T removed = this.delegate.remove(entry);
+		this.version++;
+		return removed;
 	}
 
 	public void trackChange(Entry<?> entry) {
 		this.changes.insert(entry, MappingDelta.PLACEHOLDER);
+		this.version++;
+	}
+
+	/**
+	 * Records that the delegate changed without going through this tree, such as when a tree merged into it is changed
+	 * directly. Unlike {@link #trackChange(Entry)}, this does not add the change to the delta.
+	 */
+	public void markModified() {
+		this.version++;
+	}
+
+	/**
+	 * {@return a number which changes whenever a change to this tree is tracked}
+	 * Caches of values derived from the mappings can compare it to tell whether they are still valid.
+	 */
+	public long getVersion() {
+		return this.version;
 	}
 
 	@Nullable
@@ -71,6 +92,11 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 		return this.delegate.getRootNodes();
 	}
 
+	@Override
+	public EntryTree<T> snapshot() {
+		return this.delegate.snapshot();
+	}
+
 	@Override
 	public DeltaTrackingTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
 		DeltaTrackingTree<T> translatedTree = new DeltaTrackingTree<>(this.delegate.translate(translator, resolver, mappings));
@@ -100,7 +126,7 @@ public class DeltaTrackingTree<T> implements EntryTree<T> {
 	}
 
 	private void resetDelta() {
-		this.deltaReference = new HashEntryTree<>(this.delegate);
+		this.deltaReference = this.delegate.snapshot();
 		this.changes = new HashEntryTree<>();
 	}
 
@@ -22,6 +22,16 @@ public interface EntryTree<T> extends EntryMap<T>, Iterable<EntryTreeNode<T>>, T
 
 	Stream<EntryTreeNode<T>> getRootNodes();
 
+	/**
+	 * Creates a copy of this tree which is not affected by later changes to it.
+	 * This copies every node by default, but {@link PersistentEntryTree} shares them instead.
+	 *
+	 * @return a copy of this tree
+	 */
+	default EntryTree<T> snapshot() {
+		return new HashEntryTree<>(this);
+	}
+
 	@Override
 	default TranslateResult<? extends EntryTree<T>> extendedTranslate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
 		return TranslateResult.ungrouped(this.translate(translator, resolver, mappings));
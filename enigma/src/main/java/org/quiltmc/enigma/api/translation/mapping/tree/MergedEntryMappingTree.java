@@ -126,6 +126,11 @@ public record MergedEntryMappingTree(EntryTree<EntryMapping> mainTree, EntryTree
 		return this.mainTree.isEmpty() && this.secondaryTree.isEmpty();
 	}
 
+	@Override
+	public MergedEntryMappingTree snapshot() {
+		return new MergedEntryMappingTree(this.mainTree.snapshot(), this.secondaryTree.snapshot());
+	}
+
 	@Override
 	public MergedEntryMappingTree translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
 		var main = this.mainTree.translate(translator, resolver, mappings);
@@ -0,0 +1,235 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMap;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An entry tree whose nodes are immutable and shared between copies.
+ * Changing the tree only copies the nodes along the path to the changed entry, so {@linkplain #snapshot() snapshots}
+ * and copies made with {@link #PersistentEntryTree(EntryTree)} take constant time and memory.
+ *
+ * <p>Nodes obtained from the tree are never changed, and keep showing the state of the tree when they were obtained.
+ * Reads may happen concurrently with a single writer.
+ */
+public class PersistentEntryTree<T> implements EntryTree<T> {
+	private volatile PersistentHashMap<Entry<?>, Node<T>> root;
+
+	public PersistentEntryTree() {
+		this(PersistentHashMap.empty());
+	}
+
+	public PersistentEntryTree(EntryTree<T> tree) {
+		if (tree instanceof PersistentEntryTree<T> persistent) {
+			this.root = persistent.root;
+		} else {
+			this.root = PersistentHashMap.empty();
+			for (EntryTreeNode<T> node : tree) {
+				this.insert(node.getEntry(), node.getValue());
+			}
+		}
+	}
+
+	private PersistentEntryTree(PersistentHashMap<Entry<?>, Node<T>> root) {
+		this.root = root;
+	}
+
+	@Override
+	public PersistentEntryTree<T> snapshot() {
+		return new PersistentEntryTree<>(this.root);
+	}
+
+	@Override
+	public void insert(Entry<?> entry, @Nullable T value) {
+		List<Entry<?>> ancestry = entry.getAncestry();
+		if (!ancestry.isEmpty()) {
+			this.root = update(this.root, ancestry, 0, value);
+		}
+	}
+
+	@Override
+	@Nullable
+	public T remove(Entry<?> entry) {
+		T value = this.get(entry);
+		if (value != null) {
+			this.insert(entry, null);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Sets the value of the entry at the end of the ancestry, copying the nodes on the way to it.
+	 * Nodes left without a value or children are removed, like in {@link HashEntryTree}.
+	 */
+	private static <T> PersistentHashMap<Entry<?>, Node<T>> update(PersistentHashMap<Entry<?>, Node<T>> nodes, List<Entry<?>> ancestry, int depth, @Nullable T value) {
+		Entry<?> entry = ancestry.get(depth);
+		Node<T> existing = nodes.get(entry);
+		Node<T> node = existing;
+
+		Node<T> updated;
+		if (depth == ancestry.size() - 1) {
+			if (node == null) {
+				if (value == null) {
+					return nodes;
+				}
+
+				updated = new Node<>(entry, value, PersistentHashMap.empty());
+			} else {
+				updated = node.value == value ? node : new Node<>(entry, value, node.children);
+			}
+		} else {
+			if (node == null) {
+				if (value == null) {
+					return nodes;
+				}
+
+				node = new Node<>(entry, null, PersistentHashMap.empty());
+			}
+
+			PersistentHashMap<Entry<?>, Node<T>> children = update(node.children, ancestry, depth + 1, value);
+			updated = children == node.children ? node : new Node<>(entry, node.value, children);
+		}
+
+		if (updated == existing) {
+			return nodes;
+		}
+
+		return updated.isEmpty() ? nodes.remove(entry) : nodes.put(entry, updated);
+	}
+
+	@Override
+	@Nullable
+	public T get(Entry<?> entry) {
+		Node<T> node = this.findNode(entry);
+		return node == null ? null : node.getValue();
+	}
+
+	@Override
+	public boolean contains(Entry<?> entry) {
+		return this.get(entry) != null;
+	}
+
+	@Override
+	public Collection<Entry<?>> getChildren(Entry<?> entry) {
+		Node<T> node = this.findNode(entry);
+		if (node == null) {
+			return Collections.emptyList();
+		}
+
+		return node.getChildren();
+	}
+
+	@Override
+	public Collection<Entry<?>> getSiblings(Entry<?> entry) {
+		Entry<?> parent = entry.getParent();
+		Set<Entry<?>> siblings = new HashSet<>(parent == null ? this.root.keys() : this.getChildren(parent));
+		siblings.remove(entry);
+		return siblings;
+	}
+
+	@Override
+	@Nullable
+	public Node<T> findNode(Entry<?> target) {
+		List<Entry<?>> ancestry = target.getAncestry();
+		if (ancestry.isEmpty()) {
+			return null;
+		}
+
+		Node<T> node = this.root.get(ancestry.get(0));
+		for (int i = 1; i < ancestry.size() && node != null; i++) {
+			node = node.children.get(ancestry.get(i));
+		}
+
+		return node;
+	}
+
+	@Override
+	@NonNull
+	public Iterator<EntryTreeNode<T>> iterator() {
+		Collection<EntryTreeNode<T>> nodes = new ArrayList<>();
+		this.root.forEach((entry, node) -> nodes.addAll(node.getNodesRecursively()));
+		return nodes.iterator();
+	}
+
+	@Override
+	public Stream<Entry<?>> getAllEntries() {
+		return StreamSupport.stream(this.spliterator(), false)
+				.filter(EntryTreeNode::hasValue)
+				.map(EntryTreeNode::getEntry);
+	}
+
+	@Override
+	public Stream<EntryTreeNode<T>> getRootNodes() {
+		return this.root.values().stream().map(Function.identity());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return this.root.isEmpty();
+	}
+
+	@Override
+	public PersistentEntryTree<T> translate(Translator translator, EntryResolver resolver, EntryMap<EntryMapping> mappings) {
+		PersistentEntryTree<T> translatedTree = new PersistentEntryTree<>();
+		for (EntryTreeNode<T> node : this) {
+			translatedTree.insert(translator.translate(node.getEntry()), node.getValue());
+		}
+
+		return translatedTree;
+	}
+
+	public static final class Node<T> implements EntryTreeNode<T> {
+		private final Entry<?> entry;
+		@Nullable
+		private final T value;
+		private final PersistentHashMap<Entry<?>, Node<T>> children;
+
+		private Node(Entry<?> entry, @Nullable T value, PersistentHashMap<Entry<?>, Node<T>> children) {
+			this.entry = entry;
+			this.value = value;
+			this.children = children;
+		}
+
+		@Override
+		@Nullable
+		public T getValue() {
+			return this.value;
+		}
+
+		@Override
+		public Entry<?> getEntry() {
+			return this.entry;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return this.value == null && this.children.isEmpty();
+		}
+
+		@Override
+		public Collection<Entry<?>> getChildren() {
+			return this.children.keys();
+		}
+
+		@Override
+		public Collection<? extends EntryTreeNode<T>> getChildNodes() {
+			return this.children.values();
+		}
+	}
+}
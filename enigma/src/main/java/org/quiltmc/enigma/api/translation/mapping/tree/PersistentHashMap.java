@@ -0,0 +1,328 @@
+package org.quiltmc.enigma.api.translation.mapping.tree;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash array mapped trie. Updates copy only the nodes along the path to the changed key,
+ * and share everything else with the original map.
+ */
+final class PersistentHashMap<K, V> {
+	private static final int BITS = 5;
+	private static final int MASK = (1 << BITS) - 1;
+	private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+	@Nullable
+	private final Node root;
+	private final int size;
+
+	private PersistentHashMap(@Nullable Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	@SuppressWarnings("unchecked")
+	static <K, V> PersistentHashMap<K, V> empty() {
+		return (PersistentHashMap<K, V>) EMPTY;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	V get(K key) {
+		return this.root == null ? null : (V) this.root.get(0, key.hashCode(), key);
+	}
+
+	/**
+	 * {@return a map with the key set to the value, or this map if the key is already set to the same instance}
+	 */
+	PersistentHashMap<K, V> put(K key, V value) {
+		SizeChange change = new SizeChange();
+		Node root = this.root == null ? BitmapNode.EMPTY : this.root;
+		Node newRoot = root.put(0, key.hashCode(), key, value, change);
+		return newRoot == this.root ? this : new PersistentHashMap<>(newRoot, this.size + change.delta);
+	}
+
+	/**
+	 * {@return a map without the key, or this map if the key is not present}
+	 */
+	PersistentHashMap<K, V> remove(K key) {
+		if (this.root == null) {
+			return this;
+		}
+
+		SizeChange change = new SizeChange();
+		Node newRoot = this.root.remove(0, key.hashCode(), key, change);
+		if (newRoot == this.root) {
+			return this;
+		}
+
+		return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, this.size + change.delta);
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	void forEach(BiConsumer<? super K, ? super V> consumer) {
+		if (this.root != null) {
+			this.root.forEach((BiConsumer<Object, Object>) consumer);
+		}
+	}
+
+	List<K> keys() {
+		List<K> keys = new ArrayList<>(this.size);
+		this.forEach((key, value) -> keys.add(key));
+		return keys;
+	}
+
+	List<V> values() {
+		List<V> values = new ArrayList<>(this.size);
+		this.forEach((key, value) -> values.add(value));
+		return values;
+	}
+
+	private static final class SizeChange {
+		private int delta;
+	}
+
+	private abstract static class Node {
+		@Nullable
+		abstract Object get(int shift, int hash, Object key);
+
+		abstract Node put(int shift, int hash, Object key, Object value, SizeChange change);
+
+		@Nullable
+		abstract Node remove(int shift, int hash, Object key, SizeChange change);
+
+		abstract void forEach(BiConsumer<Object, Object> consumer);
+
+		static Node create(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+			int hash1 = key1.hashCode();
+			if (hash1 == hash2) {
+				return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+			}
+
+			SizeChange ignored = new SizeChange();
+			return BitmapNode.EMPTY
+					.put(shift, hash1, key1, value1, ignored)
+					.put(shift, hash2, key2, value2, ignored);
+		}
+	}
+
+	/**
+	 * A node with up to 32 slots, of which only the used ones are stored.
+	 * Each slot is a pair of either a key and its value, or {@code null} and a child node.
+	 */
+	private static final class BitmapNode extends Node {
+		private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		private final int bitmap;
+		private final Object[] slots;
+
+		BitmapNode(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+
+		private static int bit(int shift, int hash) {
+			return 1 << ((hash >>> shift) & MASK);
+		}
+
+		private int index(int bit) {
+			return 2 * Integer.bitCount(this.bitmap & (bit - 1));
+		}
+
+		@Nullable
+		@Override
+		Object get(int shift, int hash, Object key) {
+			int bit = bit(shift, hash);
+			if ((this.bitmap & bit) == 0) {
+				return null;
+			}
+
+			int index = this.index(bit);
+			Object slotKey = this.slots[index];
+			if (slotKey == null) {
+				return ((Node) this.slots[index + 1]).get(shift + BITS, hash, key);
+			}
+
+			return key.equals(slotKey) ? this.slots[index + 1] : null;
+		}
+
+		@Override
+		Node put(int shift, int hash, Object key, Object value, SizeChange change) {
+			int bit = bit(shift, hash);
+			int index = this.index(bit);
+
+			if ((this.bitmap & bit) == 0) {
+				Object[] slots = new Object[this.slots.length + 2];
+				System.arraycopy(this.slots, 0, slots, 0, index);
+				slots[index] = key;
+				slots[index + 1] = value;
+				System.arraycopy(this.slots, index, slots, index + 2, this.slots.length - index);
+				change.delta++;
+				return new BitmapNode(this.bitmap | bit, slots);
+			}
+
+			Object slotKey = this.slots[index];
+			Object slotValue = this.slots[index + 1];
+			if (slotKey == null) {
+				Node child = (Node) slotValue;
+				Node newChild = child.put(shift + BITS, hash, key, value, change);
+				return newChild == child ? this : this.withSlot(index, null, newChild);
+			} else if (key.equals(slotKey)) {
+				return slotValue == value ? this : this.withSlot(index, slotKey, value);
+			}
+
+			change.delta++;
+			return this.withSlot(index, null, create(shift + BITS, slotKey, slotValue, hash, key, value));
+		}
+
+		@Nullable
+		@Override
+		Node remove(int shift, int hash, Object key, SizeChange change) {
+			int bit = bit(shift, hash);
+			if ((this.bitmap & bit) == 0) {
+				return this;
+			}
+
+			int index = this.index(bit);
+			Object slotKey = this.slots[index];
+			if (slotKey == null) {
+				Node child = (Node) this.slots[index + 1];
+				Node newChild = child.remove(shift + BITS, hash, key, change);
+				if (newChild == child) {
+					return this;
+				} else if (newChild != null) {
+					return this.withSlot(index, null, newChild);
+				}
+			} else if (!key.equals(slotKey)) {
+				return this;
+			} else {
+				change.delta--;
+			}
+
+			if (this.bitmap == bit) {
+				return null;
+			}
+
+			Object[] slots = new Object[this.slots.length - 2];
+			System.arraycopy(this.slots, 0, slots, 0, index);
+			System.arraycopy(this.slots, index + 2, slots, index, this.slots.length - index - 2);
+			return new BitmapNode(this.bitmap & ~bit, slots);
+		}
+
+		private BitmapNode withSlot(int index, @Nullable Object key, Object value) {
+			Object[] slots = this.slots.clone();
+			slots[index] = key;
+			slots[index + 1] = value;
+			return new BitmapNode(this.bitmap, slots);
+		}
+
+		@Override
+		void forEach(BiConsumer<Object, Object> consumer) {
+			for (int i = 0; i < this.slots.length; i += 2) {
+				if (this.slots[i] == null) {
+					((Node) this.slots[i + 1]).forEach(consumer);
+				} else {
+					consumer.accept(this.slots[i], this.slots[i + 1]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A node for keys whose hashes are all the same, stored as consecutive key and value pairs.
+	 */
+	private static final class CollisionNode extends Node {
+		private final int hash;
+		private final Object[] pairs;
+
+		CollisionNode(int hash, Object[] pairs) {
+			this.hash = hash;
+			this.pairs = pairs;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < this.pairs.length; i += 2) {
+				if (key.equals(this.pairs[i])) {
+					return i;
+				}
+			}
+
+			return -1;
+		}
+
+		@Nullable
+		@Override
+		Object get(int shift, int hash, Object key) {
+			if (hash != this.hash) {
+				return null;
+			}
+
+			int index = this.indexOf(key);
+			return index < 0 ? null : this.pairs[index + 1];
+		}
+
+		@Override
+		Node put(int shift, int hash, Object key, Object value, SizeChange change) {
+			if (hash != this.hash) {
+				// nest this node under a bitmap node, where it can sit next to the new key
+				Node nested = new BitmapNode(BitmapNode.bit(shift, this.hash), new Object[] {null, this});
+				return nested.put(shift, hash, key, value, change);
+			}
+
+			int index = this.indexOf(key);
+			if (index >= 0) {
+				if (this.pairs[index + 1] == value) {
+					return this;
+				}
+
+				Object[] pairs = this.pairs.clone();
+				pairs[index + 1] = value;
+				return new CollisionNode(this.hash, pairs);
+			}
+
+			Object[] pairs = Arrays.copyOf(this.pairs, this.pairs.length + 2);
+			pairs[this.pairs.length] = key;
+			pairs[this.pairs.length + 1] = value;
+			change.delta++;
+			return new CollisionNode(this.hash, pairs);
+		}
+
+		@Nullable
+		@Override
+		Node remove(int shift, int hash, Object key, SizeChange change) {
+			int index = hash == this.hash ? this.indexOf(key) : -1;
+			if (index < 0) {
+				return this;
+			}
+
+			change.delta--;
+			if (this.pairs.length == 2) {
+				return null;
+			}
+
+			Object[] pairs = new Object[this.pairs.length - 2];
+			System.arraycopy(this.pairs, 0, pairs, 0, index);
+			System.arraycopy(this.pairs, index + 2, pairs, index, this.pairs.length - index - 2);
+			return new CollisionNode(this.hash, pairs);
+		}
+
+		@Override
+		void forEach(BiConsumer<Object, Object> consumer) {
+			for (int i = 0; i < this.pairs.length; i += 2) {
+				consumer.accept(this.pairs[i], this.pairs[i + 1]);
+			}
+		}
+	}
+}
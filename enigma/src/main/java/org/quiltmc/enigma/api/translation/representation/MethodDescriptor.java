@@ -31,13 +31,13 @@ public class MethodDescriptor implements Translatable {
 					i++;
 					break;
 				} else {
-					String type = TypeDescriptor.parseFirst(desc.substring(i));
-					this.argumentDescs.add(new ArgumentDescriptor(type, ParameterAccessFlags.DEFAULT));
-					i += type.length();
+					int end = TypeDescriptor.parseEnd(desc, i);
+					this.argumentDescs.add(new ArgumentDescriptor(desc.substring(i, end), ParameterAccessFlags.DEFAULT));
+					i = end;
 				}
 			}
 
-			this.returnDesc = new TypeDescriptor(TypeDescriptor.parseFirst(desc.substring(i)));
+			this.returnDesc = new TypeDescriptor(desc.substring(i, TypeDescriptor.parseEnd(desc, i)));
 		} catch (Exception ex) {
 			throw new IllegalArgumentException("Unable to parse method descriptor: " + desc, ex);
 		}
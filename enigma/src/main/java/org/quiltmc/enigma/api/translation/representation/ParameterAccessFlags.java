@@ -18,4 +18,8 @@ public class ParameterAccessFlags {
 	public boolean isFinal() {
 		return (this.flags & Opcodes.ACC_FINAL) != 0;
 	}
+
+	public int getFlags() {
+		return this.flags;
+	}
 }
@@ -2,6 +2,7 @@ package org.quiltmc.enigma.api.translation.representation;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
+import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.translation.Translatable;
 import org.quiltmc.enigma.api.translation.TranslateResult;
 import org.quiltmc.enigma.api.translation.Translator;
@@ -45,6 +46,11 @@ import java.util.function.UnaryOperator;
 public class TypeDescriptor implements Translatable {
 	protected final String desc;
 
+	// parsed once, since these are needed for every translation of the descriptor
+	private final int arrayDimension;
+	@Nullable
+	private final String className;
+
 	public TypeDescriptor(String desc) {
 		Preconditions.checkNotNull(desc, "Desc cannot be null");
 
@@ -55,6 +61,15 @@ public class TypeDescriptor implements Translatable {
 		}
 
 		this.desc = desc;
+		this.arrayDimension = countArrayDimension(desc);
+
+		if (desc.length() > this.arrayDimension + 1 && desc.charAt(this.arrayDimension) == 'L' && desc.charAt(desc.length() - 1) == ';') {
+			int end = desc.indexOf('<', this.arrayDimension + 1);
+			// remove the parameters from the class name
+			this.className = desc.substring(this.arrayDimension + 1, end >= 0 ? end : desc.length() - 1);
+		} else {
+			this.className = null;
+		}
 	}
 
 	public static String parseFirst(String in) {
@@ -97,6 +112,41 @@ public class TypeDescriptor implements Translatable {
 		throw new IllegalArgumentException("don't know how to parse: " + in);
 	}
 
+	/**
+	 * Finds the end of the first descriptor starting at an index, without copying the input like {@link #parseFirst(String)}.
+	 *
+	 * @return the index after the end of the descriptor
+	 */
+	static int parseEnd(String in, int start) {
+		int i = start;
+		while (i < in.length() && in.charAt(i) == '[') {
+			i++;
+		}
+
+		if (i >= in.length()) {
+			throw new IllegalArgumentException("No desc to parse, input is empty!");
+		}
+
+		char c = in.charAt(i);
+		if (c == 'V' || Primitive.get(c) != null) {
+			return i + 1;
+		} else if (c == 'L' || c == 'T') {
+			int depth = 0;
+			for (; i < in.length(); i++) {
+				c = in.charAt(i);
+				if (c == '<') {
+					depth++;
+				} else if (c == '>') {
+					depth--;
+				} else if (depth == 0 && c == ';') {
+					return i + 1;
+				}
+			}
+		}
+
+		throw new IllegalArgumentException("don't know how to parse: " + in.substring(start));
+	}
+
 	private static int countArrayDimension(String in) {
 		int i = 0;
 		while (i < in.length() && in.charAt(i) == '[') {
@@ -153,29 +203,19 @@ public class TypeDescriptor implements Translatable {
 	}
 
 	public boolean isType() {
-		return this.desc.charAt(0) == 'L' && this.desc.charAt(this.desc.length() - 1) == ';';
+		return this.arrayDimension == 0 && this.className != null;
 	}
 
 	public ClassEntry getTypeEntry() {
-		if (this.isType()) {
-			String name = this.desc.substring(1, this.desc.length() - 1);
-
-			int pos = name.indexOf('<');
-			if (pos >= 0) {
-				// remove the parameters from the class name
-				name = name.substring(0, pos);
-			}
-
-			return new ClassEntry(name);
-		} else if (this.isArray() && this.getArrayType().isType()) {
-			return this.getArrayType().getTypeEntry();
+		if (this.className != null) {
+			return new ClassEntry(this.className);
 		} else {
 			throw new IllegalStateException("desc doesn't have a class");
 		}
 	}
 
 	public boolean isArray() {
-		return this.desc.charAt(0) == '[';
+		return this.arrayDimension > 0;
 	}
 
 	public int getArrayDimension() {
@@ -183,7 +223,7 @@ public class TypeDescriptor implements Translatable {
 			throw new IllegalStateException("not an array");
 		}
 
-		return countArrayDimension(this.desc);
+		return this.arrayDimension;
 	}
 
 	public TypeDescriptor getArrayType() {
@@ -191,11 +231,11 @@ public class TypeDescriptor implements Translatable {
 			throw new IllegalStateException("not an array");
 		}
 
-		return new TypeDescriptor(this.desc.substring(this.getArrayDimension()));
+		return new TypeDescriptor(this.desc.substring(this.arrayDimension));
 	}
 
 	public boolean containsType() {
-		return this.isType() || (this.isArray() && this.getArrayType().containsType());
+		return this.className != null;
 	}
 
 	@Override
@@ -214,17 +254,18 @@ public class TypeDescriptor implements Translatable {
 
 	public TypeDescriptor remap(UnaryOperator<String> remapper) {
 		String desc = this.desc;
-		if (this.isType() || (this.isArray() && this.containsType())) {
-			String replacedName = remapper.apply(this.getTypeEntry().getFullName());
-			if (replacedName != null) {
-				if (this.isType()) {
-					desc = "L" + replacedName + ";";
-				} else {
-					desc = getArrayPrefix(this.getArrayDimension()) + "L" + replacedName + ";";
-				}
+		if (this.className != null) {
+			String replacedName = remapper.apply(this.className);
+			if (replacedName != null && !replacedName.equals(this.className)) {
+				desc = getArrayPrefix(this.arrayDimension) + "L" + replacedName + ";";
 			}
 		}
 
+		// plain descriptors are immutable, so unchanged ones can be shared
+		if (desc == this.desc && this.getClass() == TypeDescriptor.class) {
+			return this;
+		}
+
 		return new TypeDescriptor(desc);
 	}
 
@@ -45,4 +45,10 @@ public class ClassLoaderClassProvider implements ClassProvider {
 	public Collection<String> getClassNames() {
 		return List.of("java/lang/Object", "java/lang/Record");
 	}
+
+	@Override
+	public String getFingerprint() {
+		// the named classes come from the running JDK
+		return "jdk " + Runtime.version();
+	}
 }
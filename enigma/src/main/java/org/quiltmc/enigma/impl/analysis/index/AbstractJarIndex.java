@@ -16,6 +16,8 @@ import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
 import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
 import org.quiltmc.enigma.api.class_provider.ClassProvider;
 import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.metrics.Metrics;
+import org.quiltmc.enigma.api.metrics.Timer;
 import org.quiltmc.enigma.api.translation.mapping.EntryResolver;
 import org.quiltmc.enigma.api.translation.mapping.IndexEntryResolver;
 import org.quiltmc.enigma.api.translation.representation.Lambda;
@@ -126,6 +128,59 @@ public abstract class AbstractJarIndex implements JarIndex {
 	 * @param progress a progress listener to track index completion
 	 */
 	protected void indexJar(Collection<String> classNames, ClassProvider classProvider, ProgressListener progress) {
+		this.indexJar(classNames, classProvider, progress, this);
+	}
+
+	/**
+	 * Runs every configured indexer over the provided jar, recording everything they were told so that
+	 * the same data can later be {@linkplain #indexJar(ProgressListener, IndexLog...) replayed} into another index.
+	 *
+	 * @param classProvider a class provider containing all classes in the jar
+	 * @param progress a progress listener to track index completion
+	 * @return the recorded log
+	 */
+	public IndexLog indexJarRecording(ProjectClassProvider classProvider, ProgressListener progress) {
+		Collection<String> classNames = this.getIndexableClassNames(classProvider);
+		IndexLog.Recorder recorder = new IndexLog.Recorder(this, classNames);
+		this.indexJar(classNames, classProvider, progress, recorder);
+
+		return recorder.build();
+	}
+
+	/**
+	 * Runs every configured indexer over previously recorded logs, without reading any bytecode.
+	 * All declarations are replayed before any references, as when indexing a jar.
+	 *
+	 * @param progress a progress listener to track index completion
+	 * @param logs the logs to replay
+	 */
+	public void indexJar(ProgressListener progress, IndexLog... logs) {
+		this.progress = progress;
+
+		for (IndexLog log : logs) {
+			this.indexedClasses.addAll(log.getClassNames());
+		}
+
+		this.progress.init(4, I18n.translate("progress.jar.indexing"));
+
+		this.progress.step(1, I18n.translate("progress.jar.indexing.entries"));
+		try (Timer.Sample ignored = this.startPass("replay_entries")) {
+			for (IndexLog log : logs) {
+				log.replayDeclarations(this);
+			}
+		}
+
+		this.progress.step(2, I18n.translate("progress.jar.indexing.references"));
+		try (Timer.Sample ignored = this.startPass("replay_references")) {
+			for (IndexLog log : logs) {
+				log.replayReferences(this);
+			}
+		}
+
+		this.finishIndexing();
+	}
+
+	private void indexJar(Collection<String> classNames, ClassProvider classProvider, ProgressListener progress, JarIndexer target) {
 		// for use in processIndex
 		this.progress = progress;
 
@@ -134,28 +189,54 @@ public abstract class AbstractJarIndex implements JarIndex {
 
 		this.progress.step(1, I18n.translate("progress.jar.indexing.entries"));
 
-		for (String className : classNames) {
-			Objects.requireNonNull(classProvider.get(className)).accept(new IndexClassVisitor(this, Enigma.ASM_VERSION));
+		try (Timer.Sample ignored = this.startPass("entries")) {
+			for (String className : classNames) {
+				Objects.requireNonNull(classProvider.get(className)).accept(new IndexClassVisitor(target, Enigma.ASM_VERSION));
+			}
 		}
 
 		this.progress.step(2, I18n.translate("progress.jar.indexing.references"));
 
-		for (String className : classNames) {
-			try {
-				Objects.requireNonNull(classProvider.get(className)).accept(new IndexReferenceVisitor(this, this.getIndex(EntryIndex.class), this.getIndex(InheritanceIndex.class), Enigma.ASM_VERSION));
-			} catch (Exception e) {
-				throw new RuntimeException("Exception while indexing class: " + className, e);
+		try (Timer.Sample ignored = this.startPass("references")) {
+			for (String className : classNames) {
+				try {
+					Objects.requireNonNull(classProvider.get(className)).accept(new IndexReferenceVisitor(target, this.getIndex(EntryIndex.class), this.getIndex(InheritanceIndex.class), Enigma.ASM_VERSION));
+				} catch (Exception e) {
+					throw new RuntimeException("Exception while indexing class: " + className, e);
+				}
 			}
 		}
 
+		this.finishIndexing();
+	}
+
+	private void finishIndexing() {
 		this.progress.step(3, I18n.translate("progress.jar.indexing.methods"));
-		this.getIndex(BridgeMethodIndex.class).findBridgeMethods();
+		try (Timer.Sample ignored = this.startPass("bridge_methods")) {
+			this.getIndex(BridgeMethodIndex.class).findBridgeMethods();
+		}
 
-		this.processIndex(this);
+		try (Timer.Sample ignored = this.startPass("process")) {
+			this.processIndex(this);
+		}
 
+		Metrics.histogram(this.getPassName("classes")).record(this.indexedClasses.size());
 		this.progress = null;
 	}
 
+	/**
+	 * Starts timing a pass over this index, as {@code jar_index.<index>.<pass>} where the index is {@code jar},
+	 * {@code libraries} or {@code combined}.
+	 */
+	private Timer.Sample startPass(String pass) {
+		return Metrics.timer(this.getPassName(pass)).start();
+	}
+
+	private String getPassName(String pass) {
+		String key = this.getTranslationKey();
+		return "jar_index." + key.substring(key.lastIndexOf('.') + 1) + "." + pass;
+	}
+
 	@Override
 	public void processIndex(JarIndex index) {
 		this.stepProcessingProgress("progress.jar.indexing.process.jar");
@@ -0,0 +1,446 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import org.jspecify.annotations.Nullable;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndexer;
+import org.quiltmc.enigma.api.translation.representation.AccessFlags;
+import org.quiltmc.enigma.api.translation.representation.ArgumentDescriptor;
+import org.quiltmc.enigma.api.translation.representation.Lambda;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.Signature;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ParentedEntry;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, immutable record of what an index was told while visiting classes: the declarations found by
+ * {@link IndexClassVisitor} and the references found by {@link IndexReferenceVisitor}. Replaying a log into
+ * another index gives it the same data as visiting the classes would, without reading or analysing any bytecode.
+ *
+ * <p>Entries are stored as the strings they were parsed from, deduplicated into a string table and referenced by
+ * variable-length ids, so that logs are small enough to keep in memory and to cache on disk.
+ */
+public final class IndexLog {
+	private static final int MAGIC = 0x454E4958;
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int CLASS = 1;
+	private static final int FIELD = 2;
+	private static final int METHOD = 3;
+	private static final int ENCLOSING_METHOD = 4;
+	private static final int CALLER = 5;
+	private static final int CLASS_REFERENCE = 6;
+	private static final int METHOD_REFERENCE = 7;
+	private static final int FIELD_REFERENCE = 8;
+	private static final int LAMBDA = 9;
+
+	private static final ReferenceTargetType.Kind[] TARGET_KINDS = ReferenceTargetType.Kind.values();
+
+	private final List<String> classNames;
+	private final String[] strings;
+	private final byte[] declarations;
+	private final byte[] references;
+
+	private IndexLog(List<String> classNames, String[] strings, byte[] declarations, byte[] references) {
+		this.classNames = classNames;
+		this.strings = strings;
+		this.declarations = declarations;
+		this.references = references;
+	}
+
+	/**
+	 * {@return the names of the classes that were indexed}
+	 */
+	public List<String> getClassNames() {
+		return this.classNames;
+	}
+
+	/**
+	 * Replays the declarations of classes, fields and methods, in the order they were indexed.
+	 */
+	public void replayDeclarations(JarIndexer indexer) {
+		Reader reader = new Reader(this.declarations);
+		ClassDefEntry currentClass = null;
+
+		while (reader.hasNext()) {
+			int event = reader.readInt();
+			switch (event) {
+				case CLASS -> {
+					int access = reader.readInt();
+					String name = reader.readString();
+					String signature = reader.readString();
+					String superName = reader.readString();
+					String[] interfaces = new String[reader.readInt()];
+					for (int i = 0; i < interfaces.length; i++) {
+						interfaces[i] = reader.readString();
+					}
+
+					currentClass = ClassDefEntry.parse(access, name, signature, superName, interfaces);
+					indexer.indexClass(currentClass);
+				}
+				case FIELD -> indexer.indexField(FieldDefEntry.parse(currentClass, reader.readInt(), reader.readString(), reader.readString(), reader.readString()));
+				case METHOD -> {
+					MethodDefEntry method = MethodDefEntry.parse(currentClass, reader.readInt(), reader.readString(), reader.readString(), reader.readString());
+					int parameters = reader.readInt();
+					for (int i = 0; i < parameters; i++) {
+						method.getDesc().getArgumentDescs().get(i).setAccess(new ParameterAccessFlags(reader.readInt()));
+					}
+
+					indexer.indexMethod(method);
+				}
+				case ENCLOSING_METHOD -> indexer.indexEnclosingMethod(currentClass, new JarIndexer.EnclosingMethodData(reader.readString(), reader.readString(), reader.readString()));
+				default -> throw new IllegalStateException("Unknown declaration event " + event);
+			}
+		}
+	}
+
+	/**
+	 * Replays the references made by methods, in the order they were indexed.
+	 */
+	public void replayReferences(JarIndexer indexer) {
+		Reader reader = new Reader(this.references);
+		MethodDefEntry caller = null;
+
+		while (reader.hasNext()) {
+			int event = reader.readInt();
+			switch (event) {
+				case CALLER -> {
+					ClassEntry owner = new ClassEntry(reader.readString());
+					int access = reader.readInt();
+					caller = new MethodDefEntry(owner, reader.readString(), new MethodDescriptor(reader.readString()), Signature.createSignature(reader.readString()), new AccessFlags(access));
+				}
+				case CLASS_REFERENCE -> indexer.indexClassReference(caller, new ClassEntry(reader.readString()), reader.readTargetType());
+				case METHOD_REFERENCE -> indexer.indexMethodReference(caller, MethodEntry.parse(reader.readString(), reader.readString(), reader.readString()), reader.readTargetType());
+				case FIELD_REFERENCE -> indexer.indexFieldReference(caller, FieldEntry.parse(reader.readString(), reader.readString(), reader.readString()), reader.readTargetType());
+				case LAMBDA -> {
+					String invokedName = reader.readString();
+					MethodDescriptor invokedType = new MethodDescriptor(reader.readString());
+					MethodDescriptor samMethodType = new MethodDescriptor(reader.readString());
+					boolean isField = reader.readInt() == 0;
+					ParentedEntry<?> implMethod = isField
+							? FieldEntry.parse(reader.readString(), reader.readString(), reader.readString())
+							: MethodEntry.parse(reader.readString(), reader.readString(), reader.readString());
+					MethodDescriptor instantiatedMethodType = new MethodDescriptor(reader.readString());
+
+					indexer.indexLambda(caller, new Lambda(invokedName, invokedType, samMethodType, implMethod, instantiatedMethodType), reader.readTargetType());
+				}
+				default -> throw new IllegalStateException("Unknown reference event " + event);
+			}
+		}
+	}
+
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeInt(FORMAT_VERSION);
+
+		data.writeInt(this.strings.length);
+		for (String string : this.strings) {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			data.writeInt(bytes.length);
+			data.write(bytes);
+		}
+
+		Map<String, Integer> ids = new HashMap<>();
+		for (int i = 0; i < this.strings.length; i++) {
+			ids.put(this.strings[i], i + 1);
+		}
+
+		data.writeInt(this.classNames.size());
+		for (String className : this.classNames) {
+			data.writeInt(ids.get(className));
+		}
+
+		data.writeInt(this.declarations.length);
+		data.write(this.declarations);
+		data.writeInt(this.references.length);
+		data.write(this.references);
+		data.flush();
+	}
+
+	/**
+	 * Reads a log written by {@link #write(OutputStream)}.
+	 *
+	 * @throws IOException if the log can't be read, or was written by an incompatible version
+	 */
+	public static IndexLog read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Not an index log");
+		}
+
+		int version = data.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported index log version " + version);
+		}
+
+		String[] strings = new String[data.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = new String(data.readNBytes(data.readInt()), StandardCharsets.UTF_8);
+		}
+
+		String[] classNames = new String[data.readInt()];
+		for (int i = 0; i < classNames.length; i++) {
+			classNames[i] = strings[data.readInt() - 1];
+		}
+
+		byte[] declarations = data.readNBytes(data.readInt());
+		byte[] references = data.readNBytes(data.readInt());
+		return new IndexLog(List.of(classNames), strings, declarations, references);
+	}
+
+	/**
+	 * Records what a jar index is told while forwarding it to the index.
+	 */
+	static final class Recorder implements JarIndexer {
+		private final JarIndexer delegate;
+		private final List<String> classNames;
+
+		private final Map<String, Integer> stringIds = new HashMap<>();
+		private final List<String> strings = new ArrayList<>();
+		private final Buffer declarations = new Buffer();
+		private final Buffer references = new Buffer();
+
+		private @Nullable MethodDefEntry caller;
+
+		Recorder(JarIndexer delegate, Collection<String> classNames) {
+			this.delegate = delegate;
+			this.classNames = List.copyOf(classNames);
+			classNames.forEach(this::id);
+		}
+
+		IndexLog build() {
+			return new IndexLog(this.classNames, this.strings.toArray(String[]::new), this.declarations.toByteArray(), this.references.toByteArray());
+		}
+
+		private int id(@Nullable String string) {
+			if (string == null) {
+				return 0;
+			}
+
+			return this.stringIds.computeIfAbsent(string, s -> {
+				this.strings.add(s);
+				return this.strings.size();
+			});
+		}
+
+		private void writeStrings(Buffer buffer, @Nullable String... strings) {
+			for (String string : strings) {
+				buffer.writeInt(this.id(string));
+			}
+		}
+
+		private void writeTargetType(ReferenceTargetType targetType) {
+			this.references.writeInt(targetType.getKind().ordinal());
+			if (targetType instanceof ReferenceTargetType.ClassType classType) {
+				this.writeStrings(this.references, classType.getEntry().getFullName());
+			}
+		}
+
+		private void writeCaller(MethodDefEntry caller) {
+			// references are indexed method by method, so the caller only needs to be written when it changes
+			if (caller != this.caller) {
+				this.caller = caller;
+				this.references.writeInt(CALLER);
+				this.writeStrings(this.references, caller.getParent().getFullName());
+				this.references.writeInt(caller.getAccess().getFlags());
+				this.writeStrings(this.references, caller.getName(), caller.getDesc().toString(), caller.getSignature().getSignature());
+			}
+		}
+
+		@Override
+		public void indexClass(ClassDefEntry classEntry) {
+			this.declarations.writeInt(CLASS);
+			this.declarations.writeInt(classEntry.getAccess().getFlags());
+			ClassEntry superClass = classEntry.getSuperClass();
+			this.writeStrings(this.declarations, classEntry.getFullName(), classEntry.getSignature().getSignature(), superClass != null ? superClass.getFullName() : null);
+			this.declarations.writeInt(classEntry.getInterfaces().length);
+			for (ClassEntry interfaceEntry : classEntry.getInterfaces()) {
+				this.writeStrings(this.declarations, interfaceEntry.getFullName());
+			}
+
+			this.delegate.indexClass(classEntry);
+		}
+
+		@Override
+		public void indexField(FieldDefEntry fieldEntry) {
+			this.declarations.writeInt(FIELD);
+			this.declarations.writeInt(fieldEntry.getAccess().getFlags());
+			this.writeStrings(this.declarations, fieldEntry.getName(), fieldEntry.getDesc().toString(), fieldEntry.getSignature().getSignature());
+
+			this.delegate.indexField(fieldEntry);
+		}
+
+		@Override
+		public void indexMethod(MethodDefEntry methodEntry) {
+			this.declarations.writeInt(METHOD);
+			this.declarations.writeInt(methodEntry.getAccess().getFlags());
+			this.writeStrings(this.declarations, methodEntry.getName(), methodEntry.getDesc().toString(), methodEntry.getSignature().getSignature());
+
+			// parameter access is only written for methods which have any
+			List<ArgumentDescriptor> arguments = methodEntry.getDesc().getArgumentDescs();
+			if (arguments.stream().allMatch(argument -> argument.getAccess().getFlags() == 0)) {
+				this.declarations.writeInt(0);
+			} else {
+				this.declarations.writeInt(arguments.size());
+				arguments.forEach(argument -> this.declarations.writeInt(argument.getAccess().getFlags()));
+			}
+
+			this.delegate.indexMethod(methodEntry);
+		}
+
+		@Override
+		public void indexEnclosingMethod(ClassDefEntry classEntry, EnclosingMethodData enclosingMethodData) {
+			this.declarations.writeInt(ENCLOSING_METHOD);
+			this.writeStrings(this.declarations, enclosingMethodData.owner(), enclosingMethodData.name(), enclosingMethodData.descriptor());
+
+			this.delegate.indexEnclosingMethod(classEntry, enclosingMethodData);
+		}
+
+		@Override
+		public void indexClassReference(MethodDefEntry callerEntry, ClassEntry referencedEntry, ReferenceTargetType targetType) {
+			this.writeCaller(callerEntry);
+			this.references.writeInt(CLASS_REFERENCE);
+			this.writeStrings(this.references, referencedEntry.getFullName());
+			this.writeTargetType(targetType);
+
+			this.delegate.indexClassReference(callerEntry, referencedEntry, targetType);
+		}
+
+		@Override
+		public void indexMethodReference(MethodDefEntry callerEntry, MethodEntry referencedEntry, ReferenceTargetType targetType) {
+			this.writeCaller(callerEntry);
+			this.references.writeInt(METHOD_REFERENCE);
+			this.writeStrings(this.references, referencedEntry.getParent().getFullName(), referencedEntry.getName(), referencedEntry.getDesc().toString());
+			this.writeTargetType(targetType);
+
+			this.delegate.indexMethodReference(callerEntry, referencedEntry, targetType);
+		}
+
+		@Override
+		public void indexFieldReference(MethodDefEntry callerEntry, FieldEntry referencedEntry, ReferenceTargetType targetType) {
+			this.writeCaller(callerEntry);
+			this.references.writeInt(FIELD_REFERENCE);
+			this.writeStrings(this.references, referencedEntry.getParent().getFullName(), referencedEntry.getName(), referencedEntry.getDesc().toString());
+			this.writeTargetType(targetType);
+
+			this.delegate.indexFieldReference(callerEntry, referencedEntry, targetType);
+		}
+
+		@Override
+		public void indexLambda(MethodDefEntry callerEntry, Lambda lambda, ReferenceTargetType targetType) {
+			this.writeCaller(callerEntry);
+			this.references.writeInt(LAMBDA);
+			this.writeStrings(this.references, lambda.invokedName(), lambda.invokedType().toString(), lambda.samMethodType().toString());
+
+			ParentedEntry<?> implMethod = lambda.implMethod();
+			if (implMethod instanceof FieldEntry field) {
+				this.references.writeInt(0);
+				this.writeStrings(this.references, field.getParent().getFullName(), field.getName(), field.getDesc().toString());
+			} else {
+				MethodEntry method = (MethodEntry) implMethod;
+				this.references.writeInt(1);
+				this.writeStrings(this.references, method.getParent().getFullName(), method.getName(), method.getDesc().toString());
+			}
+
+			this.writeStrings(this.references, lambda.instantiatedMethodType().toString());
+			this.writeTargetType(targetType);
+
+			this.delegate.indexLambda(callerEntry, lambda, targetType);
+		}
+
+		@Override
+		public void processIndex(JarIndex index) {
+			this.delegate.processIndex(index);
+		}
+
+		@Override
+		public String getTranslationKey() {
+			return this.delegate.getTranslationKey();
+		}
+	}
+
+	/**
+	 * A growable byte array of unsigned variable-length ints.
+	 */
+	private static final class Buffer {
+		private byte[] bytes = new byte[1024];
+		private int size;
+
+		void writeInt(int value) {
+			if (this.size + 5 > this.bytes.length) {
+				this.bytes = Arrays.copyOf(this.bytes, this.bytes.length * 2);
+			}
+
+			while ((value & ~0x7F) != 0) {
+				this.bytes[this.size++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+
+			this.bytes[this.size++] = (byte) value;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(this.bytes, this.size);
+		}
+	}
+
+	private final class Reader {
+		private final byte[] bytes;
+		private int position;
+
+		Reader(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		boolean hasNext() {
+			return this.position < this.bytes.length;
+		}
+
+		int readInt() {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = this.bytes[this.position++];
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+
+			return value;
+		}
+
+		@Nullable
+		String readString() {
+			int id = this.readInt();
+			return id == 0 ? null : IndexLog.this.strings[id - 1];
+		}
+
+		ReferenceTargetType readTargetType() {
+			return switch (TARGET_KINDS[this.readInt()]) {
+				case NONE -> ReferenceTargetType.none();
+				case UNINITIALIZED -> ReferenceTargetType.uninitialized();
+				case CLASS_TYPE -> ReferenceTargetType.classType(new ClassEntry(this.readString()));
+			};
+		}
+	}
+}
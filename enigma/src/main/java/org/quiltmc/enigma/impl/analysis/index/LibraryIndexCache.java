@@ -0,0 +1,142 @@
+package org.quiltmc.enigma.impl.analysis.index;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.jspecify.annotations.Nullable;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.LibrariesJarIndex;
+import org.quiltmc.enigma.api.class_provider.ClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Shares library indexes between projects whose libraries have the same {@linkplain ClassProvider#getFingerprint()
+ * fingerprint}. Indexes are kept in memory for as long as the JVM can spare them, and, if a directory is given,
+ * their {@link IndexLog logs} are written to disk so that later processes can replay them instead of reading
+ * the libraries again.
+ */
+public final class LibraryIndexCache {
+	private static final Cache<String, CachedIndex> INDEXES = CacheBuilder.newBuilder()
+			.softValues()
+			.build();
+
+	private final @Nullable Path directory;
+
+	/**
+	 * @param directory the directory to store index logs in, or {@code null} to only share indexes in memory
+	 */
+	public LibraryIndexCache(@Nullable Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the index of the libraries of the provided project, indexing them if no cached index is available.
+	 * The returned index is shared and must not be modified.
+	 *
+	 * @param classProvider the project's class provider
+	 * @param librariesProvider the provider of the project's libraries
+	 * @param progress a progress listener to track index completion
+	 * @return the index, and the log it can be replayed from
+	 */
+	public CachedIndex get(ProjectClassProvider classProvider, ClassProvider librariesProvider, ProgressListener progress) {
+		String fingerprint = librariesProvider.getFingerprint();
+		if (fingerprint == null) {
+			return index(classProvider, progress);
+		}
+
+		String key = Hashing.sha256().hashString(Enigma.VERSION + "\n" + fingerprint, StandardCharsets.UTF_8).toString();
+
+		try {
+			return INDEXES.get(key, () -> this.load(key, classProvider, progress));
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	private CachedIndex load(String key, ProjectClassProvider classProvider, ProgressListener progress) {
+		if (this.directory == null) {
+			return index(classProvider, progress);
+		}
+
+		Path path = this.directory.resolve(key + ".idx");
+		if (Files.exists(path)) {
+			try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+				IndexLog log = IndexLog.read(in);
+				LibrariesJarIndex index = LibrariesJarIndex.empty();
+				index.indexJar(progress, log);
+
+				return new CachedIndex(index, log);
+			} catch (IOException | RuntimeException e) {
+				Logger.warn(e, "Failed to read cached library index {}, indexing libraries again", path);
+			}
+		}
+
+		CachedIndex index = index(classProvider, progress);
+
+		Path temp = null;
+		try {
+			Files.createDirectories(this.directory);
+			temp = Files.createTempFile(this.directory, key, ".tmp");
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+				index.log().write(out);
+			}
+
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Logger.warn(e, "Failed to write cached library index {}", path);
+		} finally {
+			deleteTemp(temp);
+		}
+
+		return index;
+	}
+
+	private static void deleteTemp(@Nullable Path temp) {
+		// only left behind if writing or moving it failed
+		if (temp != null) {
+			try {
+				Files.deleteIfExists(temp);
+			} catch (IOException e) {
+				Logger.warn(e, "Failed to delete {}", temp);
+			}
+		}
+	}
+
+	/**
+	 * Forgets the indexes shared in memory, so that the next lookup of each index reads it from disk or indexes it again.
+	 */
+	@VisibleForTesting
+	public static void clearMemoryCache() {
+		INDEXES.invalidateAll();
+	}
+
+	/**
+	 * Indexes the libraries of the provided project without consulting any cache.
+	 *
+	 * @param classProvider the project's class provider
+	 * @param progress a progress listener to track index completion
+	 * @return the index, and the log it can be replayed from
+	 */
+	public static CachedIndex index(ProjectClassProvider classProvider, ProgressListener progress) {
+		LibrariesJarIndex index = LibrariesJarIndex.empty();
+		IndexLog log = index.indexJarRecording(classProvider, progress);
+
+		return new CachedIndex(index, log);
+	}
+
+	public record CachedIndex(LibrariesJarIndex index, IndexLog log) { }
+}
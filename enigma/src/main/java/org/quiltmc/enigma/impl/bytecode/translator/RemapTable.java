@@ -0,0 +1,146 @@
+package org.quiltmc.enigma.impl.bytecode.translator;
+
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Flat tables of translated class names, descriptors and member references, keyed by their bytecode strings.
+ * Instructions only need a map lookup to be remapped, instead of building entries and translating them through
+ * the mapping tree every time they appear.
+ *
+ * <p>References that are not in the tables, such as members referenced through a subclass or library members,
+ * are translated with the translator on first use and added to the tables. The tables are safe to share between threads.
+ */
+public final class RemapTable {
+	private final Translator translator;
+
+	private final Map<String, String> classes = new ConcurrentHashMap<>();
+	private final Map<String, String> descriptors = new ConcurrentHashMap<>();
+	private final Map<Member, Member> fields = new ConcurrentHashMap<>();
+	private final Map<Member, Member> methods = new ConcurrentHashMap<>();
+
+	private RemapTable(Translator translator) {
+		this.translator = translator;
+	}
+
+	/**
+	 * Creates a table which is filled as references are remapped.
+	 */
+	public static RemapTable of(Translator translator) {
+		return new RemapTable(translator);
+	}
+
+	/**
+	 * Creates a table with every class, field and method of the index already translated.
+	 */
+	public static RemapTable build(Translator translator, EntryIndex index) {
+		RemapTable table = new RemapTable(translator);
+		index.getClasses().parallelStream().forEach(entry -> table.mapClass(entry.getFullName()));
+		index.getFields().parallelStream().forEach(entry -> table.mapField(entry.getParent().getFullName(), entry.getName(), entry.getDesc().toString()));
+		index.getMethods().parallelStream().forEach(entry -> table.mapMethod(entry.getParent().getFullName(), entry.getName(), entry.getDesc().toString()));
+		return table;
+	}
+
+	public Translator getTranslator() {
+		return this.translator;
+	}
+
+	/**
+	 * {@return the translated internal name of a class, or the translated descriptor of an array type}
+	 */
+	public String mapClass(String name) {
+		String mapped = this.classes.get(name);
+		if (mapped == null) {
+			mapped = name.charAt(0) == '[' ? this.mapDesc(name) : this.translator.translate(new ClassEntry(name)).getFullName();
+			this.classes.putIfAbsent(name, mapped);
+		}
+
+		return mapped;
+	}
+
+	public String mapDesc(String desc) {
+		String mapped = this.descriptors.get(desc);
+		if (mapped == null) {
+			mapped = new TypeDescriptor(desc).remap(this::mapClass).toString();
+			this.descriptors.putIfAbsent(desc, mapped);
+		}
+
+		return mapped;
+	}
+
+	public String mapMethodDesc(String desc) {
+		String mapped = this.descriptors.get(desc);
+		if (mapped == null) {
+			mapped = new MethodDescriptor(desc).remap(this::mapClass).toString();
+			this.descriptors.putIfAbsent(desc, mapped);
+		}
+
+		return mapped;
+	}
+
+	public Member mapField(String owner, String name, String desc) {
+		Member key = new Member(owner, name, desc);
+		Member mapped = this.fields.get(key);
+		if (mapped == null) {
+			FieldEntry translated = this.translator.translate(new FieldEntry(new ClassEntry(owner), name, new TypeDescriptor(desc)));
+			mapped = new Member(translated.getParent().getFullName(), translated.getName(), translated.getDesc().toString());
+			this.fields.putIfAbsent(key, mapped);
+		}
+
+		return mapped;
+	}
+
+	public Member mapMethod(String owner, String name, String desc) {
+		Member key = new Member(owner, name, desc);
+		Member mapped = this.methods.get(key);
+		if (mapped == null) {
+			MethodEntry translated = this.translator.translate(new MethodEntry(new ClassEntry(owner), name, new MethodDescriptor(desc)));
+			mapped = new Member(translated.getParent().getFullName(), translated.getName(), translated.getDesc().toString());
+			this.methods.putIfAbsent(key, mapped);
+		}
+
+		return mapped;
+	}
+
+	/**
+	 * Remaps a constant like {@link AsmObjectTranslator#translateValue(Translator, Object)} does.
+	 */
+	public Object mapValue(Object value) {
+		if (value instanceof Type type) {
+			return switch (type.getSort()) {
+				case Type.OBJECT -> Type.getObjectType(this.mapClass(type.getInternalName()));
+				case Type.ARRAY -> Type.getType(this.mapDesc(type.getDescriptor()));
+				case Type.METHOD -> Type.getMethodType(this.mapMethodDesc(type.getDescriptor()));
+				default -> type;
+			};
+		} else if (value instanceof Handle handle) {
+			return this.mapHandle(handle);
+		}
+
+		return value;
+	}
+
+	public Handle mapHandle(Handle handle) {
+		boolean isFieldHandle = handle.getTag() <= Opcodes.H_PUTSTATIC;
+		Member mapped = isFieldHandle
+				? this.mapField(handle.getOwner(), handle.getName(), handle.getDesc())
+				: this.mapMethod(handle.getOwner(), handle.getName(), handle.getDesc());
+		return new Handle(handle.getTag(), mapped.owner(), mapped.name(), mapped.desc(), handle.isInterface());
+	}
+
+	/**
+	 * A field or method reference as it appears in bytecode.
+	 */
+	public record Member(String owner, String name, String desc) { }
+}
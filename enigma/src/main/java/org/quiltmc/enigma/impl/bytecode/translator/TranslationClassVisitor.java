@@ -18,13 +18,23 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 import java.util.Arrays;
 
 public class TranslationClassVisitor extends ClassVisitor {
+	private final RemapTable remapTable;
 	private final Translator translator;
 
 	private ClassDefEntry obfClassEntry;
 
 	public TranslationClassVisitor(Translator translator, int api, ClassVisitor cv) {
+		this(RemapTable.of(translator), api, cv);
+	}
+
+	/**
+	 * Creates a visitor which remaps references in method bodies using the given table.
+	 * Sharing a table between classes saves translating the same references again for every class.
+	 */
+	public TranslationClassVisitor(RemapTable remapTable, int api, ClassVisitor cv) {
 		super(api, cv);
-		this.translator = translator;
+		this.remapTable = remapTable;
+		this.translator = remapTable.getTranslator();
 	}
 
 	@Override
@@ -52,11 +62,11 @@ public class TranslationClassVisitor extends ClassVisitor {
 		MethodDefEntry translatedEntry = this.translator.translate(entry);
 		String[] translatedExceptions = new String[exceptions.length];
 		for (int i = 0; i < exceptions.length; i++) {
-			translatedExceptions[i] = this.translator.translate(new ClassEntry(exceptions[i])).getFullName();
+			translatedExceptions[i] = this.remapTable.mapClass(exceptions[i]);
 		}
 
 		MethodVisitor mv = super.visitMethod(translatedEntry.getAccess().getFlags(), translatedEntry.getName(), translatedEntry.getDesc().toString(), translatedEntry.getSignature().toString(), translatedExceptions);
-		return new TranslationMethodVisitor(this.translator, this.obfClassEntry, entry, this.api, mv);
+		return new TranslationMethodVisitor(this.remapTable, this.obfClassEntry, entry, this.api, mv);
 	}
 
 	@Override
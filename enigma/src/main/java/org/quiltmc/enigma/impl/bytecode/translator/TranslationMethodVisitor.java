@@ -6,26 +6,28 @@ import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.TypePath;
 import org.quiltmc.enigma.api.translation.Translator;
-import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
 import org.quiltmc.enigma.api.translation.representation.Signature;
 import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
-import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 public class TranslationMethodVisitor extends MethodVisitor {
 	private final MethodDefEntry methodEntry;
+	private final RemapTable remapTable;
 	private final Translator translator;
 
 	private int parameterIndex = 0;
 	private int parameterLvIndex;
 
 	public TranslationMethodVisitor(Translator translator, ClassDefEntry ownerEntry, MethodDefEntry methodEntry, int api, MethodVisitor mv) {
+		this(RemapTable.of(translator), ownerEntry, methodEntry, api, mv);
+	}
+
+	public TranslationMethodVisitor(RemapTable remapTable, ClassDefEntry ownerEntry, MethodDefEntry methodEntry, int api, MethodVisitor mv) {
 		super(api, mv);
-		this.translator = translator;
+		this.remapTable = remapTable;
+		this.translator = remapTable.getTranslator();
 		this.methodEntry = methodEntry;
 
 		this.parameterLvIndex = methodEntry.getAccess().isStatic() ? 0 : 1;
@@ -41,16 +43,14 @@ public class TranslationMethodVisitor extends MethodVisitor {
 
 	@Override
 	public void visitFieldInsn(int opcode, String owner, String name, String desc) {
-		FieldEntry entry = new FieldEntry(new ClassEntry(owner), name, new TypeDescriptor(desc));
-		FieldEntry translatedEntry = this.translator.translate(entry);
-		super.visitFieldInsn(opcode, translatedEntry.getParent().getFullName(), translatedEntry.getName(), translatedEntry.getDesc().toString());
+		RemapTable.Member translated = this.remapTable.mapField(owner, name, desc);
+		super.visitFieldInsn(opcode, translated.owner(), translated.name(), translated.desc());
 	}
 
 	@Override
 	public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
-		MethodEntry entry = new MethodEntry(new ClassEntry(owner), name, new MethodDescriptor(desc));
-		MethodEntry translatedEntry = this.translator.translate(entry);
-		super.visitMethodInsn(opcode, translatedEntry.getParent().getFullName(), translatedEntry.getName(), translatedEntry.getDesc().toString(), itf);
+		RemapTable.Member translated = this.remapTable.mapMethod(owner, name, desc);
+		super.visitMethodInsn(opcode, translated.owner(), translated.name(), translated.desc(), itf);
 	}
 
 	@Override
@@ -68,7 +68,7 @@ public class TranslationMethodVisitor extends MethodVisitor {
 		for (int i = 0; i < count; i++) {
 			Object object = array[i];
 			if (object instanceof String type) {
-				array[i] = this.translator.translate(new ClassEntry(type)).getFullName();
+				array[i] = this.remapTable.mapClass(type);
 			}
 		}
 
@@ -98,36 +98,33 @@ public class TranslationMethodVisitor extends MethodVisitor {
 
 	@Override
 	public void visitTypeInsn(int opcode, String type) {
-		ClassEntry translatedEntry = this.translator.translate(new ClassEntry(type));
-		super.visitTypeInsn(opcode, translatedEntry.getFullName());
+		super.visitTypeInsn(opcode, this.remapTable.mapClass(type));
 	}
 
 	@Override
 	public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
-		MethodDescriptor translatedMethodDesc = this.translator.translate(new MethodDescriptor(desc));
 		Object[] translatedBsmArgs = new Object[bsmArgs.length];
 		for (int i = 0; i < bsmArgs.length; i++) {
-			translatedBsmArgs[i] = AsmObjectTranslator.translateValue(this.translator, bsmArgs[i]);
+			translatedBsmArgs[i] = this.remapTable.mapValue(bsmArgs[i]);
 		}
 
-		super.visitInvokeDynamicInsn(name, translatedMethodDesc.toString(), AsmObjectTranslator.translateHandle(this.translator, bsm), translatedBsmArgs);
+		super.visitInvokeDynamicInsn(name, this.remapTable.mapMethodDesc(desc), this.remapTable.mapHandle(bsm), translatedBsmArgs);
 	}
 
 	@Override
 	public void visitLdcInsn(Object cst) {
-		super.visitLdcInsn(AsmObjectTranslator.translateValue(this.translator, cst));
+		super.visitLdcInsn(this.remapTable.mapValue(cst));
 	}
 
 	@Override
 	public void visitMultiANewArrayInsn(String desc, int dims) {
-		super.visitMultiANewArrayInsn(this.translator.translate(new TypeDescriptor(desc)).toString(), dims);
+		super.visitMultiANewArrayInsn(this.remapTable.mapDesc(desc), dims);
 	}
 
 	@Override
 	public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
 		if (type != null) {
-			ClassEntry translatedEntry = this.translator.translate(new ClassEntry(type));
-			super.visitTryCatchBlock(start, end, handler, translatedEntry.getFullName());
+			super.visitTryCatchBlock(start, end, handler, this.remapTable.mapClass(type));
 		} else {
 			super.visitTryCatchBlock(start, end, handler, type);
 		}
@@ -137,7 +134,7 @@ public class TranslationMethodVisitor extends MethodVisitor {
 	public void visitLocalVariable(String name, String desc, String signature, Label start, Label end, int index) {
 		signature = this.translator.translate(Signature.createTypedSignature(signature)).toString();
 		name = this.translateVariableName(index, name);
-		desc = this.translator.translate(new TypeDescriptor(desc)).toString();
+		desc = this.remapTable.mapDesc(desc);
 
 		super.visitLocalVariable(name, desc, signature, start, end, index);
 	}
@@ -0,0 +1,57 @@
+package org.quiltmc.enigma.impl.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The flight recorder events emitted by {@link org.quiltmc.enigma.api.metrics.JfrMetricsRegistry}.
+ */
+public final class MetricEvents {
+	private MetricEvents() {
+	}
+
+	@Name("org.quiltmc.enigma.Timer")
+	@Label("Enigma Timer")
+	@Description("A duration recorded by an Enigma timer")
+	@Category("Enigma")
+	@StackTrace(false)
+	public static final class TimerEvent extends Event {
+		@Label("Metric")
+		public String metric;
+
+		@Label("Elapsed")
+		@Timespan(Timespan.NANOSECONDS)
+		public long elapsed;
+	}
+
+	@Name("org.quiltmc.enigma.Counter")
+	@Label("Enigma Counter")
+	@Description("An increment of an Enigma counter")
+	@Category("Enigma")
+	@StackTrace(false)
+	public static final class CounterEvent extends Event {
+		@Label("Metric")
+		public String metric;
+
+		@Label("Amount")
+		public long amount;
+	}
+
+	@Name("org.quiltmc.enigma.Histogram")
+	@Label("Enigma Histogram")
+	@Description("A value recorded by an Enigma histogram")
+	@Category("Enigma")
+	@StackTrace(false)
+	public static final class HistogramEvent extends Event {
+		@Label("Metric")
+		public String metric;
+
+		@Label("Value")
+		public long value;
+	}
+}
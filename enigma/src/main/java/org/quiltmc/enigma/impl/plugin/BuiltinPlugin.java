@@ -61,6 +61,11 @@ public final class BuiltinPlugin implements EnigmaPlugin {
 				return null;
 			}
 
+			@Override
+			public boolean isThreadSafe() {
+				return true;
+			}
+
 			@Override
 			public String getId() {
 				return "enigma:enum_name_proposer";
@@ -98,6 +103,11 @@ public final class BuiltinPlugin implements EnigmaPlugin {
 				return null;
 			}
 
+			@Override
+			public boolean isThreadSafe() {
+				return true;
+			}
+
 			@Override
 			public String getId() {
 				return "enigma:specialized_method_name_proposer";
@@ -27,6 +27,11 @@ public record RecordComponentProposalService(RecordIndexingVisitor visitor) impl
 		return null;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+
 	@Nullable
 	@Override
 	public Map<Entry<?>, EntryMapping> getDynamicProposedNames(EntryRemapper remapper, @Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping) {
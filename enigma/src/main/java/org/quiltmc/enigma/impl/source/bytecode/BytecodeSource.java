@@ -1,5 +1,6 @@
 package org.quiltmc.enigma.impl.source.bytecode;
 
+import com.google.common.base.Suppliers;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.util.TraceClassVisitor;
 import org.quiltmc.enigma.api.source.Source;
@@ -9,31 +10,51 @@ import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class BytecodeSource implements Source {
 	private final ClassNode classNode;
 	private final List<ClassNode> innerClassNodes;
 	private final EntryRemapper remapper;
 
+	/**
+	 * The textified class, built on first use. The text doesn't depend on the mappings or javadocs,
+	 * so it is shared with every source created by {@link #withJavadocs(EntryRemapper)}.
+	 */
+	private final Supplier<BytecodeSourceIndex> textified;
+
 	public BytecodeSource(ClassNode classNode, List<ClassNode> innerClassNodes, EntryRemapper remapper) {
 		this.classNode = classNode;
 		this.innerClassNodes = innerClassNodes;
 		this.remapper = remapper;
+		this.textified = Suppliers.memoize(this::textify);
+	}
+
+	private BytecodeSource(BytecodeSource source, EntryRemapper remapper) {
+		this.classNode = source.classNode;
+		this.innerClassNodes = source.innerClassNodes;
+		this.remapper = remapper;
+		this.textified = source.textified;
 	}
 
 	@Override
 	public String asString() {
-		return this.index().getSource();
+		return this.textified.get().getSource();
 	}
 
 	@Override
 	public Source withJavadocs(EntryRemapper remapper) {
-		return new BytecodeSource(this.classNode, this.innerClassNodes, remapper);
+		return new BytecodeSource(this, remapper);
 	}
 
 	@Override
 	public SourceIndex index() {
-		SourceIndex index = new BytecodeSourceIndex();
+		// callers resolve and rename the tokens of the index they get, so each gets its own copy
+		return this.textified.get().copy();
+	}
+
+	private BytecodeSourceIndex textify() {
+		BytecodeSourceIndex index = new BytecodeSourceIndex();
 
 		EnigmaTextifier textifier = new EnigmaTextifier(index);
 		StringWriter out = new StringWriter();
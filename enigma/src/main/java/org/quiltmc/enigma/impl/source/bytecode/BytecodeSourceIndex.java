@@ -1,9 +1,58 @@
 package org.quiltmc.enigma.impl.source.bytecode;
 
+import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.source.SourceIndex;
+import org.quiltmc.enigma.api.source.Token;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A source index which remembers the tokens it was built from, so that it can be copied without textifying the class again.
+ */
 class BytecodeSourceIndex extends SourceIndex {
+	private final List<IndexedToken> indexedTokens = new ArrayList<>();
+
 	BytecodeSourceIndex() {
 		super(false);
 	}
+
+	@Override
+	public void addDeclaration(Token token, Entry<?> deobfEntry) {
+		super.addDeclaration(token, deobfEntry);
+		if (token != null) {
+			this.indexedTokens.add(new IndexedToken(token.start, token.end, token.text, deobfEntry, null, true));
+		}
+	}
+
+	@Override
+	public void addReference(Token token, Entry<?> deobfEntry, Entry<?> deobfContext) {
+		super.addReference(token, deobfEntry, deobfContext);
+		if (token != null) {
+			this.indexedTokens.add(new IndexedToken(token.start, token.end, token.text, deobfEntry, deobfContext, false));
+		}
+	}
+
+	/**
+	 * Creates an index with the same source and tokens. Tokens and references are not shared, since
+	 * consumers rename tokens and resolve references in place.
+	 */
+	BytecodeSourceIndex copy() {
+		BytecodeSourceIndex copy = new BytecodeSourceIndex();
+		copy.setSource(this.getSource());
+
+		for (IndexedToken indexed : this.indexedTokens) {
+			Token token = new Token(indexed.start, indexed.end, indexed.text);
+			if (indexed.declaration) {
+				copy.addDeclaration(token, indexed.entry);
+			} else {
+				copy.addReference(token, indexed.entry, indexed.context);
+			}
+		}
+
+		return copy;
+	}
+
+	private record IndexedToken(int start, int end, String text, Entry<?> entry, @Nullable Entry<?> context, boolean declaration) { }
 }
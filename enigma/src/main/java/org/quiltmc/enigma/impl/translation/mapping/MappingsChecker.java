@@ -1,11 +1,13 @@
 package org.quiltmc.enigma.impl.translation.mapping;
 
+import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
 import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
 import org.quiltmc.enigma.api.source.TokenType;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.InvalidMappings;
 import org.quiltmc.enigma.api.translation.mapping.ResolutionStrategy;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
@@ -16,51 +18,107 @@ import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiConsumer;
-import java.util.stream.StreamSupport;
-
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Finds mappings which don't match the jar, or which don't add anything to it.
+ *
+ * <p>Entries are checked in parallel, one top-level class at a time. Checking an entry only looks at the mappings of its
+ * children, which always belong to the same top-level class, so each class collects its drops into its own
+ * {@link Dropper}. These are merged in class name order, so the result does not depend on thread scheduling.
+ */
 public class MappingsChecker {
 	private final EnigmaProject project;
 	private final JarIndex index;
 	private final EntryTree<EntryMapping> mappings;
+	private final boolean failFast;
 
 	public MappingsChecker(EnigmaProject project, JarIndex index, EntryTree<EntryMapping> mappings) {
+		this(project, index, mappings, false);
+	}
+
+	/**
+	 * @param failFast whether to stop checking once a top-level class with mappings to drop is found
+	 */
+	public MappingsChecker(EnigmaProject project, JarIndex index, EntryTree<EntryMapping> mappings, boolean failFast) {
 		this.project = project;
 		this.index = index;
 		this.mappings = mappings;
+		this.failFast = failFast;
 	}
 
-	private Dropper collectMappings(ProgressListener progress, Dropper dropper, BiConsumer<Dropper, Entry<?>> dropFunction) {
-		// HashEntryTree#getAllEntries filters out empty classes
-		List<? extends Entry<?>> entries = new ArrayList<>(StreamSupport.stream(this.mappings.spliterator(), false).map(EntryTreeNode::getEntry).toList());
-
-		// sort so that we begin with local variables and end with class entries. this is probably a terrible way of doing this
-		entries.sort((a, b) -> {
-			if (a instanceof LocalVariableEntry && !(b instanceof LocalVariableEntry)) {
-				return -1;
-			} else if (b instanceof LocalVariableEntry && !(a instanceof LocalVariableEntry)) {
-				return 1;
-			} else if (a instanceof ClassEntry && !(b instanceof ClassEntry)) {
-				return 1;
-			} else if (b instanceof ClassEntry && !(a instanceof ClassEntry)) {
-				return -1;
+	private Dropper collectMappings(ProgressListener progress, Dropper dropper, DropFunction dropFunction) {
+		List<List<Entry<?>>> partitions = this.mappings.getRootNodes()
+				.sorted(Comparator.comparing(node -> node.getEntry().getFullName()))
+				.map(MappingsChecker::collectPartition)
+				.toList();
+
+		progress.init(partitions.stream().mapToInt(List::size).sum(), "Checking for dropped mappings");
+
+		AtomicBoolean failed = new AtomicBoolean();
+		List<Dropper> partitionDroppers = partitions.parallelStream()
+				.map(entries -> {
+					Dropper partitionDropper = dropper.fork();
+					if (this.failFast && failed.get()) {
+						return partitionDropper;
+					}
+
+					for (Entry<?> entry : entries) {
+						try {
+							dropFunction.tryDrop(partitionDropper, entry);
+						} finally {
+							progress.advance(1, entry::toString);
+						}
+					}
+
+					if (!partitionDropper.pendingDroppedMappings.isEmpty()) {
+						failed.set(true);
+					}
+
+					return partitionDropper;
+				})
+				.toList();
+
+		for (Dropper partitionDropper : partitionDroppers) {
+			dropper.merge(partitionDropper);
+			if (this.failFast && !dropper.pendingDroppedMappings.isEmpty()) {
+				break;
 			}
+		}
 
-			return 0;
-		});
-
-		progress.init(entries.size(), "Checking for dropped mappings");
+		return dropper;
+	}
 
-		int steps = 0;
-		for (Entry<?> entry : entries) {
-			progress.step(steps++, entry.toString());
-			dropFunction.accept(dropper, entry);
+	/**
+	 * Collects the entries under a top-level class, beginning with local variables and ending with class entries,
+	 * so that the children of most entries are checked before the entry itself.
+	 */
+	private static List<Entry<?>> collectPartition(EntryTreeNode<EntryMapping> root) {
+		List<Entry<?>> locals = new ArrayList<>();
+		List<Entry<?>> members = new ArrayList<>();
+		List<Entry<?>> classes = new ArrayList<>();
+		for (EntryTreeNode<EntryMapping> node : root.getNodesRecursively()) {
+			Entry<?> entry = node.getEntry();
+			if (entry instanceof LocalVariableEntry) {
+				locals.add(entry);
+			} else if (entry instanceof ClassEntry) {
+				classes.add(entry);
+			} else {
+				members.add(entry);
+			}
 		}
 
-		return dropper;
+		List<Entry<?>> entries = new ArrayList<>(locals.size() + members.size() + classes.size());
+		entries.addAll(locals);
+		entries.addAll(members);
+		entries.addAll(classes);
+		return entries;
 	}
 
 	public Dropper collectBrokenMappings(ProgressListener progress, Dropper dropper) {
@@ -68,33 +126,37 @@ public class MappingsChecker {
 	}
 
 	private void tryDropBrokenEntry(Dropper dropper, Entry<?> entry) {
-		if (this.shouldDropBrokenEntry(dropper, entry)) {
+		InvalidMappings.Reason reason = this.getBrokenEntryReason(dropper, entry);
+		if (reason != null) {
 			EntryMapping mapping = this.mappings.get(entry);
 			if (mapping != null) {
-				dropper.addPendingDrop(entry, mapping);
+				dropper.addPendingDrop(entry, mapping, reason);
 			}
 		}
 	}
 
-	private boolean shouldDropBrokenEntry(Dropper dropper, Entry<?> entry) {
+	private InvalidMappings.@Nullable Reason getBrokenEntryReason(Dropper dropper, Entry<?> entry) {
 		if (!this.index.getIndex(EntryIndex.class).hasEntry(entry)) {
-			return true;
+			return InvalidMappings.Reason.MISSING;
 		}
 
 		Collection<Entry<?>> resolvedEntries = this.index.getEntryResolver().resolveEntry(entry, ResolutionStrategy.RESOLVE_ROOT);
 
 		if (resolvedEntries.isEmpty()) {
 			// Entry doesn't exist at all, drop it.
-			return true;
+			return InvalidMappings.Reason.UNRESOLVABLE;
 		} else if (resolvedEntries.contains(entry)) {
 			// Entry is the root, don't drop it.
-			return false;
+			return null;
 		}
 
 		// Method entry has parameter names, keep it even though it's not the root.
-		return !(entry instanceof MethodEntry) || this.hasNoMappedChildren(entry, dropper);
+		if (entry instanceof MethodEntry && !this.hasNoMappedChildren(entry, dropper)) {
+			return null;
+		}
 
 		// Entry is not the root, and is not a method with params
+		return InvalidMappings.Reason.NOT_ROOT;
 	}
 
 	public Dropper collectEmptyMappings(ProgressListener progress, Dropper dropperBroken) {
@@ -102,59 +164,80 @@ public class MappingsChecker {
 	}
 
 	private void tryDropEmptyEntry(Dropper dropper, Entry<?> entry) {
-		if (this.shouldDropEmptyMapping(dropper, entry)) {
-			EntryMapping mapping = this.mappings.get(entry);
-			if (mapping != null) {
-				dropper.addPendingDrop(entry, mapping);
-			}
-		}
-	}
-
-	private boolean shouldDropEmptyMapping(Dropper dropper, Entry<?> entry) {
 		EntryMapping mapping = this.mappings.get(entry);
 		if (mapping != null) {
-			boolean isEmpty = (mapping.targetName() == null && mapping.javadoc() == null) || !this.project.isRenamable(entry);
+			InvalidMappings.Reason reason = null;
+			if (!this.project.isRenamable(entry)) {
+				reason = InvalidMappings.Reason.NOT_RENAMABLE;
+			} else if (mapping.targetName() == null && mapping.javadoc() == null) {
+				reason = InvalidMappings.Reason.EMPTY;
+			}
 
-			if (isEmpty) {
-				return this.hasNoMappedChildren(entry, dropper);
+			if (reason != null && this.hasNoMappedChildren(entry, dropper)) {
+				dropper.addPendingDrop(entry, mapping, reason);
 			}
 		}
-
-		return false;
 	}
 
 	private boolean hasNoMappedChildren(Entry<?> entry, Dropper dropper) {
-		var children = this.mappings.getChildren(entry);
-
 		// account for child mappings that have been dropped already
-		if (!children.isEmpty()) {
-			var droppedMappings = dropper.getDroppedAndPending();
-
-			for (Entry<?> child : children) {
-				var mapping = this.mappings.get(child);
-				if ((!droppedMappings.containsKey(child)
-						&& mapping != null && mapping.tokenType() != TokenType.OBFUSCATED)
-						|| !this.hasNoMappedChildren(child, dropper)) {
-					return false;
-				}
+		for (Entry<?> child : this.mappings.getChildren(entry)) {
+			var mapping = this.mappings.get(child);
+			if ((!dropper.isDroppedOrPending(child)
+					&& mapping != null && mapping.tokenType() != TokenType.OBFUSCATED)
+					|| !this.hasNoMappedChildren(child, dropper)) {
+				return false;
 			}
 		}
 
 		return true;
 	}
 
+	@FunctionalInterface
+	private interface DropFunction {
+		void tryDrop(Dropper dropper, Entry<?> entry);
+	}
+
 	public static class Dropper {
-		private final Map<Entry<?>, String> droppedMappings = new HashMap<>();
-		private final Map<Entry<?>, String> pendingDroppedMappings = new HashMap<>();
+		private final Map<Entry<?>, String> droppedMappings;
+		private final Map<Entry<?>, String> pendingDroppedMappings = new LinkedHashMap<>();
+		private final Map<InvalidMappings.Reason, Integer> dropCounts = new EnumMap<>(InvalidMappings.Reason.class);
+
+		public Dropper() {
+			this(new LinkedHashMap<>());
+		}
+
+		private Dropper(Map<Entry<?>, String> droppedMappings) {
+			this.droppedMappings = droppedMappings;
+		}
+
+		/**
+		 * Creates a dropper which collects pending drops separately from this one, for checking one partition.
+		 * The dropped mappings are shared, and must not be changed until the fork is {@linkplain #merge merged}.
+		 */
+		private Dropper fork() {
+			return new Dropper(this.droppedMappings);
+		}
+
+		private void merge(Dropper fork) {
+			this.pendingDroppedMappings.putAll(fork.pendingDroppedMappings);
+			fork.dropCounts.forEach((reason, count) -> this.dropCounts.merge(reason, count, Integer::sum));
+		}
 
 		public void addPendingDrop(Entry<?> entry, EntryMapping mapping) {
-			this.pendingDroppedMappings.put(entry, mapping.targetName() != null ? mapping.targetName() : entry.getName());
+			this.addPendingDrop(entry, mapping, InvalidMappings.Reason.UNSPECIFIED);
+		}
+
+		public void addPendingDrop(Entry<?> entry, EntryMapping mapping, InvalidMappings.Reason reason) {
+			if (this.pendingDroppedMappings.put(entry, mapping.targetName() != null ? mapping.targetName() : entry.getName()) == null) {
+				this.dropCounts.merge(reason, 1, Integer::sum);
+			}
 		}
 
 		public void applyPendingDrops(EntryTree<EntryMapping> mappings) {
 			this.droppedMappings.putAll(this.pendingDroppedMappings);
 
-			for (Entry<?> entry : this.droppedMappings.keySet()) {
+			for (Entry<?> entry : this.pendingDroppedMappings.keySet()) {
 				EntryTreeNode<EntryMapping> node = mappings.findNode(entry);
 				if (node == null) {
 					continue;
@@ -168,6 +251,10 @@ public class MappingsChecker {
 			this.pendingDroppedMappings.clear();
 		}
 
+		private boolean isDroppedOrPending(Entry<?> entry) {
+			return this.pendingDroppedMappings.containsKey(entry) || this.droppedMappings.containsKey(entry);
+		}
+
 		public Map<Entry<?>, String> getDroppedAndPending() {
 			var map = new HashMap<Entry<?>, String>();
 			map.putAll(this.droppedMappings);
@@ -182,5 +269,12 @@ public class MappingsChecker {
 		public Map<Entry<?>, String> getPendingDroppedMappings() {
 			return this.pendingDroppedMappings;
 		}
+
+		/**
+		 * {@return the number of mappings dropped or pending to be dropped for each reason}
+		 */
+		public Map<InvalidMappings.Reason, Integer> getDropCounts() {
+			return this.dropCounts;
+		}
 	}
 }
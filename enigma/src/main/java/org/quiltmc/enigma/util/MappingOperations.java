@@ -1,5 +1,6 @@
 package org.quiltmc.enigma.util;
 
+import org.jspecify.annotations.Nullable;
 import org.quiltmc.enigma.api.translation.MappingTranslator;
 import org.quiltmc.enigma.api.translation.Translator;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
@@ -10,65 +11,185 @@ import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
 import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Operations on whole mapping trees.
+ *
+ * <p>The subtree of each top-level class is translated in parallel, walking down from the class so that every entry
+ * is translated against its already translated parent. The results are inserted into the result tree in the order of
+ * the input tree, so the result is the same as translating each entry with a {@link MappingTranslator}.
+ */
 public class MappingOperations {
 	public static EntryTree<EntryMapping> invert(EntryTree<EntryMapping> mappings) {
-		Translator translator = new MappingTranslator(mappings, VoidEntryResolver.INSTANCE);
+		TreeTranslator translator = new TreeTranslator(mappings);
 		EntryTree<EntryMapping> result = new HashEntryTree<>();
 
-		for (EntryTreeNode<EntryMapping> node : mappings) {
+		mapPartitions(mappings, (root, output) -> translator.walk(root, true, (node, rightEntry) -> {
 			Entry<?> leftEntry = node.getEntry();
 			EntryMapping leftMapping = node.getValue();
 
 			if (!(leftEntry instanceof ClassEntry || leftEntry instanceof MethodEntry || leftEntry instanceof FieldEntry)) {
-				result.insert(translator.translate(leftEntry), leftMapping);
-				continue;
+				output.add(new Mapped(rightEntry, leftMapping));
+			} else {
+				output.add(new Mapped(rightEntry, leftMapping == null ? null : leftMapping.withName(leftEntry.getName())));
 			}
-
-			Entry<?> rightEntry = translator.translate(leftEntry);
-
-			result.insert(rightEntry, leftMapping == null ? null : leftMapping.withName(leftEntry.getName()));
-		}
+		}), result);
 
 		return result;
 	}
 
 	public static EntryTree<EntryMapping> compose(EntryTree<EntryMapping> left, EntryTree<EntryMapping> right, boolean keepLeftOnly, boolean keepRightOnly) {
-		Translator leftTranslator = new MappingTranslator(left, VoidEntryResolver.INSTANCE);
+		TreeTranslator leftTranslator = new TreeTranslator(left);
 		EntryTree<EntryMapping> result = new HashEntryTree<>();
-		Set<Entry<?>> addedMappings = new HashSet<>();
+		Set<Entry<?>> addedMappings = ConcurrentHashMap.newKeySet();
 
-		for (EntryTreeNode<EntryMapping> node : left) {
+		mapPartitions(left, (root, output) -> leftTranslator.walk(root, true, (node, rightEntry) -> {
 			Entry<?> leftEntry = node.getEntry();
 			EntryMapping leftMapping = node.getValue();
 
-			Entry<?> rightEntry = leftTranslator.translate(leftEntry);
-
 			EntryMapping rightMapping = right.get(rightEntry);
 			if (rightMapping != null) {
-				result.insert(leftEntry, rightMapping);
-				addedMappings.add(rightEntry);
+				output.add(new Mapped(leftEntry, rightMapping));
+				if (keepRightOnly) {
+					addedMappings.add(rightEntry);
+				}
 			} else if (keepLeftOnly) {
-				result.insert(leftEntry, leftMapping);
+				output.add(new Mapped(leftEntry, leftMapping));
 			}
-		}
+		}), result);
 
 		if (keepRightOnly) {
-			Translator leftInverseTranslator = new MappingTranslator(invert(left), VoidEntryResolver.INSTANCE);
-			for (EntryTreeNode<EntryMapping> node : right) {
-				Entry<?> rightEntry = node.getEntry();
-				EntryMapping rightMapping = node.getValue();
+			TreeTranslator leftInverseTranslator = new TreeTranslator(invert(left));
 
-				if (!addedMappings.contains(rightEntry)) {
-					result.insert(leftInverseTranslator.translate(rightEntry), rightMapping);
+			mapPartitions(right, (root, output) -> leftInverseTranslator.walk(root, false, (node, leftEntry) -> {
+				if (!addedMappings.contains(node.getEntry())) {
+					output.add(new Mapped(leftEntry, node.getValue()));
 				}
-			}
+			}), result);
 		}
 
 		return result;
 	}
+
+	/**
+	 * Maps the subtree of each top-level class in parallel, and then inserts the results in the order of the tree.
+	 */
+	private static void mapPartitions(EntryTree<EntryMapping> tree, PartitionMapper mapper, EntryTree<EntryMapping> result) {
+		List<List<Mapped>> partitions = tree.getRootNodes().toList().parallelStream()
+				.map(root -> {
+					List<Mapped> output = new ArrayList<>();
+					mapper.map(root, output);
+					return output;
+				})
+				.toList();
+
+		for (List<Mapped> partition : partitions) {
+			for (Mapped mapped : partition) {
+				result.insert(mapped.entry, mapped.mapping);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface PartitionMapper {
+		void map(EntryTreeNode<EntryMapping> root, List<Mapped> output);
+	}
+
+	@FunctionalInterface
+	private interface NodeVisitor {
+		void visit(EntryTreeNode<EntryMapping> node, Entry<?> translated);
+	}
+
+	private record Mapped(Entry<?> entry, @Nullable EntryMapping mapping) { }
+
+	/**
+	 * Translates entries like a {@link MappingTranslator} without a resolver, but takes translated parents from the
+	 * walk instead of translating them again, and remaps descriptors through a cache of translated class names.
+	 */
+	private static final class TreeTranslator {
+		private final EntryTree<EntryMapping> mappings;
+		private final Translator fallback;
+		private final Map<String, String> classNames = new ConcurrentHashMap<>();
+
+		TreeTranslator(EntryTree<EntryMapping> mappings) {
+			this.mappings = mappings;
+			this.fallback = new MappingTranslator(mappings, VoidEntryResolver.INSTANCE);
+		}
+
+		/**
+		 * Translates the entries of a subtree, parents first.
+		 * @param ownTree whether the subtree is from the translated mappings, so that the nodes' values are their mappings
+		 */
+		void walk(EntryTreeNode<EntryMapping> root, boolean ownTree, NodeVisitor visitor) {
+			this.walk(root, this.translateParent(root.getEntry()), ownTree, visitor);
+		}
+
+		private void walk(EntryTreeNode<EntryMapping> node, @Nullable Entry<?> translatedParent, boolean ownTree, NodeVisitor visitor) {
+			Entry<?> entry = node.getEntry();
+			EntryMapping mapping = ownTree ? node.getValue() : this.mappings.get(entry);
+			Entry<?> translated = this.translate(entry, translatedParent, mapping);
+
+			if (entry instanceof ClassEntry) {
+				this.classNames.putIfAbsent(entry.getFullName(), translated.getFullName());
+			}
+
+			visitor.visit(node, translated);
+
+			for (EntryTreeNode<EntryMapping> child : node.getChildNodes()) {
+				this.walk(child, translated, ownTree, visitor);
+			}
+		}
+
+		private @Nullable Entry<?> translateParent(Entry<?> entry) {
+			Entry<?> parent = entry.getParent();
+			return parent == null ? null : this.fallback.translate(parent);
+		}
+
+		private Entry<?> translate(Entry<?> entry, @Nullable Entry<?> translatedParent, @Nullable EntryMapping mapping) {
+			if (mapping == null) {
+				mapping = EntryMapping.OBFUSCATED;
+			}
+
+			String name = mapping.targetName() != null ? mapping.targetName() : entry.getName();
+
+			// only plain entries are rebuilt here, anything else keeps its own translation logic
+			if (entry.getClass() == ClassEntry.class && entry.getName().charAt(0) != '[') {
+				return new ClassEntry((ClassEntry) translatedParent, name, mapping.javadoc());
+			} else if (entry.getClass() == FieldEntry.class) {
+				FieldEntry field = (FieldEntry) entry;
+				return new FieldEntry((ClassEntry) translatedParent, name, field.getDesc().remap(this::translateClassName), mapping.javadoc());
+			} else if (entry.getClass() == MethodEntry.class) {
+				MethodEntry method = (MethodEntry) entry;
+				return new MethodEntry((ClassEntry) translatedParent, name, method.getDesc().remap(this::translateClassName), mapping.javadoc());
+			} else if (entry.getClass() == LocalVariableEntry.class) {
+				LocalVariableEntry local = (LocalVariableEntry) entry;
+				return new LocalVariableEntry((MethodEntry) translatedParent, local.getIndex(), name, local.isArgument(), mapping.javadoc());
+			}
+
+			return this.fallback.translate(entry);
+		}
+
+		private String translateClassName(String name) {
+			String translated = this.classNames.get(name);
+			if (translated == null) {
+				translated = this.translateClass(new ClassEntry(name)).getFullName();
+				this.classNames.putIfAbsent(name, translated);
+			}
+
+			return translated;
+		}
+
+		private ClassEntry translateClass(ClassEntry entry) {
+			ClassEntry parent = entry.getParent();
+			return (ClassEntry) this.translate(entry, parent == null ? null : this.translateClass(parent), this.mappings.get(entry));
+		}
+	}
 }
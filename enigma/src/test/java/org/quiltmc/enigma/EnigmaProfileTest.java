@@ -12,6 +12,7 @@ import org.quiltmc.enigma.util.Either;
 
 import java.io.Reader;
 import java.io.StringReader;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +24,7 @@ public class EnigmaProfileTest {
 					"mapping_save_parameters": {
 						"file_name_format": "by_deobf"
 					},
+					"name_proposal_timeout": 1500,
 					"services": {
 						"decompiler": {
 							"id": "enigma:vineflower"
@@ -55,6 +57,8 @@ public class EnigmaProfileTest {
 		EnigmaProfile profile = EnigmaProfile.parse(r);
 
 		Assertions.assertEquals(MappingFileNameFormat.BY_DEOBF, profile.getMappingSaveParameters().fileNameFormat());
+		Assertions.assertEquals(Optional.of(Duration.ofMillis(1500)), profile.getNameProposalTimeout());
+		Assertions.assertEquals(Optional.empty(), EnigmaProfile.EMPTY.getNameProposalTimeout());
 
 		List<EnigmaProfile.Service> decompilers = profile.getServiceProfiles(DecompilerService.TYPE);
 		Assertions.assertEquals(1, decompilers.size());
@@ -0,0 +1,47 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.tree.ClassNode;
+import org.quiltmc.enigma.api.source.Source;
+import org.quiltmc.enigma.api.source.SourceIndex;
+import org.quiltmc.enigma.api.source.Token;
+import org.quiltmc.enigma.impl.source.bytecode.BytecodeSource;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestBytecodeSource {
+	private static List<Token> tokens(SourceIndex index) {
+		List<Token> tokens = new ArrayList<>();
+		index.referenceTokens().forEach(tokens::add);
+		return tokens;
+	}
+
+	@Test
+	public void testTextifiesOnce() {
+		List<ClassNode> classes = SyntheticJar.generate(1, 20).getClasses();
+		Source source = new BytecodeSource(classes.get(0), classes.subList(1, 3), null);
+
+		String text = source.asString();
+		SourceIndex first = source.index();
+		SourceIndex second = source.index();
+		Source withJavadocs = source.withJavadocs(null);
+
+		assertSame(text, first.getSource());
+		assertSame(text, withJavadocs.asString());
+		assertFalse(tokens(first).isEmpty());
+		assertEquals(tokens(first), tokens(withJavadocs.index()));
+
+		// every index is a copy, since consumers change tokens in place
+		assertNotSame(first, second);
+		Token token = first.referenceTokens().iterator().next();
+		assertNotSame(token, second.getReferenceToken(token.start));
+		assertEquals(first.getReference(token), second.getReference(second.getReferenceToken(token.start)));
+	}
+}
@@ -0,0 +1,184 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.BridgeMethodIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.CombinedJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.LibrariesJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.class_provider.CachingClassProvider;
+import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.class_provider.CombiningClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.analysis.ClassLoaderClassProvider;
+import org.quiltmc.enigma.impl.analysis.index.IndexLog;
+import org.quiltmc.enigma.impl.analysis.index.LibraryIndexCache;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class TestIndexLog {
+	@TempDir
+	static Path directory;
+
+	private static Path mainJar;
+	private static Path libraryJar;
+	private static JarClassProvider libraryProvider;
+	private static ProjectClassProvider classProvider;
+
+	@BeforeAll
+	public static void beforeAll() throws Exception {
+		mainJar = SyntheticJar.getTemporaryJar(1, 20);
+		libraryJar = SyntheticJar.getTemporaryJar(2, 200);
+
+		libraryProvider = new JarClassProvider(libraryJar);
+		classProvider = new ProjectClassProvider(new CachingClassProvider(libraryProvider), new ClasspathClassProvider());
+	}
+
+	@AfterAll
+	public static void afterAll() throws Exception {
+		libraryProvider.close();
+	}
+
+	@Test
+	public void testReplayMatchesIndexing() {
+		MainJarIndex indexed = MainJarIndex.empty();
+		indexed.indexJar(classProvider, ProgressListener.createEmpty());
+
+		MainJarIndex recorded = MainJarIndex.empty();
+		IndexLog log = recorded.indexJarRecording(classProvider, ProgressListener.createEmpty());
+
+		MainJarIndex replayed = MainJarIndex.empty();
+		replayed.indexJar(ProgressListener.createEmpty(), log);
+
+		assertSameIndex(indexed, recorded);
+		assertSameIndex(indexed, replayed);
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		IndexLog log = MainJarIndex.empty().indexJarRecording(classProvider, ProgressListener.createEmpty());
+
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		log.write(written);
+		IndexLog read = IndexLog.read(new ByteArrayInputStream(written.toByteArray()));
+
+		ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+		read.write(rewritten);
+		Assertions.assertArrayEquals(written.toByteArray(), rewritten.toByteArray());
+		Assertions.assertEquals(log.getClassNames(), read.getClassNames());
+
+		MainJarIndex indexed = MainJarIndex.empty();
+		indexed.indexJar(ProgressListener.createEmpty(), log);
+		MainJarIndex replayed = MainJarIndex.empty();
+		replayed.indexJar(ProgressListener.createEmpty(), read);
+		assertSameIndex(indexed, replayed);
+	}
+
+	@Test
+	public void testDiskCache() throws Exception {
+		Path cache = directory.resolve("cache");
+
+		try (JarClassProvider libraries = new JarClassProvider(libraryJar)) {
+			ProjectClassProvider provider = new ProjectClassProvider(null, libraries);
+
+			LibraryIndexCache.CachedIndex first = new LibraryIndexCache(cache).get(provider, libraries, ProgressListener.createEmpty());
+			Assertions.assertSame(first, new LibraryIndexCache(cache).get(provider, libraries, ProgressListener.createEmpty()));
+
+			List<Path> files;
+			try (Stream<Path> stream = Files.list(cache)) {
+				files = stream.toList();
+			}
+
+			Assertions.assertEquals(1, files.size());
+			Assertions.assertTrue(files.get(0).getFileName().toString().endsWith(".idx"), files::toString);
+
+			// without the index in memory, it can only be read from disk: indexing the empty provider would find no classes
+			LibraryIndexCache.clearMemoryCache();
+			LibraryIndexCache.CachedIndex read = new LibraryIndexCache(cache).get(new ProjectClassProvider(null, new CombiningClassProvider()), libraries, ProgressListener.createEmpty());
+			Assertions.assertNotSame(first, read);
+			assertSameIndex(first.index(), read.index());
+		}
+	}
+
+	@Test
+	public void testSharedBetweenProjects() throws Exception {
+		Enigma enigma = Enigma.create();
+
+		try (JarClassProvider libraries = new JarClassProvider(libraryJar)) {
+			EnigmaProject first = enigma.openJar(mainJar, libraries, ProgressListener.createEmpty());
+			EnigmaProject second = enigma.openJar(mainJar, libraries, ProgressListener.createEmpty());
+
+			Assertions.assertSame(first.getLibIndex(), second.getLibIndex());
+			Assertions.assertNotSame(first.getCombinedIndex(), second.getCombinedIndex());
+
+			// the combined index is replayed rather than read, so compare it to one read from the jars
+			JarIndex combined = first.getCombinedIndex();
+			CombinedJarIndex read = CombinedJarIndex.empty((MainJarIndex) first.getJarIndex(), (LibrariesJarIndex) first.getLibIndex());
+			try (JarClassProvider main = new JarClassProvider(mainJar)) {
+				read.indexJar(new ProjectClassProvider(main, new CombiningClassProvider(new ClassLoaderClassProvider(ClassLoader.getPlatformClassLoader()), new ClasspathClassProvider(), libraries)), ProgressListener.createEmpty());
+			}
+
+			Assertions.assertEquals(read.getChildrenByClass().keySet(), combined.getChildrenByClass().keySet());
+			for (ClassEntry entry : read.getChildrenByClass().keySet()) {
+				Assertions.assertEquals(new HashSet<>(read.getChildrenByClass().get(entry)), new HashSet<>(combined.getChildrenByClass().get(entry)), entry::toString);
+			}
+
+			EntryIndex readEntries = read.getIndex(EntryIndex.class);
+			InheritanceIndex readInheritance = read.getIndex(InheritanceIndex.class);
+			for (ClassEntry entry : readEntries.getClasses()) {
+				Assertions.assertTrue(combined.isIndexed(entry.getFullName()), entry::toString);
+				Assertions.assertEquals(new HashSet<>(readInheritance.getParents(entry)), new HashSet<>(combined.getIndex(InheritanceIndex.class).getParents(entry)), entry::toString);
+				Assertions.assertEquals(new HashSet<>(readInheritance.getChildren(entry)), new HashSet<>(combined.getIndex(InheritanceIndex.class).getChildren(entry)), entry::toString);
+			}
+		}
+	}
+
+	private static void assertSameIndex(JarIndex expected, JarIndex actual) {
+		Assertions.assertEquals(expected.getChildrenByClass(), actual.getChildrenByClass());
+
+		EntryIndex expectedEntries = expected.getIndex(EntryIndex.class);
+		EntryIndex actualEntries = actual.getIndex(EntryIndex.class);
+		Assertions.assertEquals(new HashSet<>(expectedEntries.getClasses()), new HashSet<>(actualEntries.getClasses()));
+		Assertions.assertEquals(new HashSet<>(expectedEntries.getFields()), new HashSet<>(actualEntries.getFields()));
+		Assertions.assertEquals(new HashSet<>(expectedEntries.getMethods()), new HashSet<>(actualEntries.getMethods()));
+		Assertions.assertEquals(new HashSet<>(expectedEntries.getParameters()), new HashSet<>(actualEntries.getParameters()));
+
+		InheritanceIndex expectedInheritance = expected.getIndex(InheritanceIndex.class);
+		InheritanceIndex actualInheritance = actual.getIndex(InheritanceIndex.class);
+		for (ClassEntry entry : expectedEntries.getClasses()) {
+			Assertions.assertEquals(expectedEntries.getClassAccess(entry).getFlags(), actualEntries.getClassAccess(entry).getFlags(), entry::toString);
+			Assertions.assertEquals(new HashSet<>(expectedInheritance.getParents(entry)), new HashSet<>(actualInheritance.getParents(entry)), entry::toString);
+		}
+
+		ReferenceIndex expectedReferences = expected.getIndex(ReferenceIndex.class);
+		ReferenceIndex actualReferences = actual.getIndex(ReferenceIndex.class);
+		for (MethodEntry entry : expectedEntries.getMethods()) {
+			Assertions.assertEquals(expectedEntries.getMethodAccess(entry).getFlags(), actualEntries.getMethodAccess(entry).getFlags(), entry::toString);
+			Assertions.assertEquals(new HashSet<>(expectedReferences.getMethodsReferencedBy(entry)), new HashSet<>(actualReferences.getMethodsReferencedBy(entry)), entry::toString);
+			Assertions.assertEquals(new HashSet<>(expectedReferences.getFieldsReferencedBy(entry)), new HashSet<>(actualReferences.getFieldsReferencedBy(entry)), entry::toString);
+			Assertions.assertEquals(new HashSet<>(expectedReferences.getReferencesToMethod(entry)), new HashSet<>(actualReferences.getReferencesToMethod(entry)), entry::toString);
+		}
+
+		Assertions.assertEquals(expected.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized(), actual.getIndex(BridgeMethodIndex.class).getBridgeToSpecialized());
+	}
+}
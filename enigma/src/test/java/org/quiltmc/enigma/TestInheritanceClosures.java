@@ -0,0 +1,59 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.quiltmc.enigma.api.analysis.index.jar.InheritanceIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class TestInheritanceClosures {
+	@Test
+	public void testClosuresMatchUnprocessedIndex() {
+		Random random = new Random(42);
+		List<ClassDefEntry> classes = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			// interfaces only extend earlier classes, so the hierarchy has diamonds but no cycles
+			String[] interfaces = new String[i == 0 ? 0 : random.nextInt(3)];
+			for (int j = 0; j < interfaces.length; j++) {
+				interfaces[j] = "c" + random.nextInt(i);
+			}
+
+			String superName = i == 0 || random.nextBoolean() ? "java/lang/Object" : "c" + random.nextInt(i);
+			classes.add(ClassDefEntry.parse(Opcodes.ACC_PUBLIC, "c" + i, null, superName, interfaces));
+		}
+
+		InheritanceIndex unprocessed = this.index(classes, false);
+		InheritanceIndex processed = this.index(classes, true);
+
+		List<ClassEntry> entries = new ArrayList<>(classes);
+		entries.add(new ClassEntry("java/lang/Object"));
+		entries.add(new ClassEntry("missing"));
+		for (ClassEntry entry : entries) {
+			Assertions.assertEquals(List.copyOf(unprocessed.getAncestors(entry)), List.copyOf(processed.getAncestors(entry)), entry.getName());
+			Assertions.assertEquals(new HashSet<>(unprocessed.getDescendants(entry)), new HashSet<>(processed.getDescendants(entry)), entry.getName());
+
+			for (ClassEntry other : entries) {
+				Assertions.assertEquals(unprocessed.isAncestor(entry, other), processed.isAncestor(entry, other), entry.getName() + " / " + other.getName());
+				Assertions.assertEquals(unprocessed.computeClassRelation(entry, other), processed.computeClassRelation(entry, other));
+			}
+		}
+	}
+
+	private InheritanceIndex index(List<ClassDefEntry> classes, boolean process) {
+		JarIndex index = MainJarIndex.empty();
+		classes.forEach(index::indexClass);
+		if (process) {
+			index.getIndex(InheritanceIndex.class).processIndex(index);
+		}
+
+		return index.getIndex(InheritanceIndex.class);
+	}
+}
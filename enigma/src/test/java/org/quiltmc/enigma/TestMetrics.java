@@ -0,0 +1,106 @@
+package org.quiltmc.enigma;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.metrics.JfrMetricsRegistry;
+import org.quiltmc.enigma.api.metrics.Metrics;
+import org.quiltmc.enigma.api.metrics.MetricsRegistry;
+import org.quiltmc.enigma.api.metrics.MetricsReporter;
+import org.quiltmc.enigma.api.metrics.SimpleMetricsRegistry;
+import org.quiltmc.enigma.api.metrics.Timer;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class TestMetrics {
+	@TempDir
+	Path directory;
+
+	@Test
+	public void testSimpleRegistry() {
+		SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+		registry.counter("counter").increment();
+		registry.counter("counter").increment(2);
+		for (int i = 1; i <= 100; i++) {
+			registry.histogram("histogram").record(i);
+		}
+
+		try (Timer.Sample ignored = registry.timer("timer").start()) {
+			Assertions.assertTrue(registry.snapshot().stream().noneMatch(metric -> metric.name().equals("timer") && metric.count() > 0));
+		}
+
+		Map<String, SimpleMetricsRegistry.MetricSnapshot> metrics = byName(registry.snapshot());
+		Assertions.assertEquals(List.of("counter", "histogram", "timer"), registry.snapshot().stream().map(SimpleMetricsRegistry.MetricSnapshot::name).toList());
+		Assertions.assertEquals(3, metrics.get("counter").count());
+
+		SimpleMetricsRegistry.MetricSnapshot histogram = metrics.get("histogram");
+		Assertions.assertEquals(100, histogram.count());
+		Assertions.assertEquals(5050, histogram.total());
+		Assertions.assertEquals(1, histogram.min());
+		Assertions.assertEquals(100, histogram.max());
+		// percentiles are bucket bounds, at most twice the real value
+		Assertions.assertTrue(histogram.p50() >= 50 && histogram.p50() < 100, () -> "p50 " + histogram.p50());
+		Assertions.assertTrue(histogram.p99() >= 99 && histogram.p99() <= 100, () -> "p99 " + histogram.p99());
+
+		Assertions.assertEquals(1, metrics.get("timer").count());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> registry.timer("counter"));
+	}
+
+	@Test
+	public void testFormats() throws Exception {
+		SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+		registry.counter("a.counter").increment(7);
+		registry.timer("a.timer").record(2_000_000);
+
+		String text = MetricsReporter.Format.TEXT.write(registry.snapshot());
+		Assertions.assertTrue(text.contains("a.counter count=7"), text);
+		Assertions.assertTrue(text.contains("a.timer   count=1 total=2.000ms"), text);
+
+		JsonObject json = JsonParser.parseString(MetricsReporter.Format.JSON.write(registry.snapshot())).getAsJsonObject();
+		JsonObject timer = json.getAsJsonArray("metrics").get(1).getAsJsonObject();
+		Assertions.assertEquals("a.timer", timer.get("name").getAsString());
+		Assertions.assertEquals("timer", timer.get("type").getAsString());
+		Assertions.assertEquals(2_000_000, timer.get("max").getAsLong());
+
+		Path path = this.directory.resolve("metrics.json");
+		MetricsReporter.start(registry, path, Duration.ofHours(1)).close();
+		Assertions.assertEquals(7, JsonParser.parseString(Files.readString(path)).getAsJsonObject().getAsJsonArray("metrics").get(0).getAsJsonObject().get("count").getAsLong());
+	}
+
+	@Test
+	public void testOpenJarRecorded() throws Exception {
+		SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+		Metrics.setRegistry(new JfrMetricsRegistry(registry));
+		EnigmaProject project;
+		try {
+			project = SyntheticJar.openProject(Enigma.create(), 0, 20);
+		} finally {
+			Metrics.setRegistry(MetricsRegistry.NOOP);
+		}
+
+		Map<String, SimpleMetricsRegistry.MetricSnapshot> metrics = byName(registry.snapshot());
+		for (String name : List.of("open_jar", "open_jar.index_jar", "open_jar.name_proposal", "jar_index.jar.entries", "jar_index.jar.references", "jar_index.combined.replay_entries")) {
+			Assertions.assertTrue(metrics.containsKey(name), name);
+			Assertions.assertEquals(SimpleMetricsRegistry.Type.TIMER, metrics.get(name).type(), name);
+			Assertions.assertEquals(1, metrics.get(name).count(), name);
+		}
+
+		Assertions.assertEquals(project.getJarIndex().getIndex(EntryIndex.class).getClasses().size(), metrics.get("jar_index.jar.classes").max());
+	}
+
+	private static Map<String, SimpleMetricsRegistry.MetricSnapshot> byName(List<SimpleMetricsRegistry.MetricSnapshot> metrics) {
+		return metrics.stream().collect(Collectors.toMap(SimpleMetricsRegistry.MetricSnapshot::name, Function.identity()));
+	}
+}
@@ -0,0 +1,56 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestProgressListener {
+	private static final class RecordingListener extends ProgressListener {
+		private final List<Integer> steps = new ArrayList<>();
+
+		@Override
+		public synchronized void step(int workDone, String message) {
+			super.step(workDone, message);
+			this.steps.add(workDone);
+		}
+	}
+
+	@Test
+	public void testAdvanceIsThrottled() {
+		RecordingListener listener = new RecordingListener();
+		AtomicInteger messages = new AtomicInteger();
+
+		int total = 200_000;
+		listener.init(total, "test");
+		IntStream.range(0, total).parallel().forEach(i -> listener.advance(1, () -> "item " + messages.incrementAndGet()));
+
+		assertEquals(total, (int) listener.steps.get(listener.steps.size() - 1));
+		assertEquals(listener.steps.size(), messages.get());
+		assertTrue(listener.steps.size() < total / 100, "too many steps published: " + listener.steps.size());
+
+		for (int i = 1; i < listener.steps.size(); i++) {
+			assertTrue(listener.steps.get(i) > listener.steps.get(i - 1));
+		}
+	}
+
+	@Test
+	public void testAdvanceReachesSyncedListeners() {
+		ProgressListener main = ProgressListener.createEmpty();
+		RecordingListener synced = new RecordingListener();
+		synced.sync(main);
+		synced.steps.clear();
+
+		main.init(3, "test");
+		main.advance(1, () -> "a");
+		main.advance(2, () -> "b");
+
+		assertEquals(List.of(1, 3), synced.steps);
+	}
+}
@@ -0,0 +1,96 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Opcodes;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.analysis.ReferenceTargetType;
+import org.quiltmc.enigma.api.analysis.index.jar.CombinedJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.LibrariesJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.MainJarIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.ReferenceIndex;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodDefEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestReferenceIndex {
+	private static final ClassEntry TARGET_CLASS = TestEntryFactory.newClass("a");
+	private static final MethodEntry TARGET_METHOD = TestEntryFactory.newMethod(TARGET_CLASS, "a", "()V");
+	private static final MethodEntry TARGET_CONSTRUCTOR = TestEntryFactory.newMethod(TARGET_CLASS, "<init>", "()V");
+	private static final FieldEntry TARGET_FIELD = TestEntryFactory.newField(TARGET_CLASS, "b", "I");
+
+	private static final MethodDefEntry CALLER_C = method("c", "a");
+	private static final MethodDefEntry CALLER_B_2 = method("b", "b");
+	private static final MethodDefEntry CALLER_B_1 = method("b", "a");
+
+	private static MethodDefEntry method(String className, String name) {
+		return MethodDefEntry.parse(TestEntryFactory.newClass(className), Opcodes.ACC_PUBLIC, name, "(La;)V", null);
+	}
+
+	private static List<MethodDefEntry> contexts(Iterable<? extends EntryReference<?, MethodDefEntry>> references) {
+		List<MethodDefEntry> contexts = new ArrayList<>();
+		references.forEach(reference -> contexts.add(reference.context));
+		return contexts;
+	}
+
+	@Test
+	public void testQueries() {
+		JarIndex index = MainJarIndex.empty();
+		ReferenceIndex referenceIndex = index.getIndex(ReferenceIndex.class);
+		for (MethodDefEntry caller : List.of(CALLER_C, CALLER_B_2, CALLER_B_1)) {
+			referenceIndex.indexMethod(caller);
+			referenceIndex.indexMethodReference(caller, TARGET_METHOD, ReferenceTargetType.classType(TARGET_CLASS));
+			referenceIndex.indexFieldReference(caller, TARGET_FIELD, ReferenceTargetType.none());
+		}
+
+		// duplicates are only indexed once
+		referenceIndex.indexMethodReference(CALLER_C, TARGET_METHOD, ReferenceTargetType.none());
+		referenceIndex.indexMethodReference(CALLER_C, TARGET_CONSTRUCTOR, ReferenceTargetType.uninitialized());
+		referenceIndex.indexField(FieldDefEntry.parse(TARGET_CLASS, Opcodes.ACC_PUBLIC, "c", "La;", null));
+
+		// queries work before processing, for other indexers' processIndex
+		Assertions.assertEquals(List.of(CALLER_B_1, CALLER_B_2, CALLER_C), contexts(referenceIndex.getReferencesToMethod(TARGET_METHOD)));
+
+		referenceIndex.processIndex(index);
+
+		List<EntryReference<MethodEntry, MethodDefEntry>> methodReferences = List.copyOf(referenceIndex.getReferencesToMethod(TARGET_METHOD));
+		Assertions.assertEquals(List.of(CALLER_B_1, CALLER_B_2, CALLER_C), contexts(methodReferences));
+		Assertions.assertEquals(TARGET_METHOD, methodReferences.get(0).entry);
+		Assertions.assertTrue(methodReferences.get(0).isNamed());
+		Assertions.assertEquals(TARGET_CLASS, ((ReferenceTargetType.ClassType) methodReferences.get(0).targetType).getEntry());
+
+		Assertions.assertEquals(List.of(CALLER_B_1, CALLER_B_2, CALLER_C), contexts(referenceIndex.getReferencesToField(TARGET_FIELD)));
+		Assertions.assertEquals(List.of(CALLER_B_1, CALLER_B_2, CALLER_C), contexts(referenceIndex.getMethodTypeReferencesToClass(TARGET_CLASS)));
+		Assertions.assertEquals(1, referenceIndex.getFieldTypeReferencesToClass(TARGET_CLASS).size());
+
+		List<EntryReference<ClassEntry, MethodDefEntry>> classReferences = List.copyOf(referenceIndex.getReferencesToClass(TARGET_CLASS));
+		Assertions.assertEquals(List.of(CALLER_C), contexts(classReferences));
+		Assertions.assertEquals(ReferenceTargetType.Kind.UNINITIALIZED, classReferences.get(0).targetType.getKind());
+		Assertions.assertFalse(referenceIndex.getReferencesToMethod(TARGET_CONSTRUCTOR).iterator().next().isNamed());
+
+		Assertions.assertEquals(List.of(TARGET_METHOD, TARGET_CONSTRUCTOR), List.copyOf(referenceIndex.getMethodsReferencedBy(CALLER_C)));
+		Assertions.assertEquals(List.of(TARGET_FIELD), List.copyOf(referenceIndex.getFieldsReferencedBy(CALLER_B_1)));
+		Assertions.assertTrue(referenceIndex.getMethodsReferencedBy(TARGET_METHOD).isEmpty());
+		Assertions.assertTrue(referenceIndex.getReferencesToField(TestEntryFactory.newField(TARGET_CLASS, "x", "I")).isEmpty());
+	}
+
+	@Test
+	public void testCombinedQueriesAreSorted() {
+		MainJarIndex mainIndex = MainJarIndex.empty();
+		LibrariesJarIndex libIndex = LibrariesJarIndex.empty();
+		for (MethodDefEntry caller : List.of(CALLER_C, CALLER_B_1)) {
+			mainIndex.getIndex(ReferenceIndex.class).indexMethodReference(caller, TARGET_METHOD, ReferenceTargetType.none());
+		}
+
+		libIndex.getIndex(ReferenceIndex.class).indexMethodReference(CALLER_B_2, TARGET_METHOD, ReferenceTargetType.none());
+
+		ReferenceIndex combined = CombinedJarIndex.empty(mainIndex, libIndex).getIndex(ReferenceIndex.class);
+		Assertions.assertEquals(List.of(CALLER_B_1, CALLER_B_2, CALLER_C), contexts(combined.getReferencesToMethod(TARGET_METHOD)));
+	}
+}
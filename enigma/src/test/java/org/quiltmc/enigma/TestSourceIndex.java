@@ -0,0 +1,103 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.source.SourceIndex;
+import org.quiltmc.enigma.api.source.SourceRemapper;
+import org.quiltmc.enigma.api.source.Token;
+import org.quiltmc.enigma.api.source.TokenStore;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TestSourceIndex {
+	private static final String SOURCE = "class x {\n\ty p;\n\tz q;\n}\n";
+
+	private static Token token(String source, String text) {
+		int start = source.indexOf(text);
+		return new Token(start, start + text.length(), text);
+	}
+
+	private static SourceIndex createIndex() {
+		SourceIndex index = new SourceIndex(SOURCE);
+		ClassEntry x = new ClassEntry("x");
+
+		// added out of order on purpose, the index must sort them
+		index.addReference(token(SOURCE, "z"), new ClassEntry("z"), x);
+		index.addDeclaration(token(SOURCE, "x"), x);
+		index.addReference(token(SOURCE, "y"), new ClassEntry("y"), x);
+		return index;
+	}
+
+	@Test
+	public void testLines() {
+		SourceIndex index = new SourceIndex(SOURCE);
+
+		assertEquals(1, index.getLineNumber(0));
+		assertEquals(1, index.getLineNumber(9));
+		assertEquals(2, index.getLineNumber(10));
+		assertEquals(3, index.getLineNumber(17));
+		assertEquals(2, index.getColumnNumber(11));
+		assertEquals(11, index.getPosition(2, 2));
+	}
+
+	@Test
+	public void testReferenceTokens() {
+		SourceIndex index = createIndex();
+
+		List<Token> tokens = new ArrayList<>();
+		index.referenceTokens().forEach(tokens::add);
+		assertEquals(List.of(token(SOURCE, "x"), token(SOURCE, "y"), token(SOURCE, "z")), tokens);
+
+		Token y = token(SOURCE, "y");
+		assertEquals(y, index.getReferenceToken(y.start));
+		assertEquals(y, index.getReferenceToken(y.end));
+		assertNull(index.getReferenceToken(y.end + 1));
+		assertEquals(new ClassEntry("y"), index.getReference(y).entry);
+	}
+
+	@Test
+	public void testRemappedOffsets() {
+		SourceIndex index = createIndex();
+		SourceRemapper.Result result = new SourceRemapper(SOURCE, index.referenceTokens())
+				.remap((token, movedToken) -> token.text.equals("y") ? "Foo" : null);
+		SourceIndex remapped = index.remapTo(result);
+
+		assertEquals("class x {\n\tFoo p;\n\tz q;\n}\n", remapped.getSource());
+
+		Token z = token(remapped.getSource(), "z");
+		assertEquals(z, remapped.getReferenceToken(z.start));
+		assertSame(remapped.getReference(z), index.getReference(token(SOURCE, "z")));
+	}
+
+	@Test
+	public void testMapPosition() {
+		SourceIndex index = createIndex();
+
+		TokenStore from = TokenStore.create(index);
+		TokenStore to = TokenStore.create(index);
+
+		new SourceRemapper(SOURCE, index.referenceTokens()).remap((token, movedToken) -> {
+			from.add(null, EntryMapping.OBFUSCATED, movedToken);
+			return null;
+		});
+		String remappedSource = new SourceRemapper(SOURCE, index.referenceTokens()).remap((token, movedToken) -> {
+			to.add(null, new EntryMapping("Foo"), movedToken);
+			return "Foo";
+		}).getSource();
+
+		int q = SOURCE.indexOf('q');
+		assertEquals(remappedSource.indexOf('q'), from.mapPosition(to, q));
+		assertEquals(q, to.mapPosition(from, remappedSource.indexOf('q')));
+
+		// inside a renamed token, the position snaps to its start
+		assertEquals(remappedSource.indexOf("Foo p"), from.mapPosition(to, SOURCE.indexOf('y')));
+		assertEquals(3, to.getByType().get(TokenType.DEOBFUSCATED).size());
+	}
+}
@@ -0,0 +1,119 @@
+package org.quiltmc.enigma;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.service.ReadWriteService;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.jar.JarFile;
+
+/**
+ * Runs a generated jar through indexing, mapping, exporting and every mapping format.
+ * The jar's size can be raised with the {@code enigma.test.syntheticClasses} system property.
+ */
+public class TestSyntheticJar {
+	private static final long SEED = 0x5EED;
+	private static final int CLASS_COUNT = Integer.getInteger("enigma.test.syntheticClasses", 500);
+
+	private static Path directory;
+	private static SyntheticJar jar;
+	private static Enigma enigma;
+	private static EnigmaProject project;
+
+	@BeforeAll
+	public static void beforeAll() throws Exception {
+		directory = Files.createTempDirectory("enigmaSyntheticJar-");
+		jar = SyntheticJar.generate(SEED, CLASS_COUNT);
+		Path path = directory.resolve("synthetic.jar");
+		jar.writeJar(path);
+
+		enigma = Enigma.create();
+		project = enigma.openJar(path, new ClasspathClassProvider(), ProgressListener.createEmpty());
+	}
+
+	@Test
+	public void testDeterministic() throws Exception {
+		Path first = directory.resolve("first.jar");
+		Path second = directory.resolve("second.jar");
+		SyntheticJar.generate(SEED, CLASS_COUNT).writeJar(first);
+		SyntheticJar.generate(SEED, CLASS_COUNT).writeJar(second);
+
+		Assertions.assertArrayEquals(Files.readAllBytes(first), Files.readAllBytes(second));
+	}
+
+	@Test
+	public void testIndexesEveryClass() {
+		Assertions.assertEquals(jar.getClasses().size(), project.getJarIndex().getIndex(EntryIndex.class).getClasses().size());
+	}
+
+	@Test
+	public void testMappingsMatchJar() {
+		project.setMappings(jar.getMappings(), ProgressListener.createEmpty());
+		Assertions.assertEquals(Map.of(), project.findInvalidMappings(ProgressListener.createEmpty()).mappings());
+
+		for (EntryTreeNode<EntryMapping> node : jar.getMappings()) {
+			if (node.getEntry() instanceof ClassEntry entry && !entry.isInnerClass()) {
+				Assertions.assertEquals(node.getValue().targetName(), project.getRemapper().deobfuscate(entry).getFullName());
+				Assertions.assertTrue(project.isRenamable(entry));
+			}
+		}
+	}
+
+	@Test
+	public void testExport() throws Exception {
+		project.setMappings(jar.getMappings(), ProgressListener.createEmpty());
+		Path exported = directory.resolve("exported.jar");
+		project.exportRemappedJar(ProgressListener.createEmpty()).write(exported, ProgressListener.createEmpty());
+
+		try (JarFile file = new JarFile(exported.toFile())) {
+			Assertions.assertEquals(jar.getClasses().size(), file.size());
+			for (ClassEntry entry : project.getJarIndex().getIndex(EntryIndex.class).getClasses()) {
+				String name = project.getRemapper().deobfuscate(entry).getFullName();
+				Assertions.assertNotNull(file.getEntry(name + ".class"), name);
+			}
+		}
+	}
+
+	@Test
+	public void testEveryFormat() throws Exception {
+		Map<ReadWriteService, Path> written = jar.writeMappings(enigma, directory.resolve("mappings"));
+		Assertions.assertFalse(written.isEmpty());
+
+		for (Map.Entry<ReadWriteService, Path> format : written.entrySet()) {
+			if (!format.getKey().supportsReading()) {
+				continue;
+			}
+
+			EntryTree<EntryMapping> read = format.getKey().read(format.getValue(), ProgressListener.createEmpty());
+			for (EntryTreeNode<EntryMapping> node : jar.getMappings()) {
+				if (node.getEntry() instanceof ClassEntry entry) {
+					EntryMapping mapping = read.get(entry);
+					Assertions.assertNotNull(mapping, () -> format.getKey().getId() + ": " + entry);
+					Assertions.assertEquals(node.getValue().targetName(), mapping.targetName(), () -> format.getKey().getId() + ": " + entry);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testScales() {
+		SyntheticJar small = SyntheticJar.generate(SEED, 10);
+		SyntheticJar large = SyntheticJar.generate(SEED, 1000);
+
+		Assertions.assertTrue(large.getClasses().size() > small.getClasses().size() * 50);
+		Assertions.assertTrue(large.getMappings().getAllEntries().count() > small.getMappings().getAllEntries().count() * 50);
+	}
+}
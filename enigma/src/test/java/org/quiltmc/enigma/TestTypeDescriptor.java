@@ -8,6 +8,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestTypeDescriptor {
@@ -76,6 +77,21 @@ public class TestTypeDescriptor {
 		assertThat(new TypeDescriptor("[[[Ljava/lang/String;").getTypeEntry(), Matchers.is(TestEntryFactory.newClass("java/lang/String")));
 	}
 
+	@Test
+	public void remapClassEntry() {
+		TypeDescriptor desc = new TypeDescriptor("[[LFoo;");
+		TypeDescriptor remapped = desc.remap(name -> name.equals(desc.getTypeEntry().getFullName()) ? "Bar" : null);
+		assertThat(remapped, is(new TypeDescriptor("[[LBar;")));
+		assertThat(remapped.getTypeEntry(), Matchers.is(TestEntryFactory.newClass("Bar")));
+	}
+
+	@Test
+	public void rejectGenerics() {
+		assertThrows(IllegalArgumentException.class, () -> new TypeDescriptor("LFoo<LBar;>;"));
+		assertThrows(IllegalArgumentException.class, () -> new TypeDescriptor("[LFoo<LBar;>;"));
+		assertThrows(IllegalArgumentException.class, () -> new TypeDescriptor("TT;"));
+	}
+
 	@Test
 	public void isArray() {
 		assertFalse(new TypeDescriptor("V").isArray());
@@ -0,0 +1,96 @@
+package org.quiltmc.enigma.api.analysis.index.jar;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.EntryReference;
+import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.class_provider.JarClassProvider;
+import org.quiltmc.enigma.api.class_provider.ProjectClassProvider;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Indexes the same jar with {@link IndependentReferenceIndex} and {@link CompactReferenceIndex}, and checks that every query
+ * returns the same results in the same order.
+ */
+public class TestReferenceIndexParity {
+	private static EntryIndex entryIndex;
+	private static ReferenceIndex independent;
+	private static ReferenceIndex compact;
+
+	@BeforeAll
+	public static void beforeAll() throws Exception {
+		try (JarClassProvider jarClassProvider = new JarClassProvider(SyntheticJar.getTemporaryJar(1, 40))) {
+			ProjectClassProvider classProvider = new ProjectClassProvider(jarClassProvider, new ClasspathClassProvider());
+
+			independent = new IndependentReferenceIndex();
+			index(independent, classProvider);
+
+			compact = new CompactReferenceIndex();
+			entryIndex = index(compact, classProvider).getIndex(EntryIndex.class);
+		}
+	}
+
+	private static JarIndex index(ReferenceIndex referenceIndex, ProjectClassProvider classProvider) {
+		EntryIndex entryIndex = new IndependentEntryIndex();
+		InheritanceIndex inheritanceIndex = new InheritanceIndex(entryIndex);
+		BridgeMethodIndex bridgeMethodIndex = new IndependentBridgeMethodIndex(entryIndex, inheritanceIndex, referenceIndex);
+		MainJarIndex index = new MainJarIndex(
+				entryIndex, inheritanceIndex, referenceIndex, bridgeMethodIndex,
+				new PackageVisibilityIndex(), new EnclosingMethodIndex(), new LambdaIndex()
+		);
+
+		index.indexJar(classProvider, ProgressListener.createEmpty());
+		return index;
+	}
+
+	@Test
+	public void testClassQueries() {
+		Assertions.assertFalse(entryIndex.getClasses().isEmpty());
+		for (ClassEntry entry : entryIndex.getClasses()) {
+			assertSameReferences(entry, index -> index.getReferencesToClass(entry));
+			assertSameReferences(entry, index -> index.getFieldTypeReferencesToClass(entry));
+			assertSameReferences(entry, index -> index.getMethodTypeReferencesToClass(entry));
+		}
+	}
+
+	@Test
+	public void testMethodQueries() {
+		Assertions.assertTrue(entryIndex.getMethods().stream().anyMatch(method -> !compact.getReferencesToMethod(method).isEmpty()));
+		for (MethodEntry entry : entryIndex.getMethods()) {
+			assertSameReferences(entry, index -> index.getReferencesToMethod(entry));
+			assertSame(entry, index -> index.getMethodsReferencedBy(entry));
+			assertSame(entry, index -> index.getFieldsReferencedBy(entry));
+		}
+	}
+
+	@Test
+	public void testFieldQueries() {
+		Assertions.assertFalse(entryIndex.getFields().isEmpty());
+		for (FieldEntry entry : entryIndex.getFields()) {
+			assertSameReferences(entry, index -> index.getReferencesToField(entry));
+		}
+	}
+
+	private static void assertSame(Object entry, Function<ReferenceIndex, Collection<?>> query) {
+		Assertions.assertEquals(List.copyOf(query.apply(independent)), List.copyOf(query.apply(compact)), entry.toString());
+	}
+
+	/**
+	 * Also compares the target types of the references, which {@link EntryReference#equals(Object)} ignores.
+	 */
+	private static void assertSameReferences(Object entry, Function<ReferenceIndex, Collection<? extends EntryReference<?, ?>>> query) {
+		Function<ReferenceIndex, List<String>> describe = index -> query.apply(index).stream()
+				.map(reference -> reference.entry + " <- " + reference.context + " (" + reference.targetType + ")")
+				.toList();
+		Assertions.assertEquals(describe.apply(independent), describe.apply(compact), entry.toString());
+	}
+}
@@ -0,0 +1,101 @@
+package org.quiltmc.enigma.api.class_handle;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.source.Decompiler;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class TestClassPrefetcher {
+	private static final int CACHE_SIZE = 2;
+
+	private static EnigmaProject project;
+	// a class with more prefetch targets than fit in the cache, and its targets in prefetch order
+	private static ClassEntry entry;
+	private static List<String> targets;
+
+	private final List<String> decompiled = new CopyOnWriteArrayList<>();
+	private final Decompiler decompiler = (className, remapper) -> {
+		this.decompiled.add(className);
+		return null;
+	};
+	private ClassPrefetcher prefetcher;
+
+	@BeforeAll
+	public static void beforeAll() throws Exception {
+		project = SyntheticJar.openProject(Enigma.create(), 0, 20);
+
+		for (ClassEntry classEntry : project.getJarIndex().getIndex(EntryIndex.class).getClasses()) {
+			if (classEntry.isInnerClass()) {
+				continue;
+			}
+
+			List<String> decompiled = new CopyOnWriteArrayList<>();
+			ClassPrefetcher prefetcher = new ClassPrefetcher(project, () -> (className, remapper) -> {
+				decompiled.add(className);
+				return null;
+			}, new ClassPrefetcher.UserWork(), Integer.MAX_VALUE, MoreExecutors.newDirectExecutorService(), MoreExecutors.newDirectExecutorService());
+			prefetcher.prefetchAround(classEntry);
+
+			if (decompiled.size() > CACHE_SIZE) {
+				entry = classEntry;
+				targets = List.copyOf(decompiled);
+				return;
+			}
+		}
+
+		Assertions.fail("no class has enough prefetch targets");
+	}
+
+	@AfterEach
+	public void afterEach() {
+		if (this.prefetcher != null) {
+			this.prefetcher.shutdown();
+		}
+	}
+
+	@Test
+	public void testCacheBound() {
+		this.prefetcher = new ClassPrefetcher(project, () -> this.decompiler, new ClassPrefetcher.UserWork(), CACHE_SIZE, MoreExecutors.newDirectExecutorService(), MoreExecutors.newDirectExecutorService());
+		this.prefetcher.prefetchAround(entry);
+		Assertions.assertEquals(targets, this.decompiled);
+
+		// only the last prefetched sources are kept
+		for (int i = 0; i < targets.size(); i++) {
+			boolean cached = this.prefetcher.claim(new ClassEntry(targets.get(i))) != null;
+			Assertions.assertEquals(i >= targets.size() - CACHE_SIZE, cached, targets.get(i));
+		}
+	}
+
+	@Test
+	public void testYieldsToUserWork() throws InterruptedException {
+		ClassPrefetcher.UserWork userWork = new ClassPrefetcher.UserWork();
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		this.prefetcher = new ClassPrefetcher(project, () -> this.decompiler, userWork, Integer.MAX_VALUE, pool, MoreExecutors.newDirectExecutorService());
+
+		userWork.begin();
+		this.prefetcher.prefetchAround(entry);
+		Thread.sleep(200);
+		Assertions.assertEquals(List.of(), this.decompiled);
+
+		// opening a class whose prefetch hasn't started lets the caller decompile it instead
+		Assertions.assertNull(this.prefetcher.claim(new ClassEntry(targets.get(0))));
+
+		userWork.end();
+		pool.shutdown();
+		Assertions.assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		Assertions.assertEquals(targets.subList(1, targets.size()), this.decompiled);
+	}
+}
@@ -0,0 +1,109 @@
+package org.quiltmc.enigma.api.class_handle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestDecompilePool {
+	private static final String ACTIVE = "active";
+	private static final String BACKGROUND = "background";
+	private static final String BLOCKER = "blocker";
+
+	private final Map<Object, Integer> priorities = new ConcurrentHashMap<>(Map.of(ACTIVE, 0, BACKGROUND, 1, BLOCKER, 0));
+	private final List<String> ran = new CopyOnWriteArrayList<>();
+	private final List<String> cancelled = new CopyOnWriteArrayList<>();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private DecompilePool pool;
+
+	@BeforeEach
+	public void beforeEach() throws InterruptedException {
+		this.pool = new DecompilePool(this.priorities::get, 1);
+
+		// keep the only worker busy, so that all other tasks stay queued until released
+		CountDownLatch started = new CountDownLatch(1);
+		this.pool.executor(BLOCKER, ClassHandleProvider.Stage.DECOMPILE, 1).execute(() -> {
+			started.countDown();
+			try {
+				this.release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+	}
+
+	@AfterEach
+	public void afterEach() {
+		this.release.countDown();
+		this.pool.shutdown();
+	}
+
+	@Test
+	public void testActiveClassFirst() throws InterruptedException {
+		this.submit(BACKGROUND, ClassHandleProvider.Stage.DECOMPILE, 1);
+		this.submit(BACKGROUND, ClassHandleProvider.Stage.JAVADOC, 1);
+		this.submit(ACTIVE, ClassHandleProvider.Stage.DECOMPILE, 1);
+		this.submit(ACTIVE, ClassHandleProvider.Stage.JAVADOC, 1);
+		Assertions.assertEquals(4, this.pool.getQueueDepth());
+
+		this.drain();
+		Assertions.assertEquals(List.of("active DECOMPILE 1", "active JAVADOC 1", "background DECOMPILE 1", "background JAVADOC 1"), this.ran);
+	}
+
+	@Test
+	public void testReprioritize() throws InterruptedException {
+		this.submit(ACTIVE, ClassHandleProvider.Stage.DECOMPILE, 1);
+		this.submit(BACKGROUND, ClassHandleProvider.Stage.DECOMPILE, 1);
+
+		this.priorities.put(ACTIVE, 2);
+		this.pool.reprioritize(ACTIVE);
+
+		this.drain();
+		Assertions.assertEquals(List.of("background DECOMPILE 1", "active DECOMPILE 1"), this.ran);
+	}
+
+	@Test
+	public void testSupersededCancelled() throws InterruptedException {
+		this.submit(BACKGROUND, ClassHandleProvider.Stage.DECOMPILE, 1);
+		this.submit(BACKGROUND, ClassHandleProvider.Stage.JAVADOC, 1);
+		this.submit(ACTIVE, ClassHandleProvider.Stage.DECOMPILE, 1);
+
+		// only older versions of the same stage of the same owner are cancelled
+		this.submit(BACKGROUND, ClassHandleProvider.Stage.DECOMPILE, 2);
+		Assertions.assertEquals(List.of("background DECOMPILE 1"), this.cancelled);
+		Assertions.assertEquals(3, this.pool.getQueueDepth());
+
+		this.drain();
+		Assertions.assertEquals(List.of("active DECOMPILE 1", "background JAVADOC 1", "background DECOMPILE 2"), this.ran);
+		Assertions.assertEquals(List.of("background DECOMPILE 1"), this.cancelled);
+
+		ClassHandleProvider.StageStatistics statistics = this.pool.getStatistics().get(ClassHandleProvider.Stage.DECOMPILE);
+		Assertions.assertEquals(1, statistics.cancelled());
+		// the blocker, the active class and the second background version
+		Assertions.assertEquals(3, statistics.completed());
+	}
+
+	private void submit(String owner, ClassHandleProvider.Stage stage, int version) {
+		String name = owner + " " + stage + " " + version;
+		this.pool.executor(owner, stage, version, () -> this.cancelled.add(name)).execute(() -> this.ran.add(name));
+	}
+
+	/**
+	 * Releases the worker and waits for all queued tasks to run.
+	 */
+	private void drain() throws InterruptedException {
+		this.release.countDown();
+		this.pool.shutdown();
+		Assertions.assertTrue(this.pool.awaitTermination(10, TimeUnit.SECONDS));
+	}
+}
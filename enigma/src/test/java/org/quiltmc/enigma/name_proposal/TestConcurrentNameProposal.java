@@ -0,0 +1,158 @@
+package org.quiltmc.enigma.name_proposal;
+
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaPluginContext;
+import org.quiltmc.enigma.api.EnigmaProfile;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.service.NameProposalService;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+import org.quiltmc.enigma.test.plugin.AnyVersionEnigmaPlugin;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TestConcurrentNameProposal {
+	private static final int CONCURRENT_PROPOSERS = 3;
+
+	@Test
+	public void testConcurrentProposalPriority() throws Exception {
+		CountDownLatch started = new CountDownLatch(CONCURRENT_PROPOSERS);
+		EnigmaProject project = open(null, ctx -> {
+			// would never all start if they were run one after another
+			for (String prefix : new String[] {"b", "a", "c"}) {
+				ctx.registerService(NameProposalService.TYPE, ctx1 -> new FieldProposer("test:" + prefix, prefix, true, () -> {
+					started.countDown();
+					return started.await(10, TimeUnit.SECONDS);
+				}));
+			}
+
+			ctx.registerService(NameProposalService.TYPE, ctx1 -> new FieldProposer("test:d", "d", false, () -> true));
+		}, "test:a", "test:b", "test:c", "test:d");
+
+		Assertions.assertEquals(0, started.getCount());
+		assertAllFieldsProposedBy(project, "test:a");
+	}
+
+	@Test
+	public void testTimeout() throws Exception {
+		EnigmaProject project = open(100L, ctx -> {
+			ctx.registerService(NameProposalService.TYPE, ctx1 -> new FieldProposer("test:slow", "slow", true, () -> {
+				Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+				return true;
+			}));
+			ctx.registerService(NameProposalService.TYPE, ctx1 -> new FieldProposer("test:slow_sequential", "slowSequential", false, () -> {
+				Thread.sleep(500);
+				return true;
+			}));
+			ctx.registerService(NameProposalService.TYPE, ctx1 -> new FieldProposer("test:fast", "fast", true, () -> true));
+		}, "test:slow", "test:slow_sequential", "test:fast");
+
+		assertAllFieldsProposedBy(project, "test:fast");
+	}
+
+	@Test
+	public void testTimeoutStopsWaitingForHungService() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			long start = System.nanoTime();
+			EnigmaProject project = open(100L, ctx -> {
+				ctx.registerService(NameProposalService.TYPE, ctx1 -> new FieldProposer("test:hung", "hung", false, () -> {
+					// ignores interrupts, like a third-party service stuck in a loop
+					while (release.getCount() > 0) {
+						try {
+							release.await();
+						} catch (InterruptedException ignored) {
+							// keep waiting
+						}
+					}
+
+					return true;
+				}));
+				ctx.registerService(NameProposalService.TYPE, ctx1 -> new FieldProposer("test:after", "after", false, () -> true));
+			}, "test:hung", "test:after");
+
+			Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+			assertAllFieldsProposedBy(project, "test:after");
+		} finally {
+			release.countDown();
+		}
+	}
+
+	private static void assertAllFieldsProposedBy(EnigmaProject project, String id) {
+		Assertions.assertFalse(project.getJarIndex().getIndex(EntryIndex.class).getFields().isEmpty());
+		project.getJarIndex().getIndex(EntryIndex.class).getFields().forEach(field -> {
+			EntryMapping mapping = project.getRemapper().getMapping(field);
+			Assertions.assertEquals(TokenType.JAR_PROPOSED, mapping.tokenType(), field::toString);
+			Assertions.assertEquals(id, mapping.sourcePluginId(), field::toString);
+		});
+	}
+
+	private static EnigmaProject open(@Nullable Long timeout, AnyVersionEnigmaPlugin plugin, String... ids) throws Exception {
+		StringBuilder profile = new StringBuilder("{");
+		if (timeout != null) {
+			profile.append("\"name_proposal_timeout\": ").append(timeout).append(',');
+		}
+
+		profile.append("\"services\": {\"name_proposal\": [");
+		for (int i = 0; i < ids.length; i++) {
+			profile.append(i == 0 ? "" : ",").append("{\"id\": \"").append(ids[i]).append("\"}");
+		}
+
+		profile.append("]}}");
+
+		Enigma enigma = Enigma.builder()
+				.setProfile(EnigmaProfile.parse(new StringReader(profile.toString())))
+				.setPlugins(List.of(plugin))
+				.build();
+		return SyntheticJar.openProject(enigma, 0, 20);
+	}
+
+	private interface Work {
+		boolean run() throws Exception;
+	}
+
+	private record FieldProposer(String id, String prefix, boolean threadSafe, Work work) implements NameProposalService {
+		@Override
+		public Map<Entry<?>, EntryMapping> getProposedNames(Enigma enigma, JarIndex index) {
+			try {
+				if (!this.work.run()) {
+					return null;
+				}
+			} catch (Exception e) {
+				return null;
+			}
+
+			Map<Entry<?>, EntryMapping> mappings = new HashMap<>();
+			index.getIndex(EntryIndex.class).getFields().forEach(field -> mappings.put(field, this.createMapping(this.prefix + mappings.size(), TokenType.JAR_PROPOSED)));
+			return mappings;
+		}
+
+		@Override
+		public Map<Entry<?>, EntryMapping> getDynamicProposedNames(EntryRemapper remapper, @Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping) {
+			return null;
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return this.threadSafe;
+		}
+
+		@Override
+		public String getId() {
+			return this.id;
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package org.quiltmc.enigma.name_proposal;
+
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProfile;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.analysis.index.jar.JarIndex;
+import org.quiltmc.enigma.api.service.NameProposalService;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryChange;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+import org.quiltmc.enigma.test.plugin.AnyVersionEnigmaPlugin;
+import org.quiltmc.enigma.util.validation.ValidationContext;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class TestDependentNameProposal {
+	private static final String ID = "test:field_owner";
+	private static final String RECORDER_ID = "test:change_recorder";
+
+	private EnigmaProject project;
+	private OwnerNameProposer proposer;
+	private ChangeRecorder recorder;
+
+	@BeforeEach
+	public void beforeEach() throws Exception {
+		this.proposer = new OwnerNameProposer();
+		this.recorder = new ChangeRecorder();
+		Enigma enigma = Enigma.builder()
+				.setProfile(EnigmaProfile.parse(new StringReader("{\"services\": {\"name_proposal\": [{\"id\": \"" + ID + "\"}, {\"id\": \"" + RECORDER_ID + "\"}]}}")))
+				.setPlugins(List.of((AnyVersionEnigmaPlugin) ctx -> {
+					ctx.registerService(NameProposalService.TYPE, ctx1 -> this.proposer);
+					ctx.registerService(NameProposalService.TYPE, ctx1 -> this.recorder);
+				}))
+				.build();
+		this.project = SyntheticJar.openProject(enigma, 0, 20);
+		this.project.setMappings(null, ProgressListener.createEmpty());
+	}
+
+	@Test
+	public void testOnlyDependentsProposed() {
+		Assertions.assertEquals(1, this.proposer.requests.size());
+		Assertions.assertNull(this.proposer.requests.get(0));
+		this.proposer.requests.clear();
+
+		var source = this.proposer.sources.entrySet().iterator().next();
+		this.put(source.getValue(), "query");
+
+		Assertions.assertEquals(List.of(Set.of(source.getKey())), this.proposer.requests);
+		Assertions.assertEquals(new EntryMapping("QueryOwner", null, TokenType.DYNAMIC_PROPOSED, ID), this.project.getRemapper().getMapping(source.getKey()));
+		this.proposer.requests.clear();
+
+		// nothing depends on methods
+		MethodEntry method = this.project.getJarIndex().getIndex(EntryIndex.class).getMethods().iterator().next();
+		this.put(method, "unrelated");
+		Assertions.assertEquals(List.of(), this.proposer.requests);
+
+		this.project.getRemapper().putMapping(new ValidationContext(null), source.getValue(), EntryMapping.OBFUSCATED);
+		Assertions.assertEquals(List.of(Set.of(source.getKey())), this.proposer.requests);
+		Assertions.assertEquals(EntryMapping.OBFUSCATED, this.project.getRemapper().getMapping(source.getKey()));
+	}
+
+	@Test
+	public void testBatch() {
+		this.proposer.requests.clear();
+
+		List<EntryChange<?>> changes = new ArrayList<>();
+		Map<ClassEntry, String> expected = new HashMap<>();
+		this.proposer.sources.entrySet().stream().limit(3).forEach(source -> {
+			String name = "batch" + changes.size();
+			changes.add(EntryChange.modify(source.getValue()).withDeobfName(name));
+			expected.put(source.getKey(), "Batch" + (changes.size() - 1) + "Owner");
+		});
+
+		this.project.getRemapper().applyChanges(new ValidationContext(null), changes);
+
+		Assertions.assertEquals(List.of(expected.keySet()), this.proposer.requests);
+		expected.forEach((owner, name) -> Assertions.assertEquals(name, this.project.getRemapper().getMapping(owner).targetName()));
+	}
+
+	@Test
+	public void testBatchDynamicProposal() {
+		EntryIndex index = this.project.getJarIndex().getIndex(EntryIndex.class);
+		List<Entry<?>> entries = new ArrayList<>();
+		entries.addAll(index.getClasses());
+		entries.addAll(index.getFields());
+		entries.addAll(index.getMethods());
+
+		// small batches are proposed for change by change
+		this.recorder.changes.clear();
+		List<EntryChange<?>> changes = entries.stream().limit(3).<EntryChange<?>>map(entry -> EntryChange.modify(entry).withJavadoc("small")).toList();
+		this.project.getRemapper().applyChanges(new ValidationContext(null), changes);
+		Assertions.assertEquals(entries.subList(0, 3), this.recorder.changes);
+
+		// large batches get a single full pass
+		Assertions.assertTrue(entries.size() >= 200, "the jar is too small for a large batch");
+		this.recorder.changes.clear();
+		changes = entries.stream().limit(200).<EntryChange<?>>map(entry -> EntryChange.modify(entry).withJavadoc("large")).toList();
+		this.project.getRemapper().applyChanges(new ValidationContext(null), changes);
+		Assertions.assertEquals(Collections.singletonList(null), this.recorder.changes);
+	}
+
+	private void put(Entry<?> entry, String name) {
+		ValidationContext vc = new ValidationContext(null);
+		this.project.getRemapper().putMapping(vc, entry, new EntryMapping(name));
+		Assertions.assertTrue(vc.canProceed());
+	}
+
+	/**
+	 * Records the changes it is asked to propose names for, without proposing any.
+	 */
+	private static class ChangeRecorder implements NameProposalService {
+		private final List<Entry<?>> changes = new ArrayList<>();
+
+		@Override
+		public Map<Entry<?>, EntryMapping> getProposedNames(Enigma enigma, JarIndex index) {
+			return null;
+		}
+
+		@Override
+		public Map<Entry<?>, EntryMapping> getDynamicProposedNames(EntryRemapper remapper, @Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping) {
+			this.changes.add(obfEntry);
+			return null;
+		}
+
+		@Override
+		public String getId() {
+			return RECORDER_ID;
+		}
+	}
+
+	/**
+	 * Names each class after the first of its fields, once that field is named.
+	 */
+	private static class OwnerNameProposer implements NameProposalService {
+		private final Map<ClassEntry, FieldEntry> sources = new HashMap<>();
+		private final List<Set<Entry<?>>> requests = new ArrayList<>();
+
+		@Override
+		public Map<Entry<?>, EntryMapping> getProposedNames(Enigma enigma, JarIndex index) {
+			index.getIndex(EntryIndex.class).getFields().stream()
+					.sorted(Comparator.comparing(FieldEntry::getName))
+					.forEach(field -> this.sources.putIfAbsent(field.getParent(), field));
+			return null;
+		}
+
+		@Override
+		public Map<Entry<?>, EntryMapping> getDynamicProposedNames(EntryRemapper remapper, @Nullable Entry<?> obfEntry, @Nullable EntryMapping oldMapping, @Nullable EntryMapping newMapping) {
+			throw new AssertionError("dependency tracking services aren't asked for dynamic names");
+		}
+
+		@Override
+		public boolean tracksDependencies() {
+			return true;
+		}
+
+		@Override
+		public Map<Entry<?>, DependentProposal> getDependentProposedNames(EntryRemapper remapper, @Nullable Set<Entry<?>> entries) {
+			this.requests.add(entries);
+
+			Map<Entry<?>, DependentProposal> proposals = new HashMap<>();
+			this.sources.forEach((owner, field) -> {
+				if (entries == null || entries.contains(owner)) {
+					String name = remapper.getDeobfMappings().get(field) == null ? null : remapper.getDeobfMappings().get(field).targetName();
+					EntryMapping mapping = name == null ? null : this.createMapping(name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1) + "Owner", TokenType.DYNAMIC_PROPOSED);
+					proposals.put(owner, new DependentProposal(mapping, Set.of(field)));
+				}
+			});
+
+			return proposals;
+		}
+
+		@Override
+		public String getId() {
+			return ID;
+		}
+	}
+}
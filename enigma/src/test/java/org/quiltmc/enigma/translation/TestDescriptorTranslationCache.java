@@ -0,0 +1,48 @@
+package org.quiltmc.enigma.translation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.translation.MappingTranslator;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.VoidEntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.ParameterAccessFlags;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+
+public class TestDescriptorTranslationCache {
+	@Test
+	public void testChangesInvalidateCache() {
+		DeltaTrackingTree<EntryMapping> mappings = new DeltaTrackingTree<>();
+		mappings.insert(TestEntryFactory.newClass("a"), new EntryMapping("pkg/A"));
+		Translator translator = new MappingTranslator(mappings, VoidEntryResolver.INSTANCE);
+
+		MethodDescriptor descriptor = new MethodDescriptor("(La;[La$b;I)La;");
+		Assertions.assertEquals(new MethodDescriptor("(Lpkg/A;[Lpkg/A$b;I)Lpkg/A;"), translator.translate(descriptor));
+		Assertions.assertEquals(new TypeDescriptor("[[Lpkg/A;"), translator.translate(new TypeDescriptor("[[La;")));
+
+		mappings.insert(TestEntryFactory.newClass("a$b"), new EntryMapping("B"));
+		Assertions.assertEquals(new MethodDescriptor("(Lpkg/A;[Lpkg/A$B;I)Lpkg/A;"), translator.translate(descriptor));
+
+		mappings.remove(TestEntryFactory.newClass("a"));
+		Assertions.assertEquals(new MethodDescriptor("(La;[La$B;I)La;"), translator.translate(descriptor));
+	}
+
+	@Test
+	public void testAccessFlagsAreKept() {
+		DeltaTrackingTree<EntryMapping> mappings = new DeltaTrackingTree<>();
+		mappings.insert(TestEntryFactory.newClass("a"), new EntryMapping("pkg/A"));
+		Translator translator = new MappingTranslator(mappings, VoidEntryResolver.INSTANCE);
+
+		MethodDescriptor plain = new MethodDescriptor("(La;)V");
+		MethodDescriptor withAccess = new MethodDescriptor("(La;)V");
+		ParameterAccessFlags access = new ParameterAccessFlags(0x10);
+		withAccess.getArgumentDescs().get(0).setAccess(access);
+
+		Assertions.assertSame(ParameterAccessFlags.DEFAULT, translator.translate(plain).getArgumentDescs().get(0).getAccess());
+		Assertions.assertSame(access, translator.translate(withAccess).getArgumentDescs().get(0).getAccess());
+		Assertions.assertEquals(translator.translate(plain), translator.translate(withAccess));
+	}
+}
@@ -0,0 +1,74 @@
+package org.quiltmc.enigma.translation;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.translation.MappingTranslator;
+import org.quiltmc.enigma.api.translation.Translator;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.VoidEntryResolver;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+import org.quiltmc.enigma.impl.bytecode.translator.AsmObjectTranslator;
+import org.quiltmc.enigma.impl.bytecode.translator.RemapTable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestRemapTable {
+	private static Translator createTranslator() {
+		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		mappings.insert(TestEntryFactory.newClass("a"), new EntryMapping("pkg/Foo"));
+		mappings.insert(TestEntryFactory.newClass("a$b"), new EntryMapping("Bar"));
+		mappings.insert(TestEntryFactory.newField("a", "f", "La$b;"), new EntryMapping("bar"));
+		mappings.insert(TestEntryFactory.newMethod("a", "m", "(La;[La$b;)La$b;"), new EntryMapping("make"));
+		return new MappingTranslator(mappings, VoidEntryResolver.INSTANCE);
+	}
+
+	@Test
+	public void testMatchesTranslator() {
+		Translator translator = createTranslator();
+		RemapTable table = RemapTable.of(translator);
+
+		for (String name : new String[] {"a", "a$b", "c", "[[La$b;"}) {
+			assertEquals(translator.translate(new ClassEntry(name)).getFullName(), table.mapClass(name));
+		}
+
+		for (String desc : new String[] {"I", "La;", "[[La$b;", "Ljava/lang/String;"}) {
+			assertEquals(translator.translate(new TypeDescriptor(desc)).toString(), table.mapDesc(desc));
+		}
+
+		assertEquals(translator.translate(new MethodDescriptor("(La;IJ[La$b;)V")).toString(), table.mapMethodDesc("(La;IJ[La$b;)V"));
+
+		FieldEntry field = translator.translate(TestEntryFactory.newField("a", "f", "La$b;"));
+		assertEquals(new RemapTable.Member(field.getParent().getFullName(), field.getName(), field.getDesc().toString()), table.mapField("a", "f", "La$b;"));
+
+		MethodEntry method = translator.translate(TestEntryFactory.newMethod("a", "m", "(La;[La$b;)La$b;"));
+		assertEquals(new RemapTable.Member(method.getParent().getFullName(), method.getName(), method.getDesc().toString()), table.mapMethod("a", "m", "(La;[La$b;)La$b;"));
+
+		Handle handle = new Handle(Opcodes.H_INVOKESTATIC, "a", "m", "(La;[La$b;)La$b;", false);
+		assertEquals(AsmObjectTranslator.translateHandle(translator, handle), table.mapHandle(handle));
+
+		for (Type type : new Type[] {Type.getObjectType("a$b"), Type.getType("[La;"), Type.getMethodType("(La;)La$b;"), Type.INT_TYPE}) {
+			assertEquals(AsmObjectTranslator.translateValue(translator, type), table.mapValue(type));
+		}
+	}
+
+	@Test
+	public void testRepeatedLookups() {
+		RemapTable table = RemapTable.of(createTranslator());
+
+		assertEquals("pkg/Foo$Bar", table.mapClass("a$b"));
+		assertEquals("pkg/Foo$Bar", table.mapClass("a$b"));
+		assertEquals(new RemapTable.Member("pkg/Foo", "bar", "Lpkg/Foo$Bar;"), table.mapField("a", "f", "La$b;"));
+		assertEquals(new RemapTable.Member("pkg/Foo", "bar", "Lpkg/Foo$Bar;"), table.mapField("a", "f", "La$b;"));
+		assertEquals("(Lpkg/Foo;)V", table.mapMethodDesc("(La;)V"));
+		assertEquals("Lpkg/Foo;", table.mapDesc("La;"));
+	}
+}
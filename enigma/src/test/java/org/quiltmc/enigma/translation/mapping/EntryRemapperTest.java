@@ -10,13 +10,16 @@ import org.quiltmc.enigma.api.Enigma;
 import org.quiltmc.enigma.api.EnigmaProject;
 import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.translation.mapping.EntryChange;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.util.validation.ValidationContext;
 
 import java.nio.file.Path;
+import java.util.List;
 
 public class EntryRemapperTest {
 	public static final Path JAR = TestUtil.obfJar("interface_union");
@@ -100,4 +103,41 @@ public class EntryRemapperTest {
 		assertName(TestEntryFactory.newMethod("d", "a", "()F"), name);
 		assertName(TestEntryFactory.newMethod("c", "a", "()F"), name);
 	}
+
+	@Test
+	public void testBatchRename() {
+		var applied = remapper.applyChanges(TestUtil.newVC(), List.of(
+				EntryChange.modify(TestEntryFactory.newClass("a")).withDeobfName("First"),
+				EntryChange.modify(TestEntryFactory.newClass("b")).withDeobfName("Second"),
+				EntryChange.modify(TestEntryFactory.newMethod("e", "a", "()V")).withDeobfName("unionAB")
+		));
+
+		Assertions.assertEquals(3, applied.size());
+		assertName(TestEntryFactory.newClass("a"), "First");
+		assertName(TestEntryFactory.newClass("b"), "Second");
+		assertName(TestEntryFactory.newMethod("b", "a", "()V"), "unionAB");
+
+		// renames within a batch are validated against each other, so names can be swapped
+		remapper.applyChanges(TestUtil.newVC(), List.of(
+				EntryChange.modify(TestEntryFactory.newClass("a")).withDeobfName("Second"),
+				EntryChange.modify(TestEntryFactory.newClass("b")).withDeobfName("First")
+		));
+
+		assertName(TestEntryFactory.newClass("a"), "Second");
+		assertName(TestEntryFactory.newClass("b"), "First");
+	}
+
+	@Test
+	public void testBatchConflict() {
+		ValidationContext vc = TestUtil.newVC();
+		var applied = remapper.applyChanges(vc, List.of(
+				EntryChange.modify(TestEntryFactory.newClass("a")).withDeobfName("Same"),
+				EntryChange.modify(TestEntryFactory.newClass("b")).withDeobfName("Same")
+		));
+
+		Assertions.assertFalse(vc.canProceed());
+		Assertions.assertTrue(applied.isEmpty());
+		assertName(TestEntryFactory.newClass("a"), "a");
+		assertName(TestEntryFactory.newClass("b"), "b");
+	}
 }
@@ -0,0 +1,98 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.MappingDelta;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingFileNameFormat;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
+import org.quiltmc.enigma.api.translation.mapping.serde.enigma.EnigmaMappingsReader;
+import org.quiltmc.enigma.api.translation.mapping.serde.enigma.EnigmaMappingsWriter;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class TestEnigmaDirectoryWrite {
+	private static final MappingSaveParameters PARAMETERS = new MappingSaveParameters(MappingFileNameFormat.BY_OBF, false, null, null);
+	private static final FileTime OLD_TIME = FileTime.fromMillis(0);
+
+	@Test
+	public void testUnchangedFilesAreNotRewritten() throws Exception {
+		Path dir = Files.createTempDirectory("enigmaDirectoryWrite-");
+		EntryTree<EntryMapping> mappings = TestDeterministicWrite.randomMappingTree(2L);
+
+		EnigmaMappingsWriter.DIRECTORY.write(mappings, dir, ProgressListener.createEmpty(), PARAMETERS);
+		List<Path> files = listFiles(dir);
+		Assertions.assertFalse(files.isEmpty());
+		for (Path file : files) {
+			Files.setLastModifiedTime(file, OLD_TIME);
+		}
+
+		// a full save of the same mappings must not touch any file
+		EnigmaMappingsWriter.DIRECTORY.write(mappings, dir, ProgressListener.createEmpty(), PARAMETERS);
+		for (Path file : files) {
+			Assertions.assertEquals(OLD_TIME, Files.getLastModifiedTime(file), file.toString());
+		}
+
+		// renaming one class only rewrites its file
+		ClassEntry renamed = new ClassEntry(dir.relativize(files.get(0)).toString().replace('\\', '/').replace(".mapping", ""));
+		EntryTree<EntryMapping> base = new HashEntryTree<>(mappings);
+		mappings.insert(renamed, new EntryMapping("renamed/Class"));
+		EntryTree<Object> changes = new HashEntryTree<>();
+		changes.insert(renamed, MappingDelta.PLACEHOLDER);
+
+		EnigmaMappingsWriter.DIRECTORY.write(mappings, new MappingDelta<>(base, changes), dir, ProgressListener.createEmpty(), PARAMETERS);
+		for (Path file : files) {
+			Assertions.assertEquals(file.equals(files.get(0)), !OLD_TIME.equals(Files.getLastModifiedTime(file)), file.toString());
+		}
+
+		Assertions.assertEquals(files, listFiles(dir));
+		Assertions.assertEquals("renamed/Class", EnigmaMappingsReader.DIRECTORY.read(dir, ProgressListener.createEmpty()).get(renamed).targetName());
+	}
+
+	@Test
+	public void testZipMatchesDirectory() throws Exception {
+		Path dir = Files.createTempDirectory("enigmaDirectoryWrite-");
+		Path zip = dir.resolve("mappings.zip");
+		EntryTree<EntryMapping> mappings = TestDeterministicWrite.randomMappingTree(3L);
+
+		EnigmaMappingsWriter.DIRECTORY.write(mappings, dir.resolve("directory"), ProgressListener.createEmpty(), PARAMETERS);
+		EnigmaMappingsWriter.ZIP.write(mappings, zip, ProgressListener.createEmpty(), PARAMETERS);
+
+		EntryTree<EntryMapping> fromDirectory = EnigmaMappingsReader.DIRECTORY.read(dir.resolve("directory"), ProgressListener.createEmpty());
+		EntryTree<EntryMapping> fromZip = EnigmaMappingsReader.ZIP.read(zip, ProgressListener.createEmpty());
+
+		Assertions.assertEquals(fromDirectory.getAllEntries().count(), fromZip.getAllEntries().count());
+		for (EntryTreeNode<EntryMapping> node : fromDirectory) {
+			Assertions.assertEquals(node.getValue(), fromZip.get(node.getEntry()), node.getEntry().toString());
+		}
+
+		// the zip's entries are written in order, even though they are rendered in parallel
+		List<String> zipEntries;
+		try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+			zipEntries = zipFile.stream().map(ZipEntry::getName).toList();
+		}
+
+		List<String> directoryFiles = listFiles(dir.resolve("directory")).stream()
+				.map(file -> dir.resolve("directory").relativize(file).toString().replace('\\', '/'))
+				.sorted()
+				.toList();
+		Assertions.assertEquals(directoryFiles, zipEntries);
+	}
+
+	private static List<Path> listFiles(Path dir) throws Exception {
+		try (Stream<Path> stream = Files.walk(dir)) {
+			return stream.filter(Files::isRegularFile).sorted().toList();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.analysis.index.jar.EntryIndex;
+import org.quiltmc.enigma.api.translation.mapping.EntryChange;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.mapping.MappingSnapshot;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.test.bytecode.SyntheticJar;
+import org.quiltmc.enigma.util.validation.ValidationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestMappingSnapshot {
+	private static final int BATCHES = 50;
+
+	private EntryRemapper remapper;
+	private List<ClassEntry> classes;
+
+	@BeforeEach
+	public void beforeEach() throws Exception {
+		EnigmaProject project = SyntheticJar.openProject(Enigma.create(), 0, 20);
+		project.setMappings(null, ProgressListener.createEmpty());
+		this.remapper = project.getRemapper();
+		this.classes = project.getJarIndex().getIndex(EntryIndex.class).getClasses().stream()
+				.filter(entry -> !entry.isInnerClass())
+				.toList();
+	}
+
+	@Test
+	public void testSnapshotUnchangedByLaterChanges() {
+		ClassEntry entry = this.classes.get(0);
+		MappingSnapshot before = this.remapper.snapshot();
+
+		ValidationContext vc = new ValidationContext(null);
+		this.remapper.putMapping(vc, entry, new EntryMapping("Renamed"));
+		Assertions.assertTrue(vc.canProceed());
+
+		MappingSnapshot after = this.remapper.snapshot();
+		Assertions.assertTrue(after.getVersion() > before.getVersion());
+		Assertions.assertEquals(EntryMapping.OBFUSCATED, before.getMapping(entry));
+		Assertions.assertEquals(entry, before.deobfuscate(entry));
+		Assertions.assertEquals("Renamed", after.getMapping(entry).targetName());
+		Assertions.assertEquals("Renamed", after.deobfuscate(entry).getFullName());
+		Assertions.assertSame(after, this.remapper.snapshot());
+	}
+
+	@Test
+	public void testListenersSeeEveryChange() {
+		List<Set<Entry<?>>> notified = new ArrayList<>();
+		List<MappingSnapshot> snapshots = new ArrayList<>();
+		this.remapper.addChangeListener((snapshot, changed) -> {
+			snapshots.add(snapshot);
+			notified.add(changed);
+		});
+
+		ClassEntry first = this.classes.get(0);
+		ClassEntry second = this.classes.get(1);
+		this.remapper.putMapping(new ValidationContext(null), first, new EntryMapping("First"));
+		this.remapper.applyChanges(new ValidationContext(null), List.of(
+				EntryChange.modify(first).withDeobfName("Renamed"),
+				EntryChange.modify(second).withDeobfName("Second")
+		));
+
+		// failed validation changes nothing
+		this.remapper.applyChanges(new ValidationContext(null), List.of(EntryChange.modify(first).withDeobfName("Not a name")));
+
+		Assertions.assertEquals(List.of(Set.of(first), Set.of(first, second)), notified);
+		Assertions.assertSame(this.remapper.snapshot(), snapshots.get(1));
+	}
+
+	@Test
+	public void testSnapshotsShowWholeBatches() throws Exception {
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread reader = new Thread(() -> {
+			try {
+				while (!done.get()) {
+					MappingSnapshot snapshot = this.remapper.snapshot();
+
+					Set<String> batches = new HashSet<>();
+					for (ClassEntry entry : this.classes) {
+						String name = snapshot.deobfuscate(entry).getFullName();
+						batches.add(name.equals(entry.getFullName()) ? "" : name.substring(0, name.indexOf('_')));
+					}
+
+					Assertions.assertEquals(1, batches.size(), batches::toString);
+				}
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		}, "snapshot reader");
+		reader.start();
+
+		try {
+			for (int batch = 0; batch < BATCHES; batch++) {
+				List<EntryChange<?>> changes = new ArrayList<>();
+				for (ClassEntry entry : this.classes) {
+					changes.add(EntryChange.modify(entry).withDeobfName("Batch" + batch + "_" + changes.size()));
+				}
+
+				ValidationContext vc = new ValidationContext(null);
+				this.remapper.applyChanges(vc, changes);
+				Assertions.assertTrue(vc.canProceed());
+			}
+		} finally {
+			done.set(true);
+			reader.join();
+		}
+
+		if (failure.get() != null) {
+			Assertions.fail(failure.get());
+		}
+
+		Assertions.assertEquals("Batch" + (BATCHES - 1) + "_0", this.remapper.snapshot().deobfuscate(this.classes.get(0)).getFullName());
+	}
+}
@@ -12,6 +12,7 @@ import org.quiltmc.enigma.api.ProgressListener;
 import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
 import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
 import org.quiltmc.enigma.api.translation.mapping.EntryRemapper;
+import org.quiltmc.enigma.api.translation.mapping.MappingValidator;
 import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
 import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
 import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
@@ -133,6 +134,48 @@ public class TestMappingValidator {
 		assertMessages(vc, Message.NON_UNIQUE_NAME_CLASS);
 	}
 
+	@RepeatedTest(value = 2, name = REPEATED_TEST_NAME)
+	public void renamedFieldFreesName() {
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newField("a", "a", "I"), new EntryMapping("field01"));
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newField("a", "a", "I"), new EntryMapping("field02"));
+
+		ValidationContext vc = TestUtil.newVC();
+		remapper.validatePutMapping(vc, TestEntryFactory.newField("a", "b", "I"), new EntryMapping("field01"));
+
+		assertMessages(vc);
+
+		vc = TestUtil.newVC();
+		remapper.validatePutMapping(vc, TestEntryFactory.newField("a", "b", "I"), new EntryMapping("field02"));
+
+		assertMessages(vc, Message.NON_UNIQUE_NAME_CLASS);
+
+		// removing the mapping frees the name as well
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newField("a", "a", "I"), EntryMapping.OBFUSCATED);
+
+		vc = TestUtil.newVC();
+		remapper.validatePutMapping(vc, TestEntryFactory.newField("a", "b", "I"), new EntryMapping("field02"));
+
+		assertMessages(vc);
+	}
+
+	@RepeatedTest(value = 2, name = REPEATED_TEST_NAME)
+	public void standaloneValidatorSeesChangedMappings() {
+		MappingValidator validator = new MappingValidator(remapper.getObfResolver(), remapper.getDeobfuscator(), project.getJarIndex(), project.getMappingsIndex());
+
+		ValidationContext vc = TestUtil.newVC();
+		validator.validateRename(vc, TestEntryFactory.newField("a", "b", "I"), "field01");
+
+		assertMessages(vc);
+
+		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newField("a", "a", "I"), new EntryMapping("field01"));
+		validator.mappingChanged(TestEntryFactory.newField("a", "a", "I"));
+
+		vc = TestUtil.newVC();
+		validator.validateRename(vc, TestEntryFactory.newField("a", "b", "I"), "field01");
+
+		assertMessages(vc, Message.NON_UNIQUE_NAME_CLASS);
+	}
+
 	@RepeatedTest(value = 2, name = REPEATED_TEST_NAME)
 	public void nonUniqueMethods() {
 		remapper.putMapping(TestUtil.newVC(), TestEntryFactory.newMethod("a", "a", "()V"), new EntryMapping("method01"));
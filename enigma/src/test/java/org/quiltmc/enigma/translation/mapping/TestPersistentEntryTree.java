@@ -0,0 +1,143 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.DeltaTrackingTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTreeNode;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.PersistentEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.Entry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestPersistentEntryTree {
+	private static final ClassEntry CLASS = TestEntryFactory.newClass("a");
+	private static final MethodEntry METHOD = TestEntryFactory.newMethod(CLASS, "a", "()V");
+
+	private static List<Entry<?>> createEntries() {
+		List<Entry<?>> entries = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			ClassEntry outer = TestEntryFactory.newClass("c" + i);
+			ClassEntry inner = TestEntryFactory.newClass("c" + i + "$i");
+			MethodEntry method = TestEntryFactory.newMethod(outer, "m", "(I)V");
+
+			entries.add(outer);
+			entries.add(inner);
+			entries.add(method);
+			entries.add(TestEntryFactory.newParameter(method, 1));
+			entries.add(TestEntryFactory.newField(inner, "f", "I"));
+		}
+
+		return entries;
+	}
+
+	private static Map<Entry<?>, EntryMapping> collect(EntryTree<EntryMapping> tree) {
+		Map<Entry<?>, EntryMapping> values = new HashMap<>();
+		for (EntryTreeNode<EntryMapping> node : tree) {
+			if (node.hasValue()) {
+				values.put(node.getEntry(), node.getValue());
+			}
+		}
+
+		return values;
+	}
+
+	private static Set<Entry<?>> collectNodes(EntryTree<EntryMapping> tree) {
+		Set<Entry<?>> nodes = new HashSet<>();
+		tree.forEach(node -> nodes.add(node.getEntry()));
+		return nodes;
+	}
+
+	@Test
+	public void testMatchesHashEntryTree() {
+		List<Entry<?>> entries = createEntries();
+		Random random = new Random(1234);
+
+		EntryTree<EntryMapping> expected = new HashEntryTree<>();
+		PersistentEntryTree<EntryMapping> actual = new PersistentEntryTree<>();
+
+		for (int i = 0; i < 5000; i++) {
+			Entry<?> entry = entries.get(random.nextInt(entries.size()));
+			int operation = random.nextInt(3);
+			if (operation == 0) {
+				assertEquals(expected.remove(entry), actual.remove(entry));
+			} else if (operation == 1) {
+				expected.insert(entry, null);
+				actual.insert(entry, null);
+			} else {
+				EntryMapping mapping = new EntryMapping("n" + random.nextInt(10));
+				expected.insert(entry, mapping);
+				actual.insert(entry, mapping);
+			}
+
+			assertEquals(expected.get(entry), actual.get(entry));
+			assertEquals(expected.isEmpty(), actual.isEmpty());
+			assertEquals(new HashSet<>(expected.getSiblings(entry)), new HashSet<>(actual.getSiblings(entry)));
+		}
+
+		assertEquals(collect(expected), collect(actual));
+		assertEquals(collectNodes(expected), collectNodes(actual));
+	}
+
+	@Test
+	public void testSnapshotIsolation() {
+		PersistentEntryTree<EntryMapping> tree = new PersistentEntryTree<>();
+		tree.insert(CLASS, new EntryMapping("Foo"));
+		tree.insert(METHOD, new EntryMapping("run"));
+
+		EntryTree<EntryMapping> snapshot = tree.snapshot();
+		EntryTree<EntryMapping> copy = new PersistentEntryTree<>(tree);
+
+		tree.insert(METHOD, new EntryMapping("execute"));
+		tree.remove(CLASS);
+		copy.remove(METHOD);
+
+		assertEquals(new EntryMapping("execute"), tree.get(METHOD));
+		assertNull(tree.get(CLASS));
+		assertEquals(new EntryMapping("Foo"), snapshot.get(CLASS));
+		assertEquals(new EntryMapping("run"), snapshot.get(METHOD));
+		assertEquals(new EntryMapping("Foo"), copy.get(CLASS));
+		assertNull(copy.get(METHOD));
+		assertTrue(copy.getChildren(CLASS).isEmpty());
+	}
+
+	@Test
+	public void testRemovesEmptyNodes() {
+		PersistentEntryTree<EntryMapping> tree = new PersistentEntryTree<>();
+		tree.insert(TestEntryFactory.newParameter(METHOD, 1), new EntryMapping("value"));
+		assertFalse(tree.isEmpty());
+		assertNull(tree.get(CLASS));
+
+		tree.insert(TestEntryFactory.newParameter(METHOD, 1), null);
+		assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	public void testDeltaBaseIsSnapshot() {
+		DeltaTrackingTree<EntryMapping> tree = new DeltaTrackingTree<>(new PersistentEntryTree<>());
+		tree.insert(CLASS, new EntryMapping("Foo"));
+
+		EntryTree<EntryMapping> base = tree.takeDelta().getBaseMappings();
+		assertTrue(base.isEmpty());
+
+		tree.insert(METHOD, new EntryMapping("run"));
+		base = tree.takeDelta().getBaseMappings();
+		assertEquals(new EntryMapping("Foo"), base.get(CLASS));
+		assertNull(base.get(METHOD));
+	}
+}
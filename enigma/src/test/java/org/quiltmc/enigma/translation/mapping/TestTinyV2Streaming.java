@@ -0,0 +1,65 @@
+package org.quiltmc.enigma.translation.mapping;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.source.TokenType;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingFileNameFormat;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingParseException;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
+import org.quiltmc.enigma.api.translation.mapping.serde.tinyv2.TinyV2Reader;
+import org.quiltmc.enigma.api.translation.mapping.serde.tinyv2.TinyV2Writer;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TestTinyV2Streaming {
+	private static final MappingSaveParameters PARAMETERS = new MappingSaveParameters(MappingFileNameFormat.BY_DEOBF, false, null, null);
+
+	@Test
+	public void testLongLinesAndCrlf() throws Exception {
+		// longer than the reader's initial buffer
+		String javadoc = "é中😀 ".repeat(50_000);
+		Path file = Files.createTempFile("tinyV2Streaming", ".tiny");
+		Files.writeString(file, "tiny\t2\t0\tobf\tdeobf\r\n"
+				+ "c\ta\tFoo\r\n"
+				+ "\tc\t" + javadoc + "\\twith a tab\r\n"
+				+ "\tm\t()V\tb\tbar\r\n"
+				+ "\t\tp\t1\t\tbaz", StandardCharsets.UTF_8);
+
+		EntryTree<EntryMapping> mappings = TinyV2Reader.INSTANCE.read(file, ProgressListener.createEmpty());
+		MethodEntry method = MethodEntry.parse("a", "b", "()V");
+
+		Assertions.assertEquals("Foo", mappings.get(new ClassEntry("a")).targetName());
+		Assertions.assertEquals(javadoc + "\twith a tab", mappings.get(new ClassEntry("a")).javadoc());
+		Assertions.assertEquals("bar", mappings.get(method).targetName());
+		Assertions.assertEquals(1, mappings.getChildren(method).size());
+	}
+
+	@Test
+	public void testInvalidLine() throws Exception {
+		Path file = Files.createTempFile("tinyV2Streaming", ".tiny");
+		Files.writeString(file, "tiny\t2\t0\tobf\tdeobf\nc\ta\tFoo\n\n");
+
+		MappingParseException exception = Assertions.assertThrows(MappingParseException.class, () -> TinyV2Reader.INSTANCE.read(file, ProgressListener.createEmpty()));
+		Assertions.assertTrue(exception.getMessage().startsWith("Line 3:"), exception.getMessage());
+	}
+
+	@Test
+	public void testEscapedJavadocRoundTrip() throws Exception {
+		String javadoc = "line one\nline two\twith a tab, a \\ backslash and ünicøde 😀";
+		EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+		mappings.insert(new ClassEntry("a"), new EntryMapping("Foo", javadoc, TokenType.DEOBFUSCATED, null));
+
+		Path file = Files.createTempFile("tinyV2Streaming", ".tiny");
+		TinyV2Writer.INSTANCE.write(mappings, file, PARAMETERS);
+
+		Assertions.assertEquals(javadoc, TinyV2Reader.INSTANCE.read(file, ProgressListener.createEmpty()).get(new ClassEntry("a")).javadoc());
+	}
+}
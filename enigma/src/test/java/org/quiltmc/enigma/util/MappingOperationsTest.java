@@ -0,0 +1,65 @@
+package org.quiltmc.enigma.util;
+
+import org.junit.jupiter.api.Test;
+import org.quiltmc.enigma.TestEntryFactory;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class MappingOperationsTest {
+	private static final ClassEntry OBF_CLASS = TestEntryFactory.newClass("a");
+	private static final ClassEntry OBF_INNER_CLASS = TestEntryFactory.newClass("a$b");
+	private static final MethodEntry OBF_METHOD = TestEntryFactory.newMethod(OBF_CLASS, "m", "(La$b;)V");
+	private static final LocalVariableEntry OBF_PARAMETER = TestEntryFactory.newParameter(OBF_METHOD, 1);
+	private static final FieldEntry OBF_FIELD = TestEntryFactory.newField(OBF_CLASS, "f", "La;");
+
+	private static final ClassEntry NAMED_CLASS = TestEntryFactory.newClass("pkg/Foo");
+	private static final ClassEntry NAMED_INNER_CLASS = TestEntryFactory.newClass("pkg/Foo$Bar");
+	private static final MethodEntry NAMED_METHOD = TestEntryFactory.newMethod(NAMED_CLASS, "run", "(Lpkg/Foo$Bar;)V");
+
+	private static EntryTree<EntryMapping> createLeft() {
+		EntryTree<EntryMapping> left = new HashEntryTree<>();
+		left.insert(OBF_CLASS, new EntryMapping("pkg/Foo"));
+		left.insert(OBF_INNER_CLASS, new EntryMapping("Bar"));
+		left.insert(OBF_METHOD, new EntryMapping("run"));
+		left.insert(OBF_PARAMETER, new EntryMapping("value"));
+		left.insert(OBF_FIELD, new EntryMapping("foo"));
+		return left;
+	}
+
+	@Test
+	void testInvert() {
+		EntryTree<EntryMapping> inverted = MappingOperations.invert(createLeft());
+
+		assertEquals(new EntryMapping("a"), inverted.get(NAMED_CLASS));
+		assertEquals(new EntryMapping("b"), inverted.get(NAMED_INNER_CLASS));
+		assertEquals(new EntryMapping("m"), inverted.get(NAMED_METHOD));
+		assertEquals(new EntryMapping("value"), inverted.get(TestEntryFactory.newParameter(NAMED_METHOD, 1)));
+		assertEquals(new EntryMapping("f"), inverted.get(TestEntryFactory.newField(NAMED_CLASS, "foo", "Lpkg/Foo;")));
+	}
+
+	@Test
+	void testCompose() {
+		EntryTree<EntryMapping> right = new HashEntryTree<>();
+		right.insert(NAMED_CLASS, new EntryMapping("net/Foo"));
+		right.insert(NAMED_METHOD, new EntryMapping("execute"));
+		right.insert(TestEntryFactory.newMethod(NAMED_CLASS, "other", "(Lpkg/Foo;)V"), new EntryMapping("other"));
+
+		EntryTree<EntryMapping> composed = MappingOperations.compose(createLeft(), right, false, false);
+		assertEquals(new EntryMapping("net/Foo"), composed.get(OBF_CLASS));
+		assertEquals(new EntryMapping("execute"), composed.get(OBF_METHOD));
+		assertNull(composed.get(OBF_FIELD));
+
+		composed = MappingOperations.compose(createLeft(), right, true, true);
+		assertEquals(new EntryMapping("execute"), composed.get(OBF_METHOD));
+		assertEquals(new EntryMapping("foo"), composed.get(OBF_FIELD));
+		assertEquals(new EntryMapping("other"), composed.get(TestEntryFactory.newMethod(OBF_CLASS, "other", "(La;)V")));
+	}
+}
@@ -0,0 +1,606 @@
+package org.quiltmc.enigma.test.bytecode;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.quiltmc.enigma.api.Enigma;
+import org.quiltmc.enigma.api.EnigmaProject;
+import org.quiltmc.enigma.api.ProgressListener;
+import org.quiltmc.enigma.api.class_provider.ClasspathClassProvider;
+import org.quiltmc.enigma.api.service.ReadWriteService;
+import org.quiltmc.enigma.api.translation.mapping.EntryMapping;
+import org.quiltmc.enigma.api.translation.mapping.MappingDelta;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingFileNameFormat;
+import org.quiltmc.enigma.api.translation.mapping.serde.MappingSaveParameters;
+import org.quiltmc.enigma.api.translation.mapping.tree.EntryTree;
+import org.quiltmc.enigma.api.translation.mapping.tree.HashEntryTree;
+import org.quiltmc.enigma.api.translation.representation.MethodDescriptor;
+import org.quiltmc.enigma.api.translation.representation.TypeDescriptor;
+import org.quiltmc.enigma.api.translation.representation.entry.ClassEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.FieldEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.LocalVariableEntry;
+import org.quiltmc.enigma.api.translation.representation.entry.MethodEntry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * A generated, obfuscated jar with matching mappings, for tests and benchmarks that need a jar of a given size.
+ * The same seed and class count always generate the same jar.
+ *
+ * <p>The jar contains interfaces extending each other, classes extending each other and implementing interfaces
+ * through bridge methods, enums, records, inner and anonymous classes, and lambdas. Class and member names are
+ * obfuscated like ProGuard would, and the mappings name every class, field, method and parameter that a user would.
+ */
+public final class SyntheticJar {
+	private static final String OBJECT = "java/lang/Object";
+	private static final Handle LAMBDA_METAFACTORY = new Handle(Opcodes.H_INVOKESTATIC, "java/lang/invoke/LambdaMetafactory", "metafactory",
+			"(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodHandle;Ljava/lang/invoke/MethodType;)Ljava/lang/invoke/CallSite;", false);
+	private static final Handle OBJECT_METHODS = new Handle(Opcodes.H_INVOKESTATIC, "java/lang/runtime/ObjectMethods", "bootstrap",
+			"(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/TypeDescriptor;Ljava/lang/Class;Ljava/lang/String;[Ljava/lang/invoke/MethodHandle;)Ljava/lang/Object;", false);
+
+	private static Path temporaryDirectory;
+
+	private final List<ClassNode> classes;
+	private final EntryTree<EntryMapping> mappings;
+
+	private SyntheticJar(List<ClassNode> classes, EntryTree<EntryMapping> mappings) {
+		this.classes = classes;
+		this.mappings = mappings;
+	}
+
+	/**
+	 * Generates a jar.
+	 * @param seed the seed for every random choice
+	 * @param classCount the number of top-level classes; inner and anonymous classes are generated in addition to them
+	 * @return the generated jar
+	 */
+	public static SyntheticJar generate(long seed, int classCount) {
+		Generator generator = new Generator(new Random(seed));
+		for (int i = 0; i < classCount; i++) {
+			generator.generateClass(i);
+		}
+
+		return new SyntheticJar(generator.classes, generator.mappings);
+	}
+
+	public List<ClassNode> getClasses() {
+		return this.classes;
+	}
+
+	public EntryTree<EntryMapping> getMappings() {
+		return this.mappings;
+	}
+
+	/**
+	 * Writes the classes to a jar. The jar's bytes only depend on the seed and class count.
+	 */
+	public void writeJar(Path path) throws IOException {
+		List<ClassNode> sorted = new ArrayList<>(this.classes);
+		sorted.sort(Comparator.comparing(node -> node.name));
+
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(path))) {
+			for (ClassNode node : sorted) {
+				ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+				node.accept(writer);
+
+				JarEntry entry = new JarEntry(node.name + ".class");
+				entry.setTime(0);
+				out.putNextEntry(entry);
+				out.write(writer.toByteArray());
+				out.closeEntry();
+			}
+		}
+	}
+
+	/**
+	 * Gets a generated jar written to a temporary file. Each jar is only written once per JVM, and is deleted when it exits.
+	 * @param seed the seed for every random choice
+	 * @param classCount the number of top-level classes
+	 * @return the path of the jar
+	 */
+	public static synchronized Path getTemporaryJar(long seed, int classCount) throws IOException {
+		if (temporaryDirectory == null) {
+			Path directory = Files.createTempDirectory("enigmaSyntheticJar-");
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteRecursively(directory), "Synthetic jar cleanup"));
+			temporaryDirectory = directory;
+		}
+
+		Path jar = temporaryDirectory.resolve(seed + "-" + classCount + ".jar");
+		if (!Files.exists(jar)) {
+			generate(seed, classCount).writeJar(jar);
+		}
+
+		return jar;
+	}
+
+	/**
+	 * Opens a {@linkplain #getTemporaryJar(long, int) temporary generated jar} as a project without libraries.
+	 * @param enigma the enigma instance to open the jar with
+	 * @param seed the seed for every random choice
+	 * @param classCount the number of top-level classes
+	 * @return the opened project, without mappings
+	 */
+	public static EnigmaProject openProject(Enigma enigma, long seed, int classCount) throws IOException {
+		return enigma.openJar(getTemporaryJar(seed, classCount), new ClasspathClassProvider(), ProgressListener.createEmpty());
+	}
+
+	private static void deleteRecursively(Path directory) {
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(path);
+			}
+		} catch (IOException e) {
+			// the directory is temporary anyway
+		}
+	}
+
+	/**
+	 * Writes the mappings in every format that the given enigma instance can write.
+	 * @param directory the directory to write the mappings to, with one file or directory per format
+	 * @return the written mappings, by the service that wrote them
+	 */
+	public Map<ReadWriteService, Path> writeMappings(Enigma enigma, Path directory) throws IOException {
+		MappingSaveParameters parameters = new MappingSaveParameters(MappingFileNameFormat.BY_DEOBF, false, null, null);
+		Map<ReadWriteService, Path> written = new LinkedHashMap<>();
+
+		Files.createDirectories(directory);
+		for (ReadWriteService service : enigma.getReadWriteServices()) {
+			if (!service.supportsWriting()) {
+				continue;
+			}
+
+			String name = "mappings-" + service.getId().replace(':', '-');
+			Path path = service.getFileType().isDirectory()
+					? directory.resolve(name)
+					: directory.resolve(name + "." + service.getFileType().getExtensions().get(0));
+
+			service.write(this.mappings, MappingDelta.added(this.mappings), path, ProgressListener.createEmpty(), parameters);
+			written.put(service, path);
+		}
+
+		return written;
+	}
+
+	private static final class Generator {
+		private final Random random;
+		private final List<ClassNode> classes = new ArrayList<>();
+		private final EntryTree<EntryMapping> mappings = new HashEntryTree<>();
+
+		private final List<String> interfaces = new ArrayList<>();
+		private final Map<String, String> interfaceMethods = new LinkedHashMap<>();
+		private final List<String> superClasses = new ArrayList<>();
+		private final Map<String, Integer> memberNameCounts = new LinkedHashMap<>();
+		private final List<MethodEntry> staticMethods = new ArrayList<>();
+		private final List<String> allClasses = new ArrayList<>();
+
+		Generator(Random random) {
+			this.random = random;
+		}
+
+		/**
+		 * {@return a ProGuard-style name: a, b, ..., z, aa, ab, ...}
+		 */
+		private static String obfName(int index) {
+			StringBuilder name = new StringBuilder();
+			int i = index;
+			do {
+				name.insert(0, (char) ('a' + i % 26));
+				i = i / 26 - 1;
+			} while (i >= 0);
+
+			return name.toString();
+		}
+
+		private static String deobfName(String kind, int index) {
+			return "com/example/pkg" + index / 100 + "/" + kind + index;
+		}
+
+		private <T> T pick(List<T> list) {
+			return list.get(this.random.nextInt(list.size()));
+		}
+
+		private String randomType() {
+			return switch (this.random.nextInt(4)) {
+				case 0 -> "I";
+				case 1 -> "J";
+				case 2 -> "Ljava/lang/String;";
+				default -> this.allClasses.isEmpty() ? "Ljava/lang/Object;" : "L" + this.pick(this.allClasses) + ";";
+			};
+		}
+
+		private void map(ClassEntry entry, String name) {
+			this.mappings.insert(entry, new EntryMapping(name));
+		}
+
+		void generateClass(int index) {
+			String name = obfName(index);
+			int kind = this.random.nextInt(20);
+
+			if (kind < 3) {
+				this.generateInterface(name, index);
+			} else if (kind == 3) {
+				this.generateEnum(name, index);
+			} else if (kind == 4) {
+				this.generateRecord(name, index);
+			} else {
+				this.generateRegularClass(name, index);
+			}
+
+			this.allClasses.add(name);
+		}
+
+		private void generateInterface(String name, int index) {
+			List<String> superInterfaces = new ArrayList<>();
+			for (int i = this.interfaces.isEmpty() ? 0 : this.random.nextInt(3); i > 0; i--) {
+				String superInterface = this.pick(this.interfaces);
+				if (!superInterfaces.contains(superInterface)) {
+					superInterfaces.add(superInterface);
+				}
+			}
+
+			ClassNode node = new ClassNode(Enigma.ASM_VERSION);
+			node.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_INTERFACE | Opcodes.ACC_ABSTRACT, name, null, OBJECT, superInterfaces.toArray(String[]::new));
+
+			// names that are unique across interfaces and can't clash with class members, so that classes can implement several of them
+			String methodName = "i" + this.interfaces.size();
+			node.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, methodName, "()Ljava/lang/Object;", null, null).visitEnd();
+
+			ClassEntry entry = new ClassEntry(name);
+			this.map(entry, deobfName("Interface", index));
+			this.mappings.insert(new MethodEntry(entry, methodName, new MethodDescriptor("()Ljava/lang/Object;")), new EntryMapping("get" + index));
+
+			this.interfaces.add(name);
+			this.interfaceMethods.put(name, methodName);
+			this.classes.add(node);
+		}
+
+		private void generateRegularClass(String name, int index) {
+			String superName = this.superClasses.isEmpty() || this.random.nextInt(3) == 0 ? OBJECT : this.pick(this.superClasses);
+			List<String> implemented = new ArrayList<>();
+			if (!this.interfaces.isEmpty()) {
+				for (int i = this.random.nextInt(3); i > 0; i--) {
+					String implementedInterface = this.pick(this.interfaces);
+					if (!implemented.contains(implementedInterface)) {
+						implemented.add(implementedInterface);
+					}
+				}
+			}
+
+			ClassNode node = new ClassNode(Enigma.ASM_VERSION);
+			node.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, superName, implemented.toArray(String[]::new));
+
+			ClassEntry entry = new ClassEntry(name);
+			this.map(entry, deobfName("Class", index));
+
+			// continue from the superclass' names, so that no member accidentally overrides an inherited one
+			int names = this.memberNameCounts.getOrDefault(superName, 0);
+			List<FieldEntry> fields = new ArrayList<>();
+			for (int i = this.random.nextInt(4) + 1; i > 0; i--) {
+				boolean isStatic = this.random.nextInt(4) == 0;
+				FieldEntry field = new FieldEntry(entry, obfName(names++), new TypeDescriptor(this.randomType()));
+				node.visitField(Opcodes.ACC_PRIVATE | (isStatic ? Opcodes.ACC_STATIC : 0), field.getName(), field.getDesc().toString(), null, null).visitEnd();
+				this.mappings.insert(field, new EntryMapping("field" + fields.size()));
+				if (!isStatic) {
+					fields.add(field);
+				}
+			}
+
+			MethodNode init = new MethodNode(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+			init.visitInsn(Opcodes.RETURN);
+			init.accept(node);
+
+			for (int i = this.random.nextInt(5) + 1; i > 0; i--) {
+				boolean isStatic = this.random.nextInt(3) == 0;
+				String desc = "(" + this.randomType() + this.randomType() + ")" + (this.random.nextBoolean() ? "V" : this.randomType());
+				MethodEntry method = new MethodEntry(entry, obfName(names++), new MethodDescriptor(desc));
+				this.generateMethod(node, method, isStatic, isStatic ? List.of() : fields);
+				this.mappings.insert(method, new EntryMapping("method" + i));
+				this.mapParameters(method, isStatic);
+			}
+
+			MethodEntry helper = new MethodEntry(entry, obfName(names++), new MethodDescriptor("(I)I"));
+			MethodNode helperNode = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, helper.getName(), "(I)I", null, null);
+			helperNode.visitVarInsn(Opcodes.ILOAD, 0);
+			helperNode.visitInsn(Opcodes.IRETURN);
+			helperNode.accept(node);
+			this.mappings.insert(helper, new EntryMapping("helper"));
+			this.mapParameters(helper, true);
+
+			for (String implementedInterface : implemented) {
+				this.generateBridge(node, implementedInterface);
+			}
+
+			if (this.random.nextInt(3) == 0) {
+				this.generateLambda(node, entry, obfName(names++), obfName(names++));
+			}
+
+			if (this.random.nextInt(3) == 0) {
+				this.generateInnerClass(node, entry);
+			}
+
+			if (this.random.nextInt(10) == 0) {
+				this.generateAnonymousClass(node);
+			}
+
+			this.superClasses.add(name);
+			this.memberNameCounts.put(name, names);
+			this.staticMethods.add(helper);
+			this.classes.add(node);
+		}
+
+		private void generateMethod(ClassNode node, MethodEntry method, boolean isStatic, List<FieldEntry> fields) {
+			MethodNode methodNode = new MethodNode((isStatic ? Opcodes.ACC_STATIC : 0) | Opcodes.ACC_PUBLIC, method.getName(), method.getDesc().toString(), null, null);
+
+			if (!this.staticMethods.isEmpty()) {
+				MethodEntry called = this.pick(this.staticMethods);
+				methodNode.visitInsn(Opcodes.ICONST_1);
+				methodNode.visitMethodInsn(Opcodes.INVOKESTATIC, called.getParent().getFullName(), called.getName(), called.getDesc().toString(), false);
+				methodNode.visitInsn(Opcodes.POP);
+			}
+
+			if (!fields.isEmpty()) {
+				FieldEntry field = this.pick(fields);
+				methodNode.visitVarInsn(Opcodes.ALOAD, 0);
+				methodNode.visitFieldInsn(Opcodes.GETFIELD, field.getParent().getFullName(), field.getName(), field.getDesc().toString());
+				methodNode.visitInsn(field.getDesc().getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+			}
+
+			TypeDescriptor returnDesc = method.getDesc().getReturnDesc();
+			if (returnDesc.isVoid()) {
+				methodNode.visitInsn(Opcodes.RETURN);
+			} else if (returnDesc.toString().equals("I")) {
+				methodNode.visitInsn(Opcodes.ICONST_0);
+				methodNode.visitInsn(Opcodes.IRETURN);
+			} else if (returnDesc.toString().equals("J")) {
+				methodNode.visitInsn(Opcodes.LCONST_0);
+				methodNode.visitInsn(Opcodes.LRETURN);
+			} else {
+				methodNode.visitInsn(Opcodes.ACONST_NULL);
+				methodNode.visitInsn(Opcodes.ARETURN);
+			}
+
+			methodNode.accept(node);
+		}
+
+		private void mapParameters(MethodEntry method, boolean isStatic) {
+			int index = isStatic ? 0 : 1;
+			int parameter = 0;
+			for (TypeDescriptor argument : method.getDesc().getArgumentDescs()) {
+				this.mappings.insert(new LocalVariableEntry(method, index, "", true, null), new EntryMapping("param" + parameter++));
+				index += argument.getSize();
+			}
+		}
+
+		/**
+		 * Implements the method of an interface with a covariant return type, like javac does for generic interfaces.
+		 * The implementation is named by the interface method's mapping, through the bridge.
+		 */
+		private void generateBridge(ClassNode node, String implementedInterface) {
+			String methodName = this.interfaceMethods.get(implementedInterface);
+			String specializedDesc = "()L" + node.name + ";";
+
+			MethodNode specialized = new MethodNode(Opcodes.ACC_PUBLIC, methodName, specializedDesc, null, null);
+			specialized.visitVarInsn(Opcodes.ALOAD, 0);
+			specialized.visitInsn(Opcodes.ARETURN);
+			specialized.accept(node);
+
+			MethodNode bridge = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_BRIDGE | Opcodes.ACC_SYNTHETIC, methodName, "()Ljava/lang/Object;", null, null);
+			bridge.visitVarInsn(Opcodes.ALOAD, 0);
+			bridge.visitMethodInsn(Opcodes.INVOKEVIRTUAL, node.name, methodName, specializedDesc, false);
+			bridge.visitInsn(Opcodes.ARETURN);
+			bridge.accept(node);
+		}
+
+		private void generateLambda(ClassNode node, ClassEntry entry, String methodName, String lambdaName) {
+			MethodNode lambda = new MethodNode(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, lambdaName, "()V", null, null);
+			lambda.visitInsn(Opcodes.RETURN);
+			lambda.accept(node);
+
+			MethodNode method = new MethodNode(Opcodes.ACC_PUBLIC, methodName, "()Ljava/lang/Runnable;", null, null);
+			method.visitInvokeDynamicInsn("run", "()Ljava/lang/Runnable;", LAMBDA_METAFACTORY,
+					Type.getMethodType("()V"), new Handle(Opcodes.H_INVOKESTATIC, node.name, lambdaName, "()V", false), Type.getMethodType("()V"));
+			method.visitInsn(Opcodes.ARETURN);
+			method.accept(node);
+
+			this.mappings.insert(new MethodEntry(entry, methodName, new MethodDescriptor("()Ljava/lang/Runnable;")), new EntryMapping("task"));
+		}
+
+		private void generateInnerClass(ClassNode outer, ClassEntry outerEntry) {
+			String name = outer.name + "$a";
+			String outerDesc = "L" + outer.name + ";";
+
+			ClassNode node = new ClassNode(Enigma.ASM_VERSION);
+			node.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, OBJECT, null);
+			node.visitField(Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, "this$0", outerDesc, null, null).visitEnd();
+
+			MethodNode init = new MethodNode(Opcodes.ACC_PUBLIC, "<init>", "(" + outerDesc + ")V", null, null);
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitVarInsn(Opcodes.ALOAD, 1);
+			init.visitFieldInsn(Opcodes.PUTFIELD, name, "this$0", outerDesc);
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+			init.visitInsn(Opcodes.RETURN);
+			init.accept(node);
+
+			ClassEntry entry = new ClassEntry(name);
+			MethodEntry method = new MethodEntry(entry, "a", new MethodDescriptor("()" + outerDesc));
+			MethodNode methodNode = new MethodNode(Opcodes.ACC_PUBLIC, method.getName(), method.getDesc().toString(), null, null);
+			methodNode.visitVarInsn(Opcodes.ALOAD, 0);
+			methodNode.visitFieldInsn(Opcodes.GETFIELD, name, "this$0", outerDesc);
+			methodNode.visitInsn(Opcodes.ARETURN);
+			methodNode.accept(node);
+
+			node.visitInnerClass(name, outer.name, "a", Opcodes.ACC_PUBLIC);
+			outer.visitInnerClass(name, outer.name, "a", Opcodes.ACC_PUBLIC);
+
+			this.map(entry, "Inner");
+			this.mappings.insert(method, new EntryMapping("getOuter"));
+			this.classes.add(node);
+		}
+
+		private void generateAnonymousClass(ClassNode outer) {
+			String name = outer.name + "$1";
+
+			ClassNode node = new ClassNode(Enigma.ASM_VERSION);
+			node.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, name, null, OBJECT, new String[] {"java/lang/Runnable"});
+			node.visitOuterClass(outer.name, null, null);
+
+			MethodNode init = new MethodNode(0, "<init>", "()V", null, null);
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+			init.visitInsn(Opcodes.RETURN);
+			init.accept(node);
+
+			MethodNode run = new MethodNode(Opcodes.ACC_PUBLIC, "run", "()V", null, null);
+			run.visitInsn(Opcodes.RETURN);
+			run.accept(node);
+
+			node.visitInnerClass(name, null, null, 0);
+			outer.visitInnerClass(name, null, null, 0);
+
+			this.classes.add(node);
+		}
+
+		private void generateEnum(String name, int index) {
+			String desc = "L" + name + ";";
+			String arrayDesc = "[" + desc;
+
+			ClassNode node = new ClassNode(Enigma.ASM_VERSION);
+			node.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_ENUM, name, "Ljava/lang/Enum<" + desc + ">;", "java/lang/Enum", null);
+
+			ClassEntry entry = new ClassEntry(name);
+			this.map(entry, deobfName("Enum", index));
+
+			int constants = this.random.nextInt(5) + 1;
+			for (int i = 0; i < constants; i++) {
+				node.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_ENUM, obfName(i), desc, null, null).visitEnd();
+				this.mappings.insert(new FieldEntry(entry, obfName(i), new TypeDescriptor(desc)), new EntryMapping("CONSTANT_" + i));
+			}
+
+			String valuesField = obfName(constants);
+			node.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC, valuesField, arrayDesc, null, null).visitEnd();
+
+			MethodNode values = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "values", "()" + arrayDesc, null, null);
+			values.visitFieldInsn(Opcodes.GETSTATIC, name, valuesField, arrayDesc);
+			values.visitMethodInsn(Opcodes.INVOKEVIRTUAL, arrayDesc, "clone", "()Ljava/lang/Object;", false);
+			values.visitTypeInsn(Opcodes.CHECKCAST, arrayDesc);
+			values.visitInsn(Opcodes.ARETURN);
+			values.accept(node);
+
+			MethodNode valueOf = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "valueOf", "(Ljava/lang/String;)" + desc, null, null);
+			valueOf.visitLdcInsn(Type.getObjectType(name));
+			valueOf.visitVarInsn(Opcodes.ALOAD, 0);
+			valueOf.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Enum", "valueOf", "(Ljava/lang/Class;Ljava/lang/String;)Ljava/lang/Enum;", false);
+			valueOf.visitTypeInsn(Opcodes.CHECKCAST, name);
+			valueOf.visitInsn(Opcodes.ARETURN);
+			valueOf.accept(node);
+
+			MethodNode init = new MethodNode(Opcodes.ACC_PRIVATE, "<init>", "(Ljava/lang/String;I)V", "()V", null);
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitVarInsn(Opcodes.ALOAD, 1);
+			init.visitVarInsn(Opcodes.ILOAD, 2);
+			init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Enum", "<init>", "(Ljava/lang/String;I)V", false);
+			init.visitInsn(Opcodes.RETURN);
+			init.accept(node);
+
+			MethodNode clinit = new MethodNode(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+			for (int i = 0; i < constants; i++) {
+				clinit.visitTypeInsn(Opcodes.NEW, name);
+				clinit.visitInsn(Opcodes.DUP);
+				clinit.visitLdcInsn("CONSTANT_" + i);
+				clinit.visitLdcInsn(i);
+				clinit.visitMethodInsn(Opcodes.INVOKESPECIAL, name, "<init>", "(Ljava/lang/String;I)V", false);
+				clinit.visitFieldInsn(Opcodes.PUTSTATIC, name, obfName(i), desc);
+			}
+
+			clinit.visitLdcInsn(constants);
+			clinit.visitTypeInsn(Opcodes.ANEWARRAY, name);
+			for (int i = 0; i < constants; i++) {
+				clinit.visitInsn(Opcodes.DUP);
+				clinit.visitLdcInsn(i);
+				clinit.visitFieldInsn(Opcodes.GETSTATIC, name, obfName(i), desc);
+				clinit.visitInsn(Opcodes.AASTORE);
+			}
+
+			clinit.visitFieldInsn(Opcodes.PUTSTATIC, name, valuesField, arrayDesc);
+			clinit.visitInsn(Opcodes.RETURN);
+			clinit.accept(node);
+
+			this.classes.add(node);
+		}
+
+		private void generateRecord(String name, int index) {
+			ClassNode node = new ClassNode(Enigma.ASM_VERSION);
+			node.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_RECORD, name, null, "java/lang/Record", null);
+
+			ClassEntry entry = new ClassEntry(name);
+			this.map(entry, deobfName("Record", index));
+
+			List<FieldEntry> components = new ArrayList<>();
+			for (int i = this.random.nextInt(3) + 1; i > 0; i--) {
+				FieldEntry field = new FieldEntry(entry, obfName(components.size()), new TypeDescriptor(this.randomType()));
+				String desc = field.getDesc().toString();
+				node.visitRecordComponent(field.getName(), desc, null).visitEnd();
+				node.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, field.getName(), desc, null, null).visitEnd();
+
+				MethodNode accessor = new MethodNode(Opcodes.ACC_PUBLIC, field.getName(), "()" + desc, null, null);
+				accessor.visitVarInsn(Opcodes.ALOAD, 0);
+				accessor.visitFieldInsn(Opcodes.GETFIELD, name, field.getName(), desc);
+				accessor.visitInsn(Type.getType(desc).getOpcode(Opcodes.IRETURN));
+				accessor.accept(node);
+
+				this.mappings.insert(field, new EntryMapping("component" + components.size()));
+				components.add(field);
+			}
+
+			StringBuilder initDesc = new StringBuilder("(");
+			components.forEach(field -> initDesc.append(field.getDesc()));
+			MethodNode init = new MethodNode(Opcodes.ACC_PUBLIC, "<init>", initDesc.append(")V").toString(), null, null);
+			init.visitVarInsn(Opcodes.ALOAD, 0);
+			init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Record", "<init>", "()V", false);
+			int local = 1;
+			for (FieldEntry field : components) {
+				Type type = Type.getType(field.getDesc().toString());
+				init.visitVarInsn(Opcodes.ALOAD, 0);
+				init.visitVarInsn(type.getOpcode(Opcodes.ILOAD), local);
+				init.visitFieldInsn(Opcodes.PUTFIELD, name, field.getName(), field.getDesc().toString());
+				local += type.getSize();
+			}
+
+			init.visitInsn(Opcodes.RETURN);
+			init.accept(node);
+
+			Object[] bootstrapArguments = new Object[components.size() + 2];
+			bootstrapArguments[0] = Type.getObjectType(name);
+			bootstrapArguments[1] = String.join(";", components.stream().map(FieldEntry::getName).toList());
+			for (int i = 0; i < components.size(); i++) {
+				FieldEntry field = components.get(i);
+				bootstrapArguments[i + 2] = new Handle(Opcodes.H_GETFIELD, name, field.getName(), field.getDesc().toString(), false);
+			}
+
+			MethodNode toString = new MethodNode(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "toString", "()Ljava/lang/String;", null, null);
+			toString.visitVarInsn(Opcodes.ALOAD, 0);
+			toString.visitInvokeDynamicInsn("toString", "(L" + name + ";)Ljava/lang/String;", OBJECT_METHODS, bootstrapArguments);
+			toString.visitInsn(Opcodes.ARETURN);
+			toString.accept(node);
+
+			this.classes.add(node);
+		}
+	}
+}